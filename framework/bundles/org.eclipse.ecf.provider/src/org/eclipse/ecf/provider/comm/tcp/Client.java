@@ -20,6 +20,7 @@ import java.util.*;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.util.ConcurrentFIFOQueue;
 import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.core.util.Trace;
@@ -36,6 +37,12 @@ public final class Client implements ISynchAsynchConnection {
 	// Default maximum cached messages on object stream is 50
 	public static final int DEFAULT_MAX_BUFFER_MSG = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.maxmsgs", "50")); //$NON-NLS-1$ //$NON-NLS-2$
 	public static final int DEFAULT_WAIT_INTERVAL = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.waitinterval", "10")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * If <code>true</code>, the send queue is a lock-free ConcurrentFIFOQueue rather than
+	 * a SimpleFIFOQueue.  Also used by {@link SSLClient}.
+	 * @since 4.9
+	 */
+	public static final boolean DEFAULT_CONCURRENT_QUEUE = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.concurrentQueue", "false")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
 	protected Socket socket;
 	private String addressPort = "-1:<no endpoint>:-1"; //$NON-NLS-1$
 	// Underlying streams
@@ -44,7 +51,7 @@ public final class Client implements ISynchAsynchConnection {
 	// Event handler
 	protected ISynchAsynchEventHandler handler;
 	// Our queue
-	protected SimpleFIFOQueue queue = new SimpleFIFOQueue();
+	protected SimpleFIFOQueue queue = DEFAULT_CONCURRENT_QUEUE ? new ConcurrentFIFOQueue() : new SimpleFIFOQueue();
 	protected int keepAlive = 0;
 	protected Thread sendThread;
 	protected Thread rcvThread;
@@ -214,7 +221,7 @@ public final class Client implements ISynchAsynchConnection {
 			setSocketOptions(s);
 			// Now we've got a connection so set our socket
 			setSocket(s);
-			outputStream = new ObjectOutputStream(s.getOutputStream());
+			outputStream = new ObjectOutputStream(new BufferedOutputStream(s.getOutputStream()));
 			outputStream.flush();
 			inputStream = ProviderPlugin.getDefault().createObjectInputStream(s.getInputStream());
 			debug("connect;" + anURI); //$NON-NLS-1$
@@ -266,10 +273,13 @@ public final class Client implements ISynchAsynchConnection {
 					if (me.isInterrupted() || aMsg == null)
 						break;
 					try {
-						// Actually send message
-						send(aMsg);
+						// Actually send message.  Flush only when no further message is
+						// queued, so that messages queued while sending are written together
+						write(aMsg);
 						// Successful...remove message from queue
 						queue.removeHead();
+						if (queue.isEmpty())
+							flush();
 					} catch (Exception e) {
 						handleException(e);
 						break;
@@ -313,9 +323,16 @@ public final class Client implements ISynchAsynchConnection {
 	private int resetCounter = 0;
 
 	void send(Serializable snd) throws IOException {
+		synchronized (outputStreamLock) {
+			write(snd);
+			flush();
+		}
+	}
+
+	private void write(Serializable snd) throws IOException {
+		// need to synchronize to avoid concurrent access to outputStream
 		synchronized (outputStreamLock) {
 			outputStream.writeObject(snd);
-			outputStream.flush();
 			if (resetCounter > this.maxmsgs) {
 				outputStream.reset();
 				resetCounter = 0;
@@ -324,6 +341,12 @@ public final class Client implements ISynchAsynchConnection {
 		}
 	}
 
+	private void flush() throws IOException {
+		synchronized (outputStreamLock) {
+			outputStream.flush();
+		}
+	}
+
 	private void handlePingResp() {
 		synchronized (pingLock) {
 			waitForPing = false;
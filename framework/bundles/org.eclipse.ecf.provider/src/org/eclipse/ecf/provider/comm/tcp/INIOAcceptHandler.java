@@ -0,0 +1,24 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.provider.comm.tcp;
+
+/**
+ * Handler for connect requests received by an {@link NIOServer}.  Implementations
+ * must set the event handler for the client, handle the request and reply via
+ * {@link NIOClient#sendConnectResult(ConnectResultMessage)}.
+ * @since 4.9
+ */
+public interface INIOAcceptHandler {
+	public void handleAccept(NIOClient client, ConnectRequestMessage request) throws Exception;
+}
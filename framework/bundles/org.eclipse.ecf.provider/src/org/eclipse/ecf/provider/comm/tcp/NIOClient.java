@@ -0,0 +1,626 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.util.ECFException;
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+import org.eclipse.ecf.provider.comm.*;
+
+/**
+ * Selector based {@link ISynchAsynchConnection}.  Unlike {@link Client}, an
+ * NIOClient owns no threads.  Reads, writes and keep alive checks for all NIOClients
+ * are done by a small fixed set of selector threads, and messages are exchanged
+ * as length-prefixed frames rather than through object streams.  The data
+ * delivered to the {@link ISynchAsynchEventHandler} is the same as for {@link Client},
+ * so containers work with either.  Both ends of a connection must use NIOClient,
+ * which is selected by using the {@link #PROTOCOL} scheme for the server ID.
+ * @since 4.9
+ */
+public final class NIOClient implements ISynchAsynchConnection {
+	public static final String PROTOCOL = "ecfnio"; //$NON-NLS-1$
+
+	// Frame types
+	static final byte CONNECT_REQUEST = 1;
+	static final byte CONNECT_RESULT = 2;
+	static final byte ASYNCH = 3;
+	static final byte ASYNCH_OBJECT = 4;
+	static final byte SYNCH = 5;
+	static final byte SYNCH_OBJECT = 6;
+	static final byte PING = 7;
+	static final byte PING_RESPONSE = 8;
+
+	// Maximum number of buffers handed to a single gathering write
+	private static final int MAX_GATHER = 64;
+	// Maximum number of reads for a channel before other channels get a turn
+	private static final int MAX_READS_PER_SELECT = 16;
+
+	private volatile SocketChannel channel;
+	private String addressPort = "-1:<no endpoint>:-1"; //$NON-NLS-1$
+	private volatile NIOSelectorLoop loop;
+	// Only accessed on selector thread
+	private SelectionKey key;
+	// Non-null for connections accepted by an NIOServer
+	private final NIOServer server;
+	private ISynchAsynchEventHandler handler;
+	private ID containerID = null;
+	private final int keepAlive;
+	private long closeTimeout = Client.DEFAULT_CLOSE_TIMEOUT;
+	private Map properties;
+
+	private final NIOFrameDecoder decoder = new NIOFrameDecoder(NIOFrameDecoder.DEFAULT_MAX_FRAME_LENGTH);
+	private final ConcurrentLinkedQueue<ByteBuffer[]> writeQueue = new ConcurrentLinkedQueue<ByteBuffer[]>();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	// Only accessed on selector thread
+	private final List<ByteBuffer> pendingWrites = new ArrayList<ByteBuffer>();
+	private final Object outputLock = new Object();
+
+	private volatile boolean isClosing = false;
+	private volatile boolean started = false;
+	private volatile boolean closed = false;
+	boolean disconnectHandled = false;
+	private final Object disconnectLock = new Object();
+
+	// Keep alive state, only accessed on selector thread
+	private long lastReceived;
+	private long pingSent;
+	private boolean waitForPing = false;
+
+	private final Runnable flushTask = new Runnable() {
+		public void run() {
+			flush();
+		}
+	};
+
+	private final NIOSelectorLoop.SelectionHandler selectionHandler = new NIOSelectorLoop.SelectionHandler() {
+		public void handleSelection(SelectionKey k) throws IOException {
+			if (k.isReadable())
+				read();
+			if (k.isValid() && k.isWritable())
+				flush();
+		}
+
+		public void handleIdle(long now) {
+			checkKeepAlive(now);
+		}
+
+		public void handleException(Throwable t) {
+			NIOClient.this.handleException(t);
+		}
+	};
+
+	public NIOClient(ISynchAsynchEventHandler handler, int keepAlive) {
+		if (handler == null)
+			throw new NullPointerException("event handler cannot be null"); //$NON-NLS-1$
+		this.server = null;
+		this.handler = handler;
+		this.keepAlive = keepAlive;
+		containerID = handler.getEventHandlerID();
+		this.properties = new HashMap();
+	}
+
+	NIOClient(NIOServer server, SocketChannel channel, NIOSelectorLoop loop, int keepAlive) {
+		this.server = server;
+		this.keepAlive = keepAlive;
+		this.loop = loop;
+		this.properties = new Properties();
+		setChannel(channel);
+		lastReceived = System.currentTimeMillis();
+	}
+
+	private String getHostNameForAddressWithoutLookup(InetAddress inetAddress) {
+		// See Client.getHostNameForAddressWithoutLookup
+		String inetAddressStr = inetAddress.toString();
+		int slashPos = inetAddressStr.indexOf('/');
+		if (slashPos == 0)
+			return inetAddressStr.substring(1);
+		return inetAddressStr.substring(0, slashPos);
+	}
+
+	private void setChannel(SocketChannel c) {
+		channel = c;
+		if (c != null) {
+			Socket s = c.socket();
+			addressPort = s.getLocalPort() + ":" //$NON-NLS-1$
+					+ getHostNameForAddressWithoutLookup(s.getInetAddress()) + ":" + s.getPort(); //$NON-NLS-1$
+		} else
+			addressPort = "-1:<no endpoint>:-1"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Set the event handler for a connection accepted by an {@link NIOServer}.
+	 * Must be called before {@link #start()}.
+	 * @param h the event handler.  Must not be <code>null</code>.
+	 */
+	public synchronized void setEventHandler(ISynchAsynchEventHandler h) {
+		if (h == null)
+			throw new NullPointerException("event handler cannot be null"); //$NON-NLS-1$
+		this.handler = h;
+		this.containerID = h.getEventHandlerID();
+	}
+
+	/**
+	 * @return Socket the socket for this connection.  May be <code>null</code> if not connected.
+	 */
+	public synchronized Socket getSocket() {
+		return (channel == null) ? null : channel.socket();
+	}
+
+	public synchronized ID getLocalID() {
+		if (containerID != null)
+			return containerID;
+		if (channel == null)
+			return null;
+		Socket s = channel.socket();
+		try {
+			return IDFactory.getDefault().createStringID(PROTOCOL + "://" + getHostNameForAddressWithoutLookup(s.getLocalAddress()) //$NON-NLS-1$
+					+ ":" + s.getLocalPort()); //$NON-NLS-1$
+		} catch (final Exception e) {
+			traceStack("Exception in getLocalID()", e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	public void removeListener(IConnectionListener l) {
+		// XXX does not support listeners
+	}
+
+	public void addListener(IConnectionListener l) {
+		// XXX does not support listeners
+	}
+
+	public boolean isConnected() {
+		SocketChannel c = channel;
+		return !closed && c != null && c.isConnected();
+	}
+
+	public boolean isStarted() {
+		return started && !closed;
+	}
+
+	public void setCloseTimeout(long t) {
+		closeTimeout = t;
+	}
+
+	protected URI parseRemoteID(ID remote) throws ECFException {
+		try {
+			return new URI(remote.getName());
+		} catch (final URISyntaxException e) {
+			throw new ECFException("Invalid URI for remoteID=" + remote, e); //$NON-NLS-1$
+		}
+	}
+
+	public synchronized Object connect(ID remote, Object data, int timeout) throws ECFException {
+		debug("connect(" + remote + "," + data + "," + timeout + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		if (channel != null)
+			throw new ECFException("Already connected"); //$NON-NLS-1$
+		if (remote == null)
+			throw new ECFException("remote cannot be null"); //$NON-NLS-1$
+		final URI anURI = parseRemoteID(remote);
+		ConnectResultMessage res = null;
+		SocketChannel c = null;
+		try {
+			c = SocketChannel.open();
+			final Socket s = c.socket();
+			s.setTcpNoDelay(true);
+			if (keepAlive > 0)
+				s.setKeepAlive(true);
+			s.connect(new InetSocketAddress(anURI.getHost(), anURI.getPort()), timeout);
+			setChannel(c);
+			debug("connect;" + anURI); //$NON-NLS-1$
+			// The handshake is done in blocking mode on the calling thread
+			final ByteBuffer[] request = encodeFrame(CONNECT_REQUEST, serialize(new ConnectRequestMessage(anURI, (Serializable) data)));
+			for (int i = 0; i < request.length; i++)
+				while (request[i].hasRemaining())
+					c.write(request[i]);
+			s.setSoTimeout(timeout);
+			res = readConnectResult(s);
+			s.setSoTimeout(0);
+			c.configureBlocking(false);
+			loop = NIOSelectorLoopGroup.getDefault().next();
+		} catch (final IOException e) {
+			if (c != null) {
+				try {
+					c.close();
+				} catch (final IOException e1) {
+					traceStack("connect close", e1); //$NON-NLS-1$
+				}
+			}
+			setChannel(null);
+			throw new ECFException("Exception during connection to " + remote.getName(), e); //$NON-NLS-1$
+		}
+		debug("connect;rcv:" + res); //$NON-NLS-1$
+		final Object ret = res.getData();
+		debug("connect;returning:" + ret); //$NON-NLS-1$
+		return ret;
+	}
+
+	private ConnectResultMessage readConnectResult(Socket s) throws IOException {
+		// Not buffered, so that nothing past the result frame is consumed
+		final DataInputStream ins = new DataInputStream(s.getInputStream());
+		final int length = ins.readInt();
+		final byte type = ins.readByte();
+		if (type != CONNECT_RESULT || length < 0 || length > NIOFrameDecoder.DEFAULT_MAX_FRAME_LENGTH)
+			throw new StreamCorruptedException("Invalid connect response"); //$NON-NLS-1$
+		final byte[] payload = new byte[length];
+		ins.readFully(payload);
+		final Serializable result = readObject(payload);
+		if (!(result instanceof ConnectResultMessage))
+			throw new InvalidObjectException("Invalid connect response " + result); //$NON-NLS-1$
+		return (ConnectResultMessage) result;
+	}
+
+	public synchronized void start() {
+		debug("start()"); //$NON-NLS-1$
+		if (started || closed || loop == null)
+			return;
+		started = true;
+		loop.execute(new Runnable() {
+			public void run() {
+				try {
+					if (key == null) {
+						key = loop.register(channel, SelectionKey.OP_READ, selectionHandler);
+						lastReceived = System.currentTimeMillis();
+						// Anything queued before registration can now be written
+						if (!writeQueue.isEmpty() && flushScheduled.compareAndSet(false, true))
+							flush();
+					} else if (key.isValid())
+						key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+				} catch (IOException e) {
+					handleException(e);
+				}
+			}
+		});
+	}
+
+	public void stop() {
+		debug("stop()"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Called on selector thread for connections accepted by NIOServer
+	 */
+	void registerAccepted() throws IOException {
+		key = loop.register(channel, SelectionKey.OP_READ, selectionHandler);
+	}
+
+	public synchronized void disconnect() {
+		debug("disconnect()"); //$NON-NLS-1$
+		closed = true;
+		closeChannel();
+		// As with Client, the event handler is notified of the disconnect asynchronously
+		if (loop != null) {
+			loop.execute(new Runnable() {
+				public void run() {
+					handleException(null);
+				}
+			});
+		}
+		notifyAll();
+	}
+
+	private void closeChannel() {
+		try {
+			if (channel != null)
+				channel.close();
+		} catch (final IOException e) {
+			traceStack("closeChannel Exception", e); //$NON-NLS-1$
+		}
+	}
+
+	void handleException(Throwable e) {
+		closed = true;
+		closeChannel();
+		synchronized (disconnectLock) {
+			if (!disconnectHandled) {
+				disconnectHandled = true;
+				if (e != null)
+					traceStack("handleException in thread=" //$NON-NLS-1$
+							+ Thread.currentThread().getName(), e);
+				// Connections that have not completed the connect handshake have no handler
+				if (handler != null)
+					handler.handleDisconnectEvent(new DisconnectEvent(this, e, null));
+			}
+		}
+		synchronized (NIOClient.this) {
+			NIOClient.this.notifyAll();
+		}
+	}
+
+	public void sendAsynch(ID recipient, byte[] obj) throws IOException {
+		queueFrame(encodeFrame(ASYNCH, obj));
+	}
+
+	public void sendAsynch(ID recipient, Object obj) throws IOException {
+		queueObject(recipient, (Serializable) obj);
+	}
+
+	public void queueObject(ID recipient, Serializable obj) throws IOException {
+		if (obj instanceof byte[])
+			queueFrame(encodeFrame(ASYNCH, (byte[]) obj));
+		else
+			queueFrame(encodeFrame(ASYNCH_OBJECT, serialize(obj)));
+	}
+
+	public synchronized Serializable sendObject(ID recipient, Serializable obj) throws IOException {
+		if (loop == null || closed || isClosing)
+			throw new ConnectException("Not connected"); //$NON-NLS-1$
+		sendClose((obj instanceof byte[]) ? encodeFrame(SYNCH, (byte[]) obj) : encodeFrame(SYNCH_OBJECT, serialize(obj)));
+		return null;
+	}
+
+	public Object sendSynch(ID rec, Object obj) throws IOException {
+		return sendObject(rec, (Serializable) obj);
+	}
+
+	public Object sendSynch(ID rec, byte[] obj) throws IOException {
+		return sendObject(rec, obj);
+	}
+
+	private void sendClose(ByteBuffer[] frame) {
+		isClosing = true;
+		debug("sendClose()"); //$NON-NLS-1$
+		writeFrame(frame);
+		// Waiting on a selector thread would prevent the disconnect from being seen
+		if (loop.inEventLoop())
+			return;
+		int count = 0;
+		final int interval = Client.DEFAULT_WAIT_INTERVAL;
+		while (!disconnectHandled && count < interval) {
+			try {
+				wait(closeTimeout / interval);
+				count++;
+			} catch (final InterruptedException e) {
+				traceStack("sendClose wait", e); //$NON-NLS-1$
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Send the connect handshake response for a connection accepted by an
+	 * {@link NIOServer}.  This is queued ahead of any messages sent by
+	 * other threads as long as the caller holds {@link #getOutputStreamLock()}.
+	 * @param result the connect result.  Must not be <code>null</code>.
+	 * @throws IOException if the result cannot be serialized
+	 */
+	public void sendConnectResult(ConnectResultMessage result) throws IOException {
+		writeFrame(encodeFrame(CONNECT_RESULT, serialize(result)));
+	}
+
+	/**
+	 * @return Object the lock held while queueing messages for sending
+	 */
+	public Object getOutputStreamLock() {
+		return outputLock;
+	}
+
+	private void queueFrame(ByteBuffer[] frame) throws IOException {
+		synchronized (outputLock) {
+			if (loop == null || closed || isClosing)
+				throw new ConnectException("Not connected"); //$NON-NLS-1$
+			writeQueue.add(frame);
+		}
+		scheduleFlush();
+	}
+
+	private void writeFrame(ByteBuffer[] frame) {
+		synchronized (outputLock) {
+			writeQueue.add(frame);
+		}
+		scheduleFlush();
+	}
+
+	private void scheduleFlush() {
+		if (flushScheduled.compareAndSet(false, true))
+			loop.execute(flushTask);
+	}
+
+	/**
+	 * Write as much of the queued data as the socket will accept.  Called on selector thread.
+	 */
+	void flush() {
+		if (key == null || !key.isValid()) {
+			// Not registered yet (start will flush) or already closed
+			flushScheduled.set(false);
+			return;
+		}
+		try {
+			for (;;) {
+				ByteBuffer[] frame;
+				while (pendingWrites.size() < MAX_GATHER && (frame = writeQueue.poll()) != null)
+					for (int i = 0; i < frame.length; i++)
+						pendingWrites.add(frame[i]);
+				if (pendingWrites.isEmpty()) {
+					setInterest(SelectionKey.OP_WRITE, false);
+					flushScheduled.set(false);
+					// Recheck for frames queued after the queue was drained
+					if (writeQueue.isEmpty() || !flushScheduled.compareAndSet(false, true))
+						return;
+					continue;
+				}
+				channel.write(pendingWrites.toArray(new ByteBuffer[pendingWrites.size()]));
+				while (!pendingWrites.isEmpty() && !pendingWrites.get(0).hasRemaining())
+					pendingWrites.remove(0);
+				if (!pendingWrites.isEmpty()) {
+					// Socket send buffer is full, continue when writable
+					setInterest(SelectionKey.OP_WRITE, true);
+					return;
+				}
+			}
+		} catch (IOException e) {
+			handleException(e);
+		}
+	}
+
+	private void setInterest(int op, boolean on) {
+		if (key == null || !key.isValid())
+			return;
+		final int ops = key.interestOps();
+		key.interestOps(on ? (ops | op) : (ops & ~op));
+	}
+
+	/**
+	 * Read and dispatch all available frames.  Called on selector thread.
+	 */
+	private void read() throws IOException {
+		final ByteBuffer buf = loop.getReadBuffer();
+		for (int i = 0; i < MAX_READS_PER_SELECT; i++) {
+			buf.clear();
+			final int count = channel.read(buf);
+			if (count < 0)
+				throw new EOFException(getAddressPort() + " closed by remote"); //$NON-NLS-1$
+			if (count == 0)
+				return;
+			lastReceived = System.currentTimeMillis();
+			buf.flip();
+			while (buf.hasRemaining())
+				if (decoder.decode(buf))
+					handleFrame(decoder.getType(), decoder.getPayload());
+			// Stop if the handler disconnected us or reading was suspended for connect handling
+			if (count < buf.capacity() || !key.isValid() || (key.interestOps() & SelectionKey.OP_READ) == 0)
+				return;
+		}
+	}
+
+	private void handleFrame(byte type, byte[] payload) throws IOException {
+		switch (type) {
+			case ASYNCH :
+				getHandler().handleAsynchEvent(new AsynchEvent(this, payload));
+				break;
+			case ASYNCH_OBJECT :
+				getHandler().handleAsynchEvent(new AsynchEvent(this, readObject(payload)));
+				break;
+			case SYNCH :
+				getHandler().handleSynchEvent(new SynchEvent(this, payload));
+				break;
+			case SYNCH_OBJECT :
+				getHandler().handleSynchEvent(new SynchEvent(this, readObject(payload)));
+				break;
+			case PING :
+				writeFrame(encodeFrame(PING_RESPONSE, null));
+				break;
+			case PING_RESPONSE :
+				waitForPing = false;
+				break;
+			case CONNECT_REQUEST :
+				if (server == null || handler != null)
+					throw new IOException("Unexpected connect request"); //$NON-NLS-1$
+				final Serializable request = readObject(payload);
+				if (!(request instanceof ConnectRequestMessage))
+					throw new InvalidObjectException(NIOServer.INVALID_CONNECT + " " + request); //$NON-NLS-1$
+				// Nothing more is read until the connection is started
+				setInterest(SelectionKey.OP_READ, false);
+				server.handleConnectRequest(this, (ConnectRequestMessage) request);
+				break;
+			default :
+				throw new IOException("Invalid message received"); //$NON-NLS-1$
+		}
+	}
+
+	private ISynchAsynchEventHandler getHandler() throws IOException {
+		if (handler == null)
+			throw new IOException("Message received before connect"); //$NON-NLS-1$
+		return handler;
+	}
+
+	/**
+	 * Send ping if nothing has been received for half the keep alive interval, and
+	 * disconnect if a ping has not been answered.  Called on selector thread.
+	 */
+	void checkKeepAlive(long now) {
+		if (keepAlive <= 0)
+			return;
+		if (!started) {
+			// Drop accepted connections that never complete the connect handshake
+			if (server != null && now - lastReceived >= keepAlive)
+				handleException(new IOException(getAddressPort() + " connect request not received")); //$NON-NLS-1$
+			return;
+		}
+		final int frequency = keepAlive / 2;
+		if (waitForPing) {
+			if (now - pingSent >= frequency)
+				handleException(new IOException(getAddressPort() + " remote not reachable by ping")); //$NON-NLS-1$
+		} else if (now - lastReceived >= frequency) {
+			waitForPing = true;
+			pingSent = now;
+			writeFrame(encodeFrame(PING, null));
+		}
+	}
+
+	static ByteBuffer[] encodeFrame(byte type, byte[] payload) {
+		if (payload == null || payload.length == 0)
+			return new ByteBuffer[] {NIOFrameDecoder.encodeHeader(type, 0)};
+		return new ByteBuffer[] {NIOFrameDecoder.encodeHeader(type, payload.length), ByteBuffer.wrap(payload)};
+	}
+
+	static byte[] serialize(Serializable obj) throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(obj);
+		oos.close();
+		return bos.toByteArray();
+	}
+
+	static Serializable readObject(byte[] bytes) throws IOException {
+		final ObjectInputStream ois = ProviderPlugin.getDefault().createObjectInputStream(new ByteArrayInputStream(bytes));
+		try {
+			return (Serializable) ois.readObject();
+		} catch (final ClassNotFoundException e) {
+			final IOException except = new IOException("Protocol violation due to class load failure"); //$NON-NLS-1$
+			except.setStackTrace(e.getStackTrace());
+			throw except;
+		}
+	}
+
+	public Map getProperties() {
+		return properties;
+	}
+
+	public void setProperties(Map props) {
+		this.properties = props;
+	}
+
+	public Object getAdapter(Class clazz) {
+		return null;
+	}
+
+	String getAddressPort() {
+		return addressPort;
+	}
+
+	public String toString() {
+		StringBuffer buf = new StringBuffer("NIOClient["); //$NON-NLS-1$
+		buf.append(getAddressPort()).append("]"); //$NON-NLS-1$
+		return buf.toString();
+	}
+
+	protected void debug(String msg) {
+		Trace.trace(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.CONNECTION, getLocalID() + "." + msg); //$NON-NLS-1$
+	}
+
+	protected void traceStack(String msg, Throwable e) {
+		Trace.catching(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.EXCEPTIONS_CATCHING, NIOClient.class, msg, e);
+	}
+}
@@ -0,0 +1,93 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental decoder for the length-prefixed frames used by {@link NIOClient}.
+ * A frame is a four byte payload length, a one byte frame type and the payload.
+ * The decoder is fed whatever bytes are available and reports when a complete
+ * frame has been assembled.
+ */
+final class NIOFrameDecoder {
+
+	static final int HEADER_LENGTH = 5;
+
+	public static final int DEFAULT_MAX_FRAME_LENGTH = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.maxframelength", String.valueOf(64 * 1024 * 1024))); //$NON-NLS-1$
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+	private final int maxFrameLength;
+	private byte type;
+	private byte[] payload;
+	private int payloadPosition;
+
+	NIOFrameDecoder(int maxFrameLength) {
+		this.maxFrameLength = maxFrameLength;
+	}
+
+	static ByteBuffer encodeHeader(byte type, int payloadLength) {
+		ByteBuffer buf = ByteBuffer.allocate(HEADER_LENGTH);
+		buf.putInt(payloadLength);
+		buf.put(type);
+		buf.flip();
+		return buf;
+	}
+
+	/**
+	 * @param in buffer to consume bytes from
+	 * @return <code>true</code> if a complete frame is available via
+	 * {@link #getType()} and {@link #getPayload()}, <code>false</code> if more
+	 * input is needed
+	 * @throws IOException if the frame length is invalid
+	 */
+	boolean decode(ByteBuffer in) throws IOException {
+		if (payload == null) {
+			while (header.hasRemaining() && in.hasRemaining())
+				header.put(in.get());
+			if (header.hasRemaining())
+				return false;
+			header.flip();
+			int length = header.getInt();
+			type = header.get();
+			header.clear();
+			if (length < 0 || length > maxFrameLength)
+				throw new StreamCorruptedException("Invalid frame length=" + length); //$NON-NLS-1$
+			payload = (length == 0) ? EMPTY : new byte[length];
+			payloadPosition = 0;
+		}
+		int count = Math.min(in.remaining(), payload.length - payloadPosition);
+		in.get(payload, payloadPosition, count);
+		payloadPosition += count;
+		return payloadPosition == payload.length;
+	}
+
+	byte getType() {
+		return type;
+	}
+
+	/**
+	 * Return the payload of the completed frame and reset the decoder for the
+	 * next frame.
+	 * @return byte[] the frame payload.  Will not be <code>null</code>.
+	 */
+	byte[] getPayload() {
+		byte[] result = payload;
+		payload = null;
+		return result;
+	}
+}
@@ -0,0 +1,143 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+
+/**
+ * Single threaded selector event loop.  All registrations, interest changes and
+ * channel I/O for the channels registered with a loop happen on the loop's thread.
+ * Other threads hand work to the loop via {@link #execute(Runnable)}.
+ */
+final class NIOSelectorLoop implements Runnable {
+
+	/**
+	 * Attachment for every key registered with a loop.  All methods are called
+	 * on the loop thread.
+	 */
+	interface SelectionHandler {
+		void handleSelection(SelectionKey key) throws IOException;
+
+		void handleIdle(long now);
+
+		void handleException(Throwable t);
+	}
+
+	// Interval for select timeouts and idle (keep alive) checks
+	static final long IDLE_CHECK_INTERVAL = 1000;
+
+	private final Selector selector;
+	private final Thread thread;
+	private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+	private final AtomicBoolean wakeupPending = new AtomicBoolean();
+	// Shared by all channels on this loop, as reads are only done by loop thread
+	private final ByteBuffer readBuffer;
+	private long lastIdleCheck = System.currentTimeMillis();
+
+	NIOSelectorLoop(String name, int readBufferSize) throws IOException {
+		selector = Selector.open();
+		readBuffer = ByteBuffer.allocateDirect(readBufferSize);
+		thread = new Thread(this, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	boolean inEventLoop() {
+		return Thread.currentThread() == thread;
+	}
+
+	ByteBuffer getReadBuffer() {
+		return readBuffer;
+	}
+
+	void execute(Runnable task) {
+		tasks.add(task);
+		if (!inEventLoop() && wakeupPending.compareAndSet(false, true))
+			selector.wakeup();
+	}
+
+	/**
+	 * Register a non-blocking channel with this loop's selector.  Must be called
+	 * on the loop thread.
+	 */
+	SelectionKey register(SelectableChannel channel, int ops, SelectionHandler handler) throws ClosedChannelException {
+		return channel.register(selector, ops, handler);
+	}
+
+	public void run() {
+		for (;;) {
+			try {
+				// Tasks queued by the loop thread itself do not wake up the selector
+				if (tasks.isEmpty())
+					selector.select(IDLE_CHECK_INTERVAL);
+				else
+					selector.selectNow();
+				wakeupPending.set(false);
+				runTasks();
+				processSelectedKeys();
+				checkIdle();
+			} catch (Throwable t) {
+				traceStack("Exception in selector loop " + thread.getName(), t); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null) {
+			try {
+				task.run();
+			} catch (Throwable t) {
+				traceStack("Exception in selector loop task", t); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private void processSelectedKeys() {
+		for (Iterator i = selector.selectedKeys().iterator(); i.hasNext();) {
+			SelectionKey key = (SelectionKey) i.next();
+			i.remove();
+			SelectionHandler handler = (SelectionHandler) key.attachment();
+			try {
+				if (key.isValid())
+					handler.handleSelection(key);
+			} catch (Throwable t) {
+				handler.handleException(t);
+			}
+		}
+	}
+
+	private void checkIdle() {
+		long now = System.currentTimeMillis();
+		if (now - lastIdleCheck < IDLE_CHECK_INTERVAL)
+			return;
+		lastIdleCheck = now;
+		for (Iterator i = selector.keys().iterator(); i.hasNext();) {
+			SelectionKey key = (SelectionKey) i.next();
+			if (key.isValid())
+				((SelectionHandler) key.attachment()).handleIdle(now);
+		}
+	}
+
+	private void traceStack(String msg, Throwable e) {
+		Trace.catching(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.EXCEPTIONS_CATCHING, NIOSelectorLoop.class, msg, e);
+	}
+}
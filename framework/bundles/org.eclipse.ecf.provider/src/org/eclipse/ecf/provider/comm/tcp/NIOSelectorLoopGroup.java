@@ -0,0 +1,47 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed size set of {@link NIOSelectorLoop}s shared by all NIO connections in
+ * the process.  Channels are assigned to loops round robin.
+ */
+final class NIOSelectorLoopGroup {
+
+	public static final int DEFAULT_SELECTORS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.selectors", String.valueOf(Runtime.getRuntime().availableProcessors()))); //$NON-NLS-1$
+	public static final int DEFAULT_READ_BUFFER_SIZE = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.readbuffersize", "65536")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static NIOSelectorLoopGroup defaultGroup;
+
+	static synchronized NIOSelectorLoopGroup getDefault() throws IOException {
+		if (defaultGroup == null)
+			defaultGroup = new NIOSelectorLoopGroup("ecf.nio", Math.max(1, DEFAULT_SELECTORS), DEFAULT_READ_BUFFER_SIZE); //$NON-NLS-1$
+		return defaultGroup;
+	}
+
+	private final NIOSelectorLoop[] loops;
+	private final AtomicInteger index = new AtomicInteger();
+
+	NIOSelectorLoopGroup(String name, int count, int readBufferSize) throws IOException {
+		loops = new NIOSelectorLoop[count];
+		for (int i = 0; i < count; i++)
+			loops[i] = new NIOSelectorLoop(name + ":selector:" + i, readBufferSize); //$NON-NLS-1$
+	}
+
+	NIOSelectorLoop next() {
+		return loops[(index.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+	}
+}
@@ -0,0 +1,173 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.*;
+import java.util.concurrent.*;
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+
+/**
+ * Selector based counterpart of {@link Server}.  Accepted connections are
+ * {@link NIOClient}s serviced by the shared selector threads, so the number of
+ * threads used does not grow with the number of connected clients.  Connect requests
+ * are handed to the {@link INIOAcceptHandler} on a small fixed pool of threads, so
+ * that slow connect policies do not hold up the selector threads.
+ * @since 4.9
+ */
+public class NIOServer {
+
+	public static final int DEFAULT_BACKLOG = Server.DEFAULT_BACKLOG;
+
+	public static final int DEFAULT_CONNECT_THREADS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.nio.connectthreads", "2")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	static final String INVALID_CONNECT = "Invalid connect request."; //$NON-NLS-1$
+
+	private final ServerSocketChannel serverChannel;
+	private final NIOSelectorLoopGroup loops;
+	private final ExecutorService connectExecutor;
+	private final int keepAlive;
+	private volatile INIOAcceptHandler acceptHandler;
+
+	protected void debug(String msg) {
+		Trace.trace(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.CONNECTION, msg);
+	}
+
+	protected void traceStack(String msg, Throwable e) {
+		Trace.catching(ProviderPlugin.PLUGIN_ID, ECFProviderDebugOptions.EXCEPTIONS_CATCHING, NIOServer.class, msg, e);
+	}
+
+	/**
+	 * @param port port
+	 * @param backlog backlog
+	 * @param bindAddress a bindAddress.  May be <code>null</code> to bind to all addresses.
+	 * @param handler the accept handler
+	 * @throws IOException if server setup cannot be done
+	 */
+	public NIOServer(int port, int backlog, InetAddress bindAddress, INIOAcceptHandler handler) throws IOException {
+		if (handler == null)
+			throw new NullPointerException("Accept handler cannot be null"); //$NON-NLS-1$
+		acceptHandler = handler;
+		keepAlive = Integer.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.keepalive", "30000")).intValue(); //$NON-NLS-1$ //$NON-NLS-2$
+		loops = NIOSelectorLoopGroup.getDefault();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.socket().bind(new InetSocketAddress(bindAddress, port), backlog);
+		serverChannel.configureBlocking(false);
+		final String name = "NIOServer(" + getLocalPort() + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+		connectExecutor = Executors.newFixedThreadPool(Math.max(1, DEFAULT_CONNECT_THREADS), new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name + ":connect"); //$NON-NLS-1$
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		final NIOSelectorLoop acceptLoop = loops.next();
+		acceptLoop.execute(new Runnable() {
+			public void run() {
+				try {
+					acceptLoop.register(serverChannel, SelectionKey.OP_ACCEPT, acceptSelectionHandler);
+				} catch (IOException e) {
+					traceStack("Exception registering " + name, e); //$NON-NLS-1$
+				}
+			}
+		});
+	}
+
+	public NIOServer(int port, InetAddress bindAddress, INIOAcceptHandler handler) throws IOException {
+		this(port, DEFAULT_BACKLOG, bindAddress, handler);
+	}
+
+	public NIOServer(int port, INIOAcceptHandler handler) throws IOException {
+		this(port, DEFAULT_BACKLOG, null, handler);
+	}
+
+	private final NIOSelectorLoop.SelectionHandler acceptSelectionHandler = new NIOSelectorLoop.SelectionHandler() {
+		public void handleSelection(SelectionKey key) throws IOException {
+			SocketChannel sc;
+			while ((sc = serverChannel.accept()) != null) {
+				try {
+					handleAccept(sc);
+				} catch (IOException e) {
+					traceStack("Unexpected exception in handleAccept...closing", e); //$NON-NLS-1$
+					sc.close();
+				}
+			}
+		}
+
+		public void handleIdle(long now) {
+			// nothing to do
+		}
+
+		public void handleException(Throwable t) {
+			// If we get an exception on accept(), we just stop accepting
+			traceStack("Exception in accept", t); //$NON-NLS-1$
+			try {
+				close();
+			} catch (IOException e) {
+				traceStack("Exception closing server", e); //$NON-NLS-1$
+			}
+		}
+	};
+
+	protected void handleAccept(final SocketChannel sc) throws IOException {
+		debug("accept:" + sc.socket().getInetAddress()); //$NON-NLS-1$
+		sc.configureBlocking(false);
+		sc.socket().setTcpNoDelay(true);
+		final NIOSelectorLoop loop = loops.next();
+		final NIOClient client = new NIOClient(this, sc, loop, keepAlive);
+		loop.execute(new Runnable() {
+			public void run() {
+				try {
+					client.registerAccepted();
+				} catch (IOException e) {
+					client.handleException(e);
+				}
+			}
+		});
+	}
+
+	void handleConnectRequest(final NIOClient client, final ConnectRequestMessage request) {
+		try {
+			connectExecutor.execute(new Runnable() {
+				public void run() {
+					try {
+						INIOAcceptHandler h = acceptHandler;
+						if (h == null)
+							throw new IOException("Server closed"); //$NON-NLS-1$
+						h.handleAccept(client, request);
+					} catch (Exception e) {
+						traceStack("Unexpected exception in handleAccept...closing", e); //$NON-NLS-1$
+						client.disconnect();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			client.disconnect();
+		}
+	}
+
+	public int getLocalPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	public synchronized void close() throws IOException {
+		serverChannel.close();
+		connectExecutor.shutdownNow();
+		acceptHandler = null;
+	}
+}
@@ -21,6 +21,7 @@ import javax.net.ssl.SSLSocketFactory;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.util.ConcurrentFIFOQueue;
 import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.core.util.Trace;
@@ -48,7 +49,7 @@ public final class SSLClient implements ISynchAsynchConnection {
 	// Event handler
 	protected ISynchAsynchEventHandler handler;
 	// Our queue
-	protected SimpleFIFOQueue queue = new SimpleFIFOQueue();
+	protected SimpleFIFOQueue queue = Client.DEFAULT_CONCURRENT_QUEUE ? new ConcurrentFIFOQueue() : new SimpleFIFOQueue();
 	protected int keepAlive = 0;
 	protected Thread sendThread;
 	protected Thread rcvThread;
@@ -194,7 +195,7 @@ public final class SSLClient implements ISynchAsynchConnection {
 			setSocketOptions(s);
 			// Now we've got a connection so set our socket
 			setSocket(s);
-			outputStream = new ObjectOutputStream(s.getOutputStream());
+			outputStream = new ObjectOutputStream(new BufferedOutputStream(s.getOutputStream()));
 			outputStream.flush();
 			inputStream = ProviderPlugin.getDefault().createObjectInputStream(s.getInputStream());
 			debug("connect;" + anURI); //$NON-NLS-1$
@@ -244,10 +245,13 @@ public final class SSLClient implements ISynchAsynchConnection {
 					if (me.isInterrupted() || aMsg == null)
 						break;
 					try {
-						// Actually send message
-						send(aMsg);
+						// Actually send message.  Flush only when no further message is
+						// queued, so that messages queued while sending are written together
+						write(aMsg);
 						// Successful...remove message from queue
 						queue.removeHead();
+						if (queue.isEmpty())
+							flush();
 					} catch (Exception e) {
 						handleException(e);
 						break;
@@ -291,11 +295,16 @@ public final class SSLClient implements ISynchAsynchConnection {
 	private int resetCounter = 0;
 
 	void send(Serializable snd) throws IOException {
-		//		debug("send(" + snd + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		synchronized (outputStreamLock) {
+			write(snd);
+			flush();
+		}
+	}
+
+	private void write(Serializable snd) throws IOException {
 		// need to synchronize to avoid concurrent access to outputStream
 		synchronized (outputStreamLock) {
 			outputStream.writeObject(snd);
-			outputStream.flush();
 			if (resetCounter > this.maxmsgs) {
 				outputStream.reset();
 				resetCounter = 0;
@@ -304,6 +313,12 @@ public final class SSLClient implements ISynchAsynchConnection {
 		}
 	}
 
+	private void flush() throws IOException {
+		synchronized (outputStreamLock) {
+			outputStream.flush();
+		}
+	}
+
 	private void handlePingResp() {
 		synchronized (pingLock) {
 			waitForPing = false;
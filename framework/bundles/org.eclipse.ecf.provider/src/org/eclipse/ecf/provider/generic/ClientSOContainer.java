@@ -48,6 +48,9 @@ public abstract class ClientSOContainer extends SOContainer implements ISharedOb
 
 	protected Lock connectLock;
 
+	// Format for messages sent on the current connection, as negotiated when connecting
+	private volatile int messageFormat = ContainerMessageCodec.FORMAT_SERIALIZED;
+
 	public ClientSOContainer(ISharedObjectContainerConfig config) {
 		super(config);
 		connection = null;
@@ -106,6 +109,7 @@ public abstract class ClientSOContainer extends SOContainer implements ISharedOb
 	private void setStateConnecting(ISynchAsynchConnection conn) {
 		connectionState = CONNECTING;
 		connection = conn;
+		messageFormat = ContainerMessageCodec.FORMAT_SERIALIZED;
 	}
 
 	private void setStateConnected(ID serverID, ISynchAsynchConnection conn) {
@@ -197,7 +201,10 @@ public abstract class ClientSOContainer extends SOContainer implements ISharedOb
 					handler.handle(callbacks);
 			}
 		}
-		return ContainerMessage.createJoinGroupMessage(getID(), remote, getNextSequenceNumber(), (Serializable) connectData);
+		final ContainerMessage joinMessage = ContainerMessage.createJoinGroupMessage(getID(), remote, getNextSequenceNumber(), (Serializable) connectData);
+		// Offer our preferred message format to the server
+		((ContainerMessage.JoinGroupMessage) joinMessage.getData()).setMessageFormat(ContainerMessageCodec.LOCAL_FORMAT);
+		return joinMessage;
 	}
 
 	protected int getConnectTimeout() {
@@ -310,7 +317,7 @@ public abstract class ClientSOContainer extends SOContainer implements ISharedOb
 	 */
 	protected void queueContainerMessage(ContainerMessage message) throws IOException {
 		// Do it
-		connection.sendAsynch(message.getToContainerID(), serialize(message));
+		connection.sendAsynch(message.getToContainerID(), ContainerMessageCodec.encode(message, messageFormat));
 	}
 
 	/**
@@ -537,6 +544,7 @@ public abstract class ClientSOContainer extends SOContainer implements ISharedOb
 			if (id != null && !id.equals(getID()))
 				addNewRemoteMember(id, null);
 		}
+		messageFormat = ContainerMessageCodec.negotiate(viewChangeMessage.getMessageFormat());
 		return fromID;
 	}
 }
\ No newline at end of file
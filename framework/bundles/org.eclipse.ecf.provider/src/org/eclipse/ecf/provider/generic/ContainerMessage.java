@@ -131,6 +131,9 @@ public class ContainerMessage implements Serializable {
 		private final ID changeIDs[];
 		private final boolean add;
 		private final Serializable data;
+		// Message format the sender will accept, set only in a connect response.
+		// Not present (zero) when sent by older versions
+		private int messageFormat;
 
 		ViewChangeMessage(ID id[], boolean a, Serializable data) {
 			this.changeIDs = id;
@@ -177,6 +180,14 @@ public class ContainerMessage implements Serializable {
 		public Serializable getData() {
 			return data;
 		}
+
+		int getMessageFormat() {
+			return messageFormat;
+		}
+
+		void setMessageFormat(int messageFormat) {
+			this.messageFormat = messageFormat;
+		}
 	}
 
 	public static final class CreateMessage implements Serializable {
@@ -295,6 +306,8 @@ public class ContainerMessage implements Serializable {
 	public static final class JoinGroupMessage implements Serializable {
 		private static final long serialVersionUID = 3257564022885855287L;
 		private final Serializable data;
+		// Message format the sender will accept.  Not present (zero) when sent by older versions
+		private int messageFormat;
 
 		public JoinGroupMessage(Serializable data) {
 			this.data = data;
@@ -304,6 +317,14 @@ public class ContainerMessage implements Serializable {
 			return data;
 		}
 
+		int getMessageFormat() {
+			return messageFormat;
+		}
+
+		void setMessageFormat(int messageFormat) {
+			this.messageFormat = messageFormat;
+		}
+
 		public String toString() {
 			final StringBuffer sb = new StringBuffer("JoinGroupMessage["); //$NON-NLS-1$
 			sb.append(data).append("]"); //$NON-NLS-1$
@@ -0,0 +1,274 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.io.*;
+import org.eclipse.ecf.core.identity.*;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+
+/**
+ * Compact encoding for {@link ContainerMessage}s.  The container message
+ * header (sequence, from and to IDs) is written directly rather than via
+ * object serialization, and the already serialized payload of a
+ * {@link ContainerMessage.SharedObjectMessage} is carried as a raw byte segment
+ * rather than being serialized a second time.  Other message types carry their
+ * data as a serialized segment.
+ * <p>
+ * The compact format is only sent to peers that have announced support for it
+ * in the connect handshake (see {@link ContainerMessage.JoinGroupMessage} and
+ * {@link ContainerMessage.ViewChangeMessage}), but is always accepted.  Encoded
+ * messages start with {@link #MAGIC}, which can not be the first byte of a
+ * serialization stream.
+ */
+final class ContainerMessageCodec {
+
+	/**
+	 * Message format of messages encoded with {@link SOContainer#serialize(Serializable)}.
+	 * Used by peers that do not announce a format.
+	 */
+	static final int FORMAT_SERIALIZED = 0;
+
+	/**
+	 * Message format of messages encoded with {@link #encode(ContainerMessage)}.
+	 */
+	static final int FORMAT_COMPACT = 1;
+
+	/**
+	 * The format offered by this container in the connect handshake.
+	 */
+	static final int LOCAL_FORMAT = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.compactmessages", "true")).booleanValue() ? FORMAT_COMPACT : FORMAT_SERIALIZED; //$NON-NLS-1$ //$NON-NLS-2$
+
+	static final byte MAGIC = (byte) 0xEC;
+	static final byte VERSION = 1;
+
+	private static final byte KIND_SERIALIZED = 0;
+	private static final byte KIND_SHARED_OBJECT_MESSAGE = 1;
+	private static final byte KIND_SHARED_OBJECT_DISPOSE = 2;
+
+	private static final byte ID_NULL = 0;
+	private static final byte ID_STRING = 1;
+	private static final byte ID_GUID = 2;
+	private static final byte ID_SERIALIZED = 3;
+
+	private static final byte DATA_NULL = 0;
+	private static final byte DATA_BYTES = 1;
+	private static final byte DATA_SERIALIZED = 2;
+
+	// Space for the fixed header fields and typical IDs
+	private static final int HEADER_ESTIMATE = 256;
+	// Longer names are still possible, but are sent serialized
+	private static final int MAX_UTF_NAME = 16 * 1024;
+
+	private ContainerMessageCodec() {
+		// no instances
+	}
+
+	/**
+	 * Negotiate the format to send to a peer.
+	 * @param remoteFormat the format announced by the peer
+	 * @return the format to use for messages sent to the peer
+	 */
+	static int negotiate(int remoteFormat) {
+		return Math.min(LOCAL_FORMAT, remoteFormat);
+	}
+
+	static byte[] encode(ContainerMessage message, int format) throws IOException {
+		return (format == FORMAT_COMPACT) ? encode(message) : SOContainer.serialize(message);
+	}
+
+	static byte[] encode(ContainerMessage message) throws IOException {
+		final Serializable data = message.getData();
+		byte[] payload = null;
+		if (data instanceof ContainerMessage.SharedObjectMessage) {
+			final Serializable soData = ((ContainerMessage.SharedObjectMessage) data).getData();
+			if (soData instanceof byte[])
+				payload = (byte[]) soData;
+		}
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream(HEADER_ESTIMATE + ((payload == null) ? 0 : payload.length));
+		final DataOutputStream out = new DataOutputStream(bos);
+		out.writeByte(MAGIC);
+		out.writeByte(VERSION);
+		if (data instanceof ContainerMessage.SharedObjectMessage) {
+			final ContainerMessage.SharedObjectMessage som = (ContainerMessage.SharedObjectMessage) data;
+			writeHeader(out, KIND_SHARED_OBJECT_MESSAGE, message);
+			writeID(out, som.getFromSharedObjectID());
+			if (payload != null) {
+				out.writeByte(DATA_BYTES);
+				out.writeInt(payload.length);
+				out.write(payload);
+			} else if (som.getData() == null) {
+				out.writeByte(DATA_NULL);
+			} else {
+				out.writeByte(DATA_SERIALIZED);
+				writeSerialized(out, som.getData());
+			}
+		} else if (data instanceof ContainerMessage.SharedObjectDisposeMessage) {
+			writeHeader(out, KIND_SHARED_OBJECT_DISPOSE, message);
+			writeID(out, ((ContainerMessage.SharedObjectDisposeMessage) data).getSharedObjectID());
+		} else {
+			writeHeader(out, KIND_SERIALIZED, message);
+			if (data == null)
+				out.writeByte(DATA_NULL);
+			else {
+				out.writeByte(DATA_SERIALIZED);
+				writeSerialized(out, data);
+			}
+		}
+		out.flush();
+		return bos.toByteArray();
+	}
+
+	static boolean isEncoded(byte[] bytes) {
+		return bytes != null && bytes.length > 1 && bytes[0] == MAGIC;
+	}
+
+	static ContainerMessage decode(byte[] bytes) throws IOException, ClassNotFoundException {
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if (in.readByte() != MAGIC)
+			throw new StreamCorruptedException("Not an encoded container message"); //$NON-NLS-1$
+		final byte version = in.readByte();
+		if (version != VERSION)
+			throw new StreamCorruptedException("Unsupported container message version=" + version); //$NON-NLS-1$
+		final byte kind = in.readByte();
+		final long sequence = in.readLong();
+		final ID from = readID(in);
+		final ID to = readID(in);
+		switch (kind) {
+			case KIND_SHARED_OBJECT_MESSAGE :
+				final ID fromSharedObjectID = readID(in);
+				return new ContainerMessage(from, to, sequence, new ContainerMessage.SharedObjectMessage(fromSharedObjectID, readData(in)));
+			case KIND_SHARED_OBJECT_DISPOSE :
+				return new ContainerMessage(from, to, sequence, new ContainerMessage.SharedObjectDisposeMessage(readID(in)));
+			case KIND_SERIALIZED :
+				return new ContainerMessage(from, to, sequence, readData(in));
+			default :
+				throw new StreamCorruptedException("Invalid container message kind=" + kind); //$NON-NLS-1$
+		}
+	}
+
+	private static void writeHeader(DataOutputStream out, byte kind, ContainerMessage message) throws IOException {
+		out.writeByte(kind);
+		out.writeLong(message.getSequence());
+		writeID(out, message.getFromContainerID());
+		writeID(out, message.getToContainerID());
+	}
+
+	private static void writeID(DataOutputStream out, ID id) throws IOException {
+		if (id == null) {
+			out.writeByte(ID_NULL);
+			return;
+		}
+		final String name = id.getName();
+		if (name != null && name.length() <= MAX_UTF_NAME) {
+			// Only the default namespaces, which can be recreated from the name alone
+			final String namespace = id.getNamespace().getName();
+			if (id.getClass() == StringID.class && StringID.class.getName().equals(namespace)) {
+				out.writeByte(ID_STRING);
+				out.writeUTF(name);
+				return;
+			}
+			if (id.getClass() == GUID.class && GUID.class.getName().equals(namespace)) {
+				out.writeByte(ID_GUID);
+				out.writeUTF(name);
+				return;
+			}
+		}
+		out.writeByte(ID_SERIALIZED);
+		writeSerialized(out, id);
+	}
+
+	private static ID readID(DataInputStream in) throws IOException, ClassNotFoundException {
+		final byte type = in.readByte();
+		try {
+			switch (type) {
+				case ID_NULL :
+					return null;
+				case ID_STRING :
+					return IDFactory.getDefault().createStringID(in.readUTF());
+				case ID_GUID :
+					return IDFactory.getDefault().createID(GUID.class.getName(), new Object[] {in.readUTF()});
+				case ID_SERIALIZED :
+					return (ID) readSerialized(in);
+				default :
+					throw new StreamCorruptedException("Invalid ID type=" + type); //$NON-NLS-1$
+			}
+		} catch (final IDCreateException e) {
+			final IOException except = new InvalidObjectException("Could not create ID"); //$NON-NLS-1$
+			except.initCause(e);
+			throw except;
+		}
+	}
+
+	private static Serializable readData(DataInputStream in) throws IOException, ClassNotFoundException {
+		final byte type = in.readByte();
+		switch (type) {
+			case DATA_NULL :
+				return null;
+			case DATA_BYTES :
+				return readBytes(in);
+			case DATA_SERIALIZED :
+				return readSerialized(in);
+			default :
+				throw new StreamCorruptedException("Invalid data type=" + type); //$NON-NLS-1$
+		}
+	}
+
+	private static void writeSerialized(DataOutputStream out, Serializable obj) throws IOException {
+		final byte[] bytes = SOContainer.serialize(obj);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static Serializable readSerialized(DataInputStream in) throws IOException, ClassNotFoundException {
+		final ObjectInputStream ois = ProviderPlugin.getDefault().createObjectInputStream(new ByteArrayInputStream(readBytes(in)));
+		return (Serializable) ois.readObject();
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		final int length = in.readInt();
+		if (length < 0 || length > in.available())
+			throw new StreamCorruptedException("Invalid length=" + length); //$NON-NLS-1$
+		final byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * A message and its encodings, each of which is created at most once so that
+	 * a message sent to many peers is only encoded once per format.
+	 */
+	static final class EncodedMessage {
+		private final ContainerMessage message;
+		private byte[] serialized;
+		private byte[] compact;
+
+		EncodedMessage(ContainerMessage message) {
+			this.message = message;
+		}
+
+		ContainerMessage getMessage() {
+			return message;
+		}
+
+		synchronized byte[] getBytes(int format) throws IOException {
+			if (format == FORMAT_COMPACT) {
+				if (compact == null)
+					compact = encode(message);
+				return compact;
+			}
+			if (serialized == null)
+				serialized = SOContainer.serialize(message);
+			return serialized;
+		}
+	}
+}
@@ -48,6 +48,8 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 
 	private static final String BINDADDRESS_PROP = "bindAddress"; //$NON-NLS-1$
 
+	private static final String PROTOCOL_PROP = "protocol"; //$NON-NLS-1$
+
 	public GenericContainerInstantiator() {
 		super();
 	}
@@ -199,7 +201,14 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 							throw new IllegalArgumentException("path value must be of type String"); //$NON-NLS-1$
 						path = (String) pathVal;
 					}
-					newID = createTCPServerID(hostname, port, path);
+					String protocol = TCPServerSOContainer.DEFAULT_PROTOCOL;
+					Object protocolVal = map.get(PROTOCOL_PROP);
+					if (protocolVal != null) {
+						if (!TCPServerSOContainer.DEFAULT_PROTOCOL.equals(protocolVal) && !TCPServerSOContainer.NIO_PROTOCOL.equals(protocolVal))
+							throw new IllegalArgumentException("protocol value must be " + TCPServerSOContainer.DEFAULT_PROTOCOL + " or " + TCPServerSOContainer.NIO_PROTOCOL); //$NON-NLS-1$ //$NON-NLS-2$
+						protocol = (String) protocolVal;
+					}
+					newID = createTCPServerID(protocol, hostname, port, path);
 				}
 				Object bindAddressVal = map.get(BINDADDRESS_PROP);
 				if (bindAddressVal != null) {
@@ -225,7 +234,7 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 		}
 		if (newID == null) {
 			int port = getTCPServerPort(-1);
-			newID = createTCPServerID(TCPServerSOContainer.DEFAULT_HOST, port, TCPServerSOContainer.DEFAULT_NAME);
+			newID = createTCPServerID(TCPServerSOContainer.DEFAULT_PROTOCOL, TCPServerSOContainer.DEFAULT_HOST, port, TCPServerSOContainer.DEFAULT_NAME);
 		}
 		if (ka == null)
 			ka = Integer.valueOf(TCPServerSOContainer.DEFAULT_KEEPALIVE);
@@ -237,8 +246,8 @@ public class GenericContainerInstantiator implements IContainerInstantiator, IRe
 		return new GenericContainerArgs(newID, ka, bindAddress);
 	}
 
-	private ID createTCPServerID(String hostname, int port, String path) {
-		return IDFactory.getDefault().createStringID(TCPServerSOContainer.DEFAULT_PROTOCOL + "://" + hostname + ":" + port + path); //$NON-NLS-1$ //$NON-NLS-2$
+	private ID createTCPServerID(String protocol, String hostname, int port, String path) {
+		return IDFactory.getDefault().createStringID(protocol + "://" + hostname + ":" + port + path); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 	private int getTCPServerPort(int input) {
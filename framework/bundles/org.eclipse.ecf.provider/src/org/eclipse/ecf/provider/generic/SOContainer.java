@@ -16,6 +16,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.AbstractContainer;
 import org.eclipse.ecf.core.ContainerConnectException;
@@ -140,6 +141,22 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 	public static final String DEFAULT_OBJECT_ARG_KEY = SOContainer.class.getName() + ".sharedobjectargs"; //$NON-NLS-1$
 	public static final String DEFAULT_OBJECT_ARGTYPES_KEY = SOContainer.class.getName() + ".sharedobjectargtypes"; //$NON-NLS-1$
 
+	/**
+	 * If <code>true</code>, events are delivered to shared objects by a shared pool of
+	 * threads rather than a thread per shared object.  Set with the
+	 * <code>org.eclipse.ecf.provider.generic.pooledDispatch</code> system property.
+	 * @since 4.9
+	 */
+	public static final boolean DEFAULT_POOLED_DISPATCH = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.pooledDispatch", "false")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * If <code>true</code>, shared objects with a thread of their own receive their events through a
+	 * lock-free ConcurrentFIFOQueue rather than a SimpleFIFOQueue.  Set with the
+	 * <code>org.eclipse.ecf.provider.generic.concurrentQueues</code> system property.
+	 * @since 4.9
+	 */
+	public static final boolean DEFAULT_CONCURRENT_QUEUES = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.concurrentQueues", "false")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
 	private long sequenceNumber = 0L;
 
 	protected ISharedObjectContainerConfig config = null;
@@ -517,6 +534,26 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		return new Thread(sharedObjectThreadGroup, runnable, sharedObjectID.getName() + ":run"); //$NON-NLS-1$
 	}
 
+	/**
+	 * Get the executor used to deliver events to the given shared object.  When
+	 * an executor is returned, the shared object's events are delivered in order
+	 * by tasks run with the executor, and no thread is created for it by
+	 * {@link #getNewSharedObjectThread(ID, Runnable)}.  Shared objects that block
+	 * in event handling for long periods should not be delivered events by a
+	 * shared executor.
+	 * <p>
+	 * This implementation returns a process wide pool if {@link #DEFAULT_POOLED_DISPATCH}
+	 * is <code>true</code>, and <code>null</code> otherwise.
+	 * </p>
+	 * @param sharedObjectID the ID of the shared object
+	 * @return Executor the executor to use, or <code>null</code> to use a thread
+	 * per shared object
+	 * @since 4.9
+	 */
+	protected Executor getSharedObjectExecutor(ID sharedObjectID) {
+		return DEFAULT_POOLED_DISPATCH ? SharedObjectDispatchExecutor.getDefault() : null;
+	}
+
 	protected long getNextSequenceNumber() {
 		if (sequenceNumber == Long.MAX_VALUE) {
 			sequenceNumber = 0;
@@ -526,12 +563,12 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 	}
 
 	public static ContainerMessage deserializeContainerMessage(byte[] bytes) throws IOException {
-		final ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-
-		final ObjectInputStream ois = ProviderPlugin.getDefault().createObjectInputStream(bis);
 		Object obj = null;
 		try {
-			obj = ois.readObject();
+			if (ContainerMessageCodec.isEncoded(bytes))
+				obj = ContainerMessageCodec.decode(bytes);
+			else
+				obj = ProviderPlugin.getDefault().createObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
 		} catch (final ClassNotFoundException e) {
 			ProviderPlugin.getDefault().log(new Status(IStatus.ERROR, ProviderPlugin.PLUGIN_ID, "class not found on deserialize", e)); //$NON-NLS-1$
 			printToSystemError("deserializeContainerMessage class not found", e); //$NON-NLS-1$
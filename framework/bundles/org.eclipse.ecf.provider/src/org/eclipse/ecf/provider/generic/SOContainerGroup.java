@@ -21,7 +21,7 @@ import org.eclipse.ecf.internal.provider.ProviderPlugin;
 import org.eclipse.ecf.provider.comm.IConnectRequestHandler;
 import org.eclipse.ecf.provider.comm.tcp.*;
 
-public class SOContainerGroup implements ISocketAcceptHandler {
+public class SOContainerGroup implements ISocketAcceptHandler, INIOAcceptHandler {
 
 	/**
 	 * @since 4.7
@@ -76,7 +76,8 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 	 * @since 4.7
 	 */
 	protected ObjectOutputStream createObjectOutputStream(Socket aSocket) throws IOException {
-		return new ObjectOutputStream(aSocket.getOutputStream());
+		// Buffered, as the connection flushes after each message or group of queued messages
+		return new ObjectOutputStream(new BufferedOutputStream(aSocket.getOutputStream()));
 	}
 
 	/**
@@ -103,6 +104,23 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 		return req;
 	}
 
+	private String getConnectPath(ConnectRequestMessage req) throws InvalidObjectException {
+		final URI uri = req.getTarget();
+		if (uri == null)
+			throw new InvalidObjectException(INVALID_CONNECT + " URI connect target cannot be null"); //$NON-NLS-1$
+		final String path = uri.getPath();
+		if (path == null)
+			throw new InvalidObjectException(INVALID_CONNECT + " Path cannot be null"); //$NON-NLS-1$
+		return path;
+	}
+
+	private SOContainer getConnectContainer(String path) throws InvalidObjectException {
+		final SOContainer srs = get(path);
+		if (srs == null)
+			throw new InvalidObjectException("Container not found for path=" + path); //$NON-NLS-1$
+		return srs;
+	}
+
 	/**
 	 * @param aSocket socket
 	 * @since 4.7
@@ -117,17 +135,9 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 
 		final ConnectRequestMessage req = readConnectRequestMessage(iStream);
 
-		final URI uri = req.getTarget();
-		if (uri == null)
-			throw new InvalidObjectException(INVALID_CONNECT + " URI connect target cannot be null"); //$NON-NLS-1$
-		final String path = uri.getPath();
-		if (path == null)
-			throw new InvalidObjectException(INVALID_CONNECT + " Path cannot be null"); //$NON-NLS-1$
-
+		final String path = getConnectPath(req);
 		// Given path, lookup associated container
-		final SOContainer srs = get(path);
-		if (srs == null)
-			throw new InvalidObjectException("Container not found for path=" + path); //$NON-NLS-1$
+		final SOContainer srs = getConnectContainer(path);
 
 		// Create our local messaging interface
 		final Client newClient = new Client(aSocket, iStream, oStream, srs.getMessageReceiver());
@@ -144,4 +154,22 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 		}
 	}
 
+	/**
+	 * @param client the connection accepted by an {@link NIOServer}
+	 * @param req the connect request received from the client
+	 * @since 4.9
+	 */
+	public void handleAccept(NIOClient client, ConnectRequestMessage req) throws Exception {
+		final String path = getConnectPath(req);
+		// Given path, lookup associated container
+		final SOContainer srs = getConnectContainer(path);
+
+		client.setEventHandler(srs.getMessageReceiver());
+		// As above, nothing is sent until we've responded
+		synchronized (client.getOutputStreamLock()) {
+			final Serializable resp = ((IConnectRequestHandler) srs).handleConnectRequest(client.getSocket(), path, req.getData(), client);
+			client.sendConnectResult(new ConnectResultMessage(resp));
+		}
+	}
+
 }
\ No newline at end of file
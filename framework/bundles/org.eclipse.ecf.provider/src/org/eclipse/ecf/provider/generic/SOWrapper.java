@@ -16,12 +16,16 @@ package org.eclipse.ecf.provider.generic;
 import java.io.Serializable;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.ecf.core.events.ContainerConnectedEvent;
 import org.eclipse.ecf.core.events.ContainerDisconnectedEvent;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.sharedobject.ISharedObject;
 import org.eclipse.ecf.core.sharedobject.SharedObjectInitException;
 import org.eclipse.ecf.core.sharedobject.events.*;
+import org.eclipse.ecf.core.sharedobject.util.ConcurrentFIFOQueue;
 import org.eclipse.ecf.core.sharedobject.util.QueueEnqueueImpl;
 import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
 import org.eclipse.ecf.core.util.Event;
@@ -38,6 +42,14 @@ public class SOWrapper {
 	private ID containerID;
 	private Thread thread;
 	SimpleFIFOQueue queue;
+	// non-null when events are delivered with the container's shared object executor
+	private Dispatcher dispatcher;
+
+	/**
+	 * Maximum number of events delivered by one dispatch task, before other
+	 * shared objects get to run on the same thread.
+	 */
+	private static final int MAX_EVENTS_PER_DISPATCH = 64;
 
 	protected SOWrapper(SOContainer.LoadingSharedObject obj, SOContainer cont) {
 		sharedObjectID = obj.getID();
@@ -46,7 +58,7 @@ public class SOWrapper {
 		containerID = cont.getID();
 		sharedObjectConfig = null;
 		thread = null;
-		queue = new SimpleFIFOQueue();
+		queue = createQueue();
 	}
 
 	public SOWrapper(SOConfig aConfig, ISharedObject obj, SOContainer cont) {
@@ -56,7 +68,15 @@ public class SOWrapper {
 		container = cont;
 		containerID = cont.getID();
 		thread = null;
-		queue = new SimpleFIFOQueue();
+		queue = createQueue();
+	}
+
+	private SimpleFIFOQueue createQueue() {
+		final Executor executor = container.getSharedObjectExecutor(sharedObjectID);
+		if (executor == null)
+			return SOContainer.DEFAULT_CONCURRENT_QUEUES ? new ConcurrentFIFOQueue() : new SimpleFIFOQueue();
+		dispatcher = new Dispatcher(executor);
+		return dispatcher;
 	}
 
 	protected void init() throws SharedObjectInitException {
@@ -78,16 +98,21 @@ public class SOWrapper {
 	}
 
 	protected void activated() {
-		thread = (Thread) AccessController.doPrivileged(new PrivilegedAction() {
-			public Object run() {
-				Thread aThread = getThread();
-				return aThread;
-			}
-		});
+		if (dispatcher == null) {
+			thread = (Thread) AccessController.doPrivileged(new PrivilegedAction() {
+				public Object run() {
+					Thread aThread = getThread();
+					return aThread;
+				}
+			});
+		}
 		// Notify container and listeners
 		container.notifySharedObjectActivated(sharedObjectID);
-		// Start thread
-		thread.start();
+		// Start thread or dispatcher
+		if (dispatcher == null)
+			thread.start();
+		else
+			dispatcher.start();
 		// Send message
 		send(new SharedObjectActivatedEvent(containerID, sharedObjectID));
 	}
@@ -100,14 +125,14 @@ public class SOWrapper {
 
 	protected void destroyed() {
 		if (!queue.isStopped()) {
-			if (thread != null)
+			if (isStarted())
 				queue.enqueue(new DisposeEvent());
 			queue.close();
 		}
 	}
 
 	protected void otherChanged(ID otherID, boolean activated) {
-		if (activated && thread != null) {
+		if (activated && isStarted()) {
 			send(new SharedObjectActivatedEvent(containerID, otherID));
 		} else {
 			send(new SharedObjectDeactivatedEvent(containerID, otherID));
@@ -115,7 +140,7 @@ public class SOWrapper {
 	}
 
 	protected void memberChanged(Member m, boolean add) {
-		if (thread != null) {
+		if (isStarted()) {
 			if (add) {
 				send(new ContainerConnectedEvent(containerID, m.getID()));
 			} else {
@@ -135,17 +160,7 @@ public class SOWrapper {
 					evt = (Event) queue.dequeue();
 					if (Thread.currentThread().isInterrupted() || evt == null)
 						break;
-					try {
-						if (evt instanceof ProcEvent) {
-							SOWrapper.this.svc(((ProcEvent) evt).getEvent());
-						} else if (evt instanceof DisposeEvent) {
-							SOWrapper.this.doDestroy();
-						} else {
-							SOWrapper.this.svc(evt);
-						}
-					} catch (Throwable t) {
-						handleRuntimeException(t);
-					}
+					dispatch(evt);
 				}
 				if (Thread.currentThread().isInterrupted()) {
 					debug("runner(" + sharedObjectID //$NON-NLS-1$
@@ -158,6 +173,78 @@ public class SOWrapper {
 		});
 	}
 
+	private boolean isStarted() {
+		return thread != null || (dispatcher != null && dispatcher.started);
+	}
+
+	private void dispatch(Event evt) {
+		try {
+			if (evt instanceof ProcEvent) {
+				svc(((ProcEvent) evt).getEvent());
+			} else if (evt instanceof DisposeEvent) {
+				doDestroy();
+			} else {
+				svc(evt);
+			}
+		} catch (Throwable t) {
+			handleRuntimeException(t);
+		}
+	}
+
+	/**
+	 * Queue that schedules delivery of its events with an executor when events
+	 * are enqueued, so that no thread is needed for each shared object.  At most
+	 * one task per queue is scheduled at a time, so events are delivered in order,
+	 * one at a time.
+	 */
+	private class Dispatcher extends ConcurrentFIFOQueue implements Runnable {
+		private final Executor executor;
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		volatile boolean started;
+
+		Dispatcher(Executor executor) {
+			this.executor = executor;
+		}
+
+		public boolean enqueue(Object obj) {
+			if (!super.enqueue(obj))
+				return false;
+			schedule();
+			return true;
+		}
+
+		void start() {
+			started = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (started && !isEmpty() && scheduled.compareAndSet(false, true)) {
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException e) {
+					scheduled.set(false);
+					handleRuntimeException(e);
+				}
+			}
+		}
+
+		public void run() {
+			try {
+				for (int i = 0; i < MAX_EVENTS_PER_DISPATCH; i++) {
+					final Event evt = (Event) removeHead();
+					if (evt == null)
+						break;
+					dispatch(evt);
+				}
+			} finally {
+				scheduled.set(false);
+				// Events enqueued after the last removeHead, or not delivered because of the limit
+				schedule();
+			}
+		}
+	}
+
 	private void send(Event evt) {
 		queue.enqueue(new ProcEvent(evt));
 	}
@@ -234,4 +321,12 @@ public class SOWrapper {
 	public SimpleFIFOQueue getQueue() {
 		return queue;
 	}
+
+	/**
+	 * @return the number of events waiting to be delivered to the shared object
+	 * @since 4.9
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
 }
\ No newline at end of file
@@ -16,6 +16,8 @@ package org.eclipse.ecf.provider.generic;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.*;
+import java.util.HashMap;
+import java.util.Map;
 import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.events.*;
 import org.eclipse.ecf.core.identity.ID;
@@ -30,6 +32,12 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 
 	protected IConnectHandlerPolicy connectHandlerPolicy;
 
+	// Message format negotiated with each member connection.  Guarded by the group membership lock
+	private final Map connectionFormats = new HashMap();
+	// Number of member connections using each format.  Read without the lock
+	private volatile int compactConnections;
+	private volatile int serializedConnections;
+
 	public ServerSOContainer(ISharedObjectContainerConfig config) {
 		super(config);
 	}
@@ -133,13 +141,39 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.eclipse.ecf.provider.generic.SOContainer#sendMessage(org.eclipse.ecf.provider.generic.ContainerMessage)
+	 */
+	protected void sendMessage(ContainerMessage data) throws IOException {
+		final ID toID = data.getToContainerID();
+		// We don't send to ourselves
+		if (getID().equals(toID))
+			return;
+		// Encode before acquiring the membership lock, so that other senders
+		// and membership changes are only held up by the enqueue
+		final ContainerMessageCodec.EncodedMessage message = new ContainerMessageCodec.EncodedMessage(data);
+		if (compactConnections > 0)
+			message.getBytes(ContainerMessageCodec.FORMAT_COMPACT);
+		if (serializedConnections > 0)
+			message.getBytes(ContainerMessageCodec.FORMAT_SERIALIZED);
+		synchronized (getGroupMembershipLock()) {
+			queueContainerMessage(toID, message);
+		}
+	}
+
 	protected void queueContainerMessage(ContainerMessage message) throws IOException {
-		if (message.getToContainerID() == null) {
-			queueToAll(message);
+		queueContainerMessage(message.getToContainerID(), new ContainerMessageCodec.EncodedMessage(message));
+	}
+
+	private void queueContainerMessage(ID toID, ContainerMessageCodec.EncodedMessage message) throws IOException {
+		if (toID == null) {
+			queueToAll(null, message);
 		} else {
-			final IAsynchConnection conn = getConnectionForID(message.getToContainerID());
+			final IAsynchConnection conn = getConnectionForID(toID);
 			if (conn != null)
-				conn.sendAsynch(message.getToContainerID(), serialize(message));
+				conn.sendAsynch(toID, message.getBytes(getMessageFormat(conn)));
 		}
 	}
 
@@ -151,6 +185,9 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 		if (excluding == null) {
 			queueContainerMessage(new ContainerMessage(from, null, getNextSequenceNumber(), data.getData()));
 		} else {
+			// A null toID is delivered by every member, so the same bytes can be
+			// sent to all of them rather than a copy addressed to each one
+			final ContainerMessageCodec.EncodedMessage message = new ContainerMessageCodec.EncodedMessage(new ContainerMessage(from, null, getNextSequenceNumber(), data.getData()));
 			final Object ms[] = groupManager.getMembers();
 			for (int i = 0; i < ms.length; i++) {
 				final Member m = (Member) ms[i];
@@ -159,7 +196,7 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 					final IAsynchConnection conn = (IAsynchConnection) m.getData();
 					if (conn != null) {
 						try {
-							conn.sendAsynch(oldID, serialize(new ContainerMessage(from, oldID, getNextSequenceNumber(), data.getData())));
+							conn.sendAsynch(oldID, message.getBytes(getMessageFormat(conn)));
 						} catch (final IOException e) {
 							traceStack("Exception in forwardExcluding from " //$NON-NLS-1$
 									+ from + " with oldID " + oldID, e); //$NON-NLS-1$
@@ -170,6 +207,44 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 		}
 	}
 
+	private int getMessageFormat(IAsynchConnection conn) {
+		final Integer format = (Integer) connectionFormats.get(conn);
+		return (format == null) ? ContainerMessageCodec.FORMAT_SERIALIZED : format.intValue();
+	}
+
+	private void setMessageFormat(IAsynchConnection conn, int format) {
+		removeMessageFormat(conn);
+		connectionFormats.put(conn, Integer.valueOf(format));
+		if (format == ContainerMessageCodec.FORMAT_COMPACT)
+			compactConnections++;
+		else
+			serializedConnections++;
+	}
+
+	private void removeMessageFormat(IConnection conn) {
+		final Integer old = (Integer) connectionFormats.remove(conn);
+		if (old == null)
+			return;
+		if (old.intValue() == ContainerMessageCodec.FORMAT_COMPACT)
+			compactConnections--;
+		else
+			serializedConnections--;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.eclipse.ecf.provider.generic.SOContainer#handleLeave(org.eclipse.ecf.core.identity.ID, org.eclipse.ecf.provider.comm.IConnection)
+	 */
+	protected void handleLeave(ID leftID, IConnection conn) {
+		if (conn != null) {
+			synchronized (getGroupMembershipLock()) {
+				removeMessageFormat(conn);
+			}
+		}
+		super.handleLeave(leftID, conn);
+	}
+
 	/**
 	 * @param mess message
 	 * @throws IOException not thrown by this implementation.
@@ -210,6 +285,7 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 					handleLeave(remoteID, oldConn);
 				// Now we add the new connection
 				if (addNewRemoteMember(remoteID, conn)) {
+					setMessageFormat(conn, ContainerMessageCodec.negotiate(jgm.getMessageFormat()));
 					// Notify existing remotes about new member
 					try {
 						forwardExcluding(getID(), remoteID, ContainerMessage.createViewChangeMessage(getID(), remoteID, getNextSequenceNumber(), new ID[] {remoteID}, true, null));
@@ -228,7 +304,10 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 			// notify listeners
 			fireContainerEvent(new ContainerConnectedEvent(this.getID(), remoteID));
 
-			return ContainerMessage.createViewChangeMessage(getID(), remoteID, getNextSequenceNumber(), memberIDs, true, null);
+			final ContainerMessage viewChangeMessage = ContainerMessage.createViewChangeMessage(getID(), remoteID, getNextSequenceNumber(), memberIDs, true, null);
+			// Tell the client which message format we accept
+			((ContainerMessage.ViewChangeMessage) viewChangeMessage.getData()).setMessageFormat(ContainerMessageCodec.LOCAL_FORMAT);
+			return viewChangeMessage;
 		} catch (final Exception e) {
 			traceStack("Exception in acceptNewClient(" + socket + "," //$NON-NLS-1$ //$NON-NLS-2$
 					+ target + "," + data + "," + conn, e); //$NON-NLS-1$ //$NON-NLS-2$
@@ -284,15 +363,15 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 		return (ISynchConnection) mem.getData();
 	}
 
-	private final void queueToAll(ContainerMessage message) {
+	private final void queueToAll(ID toID, ContainerMessageCodec.EncodedMessage message) {
 		final Object[] members = groupManager.getMembers();
 		for (int i = 0; i < members.length; i++) {
 			final IAsynchConnection conn = (IAsynchConnection) ((Member) members[i]).getData();
 			if (conn != null) {
 				try {
-					conn.sendAsynch(message.getToContainerID(), serialize(message));
+					conn.sendAsynch(toID, message.getBytes(getMessageFormat(conn)));
 				} catch (final IOException e) {
-					traceStack("Exception in queueToAll for ContainerMessage " + message, e); //$NON-NLS-1$
+					traceStack("Exception in queueToAll for member " + ((Member) members[i]).getID(), e); //$NON-NLS-1$
 				}
 			}
 		}
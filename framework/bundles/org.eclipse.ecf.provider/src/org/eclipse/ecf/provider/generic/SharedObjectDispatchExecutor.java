@@ -0,0 +1,50 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed size pool of daemon threads shared by all containers in the process
+ * for delivering events to shared objects, when pooled dispatch is enabled.
+ * See {@link SOContainer#getSharedObjectExecutor(org.eclipse.ecf.core.identity.ID)}.
+ */
+final class SharedObjectDispatchExecutor {
+
+	public static final int DEFAULT_THREADS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.generic.dispatch.threads", String.valueOf(Math.max(4, 2 * Runtime.getRuntime().availableProcessors())))); //$NON-NLS-1$
+
+	private static ExecutorService defaultExecutor;
+
+	static synchronized Executor getDefault() {
+		if (defaultExecutor == null)
+			defaultExecutor = create("ECF SharedObject Dispatch", Math.max(1, DEFAULT_THREADS)); //$NON-NLS-1$
+		return defaultExecutor;
+	}
+
+	private static ExecutorService create(final String name, int threads) {
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable r) {
+				final Thread t = new Thread(r, name + "-" + count.incrementAndGet()); //$NON-NLS-1$
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	private SharedObjectDispatchExecutor() {
+		// no instances
+	}
+}
@@ -19,6 +19,7 @@ import org.eclipse.ecf.core.sharedobject.ISharedObjectContainerConfig;
 import org.eclipse.ecf.provider.comm.ConnectionCreateException;
 import org.eclipse.ecf.provider.comm.ISynchAsynchConnection;
 import org.eclipse.ecf.provider.comm.tcp.Client;
+import org.eclipse.ecf.provider.comm.tcp.NIOClient;
 
 public class TCPClientSOContainer extends ClientSOContainer {
 	int keepAlive = 0;
@@ -48,6 +49,9 @@ public class TCPClientSOContainer extends ClientSOContainer {
 	 */
 	protected ISynchAsynchConnection createConnection(ID remoteSpace, Object data) throws ConnectionCreateException {
 		debug("createClientConnection:" + remoteSpace + ":" + data); //$NON-NLS-1$ //$NON-NLS-2$
+		// The transport is chosen by the protocol of the server ID
+		if (TCPServerSOContainer.isNIOProtocol(remoteSpace))
+			return new NIOClient(receiver, keepAlive);
 		ISynchAsynchConnection conn = new Client(receiver, keepAlive);
 		return conn;
 	}
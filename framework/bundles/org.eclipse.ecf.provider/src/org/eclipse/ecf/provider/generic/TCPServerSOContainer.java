@@ -16,14 +16,23 @@ package org.eclipse.ecf.provider.generic;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.*;
+import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.sharedobject.ISharedObjectContainerConfig;
 import org.eclipse.ecf.provider.comm.IConnectRequestHandler;
 import org.eclipse.ecf.provider.comm.ISynchAsynchConnection;
+import org.eclipse.ecf.provider.comm.tcp.NIOClient;
 import org.eclipse.ecf.provider.comm.tcp.Server;
 
 public class TCPServerSOContainer extends ServerSOContainer implements IConnectRequestHandler {
 	public static final String DEFAULT_PROTOCOL = "ecftcp"; //$NON-NLS-1$ 
 
+	/**
+	 * Protocol for server IDs that accept connections with the selector based
+	 * transport ({@link NIOClient}) rather than a thread per connection.
+	 * @since 4.9
+	 */
+	public static final String NIO_PROTOCOL = NIOClient.PROTOCOL;
+
 	public static final int DEFAULT_PORT = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.generic.port", "3282")); //$NON-NLS-1$ //$NON-NLS-2$;
 
 	public static final int DEFAULT_KEEPALIVE = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.generic.keepalive", "30000")); //$NON-NLS-1$ //$NON-NLS-2$;
@@ -81,7 +90,7 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 		isSingle = true;
 		if (path == null)
 			throw new NullPointerException("path cannot be null"); //$NON-NLS-1$
-		this.group = new TCPServerSOContainerGroup(TCPServerSOContainerGroup.DEFAULT_GROUP_NAME, null, Server.DEFAULT_BACKLOG, port, bindAddress);
+		this.group = new TCPServerSOContainerGroup(TCPServerSOContainerGroup.DEFAULT_GROUP_NAME, null, port, Server.DEFAULT_BACKLOG, bindAddress, isNIOProtocol(getID()));
 		this.group.add(path, this);
 		this.group.putOnTheAir();
 	}
@@ -102,7 +111,7 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 		String path = actualURI.getPath();
 		if (path == null)
 			throw new NullPointerException("path cannot be null"); //$NON-NLS-1$
-		this.group = new TCPServerSOContainerGroup(TCPServerSOContainerGroup.DEFAULT_GROUP_NAME, null, port, Server.DEFAULT_BACKLOG, bindAddress);
+		this.group = new TCPServerSOContainerGroup(TCPServerSOContainerGroup.DEFAULT_GROUP_NAME, null, port, Server.DEFAULT_BACKLOG, bindAddress, NIO_PROTOCOL.equals(actualURI.getScheme()));
 		this.group.add(path, this);
 		this.group.putOnTheAir();
 	}
@@ -116,7 +125,7 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 		String path = actualURI.getPath();
 		if (grp == null) {
 			isSingle = true;
-			this.group = new TCPServerSOContainerGroup(urlPort);
+			this.group = new TCPServerSOContainerGroup(TCPServerSOContainerGroup.DEFAULT_GROUP_NAME, null, urlPort, Server.DEFAULT_BACKLOG, null, NIO_PROTOCOL.equals(actualURI.getScheme()));
 		} else
 			this.group = grp;
 		group.add(path, this);
@@ -124,6 +133,19 @@ public class TCPServerSOContainer extends ServerSOContainer implements IConnectR
 			this.group.putOnTheAir();
 	}
 
+	/**
+	 * @param id the server ID
+	 * @return boolean true if the given ID uses the {@link #NIO_PROTOCOL} scheme
+	 * @since 4.9
+	 */
+	public static boolean isNIOProtocol(ID id) {
+		try {
+			return NIO_PROTOCOL.equals(new URI(id.getName()).getScheme());
+		} catch (URISyntaxException e) {
+			return false;
+		}
+	}
+
 	private URI parseAndValidateURI() throws URISyntaxException {
 		URI uri = new URI(getID().getName());
 		uri.parseServerAuthority();
@@ -17,6 +17,7 @@ import java.net.InetAddress;
 import org.eclipse.ecf.core.util.Trace;
 import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
 import org.eclipse.ecf.internal.provider.ProviderPlugin;
+import org.eclipse.ecf.provider.comm.tcp.NIOServer;
 import org.eclipse.ecf.provider.comm.tcp.Server;
 
 public class TCPServerSOContainerGroup extends SOContainerGroup {
@@ -24,6 +25,8 @@ public class TCPServerSOContainerGroup extends SOContainerGroup {
 	public static final String DEFAULT_GROUP_NAME = TCPServerSOContainerGroup.class.getName();
 	private int port;
 	private Server listener;
+	private NIOServer nioListener;
+	private final boolean nio;
 	private boolean isOnTheAir = false;
 	private final ThreadGroup threadGroup;
 
@@ -39,11 +42,26 @@ public class TCPServerSOContainerGroup extends SOContainerGroup {
 	 * @since 4.4
 	 */
 	public TCPServerSOContainerGroup(String name, ThreadGroup group, int port, int backlog, InetAddress bindAddress) {
+		this(name, group, port, backlog, bindAddress, false);
+	}
+
+	/**
+	 * @param name name
+	 * @param group thread group to use.  Not used if nio is <code>true</code>
+	 * @param port port
+	 * @param backlog backlog
+	 * @param bindAddress bind address
+	 * @param nio <code>true</code> to accept connections with an {@link NIOServer}, 
+	 * <code>false</code> to use a {@link Server}
+	 * @since 4.9
+	 */
+	public TCPServerSOContainerGroup(String name, ThreadGroup group, int port, int backlog, InetAddress bindAddress, boolean nio) {
 		super(name);
 		threadGroup = group;
 		this.port = port;
 		this.backlog = backlog;
 		this.bindAddress = bindAddress;
+		this.nio = nio;
 	}
 
 	/**
@@ -79,8 +97,13 @@ public class TCPServerSOContainerGroup extends SOContainerGroup {
 
 	public synchronized void putOnTheAir() throws IOException {
 		trace("TCPServerSOContainerGroup at port " + port + " on the air"); //$NON-NLS-1$ //$NON-NLS-2$
-		listener = new Server(threadGroup, port, backlog, bindAddress, this);
-		port = listener.getLocalPort();
+		if (nio) {
+			nioListener = new NIOServer(port, backlog, bindAddress, this);
+			port = nioListener.getLocalPort();
+		} else {
+			listener = new Server(threadGroup, port, backlog, bindAddress, this);
+			port = listener.getLocalPort();
+		}
 		isOnTheAir = true;
 	}
 
@@ -98,9 +121,26 @@ public class TCPServerSOContainerGroup extends SOContainerGroup {
 			}
 			listener = null;
 		}
+		if (nioListener != null) {
+			trace("Taking " + getName() + " off the air."); //$NON-NLS-1$ //$NON-NLS-2$
+			try {
+				nioListener.close();
+			} catch (final IOException e) {
+				traceStack("Exception in closeListener", e); //$NON-NLS-1$
+			}
+			nioListener = null;
+		}
 		isOnTheAir = false;
 	}
 
+	/**
+	 * @return boolean true if connections are accepted with an {@link NIOServer}
+	 * @since 4.9
+	 */
+	public boolean isNIO() {
+		return nio;
+	}
+
 	public int getPort() {
 		return port;
 	}
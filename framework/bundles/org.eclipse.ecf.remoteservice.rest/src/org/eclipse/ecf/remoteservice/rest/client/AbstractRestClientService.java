@@ -30,6 +30,15 @@ public abstract class AbstractRestClientService extends AbstractClientService {
 		Trace.trace(Activator.PLUGIN_ID, DebugOptions.REST_CLIENT_SERVICE, getClass(), methodName, message);
 	}
 
+	/**
+	 * @return <code>true</code> if {@link #trace(String, String)} messages are logged.  Callers
+	 * can check this before building expensive trace messages.
+	 * @since 2.8
+	 */
+	protected boolean isTracing() {
+		return Trace.shouldTrace(Activator.PLUGIN_ID, DebugOptions.REST_CLIENT_SERVICE);
+	}
+
 	protected void logException(String string, Throwable e) {
 		Activator a = Activator.getDefault();
 		if (a != null)
@@ -12,6 +12,10 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.rest.client;
 
+import java.io.IOException;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.eclipse.ecf.remoteservice.IRemoteService;
 import org.eclipse.ecf.remoteservice.client.IRemoteServiceClientContainerAdapter;
 import org.eclipse.ecf.remoteservice.client.RemoteServiceClientRegistration;
@@ -22,6 +26,18 @@ import org.eclipse.ecf.remoteservice.rest.identity.RestID;
  */
 public class RestClientContainer extends AbstractRestClientContainer implements IRemoteServiceClientContainerAdapter {
 
+	/**
+	 * @since 2.8
+	 */
+	public static final int maxConnections = Integer.parseInt(System.getProperty("org.eclipse.ecf.remoteservice.rest.RestClientContainer.maxConnections", "100")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * @since 2.8
+	 */
+	public static final int maxConnectionsPerRoute = Integer.parseInt(System.getProperty("org.eclipse.ecf.remoteservice.rest.RestClientContainer.maxConnectionsPerRoute", "20")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private final Object httpClientLock = new Object();
+	private HttpClient httpClient;
+
 	public RestClientContainer(RestID id) {
 		super(id);
 	}
@@ -30,4 +46,45 @@ public class RestClientContainer extends AbstractRestClientContainer implements
 		return new RestClientService(this, registration);
 	}
 
+	/**
+	 * Create the http client shared by all the remote services of this container.  The
+	 * default client keeps a pool of up to {@link #maxConnections} connections, and
+	 * {@link #maxConnectionsPerRoute} per host.
+	 * 
+	 * @return HttpClient the http client to use for this container.  Must not be <code>null</code>.
+	 * @since 2.8
+	 */
+	protected HttpClient createHttpClient() {
+		return HttpClientBuilder.create().setMaxConnTotal(maxConnections).setMaxConnPerRoute(maxConnectionsPerRoute).build();
+	}
+
+	/**
+	 * @return HttpClient the http client shared by all the remote services of this container.
+	 * Created on first use via {@link #createHttpClient()}.
+	 * @since 2.8
+	 */
+	public HttpClient getHttpClient() {
+		synchronized (httpClientLock) {
+			if (httpClient == null)
+				httpClient = createHttpClient();
+			return httpClient;
+		}
+	}
+
+	public void dispose() {
+		super.dispose();
+		HttpClient client = null;
+		synchronized (httpClientLock) {
+			client = httpClient;
+			httpClient = null;
+		}
+		if (client instanceof CloseableHttpClient) {
+			try {
+				((CloseableHttpClient) client).close();
+			} catch (IOException e) {
+				// nothing more to do, the container is disposed
+			}
+		}
+	}
+
 }
@@ -24,10 +24,10 @@ import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.*;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.auth.BasicScheme;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.AbstractHttpMessage;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
 import org.eclipse.ecf.core.security.*;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.remoteservice.IRemoteCall;
@@ -40,6 +40,14 @@ import org.eclipse.ecf.remoteservice.rest.RestException;
  * This class represents a REST service from the client side of view. So a
  * RESTful web service can be accessed via the methods provided by this class.
  * Mostly the methods are inherited from {@link IRemoteService}.
+ * <p>
+ * All calls are made with the blocking http client of the {@link RestClientContainer}.
+ * Asynchronous calls, e.g. {@link #callAsync(IRemoteCall)}, run
+ * {@link #invokeRemoteCall(IRemoteCall, IRemoteCallable)} on a thread of their own,
+ * which is blocked until the response has been read.  The calls share the connection
+ * pool of the container, so at most {@link RestClientContainer#maxConnectionsPerRoute}
+ * calls to one host are in progress at a time; further calls wait for a connection.
+ * </p>
  */
 public class RestClientService extends AbstractRestClientService {
 
@@ -59,8 +67,12 @@ public class RestClientService extends AbstractRestClientService {
 		this.httpClient = createHttpClient();
 	}
 
+	/**
+	 * Returns the http client of this service.  By default the pooled http client
+	 * of the {@link RestClientContainer} is shared by all of its services.
+	 */
 	protected HttpClient createHttpClient() {
-		return HttpClientBuilder.create().build();
+		return ((RestClientContainer) container).getHttpClient();
 	}
 
 	private boolean isResponseOk(HttpResponse response) {
@@ -123,24 +135,36 @@ public class RestClientService extends AbstractRestClientService {
 	 *         error occurs.
 	 */
 	protected Object invokeRemoteCall(final IRemoteCall call, final IRemoteCallable callable) throws ECFException {
-		trace("invokeRemoteCall", "call=" + call + ";callable=" + callable); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		final boolean tracing = isTracing();
+		if (tracing)
+			trace("invokeRemoteCall", "call=" + call + ";callable=" + callable); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		String endpointUri = prepareEndpointAddress(call, callable);
-		trace("invokeRemoteCall", "prepared endpoint=" + endpointUri); //$NON-NLS-1$ //$NON-NLS-2$
+		if (tracing)
+			trace("invokeRemoteCall", "prepared endpoint=" + endpointUri); //$NON-NLS-1$ //$NON-NLS-2$
 		UriRequest urirequest = createUriRequest(endpointUri, call, callable);
 		// If the request
 		HttpRequestBase httpMethod = (urirequest == null) ? createAndPrepareHttpMethod(endpointUri, call, callable) : createAndPrepareHttpMethod(urirequest);
-		trace("invokeRemoteCall", "executing httpMethod" + httpMethod); //$NON-NLS-1$ //$NON-NLS-2$
+		if (tracing)
+			trace("invokeRemoteCall", "executing httpMethod" + httpMethod); //$NON-NLS-1$ //$NON-NLS-2$
 		// execute method
 		byte[] responseBody = null;
 		int responseCode = 500;
 		HttpResponse response = null;
+		Object result = null;
 		try {
 			response = httpClient.execute(httpMethod);
-			trace("invokeRemoteCall", "httpMethod executed. response=" + response); //$NON-NLS-1$ //$NON-NLS-2$
+			if (tracing)
+				trace("invokeRemoteCall", "httpMethod executed. response=" + response); //$NON-NLS-1$ //$NON-NLS-2$
 			responseCode = response.getStatusLine().getStatusCode();
 			if (isResponseOk(response)) {
-				// Get responseBody as String
-				responseBody = getResponseAsBytes(response);
+				Map responseHeaders = convertResponseHeaders(response.getAllHeaders());
+				if (tracing)
+					trace("processResponse", "httpMethod=" + httpMethod + ";call=" + call + ";callable=" + callable + ";responseHeaders=" + responseHeaders); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				// Deserialize from the response stream if the deserializer can, otherwise from a byte[]
+				if (isResponseStreamable(call, callable))
+					result = processResponseStream(endpointUri, call, callable, responseHeaders, getResponseAsStream(response));
+				else
+					result = processResponse(endpointUri, call, callable, responseHeaders, getResponseAsBytes(response));
 			} else {
 				// If this method returns true, we should retrieve the response body
 				if (retrieveErrorResponseBody(response)) {
@@ -149,16 +173,12 @@ public class RestClientService extends AbstractRestClientService {
 				// Now pass to the exception handler
 				handleException("Http response not OK.  httpMethod=" + httpMethod + " responseCode=" + Integer.valueOf(responseCode), null, responseCode, responseBody); //$NON-NLS-1$ //$NON-NLS-2$
 			}
-		} catch (IOException e) {
-			handleException("RestClientService transport IOException", e, responseCode); //$NON-NLS-1$
-		}
-		Object result = null;
-		try {
-			Map responseHeaders = convertResponseHeaders(response.getAllHeaders());
-			trace("processResponse", "httpMethod=" + httpMethod + ";call=" + call + ";callable=" + callable + ";responseHeaders=" + responseHeaders + ";responseBody=" + responseBody); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
-			result = processResponse(endpointUri, call, callable, responseHeaders, responseBody);
 		} catch (NotSerializableException e) {
 			handleException("Exception deserializing response.  httpMethod=" + httpMethod + " responseCode=" + Integer.valueOf(responseCode), e, responseCode); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (IOException e) {
+			handleException("RestClientService transport IOException", e, responseCode); //$NON-NLS-1$
+		} finally {
+			releaseResponse(response);
 		}
 		return result;
 	}
@@ -174,6 +194,27 @@ public class RestClientService extends AbstractRestClientService {
 		return os.toByteArray();
 	}
 
+	/**
+	 * @return InputStream the response body, or <code>null</code> if the response has no body.
+	 * The stream is closed by {@link #releaseResponse(HttpResponse)}.
+	 * @since 2.8
+	 */
+	protected InputStream getResponseAsStream(HttpResponse response) throws IOException {
+		HttpEntity entity = response.getEntity();
+		return (entity == null) ? null : entity.getContent();
+	}
+
+	/**
+	 * Consume what is left of the response body, so that the connection is returned
+	 * to the pool of the http client.
+	 * 
+	 * @since 2.8
+	 */
+	protected void releaseResponse(HttpResponse response) {
+		if (response != null)
+			EntityUtils.consumeQuietly(response.getEntity());
+	}
+
 	/*
 	 * @deprecated
 	 */
@@ -12,30 +12,40 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.rest.client;
 
-import java.io.NotSerializableException;
-import java.io.StringReader;
+import java.io.*;
 import java.util.Map;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import org.eclipse.ecf.remoteservice.IRemoteCall;
-import org.eclipse.ecf.remoteservice.client.IRemoteCallable;
-import org.eclipse.ecf.remoteservice.client.IRemoteResponseDeserializer;
+import org.eclipse.ecf.remoteservice.client.*;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
 /**
  * This class is a sample implementation of {@link IRemoteResponseDeserializer}. This will be
  * used to create XML Resource representations and will be registered when the
- * API is started.
+ * API is started.  Responses read from a stream are parsed as they are received.
  */
-public class XMLRemoteResponseDeserializer implements IRemoteResponseDeserializer {
+public class XMLRemoteResponseDeserializer implements IRemoteResponseStreamDeserializer {
 
 	public Object deserializeResponse(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, byte[] responseBody) throws NotSerializableException {
+		return parse(new InputSource(new StringReader(new String(responseBody))));
+	}
+
+	/**
+	 * @since 2.8
+	 */
+	public Object deserializeResponseStream(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws NotSerializableException {
+		if (responseBody == null)
+			throw new NotSerializableException("XML response can't be parsed: no response body"); //$NON-NLS-1$
+		return parse(new InputSource(responseBody));
+	}
+
+	private Object parse(InputSource src) throws NotSerializableException {
 		DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
 		String errorMsg = "XML response can't be parsed: "; //$NON-NLS-1$
 		try {
 			DocumentBuilder builder = documentFactory.newDocumentBuilder();
-			InputSource src = new InputSource(new StringReader(new String(responseBody)));
 			Document dom = builder.parse(src);
 			return dom;
 		} catch (Exception e) {
@@ -97,6 +97,87 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 		this.iFutureExecutor = executor;
 	}
 
+	/**
+	 * Whether the invocation plans of the proxy methods are cached.  If <code>false</code>
+	 * the plan is created again on every proxy call.
+	 * @since 8.14
+	 */
+	protected boolean useInvocationPlans = Boolean.valueOf(System.getProperty("ecf.remoteservice.invocationPlans", "true")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private final ConcurrentMap<Method, InvocationPlan> invocationPlans = new ConcurrentHashMap<Method, InvocationPlan>();
+
+	/**
+	 * How a proxy method is invoked.  Created by {@link AbstractRemoteService#createInvocationPlan(Object, Method, Object[])}
+	 * on the first call of the method and reused for later calls, so the method names, async
+	 * mode and timeout are not computed on every call.
+	 * 
+	 * @since 8.14
+	 */
+	protected static class InvocationPlan {
+		/**
+		 * The method is invoked synchronously with a remote call
+		 */
+		public static final int SYNC = 0;
+		/**
+		 * The method is an async method of an async remote service interface (e.g. fooAsync)
+		 */
+		public static final int ASYNC_INTERFACE = 1;
+		/**
+		 * The method returns an async type and the remote service is OSGi async
+		 */
+		public static final int RETURN_ASYNC = 2;
+
+		private final boolean local;
+		private final int kind;
+		private final String callMethod;
+		private final String asyncMethod;
+		private final long callTimeout;
+		private final long asyncTimeout;
+
+		public InvocationPlan(boolean local, int kind, String callMethod, String asyncMethod, long callTimeout, long asyncTimeout) {
+			this.local = local;
+			this.kind = kind;
+			this.callMethod = callMethod;
+			this.asyncMethod = asyncMethod;
+			this.callTimeout = callTimeout;
+			this.asyncTimeout = asyncTimeout;
+		}
+
+		/**
+		 * @return true if the method may be answered by {@link AbstractRemoteService#invokeObject(Object, Method, Object[])}
+		 */
+		public boolean isLocal() {
+			return local;
+		}
+
+		/**
+		 * @return one of {@link #SYNC}, {@link #ASYNC_INTERFACE} or {@link #RETURN_ASYNC}
+		 */
+		public int getKind() {
+			return kind;
+		}
+
+		public String getCallMethod() {
+			return callMethod;
+		}
+
+		public String getAsyncMethod() {
+			return asyncMethod;
+		}
+
+		public long getCallTimeout() {
+			return callTimeout;
+		}
+
+		public long getAsyncTimeout() {
+			return asyncTimeout;
+		}
+
+		public String toString() {
+			return "InvocationPlan[local=" + local + ";kind=" + kind + ";callMethod=" + callMethod + ";callTimeout=" + callTimeout + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		}
+	}
+
 	protected abstract String[] getInterfaceClassNames();
 
 	protected abstract IRemoteServiceID getRemoteServiceID();
@@ -145,7 +226,67 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 		return callAsync((IRemoteCall) call);
 	}
 
+	/**
+	 * Whether {@link #callAsync(IRemoteCall, IRemoteCallListener)} is completed by provider-native callbacks,
+	 * without holding a thread while the call is outstanding.  If <code>true</code>, the IFuture of
+	 * {@link #callAsync(IRemoteCall)}, the Future of {@link #callFutureAsync(IRemoteCall)} and thereby the
+	 * async proxy returns are completed by the listener of callAsync(IRemoteCall, IRemoteCallListener).  If
+	 * <code>false</code> they run {@link #callSync(IRemoteCall)} on an executor thread.  Providers that override
+	 * callAsync(IRemoteCall, IRemoteCallListener) with a native implementation should override this to return <code>true</code>.
+	 * 
+	 * @since 8.14
+	 * @return true if callAsync with a listener does not hold a thread while waiting.  Default is <code>false</code>
+	 */
+	protected boolean isCallAsyncNative() {
+		return false;
+	}
+
+	/**
+	 * Compatibility shim for providers that only implement {@link #callSync(IRemoteCall)}.  Runs callSync
+	 * on the future executor service and notifies the listener with the completion.  Providers with a
+	 * native async call should override this, and {@link #isCallAsyncNative()}.
+	 * 
+	 * @since 8.14
+	 */
+	public void callAsync(final IRemoteCall call, final IRemoteCallListener listener) {
+		ExecutorService executorService = getFutureExecutorService(call);
+		if (executorService == null)
+			throw new ServiceException("future executor service is null.  Cannot callAsync remote method=" + call.getMethod()); //$NON-NLS-1$
+		executorService.submit(new Runnable() {
+			public void run() {
+				Object result = null;
+				Throwable exception = null;
+				try {
+					result = callSync(call);
+				} catch (Throwable t) {
+					exception = t;
+				}
+				listener.handleEvent(createRCCE(result, exception));
+			}
+		});
+	}
+
 	public IFuture callAsync(final IRemoteCall call) {
+		if (isCallAsyncNative()) {
+			final SingleOperationFuture future = new SingleOperationFuture();
+			callAsync(call, new IRemoteCallListener() {
+				public void handleEvent(IRemoteCallEvent event) {
+					if (event instanceof IRemoteCallCompleteEvent) {
+						final IRemoteCallCompleteEvent cce = (IRemoteCallCompleteEvent) event;
+						future.runWithProgress(new IProgressRunnable() {
+							public Object run(IProgressMonitor monitor) throws Exception {
+								if (cce.hadException()) {
+									Throwable t = cce.getException();
+									throw (t instanceof Exception) ? (Exception) t : new ECFException(t);
+								}
+								return cce.getResponse();
+							}
+						});
+					}
+				}
+			});
+			return future;
+		}
 		IExecutor executor = getIFutureExecutor(call);
 		if (executor == null)
 			throw new ServiceException("iFuture executor is null.  Cannot callAsync remote method=" + call.getMethod()); //$NON-NLS-1$
@@ -365,6 +506,61 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 		return method.getName();
 	}
 
+	/**
+	 * @since 8.14
+	 * @param methodName the name of the proxy method
+	 * @return true if {@link #invokeObject(Object, Method, Object[])} answers methods with the given name
+	 */
+	protected boolean isObjectMethod(String methodName) {
+		return methodName.equals("toString") || methodName.equals("hashCode") || methodName.equals("equals") || methodName.equals("getRemoteService") || methodName.equals("getRemoteServiceReference"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+
+	/**
+	 * Create the invocation plan for a proxy method.  The plan is created on the first call of the method
+	 * with the arguments of that call, and reused for later calls of the method.  Subclasses whose call method
+	 * name or timeout depend on the call arguments should set {@link #useInvocationPlans} to <code>false</code>.
+	 * 
+	 * @since 8.14
+	 * @param proxy proxy instance
+	 * @param method the java Method invoked
+	 * @param args arguments
+	 * @return InvocationPlan the plan for the method.  Must not be <code>null</code>
+	 */
+	protected InvocationPlan createInvocationPlan(Object proxy, Method method, Object[] args) {
+		String methodName = method.getName();
+		int kind = InvocationPlan.SYNC;
+		// If return is async type (Future, IFuture, CompletableFuture, CompletionStage)
+		if (isReturnAsync(proxy, method, args)) {
+			if (isInterfaceAsync(method.getDeclaringClass()) && isMethodAsync(methodName))
+				kind = InvocationPlan.ASYNC_INTERFACE;
+			// If OSGI Async then invoke method directly
+			else if (isOSGIAsync())
+				kind = InvocationPlan.RETURN_ASYNC;
+		}
+		String callMethod = getCallMethodNameForProxyInvoke(method, args);
+		return new InvocationPlan(isObjectMethod(methodName), kind, callMethod, getAsyncInvokeMethodName(method), getCallTimeoutForProxyInvoke(callMethod, method, args), getDefaultTimeout());
+	}
+
+	/**
+	 * @since 8.14
+	 * @param proxy proxy instance
+	 * @param method the java Method invoked
+	 * @param args arguments
+	 * @return InvocationPlan the cached plan for the method, created if not yet present
+	 */
+	protected InvocationPlan getInvocationPlan(Object proxy, Method method, Object[] args) {
+		if (!useInvocationPlans)
+			return createInvocationPlan(proxy, method, args);
+		InvocationPlan plan = invocationPlans.get(method);
+		if (plan == null) {
+			plan = createInvocationPlan(proxy, method, args);
+			InvocationPlan existing = invocationPlans.putIfAbsent(method, plan);
+			if (existing != null)
+				plan = existing;
+		}
+		return plan;
+	}
+
 	protected Object invokeObject(Object proxy, final Method method, final Object[] args) throws Throwable {
 		String methodName = method.getName();
 		if (methodName.equals("toString")) { //$NON-NLS-1$
@@ -490,37 +686,45 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 	}
 
 	public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
-		Object resultObject = null;
+		InvocationPlan plan = null;
 		try {
-			// If the method is from Class Object, or from IRemoteServiceProxy
-			// then return result by directly invoking on the proxy
-			resultObject = invokeObject(proxy, method, args);
+			plan = getInvocationPlan(proxy, method, args);
 		} catch (Throwable t) {
-			handleProxyException("Exception invoking local Object method on remote service proxy=" + getRemoteServiceID(), t); //$NON-NLS-1$
+			handleProxyException("Exception creating invocation plan for method=" + method.getName() + " on remote service proxy=" + getRemoteServiceID(), t); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+		}
+
+		if (plan.isLocal()) {
+			Object resultObject = null;
+			try {
+				// If the method is from Class Object, or from IRemoteServiceProxy
+				// then return result by directly invoking on the proxy
+				resultObject = invokeObject(proxy, method, args);
+			} catch (Throwable t) {
+				handleProxyException("Exception invoking local Object method on remote service proxy=" + getRemoteServiceID(), t); //$NON-NLS-1$
+			}
+			if (resultObject != null)
+				return resultObject;
 		}
-		if (resultObject != null)
-			return resultObject;
 
 		try {
-			// If return is async type (Future, IFuture, CompletableFuture, CompletionStage)
-			if (isReturnAsync(proxy, method, args)) {
-				if (isInterfaceAsync(method.getDeclaringClass()) && isMethodAsync(method.getName()))
+			switch (plan.getKind()) {
+				case InvocationPlan.ASYNC_INTERFACE :
 					return invokeAsync(method, args);
-				// If OSGI Async then invoke method directly
-				if (isOSGIAsync())
+				case InvocationPlan.RETURN_ASYNC :
 					return invokeReturnAsync(proxy, method, args);
-
+				default :
+					break;
 			}
 		} catch (Throwable t) {
 			handleProxyException("Exception invoking async method on remote service proxy=" + getRemoteServiceID(), t); //$NON-NLS-1$
 		}
 
-		// Get the callMethod, callParameters, and callTimeout
-		final String callMethod = getCallMethodNameForProxyInvoke(method, args);
+		// The callMethod and callTimeout come from the plan, the callParameters depend on the args
+		final String callMethod = plan.getCallMethod();
 		final Object[] callParameters = getCallParametersForProxyInvoke(callMethod, method, args);
-		final long callTimeout = getCallTimeoutForProxyInvoke(callMethod, method, args);
 		// Create IRemoteCall instance from method, parameters, and timeout
-		final IRemoteCall remoteCall = createRemoteCall(callMethod, callParameters, callTimeout);
+		final IRemoteCall remoteCall = createRemoteCall(callMethod, callParameters, plan.getCallTimeout());
 		// Invoke synchronously
 		try {
 			return invokeSync(remoteCall);
@@ -637,6 +841,21 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 	 * @return Future future result
 	 */
 	protected Future callFutureAsync(final IRemoteCall call) {
+		if (isCallAsyncNative()) {
+			final CallbackFuture future = new CallbackFuture();
+			callAsync(call, new IRemoteCallListener() {
+				public void handleEvent(IRemoteCallEvent event) {
+					if (event instanceof IRemoteCallCompleteEvent) {
+						IRemoteCallCompleteEvent cce = (IRemoteCallCompleteEvent) event;
+						if (cce.hadException())
+							future.completeExceptionally(cce.getException());
+						else
+							future.complete(cce.getResponse());
+					}
+				}
+			});
+			return future;
+		}
 		ExecutorService executorService = getFutureExecutorService(call);
 		if (executorService == null)
 			throw new ServiceException("future executor service is null.  .  Cannot callAsync remote method=" + call.getMethod()); //$NON-NLS-1$
@@ -647,6 +866,30 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 		});
 	}
 
+	/**
+	 * Future completed by the listener of a native async call rather than by running a task.
+	 */
+	private static class CallbackFuture extends FutureTask<Object> {
+
+		private static final Callable<Object> NONE = new Callable<Object>() {
+			public Object call() throws Exception {
+				throw new IllegalStateException("CallbackFuture is completed by its call"); //$NON-NLS-1$
+			}
+		};
+
+		CallbackFuture() {
+			super(NONE);
+		}
+
+		void complete(Object result) {
+			set(result);
+		}
+
+		void completeExceptionally(Throwable exception) {
+			setException(exception);
+		}
+	}
+
 	/**
 	 * @since 3.3
 	 * @param method method 
@@ -729,6 +972,7 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 			}
 			iFutureExecutor = null;
 		}
+		invocationPlans.clear();
 	}
 
 	/**
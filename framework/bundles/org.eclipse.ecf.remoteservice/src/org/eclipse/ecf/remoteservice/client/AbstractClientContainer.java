@@ -12,7 +12,7 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.client;
 
-import java.io.NotSerializableException;
+import java.io.*;
 import java.util.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.AbstractContainer;
@@ -534,6 +534,48 @@ public abstract class AbstractClientContainer extends AbstractContainer implemen
 		return (deserializer == null) ? null : deserializer.deserializeResponse(uri, call, callable, responseHeaders, responseBody);
 	}
 
+	/**
+	 * @param call call
+	 * @param callable callable
+	 * @return <code>true</code> if the response deserializer can read the response body
+	 * from a stream, via {@link #processResponseStream(String, IRemoteCall, IRemoteCallable, Map, InputStream)}.
+	 * @since 8.14
+	 */
+	protected boolean isResponseStreamable(IRemoteCall call, IRemoteCallable callable) {
+		return getResponseDeserializer() instanceof IRemoteResponseStreamDeserializer;
+	}
+
+	/**
+	 * @param uri uri
+	 * @param call call
+	 * @param callable callable
+	 * @param responseHeaders http response headers
+	 * @param responseBody response body as stream.  May be <code>null</code>.
+	 * @return Object response deserialized via response deserializer
+	 * @throws NotSerializableException if response cannot be deserialized for processing
+	 * @since 8.14
+	 */
+	protected Object processResponseStream(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws NotSerializableException {
+		IRemoteResponseDeserializer deserializer = getResponseDeserializer();
+		if (deserializer instanceof IRemoteResponseStreamDeserializer)
+			return ((IRemoteResponseStreamDeserializer) deserializer).deserializeResponseStream(uri, call, callable, responseHeaders, responseBody);
+		return (deserializer == null) ? null : deserializer.deserializeResponse(uri, call, callable, responseHeaders, readResponseBody(responseBody));
+	}
+
+	private byte[] readResponseBody(InputStream responseBody) throws NotSerializableException {
+		if (responseBody == null)
+			return null;
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+		try {
+			for (int count = responseBody.read(buf); count != -1; count = responseBody.read(buf))
+				bos.write(buf, 0, count);
+		} catch (IOException e) {
+			throw new NotSerializableException("Could not read response body: " + e.getMessage()); //$NON-NLS-1$
+		}
+		return bos.toByteArray();
+	}
+
 	/**
 	 * Create a remote service for a given remote service registration.   This method will be 
 	 * called as part of the RemoteServiceAdmin.importService.   
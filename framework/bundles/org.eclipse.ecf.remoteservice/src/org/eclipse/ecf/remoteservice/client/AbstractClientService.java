@@ -12,6 +12,7 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.client;
 
+import java.io.InputStream;
 import java.io.NotSerializableException;
 import java.lang.reflect.Method;
 import java.util.Map;
@@ -219,6 +220,32 @@ public abstract class AbstractClientService extends AbstractRemoteService {
 		return getClientContainer().processResponse(uri, call, callable, responseHeaders, responseBody);
 	}
 
+	/**
+	 * @param call call
+	 * @param callable callable
+	 * @return <code>true</code> if the response body can be passed to
+	 * {@link #processResponseStream(String, IRemoteCall, IRemoteCallable, Map, InputStream)}
+	 * rather than read into a byte[] for {@link #processResponse(String, IRemoteCall, IRemoteCallable, Map, byte[])}
+	 * @since 8.14
+	 */
+	protected boolean isResponseStreamable(IRemoteCall call, IRemoteCallable callable) {
+		return getClientContainer().isResponseStreamable(call, callable);
+	}
+
+	/**
+	 * @param uri uri
+	 * @param call call
+	 * @param callable callable
+	 * @param responseHeaders responseHeaders
+	 * @param responseBody responseBody stream.  May be <code>null</code>.
+	 * @return Object processed response
+	 * @throws NotSerializableException if response cannot be deserialized
+	 * @since 8.14
+	 */
+	protected Object processResponseStream(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws NotSerializableException {
+		return getClientContainer().processResponseStream(uri, call, callable, responseHeaders, responseBody);
+	}
+
 	protected IRemoteServiceID getRemoteServiceID() {
 		return registration.getID();
 	}
@@ -108,26 +108,29 @@ public abstract class AbstractRSAClientService extends AbstractClientService {
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 		try {
-			Object resultObject = invokeObject(proxy, method, args);
-			if (resultObject != null)
-				return resultObject;
+			InvocationPlan plan = getInvocationPlan(proxy, method, args);
+			if (plan.isLocal()) {
+				Object resultObject = invokeObject(proxy, method, args);
+				if (resultObject != null)
+					return resultObject;
+			}
 			try {
-				// If return is async type (Future, IFuture, CompletableFuture, CompletionStage)
-				if (isReturnAsync(proxy, method, args)) {
-					if (isInterfaceAsync(method.getDeclaringClass()) && isMethodAsync(method.getName()))
-						return invokeAsync(createRemoteCall(proxy, method, getAsyncInvokeMethodName(method), args, getDefaultTimeout()));
+				switch (plan.getKind()) {
+					case InvocationPlan.ASYNC_INTERFACE :
+						return invokeAsync(createRemoteCall(proxy, method, plan.getAsyncMethod(), args, plan.getAsyncTimeout()));
 					// If OSGI Async then invoke method directly
-					if (isOSGIAsync())
-						return invokeAsync(createRemoteCall(proxy, method, method.getName(), args, getDefaultTimeout()));
+					case InvocationPlan.RETURN_ASYNC :
+						return invokeAsync(createRemoteCall(proxy, method, method.getName(), args, plan.getAsyncTimeout()));
+					default :
+						break;
 				}
 			} catch (Throwable t) {
 				handleProxyException("Exception invoking async method on remote service proxy=" + getRemoteServiceID(), t); //$NON-NLS-1$
 			}
 
-			final String callMethod = getCallMethodNameForProxyInvoke(method, args);
+			final String callMethod = plan.getCallMethod();
 			final Object[] callParameters = getCallParametersForProxyInvoke(callMethod, method, args);
-			final long callTimeout = getCallTimeoutForProxyInvoke(callMethod, method, args);
-			return invokeSync(createRemoteCall(proxy, method, callMethod, callParameters, callTimeout));
+			return invokeSync(createRemoteCall(proxy, method, callMethod, callParameters, plan.getCallTimeout()));
 		} catch (Throwable t) {
 			if (t instanceof ServiceException)
 				throw t;
@@ -0,0 +1,43 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.client;
+
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.util.Map;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+
+/**
+ * Deserializer that reads call responses from a stream.  Client services
+ * that support it pass the response body to {@link #deserializeResponseStream(String, IRemoteCall, IRemoteCallable, Map, InputStream)}
+ * as it is received, rather than reading it into a byte[] first.
+ *
+ * @since 8.14
+ */
+public interface IRemoteResponseStreamDeserializer extends IRemoteResponseDeserializer {
+
+	/**
+	 * Deserialize remote response from a stream.  The stream is owned by the caller, and
+	 * will be closed after this method returns.  Implementations should not keep a reference to it.
+	 *
+	 * @param endpoint the endpoint.  Should not be <code>null</code>.
+	 * @param call the call associated with the response.  Will not be <code>null</code>.
+	 * @param callable the callable associated with the response.  Will not be <code>null</code>.
+	 * @param responseHeaders response headers associated with the successful remote call.  May be <code>null</code>.
+	 * @param responseBody stream of the response body to deserialize.  May be <code>null</code> if the response has no body.
+	 * @return Object the deserialized response.  May be <code>null</code>.
+	 * @throws NotSerializableException thrown if the responseBody cannot be read or deserialized.
+	 */
+	public Object deserializeResponseStream(String endpoint, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws NotSerializableException;
+
+}
@@ -0,0 +1,37 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject.util;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * Shared object message serializer for shared objects that do their own
+ * marshalling, and only send <code>byte[]</code> messages.  Messages are passed
+ * through without being copied or wrapped, and are received as the
+ * <code>byte[]</code> that was sent.  Other message types can not be sent.
+ * @since 2.7
+ */
+public class ByteArraySharedObjectMessageSerializer implements ISharedObjectMessageSerializer {
+
+	public byte[] serializeMessage(ID sharedObjectID, Object message) throws IOException {
+		if (!(message instanceof byte[]))
+			throw new NotSerializableException("shared object=" + sharedObjectID + " message=" + message + " not byte[]"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return (byte[]) message;
+	}
+
+	public Object deserializeMessage(byte[] data) throws IOException, ClassNotFoundException {
+		return data;
+	}
+}
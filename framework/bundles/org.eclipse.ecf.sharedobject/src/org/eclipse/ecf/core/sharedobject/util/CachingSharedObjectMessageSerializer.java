@@ -0,0 +1,277 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject.util;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * Shared object message serializer that uses java serialization, but replaces
+ * the class descriptors written for every message with a compact reference.
+ * <p>
+ * Plain object serialization writes the full descriptor of every class in the
+ * object graph (class name, serialVersionUID, and the names and types of all
+ * serializable fields) into every message.  For small messages such as remote
+ * service requests the descriptors are often larger than the data.  This serializer
+ * writes only the class name (or an index into a fixed table of common class
+ * names) along with the serialVersionUID, and resolves the descriptor of the
+ * local class on the receiving side.  Resolved descriptors are cached per
+ * serializer instance.
+ * </p>
+ * <p>
+ * The table holds common java and ECF core classes.  Providers may append the
+ * names of their own message classes with
+ * {@link #CachingSharedObjectMessageSerializer(ClassLoader, String[])}.  Both
+ * sides must then use the same additional names, in the same order.
+ * </p>
+ * <p>
+ * Since the field layout is taken from the local class, both sides must have
+ * the same versions of the message classes.  The serialVersionUID is checked,
+ * and an {@link InvalidClassException} is thrown on mismatch.  The class table
+ * is the same for all connections rather than being built up per connection, as
+ * the shared object message bytes are relayed unchanged by a server to all
+ * other members of a group.
+ * </p>
+ * <p>
+ * Data in the usual java serialization format is also accepted by
+ * {@link #deserializeMessage(byte[])}, so messages from peers still using the
+ * default serializer can be read.
+ * </p>
+ * @since 2.7
+ */
+public class CachingSharedObjectMessageSerializer implements ISharedObjectMessageSerializer {
+
+	static final byte MAGIC = (byte) 0xEC;
+	static final byte VERSION = 1;
+
+	private static final byte DESC_NAME = -1;
+	private static final byte DESC_FULL = -2;
+
+	/**
+	 * Names of common message classes.  Entries may only be appended, as the index
+	 * is sent in place of the name.  Additional class names given to the constructor
+	 * follow these.
+	 */
+	private static final String[] CLASS_TABLE = {"java.lang.Number", //$NON-NLS-1$
+			"java.lang.Integer", //$NON-NLS-1$
+			"java.lang.Long", //$NON-NLS-1$
+			"java.lang.Boolean", //$NON-NLS-1$
+			"java.lang.Short", //$NON-NLS-1$
+			"java.lang.Byte", //$NON-NLS-1$
+			"java.lang.Character", //$NON-NLS-1$
+			"java.lang.Float", //$NON-NLS-1$
+			"java.lang.Double", //$NON-NLS-1$
+			"java.lang.Enum", //$NON-NLS-1$
+			"[Ljava.lang.Object;", //$NON-NLS-1$
+			"[Ljava.lang.String;", //$NON-NLS-1$
+			"[B", //$NON-NLS-1$
+			"[I", //$NON-NLS-1$
+			"[J", //$NON-NLS-1$
+			"[Ljava.lang.Class;", //$NON-NLS-1$
+			"java.util.ArrayList", //$NON-NLS-1$
+			"java.util.LinkedList", //$NON-NLS-1$
+			"java.util.HashMap", //$NON-NLS-1$
+			"java.util.Hashtable", //$NON-NLS-1$
+			"java.util.Properties", //$NON-NLS-1$
+			"java.util.Vector", //$NON-NLS-1$
+			"java.util.HashSet", //$NON-NLS-1$
+			"java.util.TreeMap", //$NON-NLS-1$
+			"java.util.Date", //$NON-NLS-1$
+			"java.lang.Throwable", //$NON-NLS-1$
+			"java.lang.Exception", //$NON-NLS-1$
+			"java.lang.RuntimeException", //$NON-NLS-1$
+			"java.lang.StackTraceElement", //$NON-NLS-1$
+			"[Ljava.lang.StackTraceElement;", //$NON-NLS-1$
+			"org.eclipse.ecf.core.identity.BaseID", //$NON-NLS-1$
+			"org.eclipse.ecf.core.identity.StringID", //$NON-NLS-1$
+			"org.eclipse.ecf.core.identity.GUID", //$NON-NLS-1$
+			"org.eclipse.ecf.core.identity.Namespace", //$NON-NLS-1$
+			"org.eclipse.ecf.core.identity.StringID$StringIDNamespace", //$NON-NLS-1$
+			"org.eclipse.ecf.core.identity.GUID$GUIDNamespace", //$NON-NLS-1$
+			"org.eclipse.ecf.core.sharedobject.SharedObjectMsg"}; //$NON-NLS-1$
+
+	private static final Map PRIMITIVE_CLASSES = new HashMap();
+
+	static {
+		PRIMITIVE_CLASSES.put("boolean", boolean.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("byte", byte.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("char", char.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("short", short.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("int", int.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("long", long.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("float", float.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("double", double.class); //$NON-NLS-1$
+		PRIMITIVE_CLASSES.put("void", void.class); //$NON-NLS-1$
+	}
+
+	private final ClassLoader classLoader;
+
+	// CLASS_TABLE followed by the additional class names
+	private final String[] classTable;
+
+	// class name -> Byte index into classTable
+	private final Map classIndexes = new HashMap();
+
+	// class name -> ObjectStreamClass of the local class
+	private final Map descriptors = new ConcurrentHashMap();
+
+	/**
+	 * @param classLoader the class loader used to load the classes of received
+	 * messages.  If <code>null</code>, the class loader of this class is used.
+	 * @param classNames names of additional message classes to send as an index
+	 * rather than by name.  May be <code>null</code>.
+	 * @throws IllegalArgumentException if there are too many additional class names
+	 */
+	public CachingSharedObjectMessageSerializer(ClassLoader classLoader, String[] classNames) {
+		this.classLoader = (classLoader == null) ? CachingSharedObjectMessageSerializer.class.getClassLoader() : classLoader;
+		final int count = (classNames == null) ? 0 : classNames.length;
+		if (CLASS_TABLE.length + count > Byte.MAX_VALUE + 1)
+			throw new IllegalArgumentException("too many class names=" + count); //$NON-NLS-1$
+		this.classTable = new String[CLASS_TABLE.length + count];
+		System.arraycopy(CLASS_TABLE, 0, classTable, 0, CLASS_TABLE.length);
+		if (count > 0)
+			System.arraycopy(classNames, 0, classTable, CLASS_TABLE.length, count);
+		for (int i = 0; i < classTable.length; i++)
+			classIndexes.put(classTable[i], Byte.valueOf((byte) i));
+	}
+
+	/**
+	 * @param classLoader the class loader used to load the classes of received
+	 * messages.  If <code>null</code>, the class loader of this class is used.
+	 */
+	public CachingSharedObjectMessageSerializer(ClassLoader classLoader) {
+		this(classLoader, null);
+	}
+
+	public CachingSharedObjectMessageSerializer() {
+		this(null);
+	}
+
+	public byte[] serializeMessage(ID sharedObjectID, Object message) throws IOException {
+		if (!(message instanceof Serializable))
+			throw new NotSerializableException("shared object=" + sharedObjectID + " message=" + message + " not serializable"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		final ByteArrayOutputStream bouts = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new CachingObjectOutputStream(bouts);
+		oos.writeObject(message);
+		oos.close();
+		return bouts.toByteArray();
+	}
+
+	public Object deserializeMessage(byte[] data) throws IOException, ClassNotFoundException {
+		final ByteArrayInputStream bins = new ByteArrayInputStream(data);
+		final ObjectInputStream oins = (data.length > 0 && data[0] == MAGIC) ? new CachingObjectInputStream(bins) : new LoaderObjectInputStream(bins);
+		final Object result = oins.readObject();
+		oins.close();
+		return result;
+	}
+
+	protected Class loadClass(String name) throws ClassNotFoundException {
+		final Class c = (Class) PRIMITIVE_CLASSES.get(name);
+		return (c != null) ? c : Class.forName(name, false, classLoader);
+	}
+
+	private ObjectStreamClass getDescriptor(String name, long suid) throws IOException, ClassNotFoundException {
+		ObjectStreamClass desc = (ObjectStreamClass) descriptors.get(name);
+		if (desc == null) {
+			desc = ObjectStreamClass.lookup(loadClass(name));
+			if (desc == null)
+				throw new InvalidClassException(name, "class not serializable"); //$NON-NLS-1$
+			descriptors.put(name, desc);
+		}
+		if (desc.getSerialVersionUID() != suid)
+			throw new InvalidClassException(name, "local class incompatible: stream classdesc serialVersionUID = " + suid + ", local class serialVersionUID = " + desc.getSerialVersionUID()); //$NON-NLS-1$ //$NON-NLS-2$
+		return desc;
+	}
+
+	class CachingObjectOutputStream extends ObjectOutputStream {
+
+		CachingObjectOutputStream(OutputStream out) throws IOException {
+			super(out);
+		}
+
+		protected void writeStreamHeader() throws IOException {
+			writeByte(MAGIC);
+			writeByte(VERSION);
+		}
+
+		protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+			final Class c = desc.forClass();
+			if (c == null || ObjectStreamClass.lookup(c) == null) {
+				// e.g. classes written as Class objects, which can not be looked up on the receiving side
+				writeByte(DESC_FULL);
+				super.writeClassDescriptor(desc);
+				return;
+			}
+			final String name = desc.getName();
+			final Byte index = (Byte) classIndexes.get(name);
+			if (index != null)
+				writeByte(index.byteValue());
+			else {
+				writeByte(DESC_NAME);
+				writeUTF(name);
+			}
+			writeLong(desc.getSerialVersionUID());
+		}
+	}
+
+	class CachingObjectInputStream extends LoaderObjectInputStream {
+
+		CachingObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		protected void readStreamHeader() throws IOException {
+			final byte magic = readByte();
+			final byte version = readByte();
+			if (magic != MAGIC || version != VERSION)
+				throw new StreamCorruptedException("invalid stream header magic=" + magic + " version=" + version); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+			final byte type = readByte();
+			if (type == DESC_FULL)
+				return super.readClassDescriptor();
+			String name;
+			if (type == DESC_NAME)
+				name = readUTF();
+			else if (type >= 0 && type < classTable.length)
+				name = classTable[type];
+			else
+				throw new StreamCorruptedException("invalid class descriptor type=" + type); //$NON-NLS-1$
+			return getDescriptor(name, readLong());
+		}
+	}
+
+	class LoaderObjectInputStream extends ObjectInputStream {
+
+		LoaderObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		protected Class resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			final Class c = desc.forClass();
+			return (c != null) ? c : loadClass(desc.getName());
+		}
+
+		protected Class resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			final Class[] classes = new Class[interfaces.length];
+			for (int i = 0; i < interfaces.length; i++)
+				classes[i] = loadClass(interfaces[i]);
+			return Proxy.getProxyClass(classLoader, classes);
+		}
+	}
+}
@@ -0,0 +1,244 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queue for many producer threads and a single consumer thread, without locking.
+ * <p>
+ * {@link #enqueue(Object)} appends to a linked list with a single atomic swap,
+ * so producers neither block each other nor the consumer.  A consumer waiting in
+ * {@link #peekQueue()} or {@link #dequeue()} is parked, and unparked by the next
+ * {@link #enqueue(Object)} or by {@link #close()}.
+ * </p>
+ * <p>
+ * The methods that look at or remove the head of the queue ({@link #peekQueue()},
+ * {@link #peekQueue(long)}, {@link #dequeue()}, {@link #removeHead()} and
+ * {@link #flush()}) must only be called by one thread at a time.
+ * </p>
+ * <p>
+ * The queue may optionally be bounded.  When full, {@link #enqueue(Object)} either
+ * returns <code>false</code> ({@link #OVERFLOW_REJECT}), or waits until the
+ * consumer has removed an element ({@link #OVERFLOW_BLOCK}).
+ * </p>
+ * <p>
+ * This class extends {@link SimpleFIFOQueue} so that it can be used where a
+ * {@link SimpleFIFOQueue} is expected, but does not share any of its state.
+ * </p>
+ * @since 2.7
+ */
+public class ConcurrentFIFOQueue extends SimpleFIFOQueue {
+
+	/**
+	 * Overflow policy of bounded queues: {@link #enqueue(Object)} returns <code>false</code> when full.
+	 */
+	public static final int OVERFLOW_REJECT = 0;
+
+	/**
+	 * Overflow policy of bounded queues: {@link #enqueue(Object)} waits until there is space.
+	 */
+	public static final int OVERFLOW_BLOCK = 1;
+
+	static final class Node {
+		Object value;
+		volatile Node next;
+
+		Node(Object value) {
+			this.value = value;
+		}
+	}
+
+	// consumer only.  head is a sentinel, the first element is head.next
+	private Node head;
+	private final AtomicReference<Node> tail;
+	private final AtomicInteger size = new AtomicInteger();
+	// the consumer thread when parked waiting for an element
+	private volatile Thread waiter;
+	private volatile boolean stopped;
+
+	// number of times the consumer checks for an element before it parks.  Spinning
+	// avoids a park/unpark pair per element when a single producer keeps up with
+	// the consumer, but is useless with a single CPU
+	private static final int SPINS = (Runtime.getRuntime().availableProcessors() > 1) ? Integer.parseInt(System.getProperty("org.eclipse.ecf.core.sharedobject.util.ConcurrentFIFOQueue.spins", "256")) : 0; //$NON-NLS-1$ //$NON-NLS-2$
+
+	// null if unbounded
+	private final Semaphore space;
+	private final int overflowPolicy;
+
+	/**
+	 * Create an unbounded queue.
+	 */
+	public ConcurrentFIFOQueue() {
+		this(0, OVERFLOW_REJECT);
+	}
+
+	/**
+	 * @param capacity the maximum number of elements, or 0 for an unbounded queue
+	 * @param overflowPolicy {@link #OVERFLOW_REJECT} or {@link #OVERFLOW_BLOCK}
+	 */
+	public ConcurrentFIFOQueue(int capacity, int overflowPolicy) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("capacity cannot be negative"); //$NON-NLS-1$
+		if (overflowPolicy != OVERFLOW_REJECT && overflowPolicy != OVERFLOW_BLOCK)
+			throw new IllegalArgumentException("invalid overflow policy=" + overflowPolicy); //$NON-NLS-1$
+		this.head = new Node(null);
+		this.tail = new AtomicReference<Node>(head);
+		this.space = (capacity == 0) ? null : new Semaphore(capacity);
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	public boolean enqueue(final Object obj) {
+		if (stopped || obj == null)
+			return false;
+		if (space != null && !acquireSpace())
+			return false;
+		final Node node = new Node(obj);
+		size.incrementAndGet();
+		tail.getAndSet(node).next = node;
+		final Thread w = waiter;
+		if (w != null)
+			LockSupport.unpark(w);
+		return true;
+	}
+
+	private boolean acquireSpace() {
+		if (overflowPolicy == OVERFLOW_REJECT)
+			return space.tryAcquire();
+		try {
+			// Wake up periodically so that closing the queue releases blocked producers
+			while (!space.tryAcquire(100, TimeUnit.MILLISECONDS))
+				if (stopped)
+					return false;
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	public Object dequeue() {
+		final Object val = peekQueue();
+		if (val != null)
+			removeHead();
+		return val;
+	}
+
+	public Object peekQueue() {
+		for (;;) {
+			final Node first = head.next;
+			if (first != null)
+				return first.value;
+			if (stopped)
+				return null;
+			if (!await(0))
+				return null;
+		}
+	}
+
+	public Object peekQueue(final long waitMS) {
+		if (waitMS == 0)
+			return peekQueue();
+		if (stopped)
+			return null;
+		Node first = head.next;
+		if (first == null) {
+			if (!await(TimeUnit.MILLISECONDS.toNanos(waitMS)))
+				return null;
+			first = head.next;
+		}
+		return (first == null) ? null : first.value;
+	}
+
+	/**
+	 * Spin briefly, then park the calling (consumer) thread until an element is
+	 * enqueued, the queue is closed, or the timeout expires.
+	 * @return <code>false</code> if interrupted
+	 */
+	private boolean await(long nanos) {
+		for (int i = 0; i < SPINS; i++)
+			if (head.next != null || stopped)
+				return true;
+		waiter = Thread.currentThread();
+		try {
+			// Check again after publishing the waiter, as enqueue checks for the waiter after linking
+			if (head.next == null && !stopped) {
+				if (nanos > 0)
+					LockSupport.parkNanos(nanos);
+				else
+					LockSupport.park();
+			}
+		} finally {
+			waiter = null;
+		}
+		return !Thread.currentThread().isInterrupted();
+	}
+
+	public Object removeHead() {
+		final Node first = head.next;
+		if (first == null)
+			return null;
+		final Object val = first.value;
+		// first becomes the new sentinel
+		first.value = null;
+		head = first;
+		size.decrementAndGet();
+		if (space != null)
+			space.release();
+		return val;
+	}
+
+	public boolean isEmpty() {
+		return size.get() == 0;
+	}
+
+	public void stop() {
+		stopped = true;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	public Object[] flush() {
+		final List<Object> out = new ArrayList<Object>();
+		for (Object val = removeHead(); val != null; val = removeHead())
+			out.add(val);
+		close();
+		return out.toArray();
+	}
+
+	public void close() {
+		stop();
+		final Thread w = waiter;
+		if (w != null)
+			LockSupport.unpark(w);
+	}
+
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("ConcurrentFIFOQueue["); //$NON-NLS-1$
+		sb.append("size=").append(size()); //$NON-NLS-1$
+		sb.append(";stopped=").append(stopped).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return sb.toString();
+	}
+}
@@ -0,0 +1,128 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combines messages added concurrently by several threads into batches.
+ * <p>
+ * A message added while no batch is being sent is sent right away by the
+ * adding thread, so no latency is added when messages are infrequent.  Messages
+ * added while a batch is being sent are collected, and are sent together as the
+ * next batch by the thread that sent the previous one, once that send completes.
+ * The size of the batches therefore adapts to the rate at which messages are
+ * added relative to the time taken to send a batch.
+ * </p>
+ * @param <T> the type of the messages
+ * @since 2.7
+ */
+public abstract class MessageBatcher<T> {
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+	private final int maxBatchSize;
+
+	// guarded by this
+	private List<T> pending = new ArrayList<T>();
+	private boolean sending;
+
+	/**
+	 * @param maxBatchSize the maximum number of messages sent in one batch.  Must be
+	 * greater than zero.
+	 */
+	public MessageBatcher(int maxBatchSize) {
+		if (maxBatchSize < 1)
+			throw new IllegalArgumentException("maxBatchSize must be greater than zero"); //$NON-NLS-1$
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	public MessageBatcher() {
+		this(DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * Add a message to be sent.  If no batch is being sent, the message is sent
+	 * before this method returns, along with any messages added by other threads
+	 * in the meantime.  Otherwise the message is sent with the next batch by the
+	 * thread currently sending, and this method returns right away.
+	 *
+	 * @param message the message to send.  Must not be <code>null</code>.
+	 */
+	public void add(T message) {
+		synchronized (this) {
+			pending.add(message);
+			if (sending)
+				return;
+			sending = true;
+		}
+		boolean done = false;
+		try {
+			for (;;) {
+				List<T> batch;
+				synchronized (this) {
+					if (pending.isEmpty()) {
+						sending = false;
+						done = true;
+						return;
+					}
+					if (pending.size() <= maxBatchSize) {
+						batch = pending;
+						pending = new ArrayList<T>();
+					} else {
+						final List<T> first = pending.subList(0, maxBatchSize);
+						batch = new ArrayList<T>(first);
+						first.clear();
+					}
+				}
+				try {
+					send(batch);
+				} catch (final IOException e) {
+					sendFailed(batch, e);
+				}
+			}
+		} finally {
+			// On an unexpected exception, let the next call to add send the pending messages
+			if (!done)
+				synchronized (this) {
+					sending = false;
+				}
+		}
+	}
+
+	/**
+	 * @return the number of messages waiting to be sent
+	 */
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Send a batch of messages.
+	 *
+	 * @param messages the messages to send.  Will not be <code>null</code> or empty.
+	 * @throws IOException if the messages could not be sent
+	 */
+	protected abstract void send(List<T> messages) throws IOException;
+
+	/**
+	 * Called when {@link #send(List)} throws an {@link IOException}, on the thread that
+	 * called {@link #send(List)}.
+	 *
+	 * @param messages the messages that could not be sent
+	 * @param exception the exception thrown by {@link #send(List)}
+	 */
+	protected abstract void sendFailed(List<T> messages, IOException exception);
+}
@@ -473,7 +473,8 @@ public abstract class AbstractTopologyManager {
 	protected void handleServiceModifying(ServiceReference serviceReference) {
 		RemoteServiceAdmin rsa = (RemoteServiceAdmin) getRemoteServiceAdmin();
 		if (rsa != null) {
-			List<RemoteServiceAdmin.ExportRegistration> exportedRegistrations = rsa.getExportedRegistrations();
+			List<RemoteServiceAdmin.ExportRegistration> exportedRegistrations = rsa
+					.getExportedRegistrations(serviceReference);
 			for (RemoteServiceAdmin.ExportRegistration exportedRegistration : exportedRegistrations) {
 				if (exportedRegistration.match(serviceReference)) {
 					trace("handleServiceModifying", "modifying exportRegistration for serviceReference=" //$NON-NLS-1$ //$NON-NLS-2$
@@ -490,8 +491,8 @@ public abstract class AbstractTopologyManager {
 	protected void handleServiceUnregistering(ServiceReference serviceReference) {
 		RemoteServiceAdmin rsa = (RemoteServiceAdmin) getRemoteServiceAdmin();
 		if (rsa != null) {
-			List<RemoteServiceAdmin.ExportRegistration> exportedRegistrations = ((RemoteServiceAdmin) getRemoteServiceAdmin())
-					.getExportedRegistrations();
+			List<RemoteServiceAdmin.ExportRegistration> exportedRegistrations = rsa
+					.getExportedRegistrations(serviceReference);
 			for (RemoteServiceAdmin.ExportRegistration exportedRegistration : exportedRegistrations) {
 				if (exportedRegistration.match(serviceReference)) {
 					trace("handleServiceUnregistering", "closing exportRegistration for serviceReference=" //$NON-NLS-1$ //$NON-NLS-2$
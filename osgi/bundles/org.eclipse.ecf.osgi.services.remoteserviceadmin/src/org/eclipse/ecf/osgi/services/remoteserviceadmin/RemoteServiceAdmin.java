@@ -31,6 +31,9 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -128,6 +131,26 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 	private Collection<org.osgi.service.remoteserviceadmin.ExportRegistration> exportedRegistrations;
 	private Collection<org.osgi.service.remoteserviceadmin.ImportRegistration> importedRegistrations;
 
+	/**
+	 * Active export endpoints by service reference and container id, shared by
+	 * all instances like the exported registrations. The map of a service
+	 * reference is also the lock for exporting it.
+	 */
+	private static final ConcurrentMap<ServiceReference, ConcurrentMap<ID, ExportEndpoint>> exportEndpoints = new ConcurrentHashMap<ServiceReference, ConcurrentMap<ID, ExportEndpoint>>();
+
+	/**
+	 * Active import endpoints by endpoint id, shared by all instances like the
+	 * imported registrations, so an import finds an existing endpoint without
+	 * scanning the registrations.
+	 */
+	private static final ConcurrentMap<String, ImportEndpoint> importEndpoints = new ConcurrentHashMap<String, ImportEndpoint>();
+
+	/**
+	 * Imports in progress by endpoint id. Concurrent imports of the same
+	 * endpoint wait for the first one instead of connecting again.
+	 */
+	private static final ConcurrentMap<String, CompletableFuture<ImportRegistration>> pendingImports = new ConcurrentHashMap<String, CompletableFuture<ImportRegistration>>();
+
 	private Collection<ExportRegistration> localExportedRegistrations = new ArrayList<ExportRegistration>();
 	private Collection<ImportRegistration> localImportedRegistrations = new ArrayList<ImportRegistration>();
 
@@ -276,19 +299,63 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 		// service.exported.intents.extra)
 		final String[] serviceIntents = PropertiesUtil.getServiceIntents(serviceReference, overridingProperties);
 
+		// Exports of the same serviceReference are serialized, exports of
+		// other services proceed
+		Collection<ExportRegistration> resultRegistrations = null;
+		while (true) {
+			ConcurrentMap<ID, ExportEndpoint> endpoints = getExportEndpoints(serviceReference);
+			synchronized (endpoints) {
+				// Removed by the close of its last endpoint, get a new one
+				if (exportEndpoints.get(serviceReference) != endpoints)
+					continue;
+				resultRegistrations = exportService(serviceReference, overridingProperties, exportedInterfaces,
+						exportedConfigs, serviceIntents, endpoints);
+				// Nothing exported, do not keep the entry
+				if (endpoints.isEmpty())
+					exportEndpoints.remove(serviceReference, endpoints);
+			}
+			break;
+		}
+		if (resultRegistrations == null)
+			return Collections.EMPTY_LIST;
+
+		// publish all activeExportRegistrations
+		for (ExportRegistration exportReg : resultRegistrations)
+			publishExportEvent(exportReg);
+
+		trace("exportService", "exported registrations=" + resultRegistrations); //$NON-NLS-1$ //$NON-NLS-2$
+
+		// and return
+		return new ArrayList<org.osgi.service.remoteserviceadmin.ExportRegistration>(resultRegistrations);
+	}
+
+	private static ConcurrentMap<ID, ExportEndpoint> getExportEndpoints(ServiceReference serviceReference) {
+		ConcurrentMap<ID, ExportEndpoint> endpoints = exportEndpoints.get(serviceReference);
+		if (endpoints == null) {
+			endpoints = new ConcurrentHashMap<ID, ExportEndpoint>();
+			ConcurrentMap<ID, ExportEndpoint> existing = exportEndpoints.putIfAbsent(serviceReference, endpoints);
+			if (existing != null)
+				endpoints = existing;
+		}
+		return endpoints;
+	}
+
+	private Collection<ExportRegistration> exportService(final ServiceReference<?> serviceReference,
+			final Map<String, ?> overridingProperties, final String[] exportedInterfaces,
+			final String[] exportedConfigs, final String[] serviceIntents, Map<ID, ExportEndpoint> endpoints) {
 		// Create result registrations. This collection will be returned
 		Collection<ExportRegistration> resultRegistrations = new ArrayList<ExportRegistration>();
 
 		// check for previously exported registration for the serviceReference
-		synchronized (exportedRegistrations) {
-			ExportEndpoint exportEndpoint = findExistingExportEndpoint(serviceReference, null);
+		for (ExportEndpoint exportEndpoint : endpoints.values()) {
+			ExportRegistration reg = exportEndpoint.newExportRegistration();
 			// If found then create a second ExportRegistration from endpoint
-			if (exportEndpoint != null) {
+			if (reg != null) {
 				trace("exportService", "serviceReference=" + serviceReference + " export endpoint already exists=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 						+ exportEndpoint + ".  Returning new ExportRegistration for existing endpoint"); //$NON-NLS-1$
-				ExportRegistration reg = new ExportRegistration(exportEndpoint);
 				addExportRegistration(reg);
 				resultRegistrations.add(reg);
+				break;
 			}
 		}
 		// If the serviceReference hasn't already been exported before (above)
@@ -340,50 +407,105 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 							+ serviceReference + " properties=" + overridingProperties //$NON-NLS-1$
 							+ ". Remote service NOT EXPORTED"; //$NON-NLS-1$
 					logWarning("exportService", errorMessage); //$NON-NLS-1$
-					return Collections.EMPTY_LIST;
+					return null;
 				}
 				// actually do the export
-				synchronized (exportedRegistrations) {
-					// For all selected containers
-					for (int i = 0; i < rsContainers.length; i++) {
-						Map endpointDescriptionProperties = createExportEndpointDescriptionProperties(serviceReference,
-								(Map<String, Object>) overridingProperties, exportedInterfaces, serviceIntents,
-								rsContainers[i]);
-						// otherwise, actually export the service to create
-						// a new ExportEndpoint and use it to create a new
-						// ExportRegistration
-						EndpointDescription endpointDescription = new EndpointDescription(
-								endpointDescriptionProperties);
-
-						checkEndpointPermission(endpointDescription, EndpointPermission.EXPORT);
-
-						ExportRegistration exportRegistration = null;
-
-						try {
-							// Actually do the export and return export
-							// registration
-							exportRegistration = exportService(serviceReference, overridingProperties,
-									exportedInterfaces, rsContainers[i], endpointDescriptionProperties);
-						} catch (Exception e) {
-							exportRegistration = new ExportRegistration(e, endpointDescription);
-						}
+				// For all selected containers
+				for (int i = 0; i < rsContainers.length; i++) {
+					Map endpointDescriptionProperties = createExportEndpointDescriptionProperties(serviceReference,
+							(Map<String, Object>) overridingProperties, exportedInterfaces, serviceIntents,
+							rsContainers[i]);
+					// otherwise, actually export the service to create
+					// a new ExportEndpoint and use it to create a new
+					// ExportRegistration
+					EndpointDescription endpointDescription = new EndpointDescription(endpointDescriptionProperties);
 
-						addExportRegistration(exportRegistration);
-						// We add it to the results in either success or error case
-						resultRegistrations.add(exportRegistration);
+					checkEndpointPermission(endpointDescription, EndpointPermission.EXPORT);
+
+					ExportRegistration exportRegistration = null;
+
+					try {
+						// Actually do the export and return export
+						// registration
+						exportRegistration = exportService(serviceReference, overridingProperties, exportedInterfaces,
+								rsContainers[i], endpointDescriptionProperties);
+						ExportEndpoint exportEndpoint = exportRegistration.getExportEndpoint(serviceReference, null);
+						ID containerID = (exportEndpoint == null) ? null : exportEndpoint.getContainerID();
+						if (containerID != null)
+							endpoints.put(containerID, exportEndpoint);
+					} catch (Exception e) {
+						exportRegistration = new ExportRegistration(e, endpointDescription);
 					}
+
+					addExportRegistration(exportRegistration);
+					// We add it to the results in either success or error case
+					resultRegistrations.add(exportRegistration);
 				}
 			}
 		}
+		return resultRegistrations;
+	}
 
-		// publish all activeExportRegistrations
-		for (ExportRegistration exportReg : resultRegistrations)
-			publishExportEvent(exportReg);
+	/**
+	 * Export several services. Each service is exported as with
+	 * {@link #exportService(ServiceReference, Map)}. A service that cannot be
+	 * exported is logged and skipped, so it does not prevent the export of the
+	 * others.
+	 * 
+	 * @param exports
+	 *            the services to export with their export properties. The
+	 *            properties may be <code>null</code>.
+	 * @return the export registrations of each service that was exported
+	 * @since 4.9
+	 */
+	public Map<ServiceReference<?>, Collection<org.osgi.service.remoteserviceadmin.ExportRegistration>> exportServices(
+			Map<ServiceReference<?>, Map<String, ?>> exports) {
+		Map<ServiceReference<?>, Collection<org.osgi.service.remoteserviceadmin.ExportRegistration>> results = new HashMap<ServiceReference<?>, Collection<org.osgi.service.remoteserviceadmin.ExportRegistration>>();
+		for (Map.Entry<ServiceReference<?>, Map<String, ?>> export : exports.entrySet()) {
+			ServiceReference<?> serviceReference = export.getKey();
+			Map<String, ?> properties = export.getValue();
+			try {
+				results.put(serviceReference, exportService(serviceReference,
+						(properties == null) ? Collections.<String, Object> emptyMap() : properties));
+			} catch (RuntimeException e) {
+				logError("exportServices", "Could not export serviceReference=" + serviceReference, e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return results;
+	}
 
-		trace("exportService", "exported registrations=" + resultRegistrations); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Close all export registrations of the given services.
+	 * 
+	 * @param serviceReferences
+	 *            the services to unexport
+	 * @return the export registrations that were closed
+	 * @since 4.9
+	 */
+	public List<ExportRegistration> unexportServices(Collection<? extends ServiceReference<?>> serviceReferences) {
+		List<ExportRegistration> closed = new ArrayList<ExportRegistration>();
+		for (ServiceReference<?> serviceReference : serviceReferences)
+			closed.addAll(getExportedRegistrations(serviceReference));
+		for (ExportRegistration exportRegistration : closed) {
+			trace("unexportServices", "closing exportRegistration=" + exportRegistration); //$NON-NLS-1$ //$NON-NLS-2$
+			exportRegistration.close();
+		}
+		return closed;
+	}
 
-		// and return
-		return new ArrayList<org.osgi.service.remoteserviceadmin.ExportRegistration>(resultRegistrations);
+	/**
+	 * @param serviceReference
+	 *            the exported service
+	 * @return the active export registrations of the given service
+	 * @since 4.9
+	 */
+	public List<ExportRegistration> getExportedRegistrations(ServiceReference<?> serviceReference) {
+		List<ExportRegistration> results = new ArrayList<ExportRegistration>();
+		Map<ID, ExportEndpoint> endpoints = exportEndpoints.get(serviceReference);
+		if (endpoints != null)
+			for (ExportEndpoint exportEndpoint : endpoints.values())
+				results.addAll(exportEndpoint.getExportRegistrations());
+		return results;
 	}
 
 	public org.osgi.service.remoteserviceadmin.ImportRegistration importService(
@@ -432,15 +554,11 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 		}
 
 		// If one selected then import the service to create an import
-		// registration
-		synchronized (importedRegistrations) {
-			if (importRegistration == null) {
-				ImportEndpoint importEndpoint = findImportEndpoint(ed);
-				importRegistration = ((importEndpoint != null) ? new ImportRegistration(importEndpoint)
-						: importService(ed, rsContainer));
-			}
-			addImportRegistration(importRegistration);
-		}
+		// registration. This connects and looks up the remote reference
+		// without holding a lock, so imports of other endpoints proceed
+		if (importRegistration == null)
+			importRegistration = importEndpoint(ed, rsContainer);
+		addImportRegistration(importRegistration);
 		// publish import event
 		publishImportEvent(importRegistration);
 		trace("importService", "importRegistration=" + importRegistration); //$NON-NLS-1$ //$NON-NLS-2$
@@ -450,20 +568,28 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 
 	public Collection<org.osgi.service.remoteserviceadmin.ExportReference> getExportedServices() {
 		Collection<org.osgi.service.remoteserviceadmin.ExportReference> results = new ArrayList<org.osgi.service.remoteserviceadmin.ExportReference>();
-		synchronized (exportedRegistrations) {
-			// XXX The spec doesn't specify what is supposed to happen
-			// when the registrations is empty...but the TCK test method:
-			// RemoteServiceAdminSecure.testNoPermissions()
-			// assumes that a SecurityException is thrown when accessed without READ
-			// permission
-			if (exportedRegistrations.isEmpty())
-				checkRSAReadAccess();
-			for (org.osgi.service.remoteserviceadmin.ExportRegistration reg : exportedRegistrations) {
-				org.osgi.service.remoteserviceadmin.ExportReference eRef = reg.getExportReference();
-				if (eRef != null && checkEndpointPermissionRead("getExportedServices", //$NON-NLS-1$
-						eRef.getExportedEndpoint()))
-					results.add(eRef);
-			}
+		// The active registrations are those of the export endpoints, failed
+		// exports have no export reference
+		List<org.osgi.service.remoteserviceadmin.ExportReference> exportReferences = new ArrayList<org.osgi.service.remoteserviceadmin.ExportReference>();
+		for (Map<ID, ExportEndpoint> endpoints : exportEndpoints.values())
+			for (ExportEndpoint exportEndpoint : endpoints.values())
+				for (ExportRegistration reg : exportEndpoint.getExportRegistrations()) {
+					org.osgi.service.remoteserviceadmin.ExportReference eRef = reg.getExportReference();
+					if (eRef != null)
+						exportReferences.add(eRef);
+				}
+		// XXX The spec doesn't specify what is supposed to happen
+		// when the registrations is empty...but the TCK test method:
+		// RemoteServiceAdminSecure.testNoPermissions()
+		// assumes that a SecurityException is thrown when accessed without READ
+		// permission
+		if (exportReferences.isEmpty())
+			checkRSAReadAccess();
+		// check the permissions without holding a lock
+		for (org.osgi.service.remoteserviceadmin.ExportReference eRef : exportReferences) {
+			if (checkEndpointPermissionRead("getExportedServices", //$NON-NLS-1$
+					eRef.getExportedEndpoint()))
+				results.add(eRef);
 		}
 		return results;
 	}
@@ -577,6 +703,9 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 
 		private Map<String, Object> originalProperties;
 
+		private final ServiceReference indexReference;
+		private final ID indexContainerID;
+
 		public String toString() {
 			StringBuffer buf = new StringBuffer("ExportEndpoint["); //$NON-NLS-1$
 			buf.append("serviceReference=").append(serviceReference).append(";"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -590,6 +719,8 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			this.serviceReference = serviceReference;
 			Assert.isNotNull(endpointDescription);
 			this.endpointDescription = endpointDescription;
+			this.indexReference = serviceReference;
+			this.indexContainerID = endpointDescription.getContainerID();
 			Assert.isNotNull(reg);
 			this.rsRegistration = reg;
 			Assert.isNotNull(containerAdapter);
@@ -638,6 +769,33 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			return this.activeExportRegistrations.add(exportRegistration);
 		}
 
+		synchronized ExportRegistration newExportRegistration() {
+			// once the last registration is closed the endpoint stays closed
+			return (activeExportRegistrations.size() == 0) ? null : new ExportRegistration(this);
+		}
+
+		synchronized List<ExportRegistration> getExportRegistrations() {
+			return new ArrayList<ExportRegistration>(activeExportRegistrations);
+		}
+
+		void removeFromIndex() {
+			synchronized (this) {
+				if (activeExportRegistrations.size() > 0)
+					return;
+			}
+			// Not holding this lock, exportService holds the endpoints lock
+			// when it calls newExportRegistration
+			ConcurrentMap<ID, ExportEndpoint> endpoints = exportEndpoints.get(indexReference);
+			if (endpoints == null)
+				return;
+			synchronized (endpoints) {
+				if (indexContainerID != null)
+					endpoints.remove(indexContainerID, this);
+				if (endpoints.isEmpty())
+					exportEndpoints.remove(indexReference, endpoints);
+			}
+		}
+
 		synchronized boolean close(ExportRegistration exportRegistration) {
 			boolean removed = this.activeExportRegistrations.remove(exportRegistration);
 			if (removed && activeExportRegistrations.size() == 0) {
@@ -761,6 +919,7 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			Throwable exception = null;
 			EndpointDescription endpointDescription = null;
 			ExportReference exRef = null;
+			ExportEndpoint exportEndpoint = null;
 			synchronized (this) {
 				// Only do this once
 				if (!closed) {
@@ -768,11 +927,14 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 					exception = getException();
 					endpointDescription = getEndpointDescription();
 					exRef = this.exportReference;
+					exportEndpoint = exRef.getExportEndpoint();
 					publish = exportReference.close(this);
 					closed = true;
 					this.exportReference = null;
 				}
 			}
+			if (exportEndpoint != null)
+				exportEndpoint.removeFromIndex();
 			removeExportRegistration(this);
 			Bundle rsaBundle = getRSABundle();
 			// Only publish events
@@ -913,6 +1075,7 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 		private IRemoteServiceReference rsReference;
 		private ServiceRegistration proxyRegistration;
 		private Set<ImportRegistration> activeImportRegistrations = new HashSet<ImportRegistration>();
+		private final String endpointId;
 
 		public String toString() {
 			StringBuffer buf = new StringBuffer("ImportEndpoint["); //$NON-NLS-1$
@@ -926,6 +1089,7 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			this.rsContainer = rsContainer;
 			this.rsReference = rsReference;
 			this.endpointDescription = endpointDescription;
+			this.endpointId = endpointDescription.getId();
 			this.rs = rs;
 			this.proxyRegistration = proxyRegistration;
 			this.rsListener = new RemoteServiceListener();
@@ -952,9 +1116,15 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			return this.activeImportRegistrations.add(importRegistration);
 		}
 
+		synchronized ImportRegistration newImportRegistration(EndpointDescription ed) {
+			// match fails once closed, so no registration is added after that
+			return match(ed) ? new ImportRegistration(this) : null;
+		}
+
 		synchronized boolean close(ImportRegistration importRegistration) {
 			boolean removed = this.activeImportRegistrations.remove(importRegistration);
 			if (removed && activeImportRegistrations.size() == 0) {
+				importEndpoints.remove(endpointId, this);
 				if (proxyRegistration != null) {
 					try {
 						proxyRegistration.unregister();
@@ -1440,19 +1610,6 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 		return results.toArray(new RemoteServiceAdminListener[results.size()]);
 	}
 
-	private ExportEndpoint findExistingExportEndpoint(ServiceReference serviceReference, ID containerID) {
-		for (org.osgi.service.remoteserviceadmin.ExportRegistration eReg : exportedRegistrations) {
-			if (eReg instanceof ExportRegistration) {
-
-				ExportEndpoint exportEndpoint = ((ExportRegistration) eReg).getExportEndpoint(serviceReference,
-						containerID);
-				if (exportEndpoint != null)
-					return exportEndpoint;
-			}
-		}
-		return null;
-	}
-
 	private Object consumerContainerSelectorTrackerLock = new Object();
 	private ServiceTracker consumerContainerSelectorTracker;
 
@@ -2370,15 +2527,60 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 		}
 	}
 
-	private ImportEndpoint findImportEndpoint(EndpointDescription ed) {
-		for (org.osgi.service.remoteserviceadmin.ImportRegistration reg : importedRegistrations) {
-			if (reg instanceof ImportRegistration) {
-				ImportEndpoint endpoint = ((ImportRegistration) reg).getImportEndpoint(ed);
-				if (endpoint != null)
-					return endpoint;
+	private ImportRegistration importEndpoint(EndpointDescription ed, IRemoteServiceContainer rsContainer) {
+		final String endpointId = ed.getId();
+		while (true) {
+			// Already imported
+			ImportEndpoint importEndpoint = importEndpoints.get(endpointId);
+			ImportRegistration importRegistration = (importEndpoint == null) ? null
+					: importEndpoint.newImportRegistration(ed);
+			if (importRegistration != null)
+				return importRegistration;
+			CompletableFuture<ImportRegistration> pending = new CompletableFuture<ImportRegistration>();
+			CompletableFuture<ImportRegistration> other = pendingImports.putIfAbsent(endpointId, pending);
+			if (other == null) {
+				try {
+					// An import of this endpoint may have completed between
+					// the check above and claiming it, so check again
+					importEndpoint = importEndpoints.get(endpointId);
+					importRegistration = (importEndpoint == null) ? null
+							: importEndpoint.newImportRegistration(ed);
+					if (importRegistration != null) {
+						pending.complete(importRegistration);
+						return importRegistration;
+					}
+					importRegistration = importService(ed, rsContainer);
+					importEndpoint = importRegistration.getImportEndpoint(ed);
+					if (importEndpoint != null)
+						importEndpoints.put(endpointId, importEndpoint);
+					pending.complete(importRegistration);
+					return importRegistration;
+				} catch (RuntimeException e) {
+					pending.completeExceptionally(e);
+					throw e;
+				} finally {
+					pendingImports.remove(endpointId, pending);
+				}
+			}
+			// Another import of this endpoint is in progress, share its
+			// result
+			trace("importEndpoint", "waiting for pending import of endpointId=" + endpointId); //$NON-NLS-1$ //$NON-NLS-2$
+			ImportRegistration otherRegistration;
+			try {
+				otherRegistration = other.join();
+			} catch (RuntimeException e) {
+				// The other import failed unexpectedly, try again
+				continue;
 			}
+			Throwable exception = otherRegistration.getException();
+			if (exception != null)
+				return new ImportRegistration(ed, exception);
+			importEndpoint = otherRegistration.getImportEndpoint(ed);
+			importRegistration = (importEndpoint == null) ? null : importEndpoint.newImportRegistration(ed);
+			if (importRegistration != null)
+				return importRegistration;
+			// Closed or not the same service, try again
 		}
-		return null;
 	}
 
 	private void unimportService(IRemoteServiceID remoteServiceID) {
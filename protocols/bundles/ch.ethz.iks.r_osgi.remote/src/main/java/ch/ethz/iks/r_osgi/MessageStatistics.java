@@ -0,0 +1,76 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.r_osgi;
+
+/**
+ * Message counters and round trip latencies of the channel endpoints. R-OSGi
+ * registers an implementation of this interface as a service. All values are
+ * kept per function ID, i.e., per type code of
+ * {@link ch.ethz.iks.r_osgi.messages.RemoteOSGiMessage}, and per channel
+ * endpoint, identified by the address of the remote peer.
+ *
+ * @since 1.1
+ */
+public interface MessageStatistics {
+
+	/**
+	 * the number of buckets of a round trip histogram.
+	 */
+	int ROUND_TRIP_BUCKETS = 24;
+
+	/**
+	 * get the addresses of the remote peers that are currently connected.
+	 *
+	 * @return the addresses.
+	 */
+	URI[] getEndpoints();
+
+	/**
+	 * get the number of messages sent to a remote peer.
+	 *
+	 * @param endpoint
+	 *            the address of the remote peer.
+	 * @param funcID
+	 *            the function ID of the messages.
+	 * @return the number of messages, or 0 if the peer is not connected.
+	 */
+	long getSentMessages(URI endpoint, short funcID);
+
+	/**
+	 * get the number of messages received from a remote peer.
+	 *
+	 * @param endpoint
+	 *            the address of the remote peer.
+	 * @param funcID
+	 *            the function ID of the messages.
+	 * @return the number of messages, or 0 if the peer is not connected.
+	 */
+	long getReceivedMessages(URI endpoint, short funcID);
+
+	/**
+	 * get the histogram of the round trip times of the requests sent to a
+	 * remote peer that expect a reply. Bucket <code>i</code> counts the round
+	 * trips that took at least <code>2^(i-1)</code> but less than
+	 * <code>2^i</code> microseconds, bucket 0 the ones that took less than a
+	 * microsecond. The last bucket also counts all slower round trips.
+	 *
+	 * @param endpoint
+	 *            the address of the remote peer.
+	 * @param funcID
+	 *            the function ID of the requests.
+	 * @return the histogram with {@link #ROUND_TRIP_BUCKETS} buckets, or
+	 *         <code>null</code> if the peer is not connected.
+	 */
+	long[] getRoundTripHistogram(URI endpoint, short funcID);
+
+}
@@ -45,7 +45,22 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.ecf.remoteservice.asyncproxy.AsyncReturnUtil;
 import org.objectweb.asm.Type;
@@ -143,6 +158,12 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 */
 	private TimeOffset timeOffset;
 
+	/**
+	 * the protocol version of the remote channel endpoint, as seen on the
+	 * messages it sent.
+	 */
+	private volatile short remoteVersion = RemoteOSGiMessage.VERSION_1;
+
 	/**
 	 * Timeout.
 	 */
@@ -150,9 +171,30 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			"ch.ethz.iks.r_osgi.channelEndpointImpl.timeout", "120000"));
 
 	/**
-	 * the callback register
+	 * the worker threads that handle incoming messages, shared by all channel
+	 * endpoints. Idle threads terminate after a minute.
 	 */
-	protected final Map callbacks = new HashMap(0);
+	private static final ThreadPoolExecutor WORKERS = new ThreadPoolExecutor(
+			RemoteOSGiServiceImpl.MAX_WORKER_THREADS,
+			RemoteOSGiServiceImpl.MAX_WORKER_THREADS, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue(), new DaemonThreadFactory(
+					"r-OSGi ChannelWorkerThread")); //$NON-NLS-1$
+
+	/**
+	 * expires calls that have not received a result within the timeout.
+	 */
+	private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(
+			1, new DaemonThreadFactory("r-OSGi CallTimeoutThread")); //$NON-NLS-1$
+
+	static {
+		WORKERS.allowCoreThreadTimeOut(true);
+		TIMER.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * the callback register. Map of xid -&gt; AsyncCallback
+	 */
+	protected final ConcurrentMap callbacks = new ConcurrentHashMap();
 
 	/**
 	 * map of service uri -&gt; RemoteServiceRegistration.
@@ -196,7 +238,42 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 							+ "=org/osgi/service/remoteserviceadmin/*))" //$NON-NLS-1$
 					+ ")"; //$NON-NLS-1$
 
-	private ArrayList workQueue = new ArrayList();
+	/**
+	 * the incoming messages waiting to be handled by a worker thread.
+	 */
+	private final Queue workQueue = new ConcurrentLinkedQueue();
+
+	/**
+	 * the number of worker threads currently handling messages of this
+	 * endpoint, at most MAX_THREADS_PER_ENDPOINT.
+	 */
+	private final AtomicInteger activeWorkers = new AtomicInteger();
+
+	/**
+	 * handles the messages in the work queue on a shared worker thread.
+	 */
+	private final Runnable worker = new Runnable() {
+		public void run() {
+			try {
+				Runnable r;
+				while ((r = (Runnable) workQueue.poll()) != null) {
+					try {
+						r.run();
+					} catch (final RuntimeException re) {
+						// keep handling the remaining messages of the endpoint
+						if (RemoteOSGiServiceImpl.log != null) {
+							RemoteOSGiServiceImpl.log.log(LogService.LOG_ERROR,
+									"Error while handling incoming message", re); //$NON-NLS-1$
+						}
+					}
+				}
+			} finally {
+				activeWorkers.decrementAndGet();
+			}
+			// a message may have been queued while this worker was leaving
+			startWorkers();
+		}
+	};
 
 	/**
 	 * used by the multiplexer and serves as a marker whether or not the channel
@@ -204,14 +281,23 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 */
 	boolean hasRedundantLinks = false;
 	
-	boolean traceChannelEndpoint = new Boolean(System.getProperty("ch.ethz.iks.r_osgi.impl.traceChannelEndpoint","false")).booleanValue();
+	/**
+	 * trace the endpoint? Call sites check the flag before they build the
+	 * trace message.
+	 */
+	static final boolean TRACE = Boolean.getBoolean("ch.ethz.iks.r_osgi.impl.traceChannelEndpoint"); //$NON-NLS-1$
+
+	/**
+	 * the message counters and round trip times of this endpoint.
+	 */
+	final EndpointStatistics statistics = new EndpointStatistics();
 
 	void trace(String message) {
 		trace(message, null);
 	}
 	
 	void trace(String message, Throwable t) {
-		if (!traceChannelEndpoint) return;
+		if (!TRACE) return;
 		if (message != null) 
 			System.out.println("ChannelEndpoint;"+message);
 		if (t != null)
@@ -234,13 +320,13 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 */
 	ChannelEndpointImpl(final NetworkChannelFactory factory,
 			final URI endpointAddress) throws RemoteOSGiException, IOException {
-		trace("<init>(factory="+factory+",endpointAddress="+endpointAddress+")");
+		if (TRACE)
+			trace("<init>(factory="+factory+",endpointAddress="+endpointAddress+")");
 		networkChannel = factory.getConnection(this, endpointAddress);
 		if (RemoteOSGiServiceImpl.DEBUG) {
 			RemoteOSGiServiceImpl.log.log(LogService.LOG_DEBUG,
 					"opening new channel " + getRemoteAddress()); //$NON-NLS-1$
 		}
-		initThreadPool();
 		RemoteOSGiServiceImpl.registerChannelEndpoint(this);
 	}
 
@@ -251,42 +337,37 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 *            the network channel of the incoming connection.
 	 */
 	ChannelEndpointImpl(final NetworkChannel channel) {
-		trace("<init>(channel="+channel+";remoteAddress="+channel.getRemoteAddress()+";localAddress="+channel.getLocalAddress()+")");
+		if (TRACE)
+			trace("<init>(channel="+channel+";remoteAddress="+channel.getRemoteAddress()+";localAddress="+channel.getLocalAddress()+")");
 		networkChannel = channel;
 		channel.bind(this);
-		initThreadPool();
 		RemoteOSGiServiceImpl.registerChannelEndpoint(this);
 	}
 
 	/**
-	 * initialize the thread pool
+	 * queue a task for a worker thread.
+	 * 
+	 * @param r
+	 *            the task.
 	 */
-	private void initThreadPool() {
-		// TODO: tradeoff, could as well be central for all endpoints...
-		final ThreadGroup threadPool = new ThreadGroup("WorkerThreads"
-				+ toString());
-		// Set this thread pool to be daemon threads
-		threadPool.setDaemon(true);
-		for (int i = 0; i < RemoteOSGiServiceImpl.MAX_THREADS_PER_ENDPOINT; i++) {
-			final Thread t = new Thread(threadPool, "r-OSGi ChannelWorkerThread" + i) {
-				public void run() {
-					try {
-						while (!isInterrupted()) {
-							final Runnable r;
-							synchronized (workQueue) {
-								while (workQueue.isEmpty()) {
-									workQueue.wait();
-								}
-								r = (Runnable) workQueue.remove(0);
-							}
-							r.run();
-						}
-					} catch (InterruptedException ie) {
-						ie.printStackTrace();
-					}
-				}
-			};
-			t.start();
+	private void execute(final Runnable r) {
+		workQueue.add(r);
+		startWorkers();
+	}
+
+	/**
+	 * start workers for the queued tasks, unless the endpoint already uses
+	 * MAX_THREADS_PER_ENDPOINT threads of the shared pool.
+	 */
+	private void startWorkers() {
+		while (!workQueue.isEmpty()) {
+			final int active = activeWorkers.get();
+			if (active >= RemoteOSGiServiceImpl.MAX_THREADS_PER_ENDPOINT) {
+				return;
+			}
+			if (activeWorkers.compareAndSet(active, active + 1)) {
+				WORKERS.execute(worker);
+			}
 		}
 	}
 
@@ -303,11 +384,10 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			dispose();
 			return;
 		}
+		remoteVersion = msg.getVersion();
+		statistics.received(msg.getFuncID());
 		final Integer xid = Integer.valueOf(msg.getXID());
-		final WaitingCallback callback;
-		synchronized (callbacks) {
-			callback = (WaitingCallback) callbacks.remove(xid);
-		}
+		final AsyncCallback callback = (AsyncCallback) callbacks.remove(xid);
 		if (callback != null) {
 			callback.result(msg);
 			return;
@@ -318,8 +398,10 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 					if (reply != null) {
 
 						try {
-							trace("reply(msg="+reply+";remoteAddress="+networkChannel.getRemoteAddress()+")");
+							if (TRACE)
+								trace("reply(msg="+reply+";remoteAddress="+networkChannel.getRemoteAddress()+")");
 							networkChannel.sendMessage(reply);
+							statistics.sent(reply.getFuncID());
 						} catch (final NotSerializableException nse) {
 							throw new RemoteOSGiException("Error sending " //$NON-NLS-1$
 									+ reply, nse);
@@ -331,10 +413,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 					}
 				}
 			};
-			synchronized (workQueue) {
-				workQueue.add(r);
-				workQueue.notify();
-			}
+			execute(r);
 		}
 	}
 
@@ -406,6 +485,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		if (networkChannel == null) {
 			throw new RemoteOSGiException("Channel is closed"); //$NON-NLS-1$
 		}
+		final URI remoteAddress = getRemoteAddress();
 		// check arguments for streams and replace with placeholder
 		for (int i = 0; i < args.length; i++) {
 			if (args[i] instanceof InputStream) {
@@ -415,48 +495,46 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			}
 		}
 
-		final Integer xid = Integer.valueOf(RemoteOSGiServiceImpl.nextXid());
-
-		synchronized (callbacks) {
-			callbacks.put(xid, new AsyncCallback() {
-				public void result(final RemoteOSGiMessage msg) {
-					final RemoteCallResultMessage resultMsg = (RemoteCallResultMessage) msg;
-					if (resultMsg.causedException()) {
-						callback.remoteCallResult(false, resultMsg
-								.getException());
-					}
-					final Object result = resultMsg.getResult();
-					final Object res;
-					if (result instanceof InputStreamHandle) {
-						res = getInputStreamProxy((InputStreamHandle) result);
-					} else if (result instanceof OutputStreamHandle) {
-						res = getOutputStreamProxy((OutputStreamHandle) result);
-					} else {
-						res = result;
-					}
-					callback.remoteCallResult(true, res);
-				}
-			});
-		}
-
 		final RemoteCallMessage invokeMsg = new RemoteCallMessage();
 		invokeMsg.setServiceID(fragment);
 		invokeMsg.setMethodSignature(methodSignature);
 		invokeMsg.setArgs(args);
-		invokeMsg.setXID(xid.shortValue());
 
-		try {
-			send(invokeMsg);
-		} catch (final RemoteOSGiException e) {
-			callbacks.remove(xid);
-			callback
-					.remoteCallResult(
-							false,
-							new RemoteOSGiException(
-									"Method invocation of " //$NON-NLS-1$
-											+ getRemoteAddress()
-											+ "#" + fragment + " " + methodSignature + " failed.", e)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-		}
+		sendAsync(invokeMsg, new CallFuture() {
+			protected void done() {
+				// do not run the callback on the thread that receives messages
+				execute(new Runnable() {
+					public void run() {
+						final RemoteCallResultMessage resultMsg;
+						try {
+							resultMsg = (RemoteCallResultMessage) getResult();
+						} catch (final RemoteOSGiException e) {
+							callback.remoteCallResult(false,
+									new RemoteOSGiException(
+											"Method invocation of " //$NON-NLS-1$
+													+ remoteAddress
+													+ "#" + fragment + " " + methodSignature + " failed.", e)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+							return;
+						}
+						if (resultMsg.causedException()) {
+							callback.remoteCallResult(false, resultMsg
+									.getException());
+							return;
+						}
+						final Object result = resultMsg.getResult();
+						final Object res;
+						if (result instanceof InputStreamHandle) {
+							res = getInputStreamProxy((InputStreamHandle) result);
+						} else if (result instanceof OutputStreamHandle) {
+							res = getOutputStreamProxy((OutputStreamHandle) result);
+						} else {
+							res = result;
+						}
+						callback.remoteCallResult(true, res);
+					}
+				});
+			}
+		});
 	}
 
 	/**
@@ -602,14 +680,26 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		remoteServices = null;
 		remoteTopics = null;
 		timeOffset = null;
-		callbacks.clear();
+		failCallbacks();
 		localServices.clear();
 		proxiedServices.clear();
 		closeStreams();
 		streams.clear();
 		handlerReg = null;
-		synchronized (callbacks) {
-			callbacks.notifyAll();
+	}
+
+	/**
+	 * fail all calls that are still waiting for a result because the channel
+	 * has been closed.
+	 */
+	private void failCallbacks() {
+		final Object[] pending = callbacks.values().toArray();
+		callbacks.clear();
+		for (int i = 0; i < pending.length; i++) {
+			if (pending[i] instanceof CallFuture) {
+				((CallFuture) pending[i]).fail(new RemoteOSGiException(
+						"Channel is closed")); //$NON-NLS-1$
+			}
 		}
 	}
 
@@ -816,9 +906,18 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			throw new RemoteOSGiException("Channel is closed."); //$NON-NLS-1$
 		}
 
-		// build the RequestServiceMessage
+		// build the RequestServiceMessage. Peers that speak version 2 of the
+		// protocol are told about a cached proxy bundle and only confirm it
+		// if it is still valid, instead of sending the injections again.
+		final String uri = ref.getURI().toString();
+		final ProxyBundleCache.Entry cached = ProxyBundleCache.get(uri);
 		final RequestServiceMessage req = new RequestServiceMessage();
 		req.setServiceID(ref.getURI().getFragment());
+		if (remoteVersion < RemoteOSGiMessage.VERSION_2) {
+			req.setVersion(RemoteOSGiMessage.VERSION_1);
+		} else if (cached != null) {
+			req.setDigest(cached.digest);
+		}
 
 		// send the RequestServiceMessage and get a DeliverServiceMessage in
 		// return. The DeliverServiceMessage contains a minimal description of
@@ -828,11 +927,23 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		// declarations for the bundle.
 		final DeliverServiceMessage deliv = (DeliverServiceMessage) sendAndWait(req);
 
-		// generate a proxy bundle for the service
-		final InputStream in = new ProxyGenerator().generateProxyBundle(ref
-				.getURI(), deliv);
+		final byte[] bytes;
+		if (deliv.isUnchanged() && cached != null) {
+			bytes = cached.bytes;
+		} else {
+			final String digest = deliv.getDigest();
+			if (cached != null && cached.digest.equals(digest)) {
+				bytes = cached.bytes;
+			} else {
+				// generate a proxy bundle for the service
+				bytes = new ProxyGenerator().generateProxyBundle(ref.getURI(),
+						deliv);
+				ProxyBundleCache.put(uri, digest, bytes);
+			}
+		}
 
-		installResolveAndStartBundle(ref, in, true);
+		installResolveAndStartBundle(ref, new ByteArrayInputStream(bytes),
+				true);
 	}
 
 	private void installResolveAndStartBundle(final RemoteServiceReference ref,
@@ -1010,29 +1121,19 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		}
 	}
 
-	private long startTime;
-	
 	public static final String TRACE_TIME_PROP = System.getProperty("ch.ethz.iks.r_osgi.traceSendMessageTime");
 	
-	private static boolean TRACE_TIME = false;
-	private static boolean USE_LOG_SERVICE = true;
-	
-	static {
-		if (TRACE_TIME_PROP != null) {
-			if (TRACE_TIME_PROP.equalsIgnoreCase("logservice") || TRACE_TIME_PROP.equalsIgnoreCase("true")) {
-				TRACE_TIME = true;
-			} else if (TRACE_TIME_PROP.equalsIgnoreCase("systemout")) {
-				TRACE_TIME = true;
-				USE_LOG_SERVICE = false;
-			}
-		}
-	}
+	private static final boolean TRACE_TIME = TRACE_TIME_PROP != null
+			&& (TRACE_TIME_PROP.equalsIgnoreCase("logservice")
+					|| TRACE_TIME_PROP.equalsIgnoreCase("true") || TRACE_TIME_PROP
+					.equalsIgnoreCase("systemout"));
+	private static final boolean USE_LOG_SERVICE = !"systemout".equalsIgnoreCase(TRACE_TIME_PROP);
 	
 	private static final SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss.SSS");
 	
-	void startTiming(String message) {
+	long startTiming(String message) {
 		if (TRACE_TIME) {
-			startTime = System.currentTimeMillis();
+			final long startTime = System.currentTimeMillis();
 			StringBuffer buf = new StringBuffer("TIMING.START;");
 			buf.append(sdf.format(new Date(startTime))).append(";");
 			buf.append((message==null?"":message));
@@ -1041,10 +1142,12 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 				logService.log(LogService.LOG_INFO, buf.toString());
 			else 
 				System.out.println(buf.toString());
+			return startTime;
 		}
+		return 0;
 	}
 	
-	void stopTiming(String message, Throwable exception) {
+	void stopTiming(String message, long startTime, Throwable exception) {
 		if (TRACE_TIME) {
 			StringBuffer buf = new StringBuffer("TIMING.END;");
 			buf.append(sdf.format(new Date(startTime))).append(";");
@@ -1061,7 +1164,6 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 				if (exception != null) 
 					exception.printStackTrace();
 			}
-			startTime = 0;
 		}
 	}
 
@@ -1081,13 +1183,15 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		}
 
 		Throwable t = null;
-		String timingMsg = "sendMessage;funcId="+msg.getFuncID()+";xid="+msg.getXID();
-		startTiming(timingMsg);
+		final String timingMsg = TRACE_TIME ? "sendMessage;funcId=" + msg.getFuncID() + ";xid=" + msg.getXID() : null; //$NON-NLS-1$ //$NON-NLS-2$
+		final long startTime = startTiming(timingMsg);
 		
 		try {
 			try {
-				trace("send(msg="+msg+";remoteAddress="+networkChannel.getRemoteAddress()+")");
+				if (TRACE)
+					trace("send(msg="+msg+";remoteAddress="+networkChannel.getRemoteAddress()+")");
 				networkChannel.sendMessage(msg);
+				statistics.sent(msg.getFuncID());
 				return;
 			} catch (final IOException ioe) {
 				// TimeOffsetMessages have to be handled differently
@@ -1101,6 +1205,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 				} else {
 					networkChannel.sendMessage(msg);
 				}
+				statistics.sent(msg.getFuncID());
 			}
 		} catch (final NotSerializableException nse) {
 			t = new RemoteOSGiException("Error sending " + msg, nse); //$NON-NLS-1$
@@ -1111,7 +1216,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			t = new RemoteOSGiException("Network error", ioe); //$NON-NLS-1$
 			throw ((RemoteOSGiException) t);
 		} finally {
-			stopTiming(timingMsg,t);
+			stopTiming(timingMsg,startTime,t);
 		}
 	}
 
@@ -1127,7 +1232,8 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	RemoteOSGiMessage handleMessage(final RemoteOSGiMessage msg)
 			throws RemoteOSGiException {
 
-		trace("handleMessage(msg="+msg+";remoteAddress="+networkChannel.getRemoteAddress()+")");
+		if (TRACE)
+			trace("handleMessage(msg="+msg+";remoteAddress="+networkChannel.getRemoteAddress()+")");
 		switch (msg.getFuncID()) {
 		// requests
 		case RemoteOSGiMessage.LEASE: {
@@ -1144,10 +1250,8 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 
 			final RemoteServiceRegistration reg = getServiceRegistration(serviceID);
 
-			final DeliverServiceMessage m = reg.getDeliverServiceMessage();
-			m.setXID(reqSrv.getXID());
-			m.setServiceID(reqSrv.getServiceID());
-			return m;
+			// the prefactored message is shared, so reply with a copy
+			return reg.getDeliverServiceMessage().createReply(reqSrv);
 		}
 		case RemoteOSGiMessage.LEASE_UPDATE: {
 			final LeaseUpdateMessage suMsg = (LeaseUpdateMessage) msg;
@@ -1433,42 +1537,42 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 * @return the result message.
 	 */
 	private RemoteOSGiMessage sendAndWait(final RemoteOSGiMessage msg) {
+		return sendAsync(msg, new CallFuture()).getResult();
+	}
+
+	/**
+	 * send a message without waiting for the result.
+	 * 
+	 * @param msg
+	 *            the message.
+	 * @param future
+	 *            the future to complete with the result message, or with a
+	 *            failure if the channel is closed or the result does not
+	 *            arrive within the timeout.
+	 * @return the future.
+	 */
+	CallFuture sendAsync(final RemoteOSGiMessage msg, final CallFuture future) {
 		if (msg.getXID() == 0) {
 			msg.setXID(RemoteOSGiServiceImpl.nextXid());
 		}
 		final Integer xid = Integer.valueOf(msg.getXID());
-		final WaitingCallback blocking = new WaitingCallback();
-
-		synchronized (callbacks) {
-			callbacks.put(xid, blocking);
-		}
-
-		send(msg);
-
-		// wait for the reply
-		synchronized (blocking) {
-			final long timeout = System.currentTimeMillis() + TIMEOUT;
-			RemoteOSGiMessage result = blocking.getResult();
-			try {
-				while (result == null && networkChannel != null
-						&& System.currentTimeMillis() < timeout) {
-					blocking.wait(TIMEOUT);
-					result = blocking.getResult();
-				}
-			} catch (InterruptedException ie) {
-				throw new RemoteOSGiException(
-						"Interrupted while waiting for callback", ie); //$NON-NLS-1$
-			}
-			if (result != null) {
-				return result;
-			} else if (networkChannel == null) {
-				throw new RemoteOSGiException("Channel is closed"); //$NON-NLS-1$
-			} else {
-				throw new RemoteOSGiException(
-						"Method Invocation failed, timeout exceeded."); //$NON-NLS-1$
+		future.xid = xid;
+		future.funcID = msg.getFuncID();
+		future.started = System.nanoTime();
+		callbacks.put(xid, future);
+		future.expiry = TIMER.schedule(new Runnable() {
+			public void run() {
+				future.fail(new RemoteOSGiException(
+						"Method Invocation failed, timeout exceeded.")); //$NON-NLS-1$
 			}
-		}
+		}, TIMEOUT, TimeUnit.MILLISECONDS);
 
+		try {
+			send(msg);
+		} catch (final RemoteOSGiException e) {
+			future.fail(e);
+		}
+		return future;
 	}
 
 	/**
@@ -1769,24 +1873,163 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	}
 
 	/**
-	 * callback that signals when the result has become available.
-	 * 
-	 * @author Jan S. Rellermeyer
-	 * 
+	 * the pending result of a message sent with
+	 * {@link ChannelEndpointImpl#sendAsync(RemoteOSGiMessage, CallFuture)}.
+	 * Subclasses can override {@link #done()} to be notified when the result
+	 * has become available.
 	 */
-	class WaitingCallback implements AsyncCallback {
+	class CallFuture implements AsyncCallback, Future {
+
+		Integer xid;
+
+		ScheduledFuture expiry;
+
+		short funcID;
+
+		long started;
 
 		private RemoteOSGiMessage result;
 
-		public synchronized void result(RemoteOSGiMessage msg) {
-			result = msg;
-			this.notifyAll();
+		private RemoteOSGiException failure;
+
+		private boolean completed;
+
+		private boolean cancelled;
+
+		public void result(final RemoteOSGiMessage msg) {
+			statistics.roundTrip(funcID, System.nanoTime() - started);
+			complete(msg, null, false);
+		}
+
+		void fail(final RemoteOSGiException e) {
+			complete(null, e, false);
+		}
+
+		private void complete(final RemoteOSGiMessage msg,
+				final RemoteOSGiException e, final boolean cancel) {
+			synchronized (this) {
+				if (completed) {
+					return;
+				}
+				result = msg;
+				failure = e;
+				cancelled = cancel;
+				completed = true;
+				notifyAll();
+			}
+			if (xid != null) {
+				callbacks.remove(xid, this);
+			}
+			if (expiry != null) {
+				expiry.cancel(false);
+			}
+			done();
+		}
+
+		/**
+		 * called once when the call has completed, either with the result, a
+		 * failure, or by cancellation.
+		 */
+		protected void done() {
+		}
+
+		/**
+		 * wait for the result message.
+		 * 
+		 * @return the result message.
+		 * @throws RemoteOSGiException
+		 *             if the channel was closed, the call timed out, was
+		 *             cancelled, or the thread was interrupted.
+		 */
+		RemoteOSGiMessage getResult() {
+			synchronized (this) {
+				try {
+					while (!completed) {
+						wait();
+					}
+				} catch (final InterruptedException ie) {
+					throw new RemoteOSGiException(
+							"Interrupted while waiting for callback", ie); //$NON-NLS-1$
+				}
+				if (cancelled) {
+					throw new RemoteOSGiException("Call was cancelled"); //$NON-NLS-1$
+				}
+				if (failure != null) {
+					throw failure;
+				}
+				return result;
+			}
+		}
+
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			complete(null, null, true);
+			return isCancelled();
+		}
+
+		public synchronized boolean isCancelled() {
+			return cancelled;
+		}
+
+		public synchronized boolean isDone() {
+			return completed;
 		}
 
-		synchronized RemoteOSGiMessage getResult() {
+		public Object get() throws InterruptedException, ExecutionException {
+			synchronized (this) {
+				while (!completed) {
+					wait();
+				}
+				return report();
+			}
+		}
+
+		public Object get(final long timeout, final TimeUnit unit)
+				throws InterruptedException, ExecutionException,
+				TimeoutException {
+			synchronized (this) {
+				final long deadline = System.nanoTime() + unit.toNanos(timeout);
+				while (!completed) {
+					final long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+				return report();
+			}
+		}
+
+		private Object report() throws ExecutionException {
+			if (cancelled) {
+				throw new CancellationException();
+			}
+			if (failure != null) {
+				throw new ExecutionException(failure);
+			}
 			return result;
 		}
 
 	}
 
+	/**
+	 * creates the daemon threads of the shared executors.
+	 */
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		private final String name;
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		DaemonThreadFactory(final String name) {
+			this.name = name;
+		}
+
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, name + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+
+	}
+
 }
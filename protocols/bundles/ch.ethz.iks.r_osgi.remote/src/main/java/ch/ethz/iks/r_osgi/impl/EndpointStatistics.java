@@ -0,0 +1,108 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.r_osgi.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import ch.ethz.iks.r_osgi.MessageStatistics;
+import ch.ethz.iks.r_osgi.messages.RemoteOSGiMessage;
+
+/**
+ * the message counters and round trip histograms of a channel endpoint.
+ * Recording is lock-free, so it can stay enabled on the message path.
+ */
+final class EndpointStatistics {
+
+	/**
+	 * the number of function IDs, function IDs start at 1.
+	 */
+	private static final int FUNC_IDS = RemoteOSGiMessage.DELIVER_BUNDLES + 1;
+
+	private static final int BUCKETS = MessageStatistics.ROUND_TRIP_BUCKETS;
+
+	/**
+	 * sent messages per function ID.
+	 */
+	private final AtomicLongArray sent = new AtomicLongArray(FUNC_IDS);
+
+	/**
+	 * received messages per function ID.
+	 */
+	private final AtomicLongArray received = new AtomicLongArray(FUNC_IDS);
+
+	/**
+	 * round trip histogram buckets, BUCKETS per function ID.
+	 */
+	private final AtomicLongArray roundTrips = new AtomicLongArray(FUNC_IDS
+			* BUCKETS);
+
+	/**
+	 * count a sent message.
+	 *
+	 * @param funcID
+	 *            the function ID of the message.
+	 */
+	void sent(final short funcID) {
+		if (funcID > 0 && funcID < FUNC_IDS) {
+			sent.incrementAndGet(funcID);
+		}
+	}
+
+	/**
+	 * count a received message.
+	 *
+	 * @param funcID
+	 *            the function ID of the message.
+	 */
+	void received(final short funcID) {
+		if (funcID > 0 && funcID < FUNC_IDS) {
+			received.incrementAndGet(funcID);
+		}
+	}
+
+	/**
+	 * record the round trip time of a request.
+	 *
+	 * @param funcID
+	 *            the function ID of the request.
+	 * @param nanos
+	 *            the round trip time in nanoseconds.
+	 */
+	void roundTrip(final short funcID, final long nanos) {
+		if (funcID > 0 && funcID < FUNC_IDS) {
+			final long micros = nanos / 1000;
+			final int bucket = micros <= 0 ? 0 : Math.min(
+					64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+			roundTrips.incrementAndGet(funcID * BUCKETS + bucket);
+		}
+	}
+
+	long getSent(final short funcID) {
+		return funcID > 0 && funcID < FUNC_IDS ? sent.get(funcID) : 0;
+	}
+
+	long getReceived(final short funcID) {
+		return funcID > 0 && funcID < FUNC_IDS ? received.get(funcID) : 0;
+	}
+
+	long[] getRoundTripHistogram(final short funcID) {
+		final long[] histogram = new long[BUCKETS];
+		if (funcID > 0 && funcID < FUNC_IDS) {
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram[i] = roundTrips.get(funcID * BUCKETS + i);
+			}
+		}
+		return histogram;
+	}
+
+}
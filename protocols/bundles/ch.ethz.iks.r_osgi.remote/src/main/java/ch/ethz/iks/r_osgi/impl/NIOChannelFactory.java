@@ -0,0 +1,803 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.r_osgi.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.osgi.service.log.LogService;
+
+import ch.ethz.iks.r_osgi.Remoting;
+import ch.ethz.iks.r_osgi.URI;
+import ch.ethz.iks.r_osgi.channels.ChannelEndpoint;
+import ch.ethz.iks.r_osgi.channels.NetworkChannel;
+import ch.ethz.iks.r_osgi.channels.NetworkChannelFactory;
+import ch.ethz.iks.r_osgi.messages.RemoteOSGiMessage;
+
+/**
+ * channel factory for TCP transport over non-blocking NIO socket channels.
+ * Instead of a receiver thread per connection, the sockets of all connections
+ * are read and written by a small number of selector threads.
+ * <p>
+ * Each message is serialized into its own frame, preceded by the length of
+ * the frame, so that it is only decoded once it has been received completely.
+ * Messages that concurrent senders queue for a connection are coalesced into
+ * the direct write buffer of the selector thread and written with a single
+ * system call. The frame format is not compatible with the default
+ * <code>r-osgi</code> protocol, so the factory is registered for its own
+ * protocol, <code>r-osgi.nio</code>, if the property
+ * <code>ch.ethz.iks.r_osgi.registerNIOChannel</code> is set to
+ * <code>true</code>.
+ * </p>
+ */
+final class NIOChannelFactory implements NetworkChannelFactory {
+
+	static final String PROTOCOL = "r-osgi.nio"; //$NON-NLS-1$
+
+	/**
+	 * the port to listen on, and to connect to if the URI has no port.
+	 */
+	static final int DEFAULT_PORT = Integer.getInteger(
+			"ch.ethz.iks.r_osgi.nio.port", 9378).intValue(); //$NON-NLS-1$
+
+	/**
+	 * the number of selector threads.
+	 */
+	static final int SELECTOR_THREADS = Integer.getInteger(
+			"ch.ethz.iks.r_osgi.nio.selectorThreads", //$NON-NLS-1$
+			Runtime.getRuntime().availableProcessors()).intValue();
+
+	/**
+	 * the number of bytes that may be queued for a connection before senders
+	 * have to wait for the queue to drain.
+	 */
+	static final int MAX_PENDING_BYTES = Integer.getInteger(
+			"ch.ethz.iks.r_osgi.nio.maxPendingBytes", 8 * 1024 * 1024) //$NON-NLS-1$
+			.intValue();
+
+	/**
+	 * the largest frame that is sent or accepted. A peer that announces a
+	 * larger frame is disconnected, so that it cannot make the receiver
+	 * allocate arbitrary amounts of memory.
+	 */
+	static final int MAX_FRAME_SIZE = Integer.getInteger(
+			"ch.ethz.iks.r_osgi.nio.maxFrameSize", 64 * 1024 * 1024) //$NON-NLS-1$
+			.intValue();
+
+	/**
+	 * the size of the read and write buffers of the selector threads.
+	 */
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	Remoting remoting;
+	private NIOAcceptorThread acceptor;
+	private SelectorThread[] selectors;
+	private final AtomicInteger nextSelector = new AtomicInteger();
+	protected int listeningPort;
+
+	/**
+	 * get a new connection.
+	 *
+	 * @param endpoint
+	 *            the channel endpoint.
+	 * @param endpointURI
+	 *            the URI of the remote host.
+	 * @return the transport channel.
+	 * @throws IOException
+	 *             if the connection cannot be established.
+	 */
+	public NetworkChannel getConnection(final ChannelEndpoint endpoint,
+			final URI endpointURI) throws IOException {
+		int port = endpointURI.getPort();
+		if (port <= 0) {
+			port = DEFAULT_PORT;
+		}
+		final SocketChannel socketChannel = SocketChannel
+				.open(new InetSocketAddress(endpointURI.getHost(), port));
+		final NIOChannel channel = new NIOChannel(socketChannel, endpointURI,
+				nextSelector());
+		channel.bind(endpoint);
+		return channel;
+	}
+
+	/**
+	 * Activate the factory. Is called by R-OSGi when the factory is discovered.
+	 *
+	 * @see ch.ethz.iks.r_osgi.channels.NetworkChannelFactory#activate(ch.ethz.iks.r_osgi.Remoting)
+	 */
+	public void activate(final Remoting r) throws IOException {
+		remoting = r;
+		selectors = new SelectorThread[Math.max(1, SELECTOR_THREADS)];
+		for (int i = 0; i < selectors.length; i++) {
+			selectors[i] = new SelectorThread(i);
+			selectors[i].start();
+		}
+		acceptor = new NIOAcceptorThread();
+		acceptor.start();
+	}
+
+	/**
+	 * Deactivate the factory.
+	 *
+	 * @see ch.ethz.iks.r_osgi.channels.NetworkChannelFactory#deactivate(ch.ethz.iks.r_osgi.Remoting)
+	 */
+	public void deactivate(final Remoting r) throws IOException {
+		if (acceptor != null) {
+			acceptor.close();
+		}
+		if (selectors != null) {
+			for (int i = 0; i < selectors.length; i++) {
+				selectors[i].close();
+			}
+		}
+		remoting = null;
+	}
+
+	/**
+	 * get the listening port.
+	 *
+	 * @see ch.ethz.iks.r_osgi.channels.NetworkChannelFactory#getListeningPort(java.lang.String)
+	 */
+	public int getListeningPort(final String protocol) {
+		return listeningPort;
+	}
+
+	/**
+	 * get the selector thread for the next connection.
+	 */
+	SelectorThread nextSelector() throws IOException {
+		final SelectorThread[] s = selectors;
+		if (s == null) {
+			throw new IOException("NIO channel factory is not active"); //$NON-NLS-1$
+		}
+		return s[(nextSelector.getAndIncrement() & Integer.MAX_VALUE)
+				% s.length];
+	}
+
+	/**
+	 * byte array output stream that turns its contents into a frame without
+	 * copying.
+	 */
+	static final class FrameOutputStream extends ByteArrayOutputStream {
+
+		FrameOutputStream() {
+			super(256);
+			// room for the length
+			count = 4;
+		}
+
+		ByteBuffer toFrame() {
+			final int length = count - 4;
+			buf[0] = (byte) (length >>> 24);
+			buf[1] = (byte) (length >>> 16);
+			buf[2] = (byte) (length >>> 8);
+			buf[3] = (byte) length;
+			return ByteBuffer.wrap(buf, 0, count);
+		}
+	}
+
+	/**
+	 * the inner class representing a channel over a non-blocking socket.
+	 */
+	static final class NIOChannel implements NetworkChannel {
+
+		/**
+		 * the socket channel.
+		 */
+		final SocketChannel socketChannel;
+
+		/**
+		 * the selector thread that reads and writes the socket.
+		 */
+		private final SelectorThread selector;
+
+		/**
+		 * the remote endpoint address.
+		 */
+		private final URI remoteEndpointAddress;
+
+		/**
+		 * the local endpoint address.
+		 */
+		private final URI localEndpointAddress;
+
+		/**
+		 * the channel endpoint.
+		 */
+		ChannelEndpoint endpoint;
+
+		/**
+		 * connected ?
+		 */
+		volatile boolean connected = true;
+
+		/**
+		 * the selection key, only used by the selector thread.
+		 */
+		SelectionKey key;
+
+		/**
+		 * the length of the next frame, only used by the selector thread.
+		 */
+		private final ByteBuffer header = ByteBuffer.allocate(4);
+
+		/**
+		 * the frame that is being received, only used by the selector thread.
+		 */
+		private byte[] frame;
+
+		private int frameOffset;
+
+		/**
+		 * the frames waiting to be written.
+		 */
+		final Queue writeQueue = new ConcurrentLinkedQueue();
+
+		/**
+		 * the number of bytes in the write queue.
+		 */
+		final AtomicLong pendingBytes = new AtomicLong();
+
+		/**
+		 * set while the channel is scheduled for writing or waits for the
+		 * socket to become writable.
+		 */
+		final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+		/**
+		 * the rest of a frame that could not be written completely, only used
+		 * by the selector thread.
+		 */
+		private ByteBuffer partial;
+
+		/**
+		 * the number of senders waiting for the write queue to drain.
+		 */
+		private int waitingSenders;
+
+		/**
+		 * create a new NIOChannel.
+		 *
+		 * @param socketChannel
+		 *            the connected socket channel.
+		 * @param remoteAddress
+		 *            the remote peer's URI, or <code>null</code> for
+		 *            incoming connections.
+		 * @param selector
+		 *            the selector thread that handles the socket.
+		 * @throws IOException
+		 *             in case of IO errors.
+		 */
+		NIOChannel(final SocketChannel socketChannel, final URI remoteAddress,
+				final SelectorThread selector) throws IOException {
+			this.socketChannel = socketChannel;
+			this.selector = selector;
+			final Socket socket = socketChannel.socket();
+			remoteEndpointAddress = remoteAddress != null ? remoteAddress : URI
+					.create(getProtocol() + "://" //$NON-NLS-1$
+							+ socket.getInetAddress().getHostName() + ":" //$NON-NLS-1$
+							+ socket.getPort());
+			localEndpointAddress = URI.create(getProtocol() + "://" //$NON-NLS-1$
+					+ socket.getLocalAddress().getHostName() + ":" //$NON-NLS-1$
+					+ socket.getLocalPort());
+			socket.setKeepAlive(true);
+			socket.setTcpNoDelay(true);
+			socketChannel.configureBlocking(false);
+		}
+
+		/**
+		 * bind the channel to a channel endpoint and start receiving messages.
+		 *
+		 * @param e
+		 *            the channel endpoint.
+		 *
+		 * @see ch.ethz.iks.r_osgi.channels.NetworkChannel#bind(ch.ethz.iks.r_osgi.channels.ChannelEndpoint)
+		 */
+		public void bind(final ChannelEndpoint e) {
+			endpoint = e;
+			selector.register(this);
+		}
+
+		/**
+		 * get the String representation of the channel.
+		 *
+		 * @return the ID.
+		 * @see java.lang.Object#toString()
+		 */
+		public String toString() {
+			return "NIOChannel (" + getRemoteAddress() + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		/**
+		 * close the channel.
+		 *
+		 * @throws IOException
+		 *             in case of IO errors.
+		 */
+		public void close() throws IOException {
+			connected = false;
+			socketChannel.close();
+			notifySenders();
+		}
+
+		/**
+		 * get the protocol that is implemented by the channel.
+		 *
+		 * @return the protocol.
+		 * @see ch.ethz.iks.r_osgi.channels.NetworkChannel#getProtocol()
+		 */
+		public String getProtocol() {
+			return PROTOCOL;
+		}
+
+		/**
+		 * get the remote address.
+		 *
+		 * @see ch.ethz.iks.r_osgi.channels.NetworkChannel#getRemoteAddress()
+		 */
+		public URI getRemoteAddress() {
+			return remoteEndpointAddress;
+		}
+
+		/**
+		 * get the local address.
+		 *
+		 * @see ch.ethz.iks.r_osgi.channels.NetworkChannel#getLocalAddress()
+		 */
+		public URI getLocalAddress() {
+			return localEndpointAddress;
+		}
+
+		/**
+		 * send a message through the channel. The message is serialized by
+		 * the calling thread and written by the selector thread. If more than
+		 * MAX_PENDING_BYTES are waiting to be written, the caller waits until
+		 * the queue has drained.
+		 *
+		 * @param message
+		 *            the message.
+		 * @throws IOException
+		 *             in case of IO errors.
+		 */
+		public void sendMessage(final RemoteOSGiMessage message)
+				throws IOException {
+			if (RemoteOSGiServiceImpl.MSG_DEBUG) {
+				RemoteOSGiServiceImpl.log.log(LogService.LOG_DEBUG,
+						"{NIO Channel} sending " + message); //$NON-NLS-1$
+			}
+			final FrameOutputStream bytes = new FrameOutputStream();
+			final ObjectOutputStream out = TCPChannelFactory
+					.createOutputStream(bytes);
+			message.send(out);
+			final ByteBuffer buffer = bytes.toFrame();
+			if (buffer.remaining() - 4 > MAX_FRAME_SIZE) {
+				throw new IOException("Message of " + (buffer.remaining() - 4) //$NON-NLS-1$
+						+ " bytes exceeds the maximum frame size " //$NON-NLS-1$
+						+ MAX_FRAME_SIZE);
+			}
+
+			if (pendingBytes.get() > MAX_PENDING_BYTES
+					&& Thread.currentThread() != selector) {
+				awaitDrain();
+			}
+			if (!connected) {
+				throw new IOException("Channel is closed"); //$NON-NLS-1$
+			}
+			pendingBytes.addAndGet(buffer.remaining());
+			writeQueue.add(buffer);
+			if (writeScheduled.compareAndSet(false, true)) {
+				selector.write(this);
+			}
+		}
+
+		private synchronized void awaitDrain() throws IOException {
+			waitingSenders++;
+			try {
+				while (connected && pendingBytes.get() > MAX_PENDING_BYTES) {
+					wait();
+				}
+			} catch (final InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while sending"); //$NON-NLS-1$
+			} finally {
+				waitingSenders--;
+			}
+		}
+
+		synchronized void notifySenders() {
+			if (waitingSenders > 0
+					&& (!connected || pendingBytes.get() <= MAX_PENDING_BYTES)) {
+				notifyAll();
+			}
+		}
+
+		/**
+		 * read all the bytes that are currently available from the socket and
+		 * deliver the messages that have been received completely. Called by
+		 * the selector thread.
+		 *
+		 * @param buffer
+		 *            the read buffer of the selector thread.
+		 * @return <code>false</code> if the socket has reached end-of-stream.
+		 * @throws IOException
+		 *             in case of IO errors, or if the peer announces a frame
+		 *             that is negative or larger than MAX_FRAME_SIZE. The
+		 *             selector thread then closes the channel.
+		 */
+		boolean read(final ByteBuffer buffer) throws IOException {
+			while (true) {
+				buffer.clear();
+				final int read = socketChannel.read(buffer);
+				if (read <= 0) {
+					return read == 0;
+				}
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					if (frame == null) {
+						while (header.hasRemaining() && buffer.hasRemaining()) {
+							header.put(buffer.get());
+						}
+						if (header.hasRemaining()) {
+							break;
+						}
+						header.flip();
+						final int length = header.getInt();
+						header.clear();
+						if (length < 0 || length > MAX_FRAME_SIZE) {
+							throw new IOException("Invalid frame length " //$NON-NLS-1$
+									+ length);
+						}
+						frame = new byte[length];
+						frameOffset = 0;
+					}
+					final int n = Math.min(buffer.remaining(), frame.length
+							- frameOffset);
+					buffer.get(frame, frameOffset, n);
+					frameOffset += n;
+					if (frameOffset == frame.length) {
+						final byte[] f = frame;
+						frame = null;
+						deliver(f);
+					}
+				}
+			}
+		}
+
+		/**
+		 * decode a frame and pass the message to the endpoint.
+		 */
+		private void deliver(final byte[] f) {
+			try {
+				final RemoteOSGiMessage msg = RemoteOSGiMessage
+						.parse(TCPChannelFactory
+								.createInputStream(new ByteArrayInputStream(f)));
+				if (RemoteOSGiServiceImpl.MSG_DEBUG) {
+					RemoteOSGiServiceImpl.log.log(LogService.LOG_DEBUG,
+							"{NIO Channel} received " + msg); //$NON-NLS-1$
+				}
+				endpoint.receivedMessage(msg);
+			} catch (final Throwable t) {
+				// the frame is skipped, the following frames can still be
+				// decoded
+				if (RemoteOSGiServiceImpl.log != null) {
+					RemoteOSGiServiceImpl.log.log(LogService.LOG_ERROR,
+							"{NIO Channel} cannot decode frame", t); //$NON-NLS-1$
+				}
+			}
+		}
+
+		/**
+		 * write as much of the queued frames as the socket accepts without
+		 * blocking, coalescing small frames in the write buffer. Called by the
+		 * selector thread.
+		 *
+		 * @param buffer
+		 *            the write buffer of the selector thread.
+		 * @return <code>true</code> if the write queue has been written
+		 *         completely.
+		 * @throws IOException
+		 *             in case of IO errors.
+		 */
+		boolean flush(final ByteBuffer buffer) throws IOException {
+			while (true) {
+				if (partial != null) {
+					socketChannel.write(partial);
+					if (partial.hasRemaining()) {
+						return false;
+					}
+					partial = null;
+				}
+				buffer.clear();
+				ByteBuffer next;
+				while ((next = (ByteBuffer) writeQueue.peek()) != null) {
+					if (next.remaining() > buffer.remaining()) {
+						if (buffer.position() == 0) {
+							// too large for the buffer, write it directly
+							writeQueue.poll();
+							pendingBytes.addAndGet(-next.remaining());
+							partial = next;
+						}
+						break;
+					}
+					writeQueue.poll();
+					pendingBytes.addAndGet(-next.remaining());
+					buffer.put(next);
+				}
+				if (buffer.position() > 0) {
+					buffer.flip();
+					socketChannel.write(buffer);
+					if (buffer.hasRemaining()) {
+						partial = ByteBuffer.allocate(buffer.remaining());
+						partial.put(buffer);
+						partial.flip();
+						return false;
+					}
+				} else if (partial == null) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * called by the selector thread when the connection has been lost.
+		 */
+		void connectionLost() {
+			if (!connected) {
+				return;
+			}
+			connected = false;
+			try {
+				socketChannel.close();
+			} catch (final IOException e1) {
+			}
+			notifySenders();
+			endpoint.receivedMessage(null);
+		}
+	}
+
+	/**
+	 * a thread that reads and writes the sockets of many channels.
+	 */
+	static final class SelectorThread extends Thread {
+
+		private final Selector selector;
+
+		/**
+		 * the tasks to run on the selector thread.
+		 */
+		private final Queue tasks = new ConcurrentLinkedQueue();
+
+		private final ByteBuffer readBuffer = ByteBuffer
+				.allocateDirect(BUFFER_SIZE);
+
+		private final ByteBuffer writeBuffer = ByteBuffer
+				.allocateDirect(BUFFER_SIZE);
+
+		private volatile boolean running = true;
+
+		SelectorThread(final int i) throws IOException {
+			setName("NIOChannel:SelectorThread" + i); //$NON-NLS-1$
+			setDaemon(true);
+			selector = Selector.open();
+		}
+
+		/**
+		 * register a channel for reading.
+		 */
+		void register(final NIOChannel channel) {
+			execute(new Runnable() {
+				public void run() {
+					try {
+						channel.key = channel.socketChannel.register(selector,
+								SelectionKey.OP_READ, channel);
+					} catch (final ClosedChannelException cce) {
+						channel.connectionLost();
+					}
+				}
+			});
+		}
+
+		/**
+		 * schedule writing the queued frames of a channel.
+		 */
+		void write(final NIOChannel channel) {
+			execute(new Runnable() {
+				public void run() {
+					flush(channel);
+				}
+			});
+		}
+
+		private void execute(final Runnable r) {
+			tasks.add(r);
+			if (Thread.currentThread() != this) {
+				selector.wakeup();
+			}
+		}
+
+		void close() {
+			running = false;
+			selector.wakeup();
+		}
+
+		private void flush(final NIOChannel channel) {
+			final SelectionKey key = channel.key;
+			if (key == null || !key.isValid()) {
+				return;
+			}
+			try {
+				while (true) {
+					if (!channel.flush(writeBuffer)) {
+						key.interestOps(SelectionKey.OP_READ
+								| SelectionKey.OP_WRITE);
+						break;
+					}
+					channel.writeScheduled.set(false);
+					// a sender may have queued a frame without scheduling
+					// the channel, as it was still scheduled
+					if (channel.writeQueue.isEmpty()
+							|| !channel.writeScheduled.compareAndSet(false,
+									true)) {
+						key.interestOps(SelectionKey.OP_READ);
+						break;
+					}
+				}
+				channel.notifySenders();
+			} catch (final IOException ioe) {
+				channel.connectionLost();
+			}
+		}
+
+		/**
+		 * thread loop.
+		 *
+		 * @see java.lang.Thread#run()
+		 */
+		public void run() {
+			while (running) {
+				try {
+					selector.select();
+					Runnable r;
+					while ((r = (Runnable) tasks.poll()) != null) {
+						r.run();
+					}
+					final Iterator i = selector.selectedKeys().iterator();
+					while (i.hasNext()) {
+						final SelectionKey key = (SelectionKey) i.next();
+						i.remove();
+						final NIOChannel channel = (NIOChannel) key
+								.attachment();
+						try {
+							if (key.isReadable()
+									&& !channel.read(readBuffer)) {
+								channel.connectionLost();
+								continue;
+							}
+							if (key.isValid() && key.isWritable()) {
+								flush(channel);
+							}
+						} catch (final IOException ioe) {
+							channel.connectionLost();
+						}
+					}
+				} catch (final Throwable t) {
+					if (RemoteOSGiServiceImpl.log != null) {
+						RemoteOSGiServiceImpl.log.log(LogService.LOG_ERROR,
+								"{NIO Channel} error in selector thread", t); //$NON-NLS-1$
+					}
+				}
+			}
+			try {
+				selector.close();
+			} catch (final IOException ioe) {
+			}
+		}
+	}
+
+	/**
+	 * accepts incoming connections.
+	 */
+	protected final class NIOAcceptorThread extends Thread {
+		/**
+		 * the server socket channel.
+		 */
+		private final ServerSocketChannel serverChannel;
+
+		/**
+		 * creates a new NIOAcceptorThread.
+		 *
+		 * @throws IOException
+		 *             if the server socket cannot be opened.
+		 */
+		NIOAcceptorThread() throws IOException {
+			setName("NIOChannel:NIOAcceptorThread"); //$NON-NLS-1$
+			setDaemon(true);
+
+			serverChannel = ServerSocketChannel.open();
+			int e = 0;
+			while (true) {
+				try {
+					listeningPort = DEFAULT_PORT + e;
+					serverChannel.socket().bind(
+							new InetSocketAddress(listeningPort));
+
+					if (e != 0 && RemoteOSGiServiceImpl.log != null) {
+						RemoteOSGiServiceImpl.log.log(LogService.LOG_WARNING,
+								"Port " //$NON-NLS-1$
+										+ DEFAULT_PORT
+										+ " already in use. This instance of R-OSGi is accepting NIO connections on port " //$NON-NLS-1$
+										+ listeningPort);
+					}
+					return;
+				} catch (final BindException b) {
+					e++;
+				}
+			}
+		}
+
+		void close() {
+			interrupt();
+			try {
+				serverChannel.close();
+			} catch (final IOException ioe) {
+			}
+		}
+
+		/**
+		 * thread loop.
+		 *
+		 * @see java.lang.Thread#run()
+		 */
+		public void run() {
+			while (!isInterrupted()) {
+				try {
+					// accept incoming connections and build channel endpoints
+					// for them
+					final SocketChannel socketChannel = serverChannel.accept();
+					final Remoting r = remoting;
+					if (r == null) {
+						socketChannel.close();
+						return;
+					}
+					r.createEndpoint(new NIOChannel(socketChannel, null,
+							nextSelector()));
+				} catch (final ClosedChannelException cce) {
+					return;
+				} catch (final IOException ioe) {
+					if (RemoteOSGiServiceImpl.log != null) {
+						RemoteOSGiServiceImpl.log.log(LogService.LOG_ERROR,
+								"{NIO Channel} cannot accept connection", ioe); //$NON-NLS-1$
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.r_osgi.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * cache of generated proxy bundles, shared by all channel endpoints. The
+ * entries are keyed by service uri, since the uri is compiled into the proxy
+ * classes, and carry the digest of the deliver service message that the proxy
+ * bundle was generated from. A cached proxy bundle is only reused if the
+ * service provider confirms the digest or delivers a message with the same
+ * digest, so reconnecting to a service does not generate the proxy bundle
+ * again and, with peers that speak protocol version 2, does not transfer the
+ * injections again.
+ */
+final class ProxyBundleCache {
+
+	/**
+	 * the maximum number of cached proxy bundles. The least recently used
+	 * bundles are evicted first.
+	 */
+	static final int MAX_ENTRIES = Integer.getInteger(
+			RemoteOSGiServiceImpl.PROXY_CACHE_SIZE, 256).intValue();
+
+	/**
+	 * map of service uri -&gt; Entry, in access order.
+	 */
+	private static final Map entries = new LinkedHashMap(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(final Map.Entry eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private ProxyBundleCache() {
+		// static only
+	}
+
+	/**
+	 * get the cached proxy bundle for a service.
+	 *
+	 * @param uri
+	 *            the service uri.
+	 * @return the entry, or <code>null</code> if no bundle is cached.
+	 */
+	static Entry get(final String uri) {
+		if (MAX_ENTRIES <= 0) {
+			return null;
+		}
+		synchronized (entries) {
+			return (Entry) entries.get(uri);
+		}
+	}
+
+	/**
+	 * cache the proxy bundle of a service.
+	 *
+	 * @param uri
+	 *            the service uri.
+	 * @param digest
+	 *            the digest of the deliver service message.
+	 * @param bytes
+	 *            the proxy bundle.
+	 */
+	static void put(final String uri, final String digest, final byte[] bytes) {
+		if (MAX_ENTRIES <= 0) {
+			return;
+		}
+		synchronized (entries) {
+			entries.put(uri, new Entry(digest, bytes));
+		}
+	}
+
+	/**
+	 * drop all cached proxy bundles.
+	 */
+	static void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * a cached proxy bundle.
+	 */
+	static final class Entry {
+
+		/**
+		 * the digest of the deliver service message.
+		 */
+		final String digest;
+
+		/**
+		 * the bytes of the proxy bundle.
+		 */
+		final byte[] bytes;
+
+		Entry(final String digest, final byte[] bytes) {
+			this.digest = digest;
+			this.bytes = bytes;
+		}
+	}
+}
@@ -36,6 +36,7 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.log.LogService;
 
+import ch.ethz.iks.r_osgi.MessageStatistics;
 import ch.ethz.iks.r_osgi.RemoteOSGiService;
 import ch.ethz.iks.r_osgi.Remoting;
 import ch.ethz.iks.r_osgi.channels.NetworkChannelFactory;
@@ -92,7 +93,8 @@ public final class RemoteOSGiActivator implements BundleActivator {
 
 		// and register the service
 		context.registerService(new String[] {
-				RemoteOSGiService.class.getName(), Remoting.class.getName() }, remoting, null);
+				RemoteOSGiService.class.getName(), Remoting.class.getName(),
+				MessageStatistics.class.getName() }, remoting, null);
 
 		// register the default tcp channel
 		if (!"false" //$NON-NLS-1$
@@ -105,6 +107,17 @@ public final class RemoteOSGiActivator implements BundleActivator {
 					new TCPChannelFactory(), properties);
 			// TODO: add default transport supported intents
 		}
+
+		// register the nio channel
+		if ("true" //$NON-NLS-1$
+				.equals(context
+						.getProperty(RemoteOSGiServiceImpl.REGISTER_NIO_CHANNEL))) {
+			final Dictionary properties = new Hashtable();
+			properties.put(NetworkChannelFactory.PROTOCOL_PROPERTY,
+					NIOChannelFactory.PROTOCOL);
+			context.registerService(NetworkChannelFactory.class.getName(),
+					new NIOChannelFactory(), properties);
+		}
 	}
 
 	/**
@@ -45,6 +45,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -68,6 +69,7 @@ import org.osgi.util.tracker.ServiceTracker;
 import org.osgi.util.tracker.ServiceTrackerCustomizer;
 
 import ch.ethz.iks.r_osgi.AsyncRemoteCallCallback;
+import ch.ethz.iks.r_osgi.MessageStatistics;
 import ch.ethz.iks.r_osgi.RemoteOSGiException;
 import ch.ethz.iks.r_osgi.RemoteOSGiService;
 import ch.ethz.iks.r_osgi.RemoteServiceEvent;
@@ -95,7 +97,8 @@ import ch.ethz.iks.util.StringUtils;
  * @author Jan S. Rellermeyer, ETH Zurich
  * @since 0.1
  */
-final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
+final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting,
+		MessageStatistics {
 
 	static boolean IS_JAVA5 = false;
 
@@ -149,12 +152,36 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 	 */
 	static final String REGISTER_DEFAULT_TCP_CHANNEL = "ch.ethz.iks.r_osgi.registerDefaultChannel"; //$NON-NLS-1$
 
+	/**
+	 * register the NIO channel? If set to "true", the channel gets registered
+	 * for the r-osgi.nio protocol.
+	 */
+	static final String REGISTER_NIO_CHANNEL = "ch.ethz.iks.r_osgi.registerNIOChannel"; //$NON-NLS-1$
+
 	/**
 	 * register the default tcp channel? If not set to "false", the channel gets
 	 * registered.
 	 */
 	static final String THREADS_PER_ENDPOINT = "ch.ethz.iks.r_osgi.threadsPerEndpoint"; //$NON-NLS-1$
 
+	/**
+	 * the property key for the maximum number of worker threads shared by all
+	 * endpoints.
+	 */
+	static final String WORKER_THREADS = "ch.ethz.iks.r_osgi.workerThreads"; //$NON-NLS-1$
+
+	/**
+	 * the property key for the maximum number of cached proxy bundles. If set
+	 * to 0, proxy bundles are not cached.
+	 */
+	static final String PROXY_CACHE_SIZE = "ch.ethz.iks.r_osgi.proxyCacheSize"; //$NON-NLS-1$
+
+	/**
+	 * the property key for the maximum number of delivered bundles whose bytes
+	 * are kept. If set to 0, the bytes are not kept.
+	 */
+	static final String DELIVERED_CACHE_SIZE = "ch.ethz.iks.r_osgi.deliveredCacheSize"; //$NON-NLS-1$
+
 	/**
 	 * constant that holds the property string for proxy debug option.
 	 */
@@ -192,12 +219,40 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 	 */
 	private static final int BUFFER_SIZE = 2048;
 
+	/**
+	 * the maximum number of delivered bundles whose bytes are kept. The least
+	 * recently used bundles are evicted first.
+	 */
+	private static final int MAX_DELIVERED_BUNDLES = Integer.getInteger(
+			DELIVERED_CACHE_SIZE, 32).intValue();
+
+	/**
+	 * the bundles that have been delivered to remote peers as dependencies or
+	 * clones. Map of bundle id and path prefix -&gt; DeliveredBundle, in access
+	 * order.
+	 */
+	private static final Map deliveredBundles = new LinkedHashMap(16, 0.75f,
+			true) {
+
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(final Map.Entry eldest) {
+			return size() > MAX_DELIVERED_BUNDLES;
+		}
+	};
+
 	/**
 	 * how many worker threads per endpoint?
 	 */
 	static final int MAX_THREADS_PER_ENDPOINT = Integer.getInteger(
 			THREADS_PER_ENDPOINT, 2).intValue();
 
+	/**
+	 * how many worker threads for all endpoints?
+	 */
+	static final int MAX_WORKER_THREADS = Integer.getInteger(WORKER_THREADS,
+			64).intValue();
+
 	/**
 	 * log proxy generation debug output.
 	 */
@@ -993,6 +1048,10 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 		serviceDiscoveryHandlerTracker.close();
 		remoteServiceListenerTracker.close();
 		networkChannelFactoryTracker.close();
+		synchronized (deliveredBundles) {
+			deliveredBundles.clear();
+		}
+		ProxyBundleCache.clear();
 	}
 
 	/**
@@ -1194,7 +1253,9 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 				: null;
 
 		if (getEntry == null) {
-			return getBundleConcierge(bundle, buffer, out);
+			final byte[] cached = getDeliveredBundle(bundle, ""); //$NON-NLS-1$
+			return cached != null ? cached : putDeliveredBundle(bundle, "", //$NON-NLS-1$
+					getBundleConcierge(bundle, buffer, out));
 		}
 
 		try {
@@ -1204,7 +1265,9 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 							.getName().replace('.', '/') }) == null ? "/bin" //$NON-NLS-1$
 					: ""; //$NON-NLS-1$
 
-			return generateBundle(bundle, prefix, buffer, crc);
+			final byte[] cached = getDeliveredBundle(bundle, prefix);
+			return cached != null ? cached : putDeliveredBundle(bundle,
+					prefix, generateBundle(bundle, prefix, buffer, crc));
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new IOException(e.getMessage());
@@ -1235,7 +1298,9 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 			visitedBundles.add(bundle);
 
 			if (getEntry == null) {
-				bundleBytes.add(getBundleConcierge(bundle, buffer, out));
+				final byte[] cached = getDeliveredBundle(bundle, ""); //$NON-NLS-1$
+				bundleBytes.add(cached != null ? cached : putDeliveredBundle(
+						bundle, "", getBundleConcierge(bundle, buffer, out))); //$NON-NLS-1$
 			} else {
 
 				// workaround for Eclipse
@@ -1243,8 +1308,10 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 					final String prefix = getEntry.invoke(bundle,
 							new Object[] { packages[i].replace('.', '/') }) == null ? "/bin" //$NON-NLS-1$
 							: ""; //$NON-NLS-1$
-					bundleBytes
-							.add(generateBundle(bundle, prefix, buffer, crc));
+					final byte[] cached = getDeliveredBundle(bundle, prefix);
+					bundleBytes.add(cached != null ? cached
+							: putDeliveredBundle(bundle, prefix,
+									generateBundle(bundle, prefix, buffer, crc)));
 				} catch (Exception e) {
 					e.printStackTrace();
 					throw new IOException(e.getMessage());
@@ -1255,6 +1322,55 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 		return (byte[][]) bundleBytes.toArray(new byte[bundleBytes.size()][]);
 	}
 
+	/**
+	 * get the bytes of a bundle that has been delivered before, unless the
+	 * bundle has been updated since.
+	 * 
+	 * @param bundle
+	 *            the bundle.
+	 * @param prefix
+	 *            the path prefix of the bundle entries.
+	 * @return the bytes or <code>null</code>.
+	 */
+	private static byte[] getDeliveredBundle(final Bundle bundle,
+			final String prefix) {
+		if (MAX_DELIVERED_BUNDLES <= 0) {
+			return null;
+		}
+		final DeliveredBundle delivered;
+		synchronized (deliveredBundles) {
+			delivered = (DeliveredBundle) deliveredBundles.get(bundle
+					.getBundleId()
+					+ prefix);
+		}
+		return delivered != null
+				&& delivered.lastModified == bundle.getLastModified() ? delivered.bytes
+				: null;
+	}
+
+	/**
+	 * remember the bytes of a delivered bundle.
+	 * 
+	 * @param bundle
+	 *            the bundle.
+	 * @param prefix
+	 *            the path prefix of the bundle entries.
+	 * @param bytes
+	 *            the bytes.
+	 * @return the bytes.
+	 */
+	private static byte[] putDeliveredBundle(final Bundle bundle,
+			final String prefix, final byte[] bytes) {
+		if (MAX_DELIVERED_BUNDLES <= 0) {
+			return bytes;
+		}
+		synchronized (deliveredBundles) {
+			deliveredBundles.put(bundle.getBundleId() + prefix,
+					new DeliveredBundle(bundle.getLastModified(), bytes));
+		}
+		return bytes;
+	}
+
 	private static byte[] getBundleConcierge(final Bundle bundle,
 			final byte[] buffer, final ByteArrayOutputStream out)
 			throws IOException {
@@ -1368,4 +1484,73 @@ final class RemoteOSGiServiceImpl implements RemoteOSGiService, Remoting {
 				callback);
 	}
 
+	/**
+	 * 
+	 * @see ch.ethz.iks.r_osgi.MessageStatistics#getEndpoints()
+	 * @category MessageStatistics
+	 */
+	public URI[] getEndpoints() {
+		final ChannelEndpoint[] endpoints = (ChannelEndpoint[]) channels
+				.values().toArray(new ChannelEndpoint[channels.size()]);
+		final URI[] result = new URI[endpoints.length];
+		for (int i = 0; i < endpoints.length; i++) {
+			result[i] = endpoints[i].getRemoteAddress();
+		}
+		return result;
+	}
+
+	/**
+	 * 
+	 * @see ch.ethz.iks.r_osgi.MessageStatistics#getSentMessages(ch.ethz.iks.r_osgi.URI,
+	 *      short)
+	 * @category MessageStatistics
+	 */
+	public long getSentMessages(final URI endpoint, final short funcID) {
+		final EndpointStatistics statistics = getStatistics(endpoint);
+		return statistics == null ? 0 : statistics.getSent(funcID);
+	}
+
+	/**
+	 * 
+	 * @see ch.ethz.iks.r_osgi.MessageStatistics#getReceivedMessages(ch.ethz.iks.r_osgi.URI,
+	 *      short)
+	 * @category MessageStatistics
+	 */
+	public long getReceivedMessages(final URI endpoint, final short funcID) {
+		final EndpointStatistics statistics = getStatistics(endpoint);
+		return statistics == null ? 0 : statistics.getReceived(funcID);
+	}
+
+	/**
+	 * 
+	 * @see ch.ethz.iks.r_osgi.MessageStatistics#getRoundTripHistogram(ch.ethz.iks.r_osgi.URI,
+	 *      short)
+	 * @category MessageStatistics
+	 */
+	public long[] getRoundTripHistogram(final URI endpoint, final short funcID) {
+		final EndpointStatistics statistics = getStatistics(endpoint);
+		return statistics == null ? null : statistics
+				.getRoundTripHistogram(funcID);
+	}
+
+	private static EndpointStatistics getStatistics(final URI endpoint) {
+		final ChannelEndpointImpl channel = (ChannelEndpointImpl) channels
+				.get(endpoint.toString());
+		return channel == null ? null : channel.statistics;
+	}
+
+	/**
+	 * the bytes of a delivered bundle.
+	 */
+	private static final class DeliveredBundle {
+
+		final long lastModified;
+
+		final byte[] bytes;
+
+		DeliveredBundle(final long lastModified, final byte[] bytes) {
+			this.lastModified = lastModified;
+			this.bytes = bytes;
+		}
+	}
 }
@@ -33,6 +33,8 @@ import java.io.BufferedOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.BindException;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -65,6 +67,34 @@ final class TCPChannelFactory implements NetworkChannelFactory {
 
 	private static final String OSGI_SERIALIZATION = "osgi.basic";
 	private static final String SERIALIZATION_DEFAULT = System.getProperty("ch.ethz.iks.r_osgi.remote.serialization",OSGI_SERIALIZATION);
+
+	/**
+	 * create the stream that messages are written to.
+	 * 
+	 * @param out
+	 *            the underlying output stream.
+	 * @return the object output stream.
+	 * @throws IOException
+	 *             in case of IO errors.
+	 */
+	static ObjectOutputStream createOutputStream(final OutputStream out)
+			throws IOException {
+		return SERIALIZATION_DEFAULT.equals(OSGI_SERIALIZATION)?new OSGIObjectOutputStream(out,true):new SmartObjectOutputStream(out);
+	}
+
+	/**
+	 * create the stream that messages are read from.
+	 * 
+	 * @param in
+	 *            the underlying input stream.
+	 * @return the object input stream.
+	 * @throws IOException
+	 *             in case of IO errors.
+	 */
+	static ObjectInputStream createInputStream(final InputStream in)
+			throws IOException {
+		return SERIALIZATION_DEFAULT.equals(OSGI_SERIALIZATION)?new OSGIObjectInputStream(RemoteOSGiActivator.getActivator().getContext().getBundle(),in):new SmartObjectInputStream(in);
+	}
 	
 	/**
 	 * get a new connection.
@@ -225,10 +255,10 @@ final class TCPChannelFactory implements NetworkChannelFactory {
 			}
 			socket.setTcpNoDelay(true);
 			BufferedOutputStream bos = new BufferedOutputStream(socket.getOutputStream());
-			output = SERIALIZATION_DEFAULT.equals(OSGI_SERIALIZATION)?new OSGIObjectOutputStream(bos,true):new SmartObjectOutputStream(bos);
+			output = createOutputStream(bos);
 			output.flush();
 			BufferedInputStream bins = new BufferedInputStream(socket.getInputStream());
-			input = SERIALIZATION_DEFAULT.equals(OSGI_SERIALIZATION)?new OSGIObjectInputStream(RemoteOSGiActivator.getActivator().getContext().getBundle(),bins):new SmartObjectInputStream(bins);
+			input = createInputStream(bins);
 		}
 
 		/**
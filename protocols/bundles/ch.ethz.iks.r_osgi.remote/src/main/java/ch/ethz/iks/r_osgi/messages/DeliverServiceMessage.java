@@ -31,6 +31,9 @@ package ch.ethz.iks.r_osgi.messages;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -38,6 +41,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import ch.ethz.iks.r_osgi.RemoteOSGiException;
 import ch.ethz.iks.util.StringUtils;
 
 /**
@@ -96,6 +100,17 @@ public final class DeliverServiceMessage extends RemoteOSGiMessage {
 	 */
 	private String optionalImports = "";
 
+	/**
+	 * does the message confirm the proxy bundle cached by the requesting peer
+	 * instead of carrying the injections?
+	 */
+	private boolean unchanged;
+
+	/**
+	 * the digest of the content, computed on demand.
+	 */
+	private String digest;
+
 	/**
 	 * Create a new DeliverServiceMessage.
 	 * 
@@ -125,15 +140,20 @@ public final class DeliverServiceMessage extends RemoteOSGiMessage {
 	 *        +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 	 *        |    number of injection blocks   |   class inj blocks          \
 	 *        +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+	 *        |  unchanged (v2) |
+	 *        +-+-+-+-+-+-+-+-+-+
 	 * </pre>
 	 * 
 	 * @param input
 	 *            a <code>DataInput</code> that provides the body of a R-OSGi
 	 *            network packet.
+	 * @param version
+	 *            the protocol version of the message.
 	 * @throws IOException
 	 *             in case of parse errors.
 	 */
-	DeliverServiceMessage(final ObjectInputStream input) throws IOException {
+	DeliverServiceMessage(final ObjectInputStream input, final short version)
+			throws IOException {
 		super(DELIVER_SERVICE);
 		// the serviceID
 		serviceID = input.readUTF();
@@ -152,6 +172,9 @@ public final class DeliverServiceMessage extends RemoteOSGiMessage {
 		for (short i = 0; i < blocks; i++) {
 			injections.put(input.readUTF(), readBytes(input));
 		}
+		if (version >= VERSION_2) {
+			unchanged = input.readBoolean();
+		}
 		
 		// generate option imports from injections
 		// no need to add imports twice
@@ -200,6 +223,9 @@ public final class DeliverServiceMessage extends RemoteOSGiMessage {
 			out.writeUTF(injectionNames[i]);
 			writeBytes(out, (byte[]) injections.get(injectionNames[i]));
 		}
+		if (getVersion() >= VERSION_2) {
+			out.writeBoolean(unchanged);
+		}
 	}
 
 	/**
@@ -362,6 +388,9 @@ public final class DeliverServiceMessage extends RemoteOSGiMessage {
 			buffer.append(", classInjections "); //$NON-NLS-1$
 			buffer.append(injections.keySet());
 		}
+		if (unchanged) {
+			buffer.append(", unchanged"); //$NON-NLS-1$
+		}
 		return buffer.toString();
 	}
 
@@ -369,4 +398,119 @@ public final class DeliverServiceMessage extends RemoteOSGiMessage {
 		return optionalImports;
 	}
 
+	/**
+	 * does the message confirm the proxy bundle that the requesting peer has
+	 * cached? If so, the message carries no injections.
+	 * 
+	 * @return true if the cached proxy bundle is still valid.
+	 * @since 1.1
+	 */
+	public boolean isUnchanged() {
+		return unchanged;
+	}
+
+	/**
+	 * set the unchanged flag. Only sent to peers that speak protocol version 2.
+	 * 
+	 * @param unchanged
+	 *            true if the cached proxy bundle of the requesting peer is
+	 *            still valid.
+	 * @since 1.1
+	 */
+	public void setUnchanged(final boolean unchanged) {
+		this.unchanged = unchanged;
+	}
+
+	/**
+	 * create the reply to a request service message from this message. The
+	 * reply is a copy, so this message can be shared between requests. It has
+	 * the version of the request and, if the requesting peer speaks protocol
+	 * version 2 and has cached a proxy bundle with the digest of this message,
+	 * only confirms the cached bundle instead of carrying the injections.
+	 * 
+	 * @param request
+	 *            the request service message.
+	 * @return the reply.
+	 * @since 1.1
+	 */
+	public DeliverServiceMessage createReply(final RequestServiceMessage request) {
+		final DeliverServiceMessage m = new DeliverServiceMessage();
+		m.setXID(request.getXID());
+		m.setServiceID(request.getServiceID());
+		m.setImports(imports);
+		m.setExports(exports);
+		m.setInterfaceNames(serviceInterfaceNames);
+		m.setSmartProxyName(smartProxyName);
+		if (request.getVersion() < VERSION_2) {
+			m.setVersion(VERSION_1);
+			m.setInjections(injections);
+		} else if (getDigest().equals(request.getDigest())) {
+			// the requesting peer has an up-to-date proxy bundle
+			m.setUnchanged(true);
+			m.setInjections(new HashMap(0));
+		} else {
+			m.setInjections(injections);
+		}
+		return m;
+	}
+
+	/**
+	 * get the SHA-1 digest of the content that determines the proxy bundle,
+	 * i.e., the imports, exports, interface names, smart proxy name and
+	 * injections. The service ID is not part of the digest.
+	 * 
+	 * @return the digest as hex string.
+	 * @since 1.1
+	 */
+	public String getDigest() {
+		if (digest == null) {
+			try {
+				final MessageDigest md = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+				update(md, imports);
+				update(md, exports);
+				for (int i = 0; i < serviceInterfaceNames.length; i++) {
+					update(md, serviceInterfaceNames[i]);
+				}
+				update(md, smartProxyName);
+				final String[] injectionNames = (String[]) injections.keySet()
+						.toArray(new String[injections.size()]);
+				Arrays.sort(injectionNames);
+				for (int i = 0; i < injectionNames.length; i++) {
+					update(md, injectionNames[i]);
+					update(md, (byte[]) injections.get(injectionNames[i]));
+				}
+				digest = toHexString(md.digest());
+			} catch (final NoSuchAlgorithmException nsae) {
+				throw new RemoteOSGiException(
+						"Cannot compute digest of " + this, nsae); //$NON-NLS-1$
+			}
+		}
+		return digest;
+	}
+
+	private static void update(final MessageDigest md, final String str) {
+		try {
+			update(md, str == null ? new byte[0] : str.getBytes("UTF-8")); //$NON-NLS-1$
+		} catch (final UnsupportedEncodingException uee) {
+			// UTF-8 is always supported
+			throw new IllegalStateException(uee.getMessage());
+		}
+	}
+
+	private static String toHexString(final byte[] bytes) {
+		final StringBuffer buffer = new StringBuffer(bytes.length * 2);
+		for (int i = 0; i < bytes.length; i++) {
+			buffer.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+			buffer.append(Character.forDigit(bytes[i] & 0xF, 16));
+		}
+		return buffer.toString();
+	}
+
+	private static void update(final MessageDigest md, final byte[] bytes) {
+		final int len = bytes.length;
+		md.update(new byte[] { (byte) (len >>> 24), (byte) (len >>> 16),
+				(byte) (len >>> 8), (byte) len });
+		md.update(bytes);
+	}
+
 }
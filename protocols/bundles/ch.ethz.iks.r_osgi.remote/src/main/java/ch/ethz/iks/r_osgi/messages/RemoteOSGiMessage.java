@@ -117,12 +117,40 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public static final short DELIVER_BUNDLES = 14;
 
-	
+	/**
+	 * the initial protocol version. Peers that speak this version ignore the
+	 * version field of the messages they receive.
+	 * 
+	 * @since 1.1
+	 */
+	public static final short VERSION_1 = 1;
+
+	/**
+	 * the protocol version that adds proxy bundle digests to request service
+	 * and deliver service messages. The body of all other messages is the same
+	 * as in version 1.
+	 * 
+	 * @since 1.1
+	 */
+	public static final short VERSION_2 = 2;
+
+	/**
+	 * the protocol version spoken by this implementation.
+	 * 
+	 * @since 1.1
+	 */
+	public static final short PROTOCOL_VERSION = VERSION_2;
+
 	/**
 	 * the type code or functionID in SLP notation.
 	 */
 	private short funcID;
 
+	/**
+	 * the protocol version of the message.
+	 */
+	private short version = PROTOCOL_VERSION;
+
 	/**
 	 * the transaction id.
 	 */
@@ -165,6 +193,29 @@ public abstract class RemoteOSGiMessage {
 		return funcID;
 	}
 
+	/**
+	 * get the protocol version of the message.
+	 * 
+	 * @return the version.
+	 * @since 1.1
+	 */
+	public final short getVersion() {
+		return version;
+	}
+
+	/**
+	 * set the protocol version of the message. Messages are sent with the
+	 * version of this implementation unless the receiving peer is known to
+	 * speak an older version.
+	 * 
+	 * @param version
+	 *            the version.
+	 * @since 1.1
+	 */
+	public final void setVersion(final short version) {
+		this.version = version;
+	}
+
 	/**
 	 * reads in a network packet and constructs the corresponding subtype of
 	 * RemoteOSGiMessage from it. The header is:
@@ -191,7 +242,7 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public static RemoteOSGiMessage parse(final ObjectInputStream input)
 			throws IOException, ClassNotFoundException {
-		input.readByte(); // version, currently unused
+		final short version = input.readByte();
 		final short funcID = input.readByte();
 		final int xid = input.readInt();
 		RemoteOSGiMessage msg;
@@ -200,10 +251,10 @@ public abstract class RemoteOSGiMessage {
 			msg = new LeaseMessage(input);
 			break;
 		case REQUEST_SERVICE:
-			msg = new RequestServiceMessage(input);
+			msg = new RequestServiceMessage(input, version);
 			break;
 		case DELIVER_SERVICE:
-			msg = new DeliverServiceMessage(input);
+			msg = new DeliverServiceMessage(input, version);
 			break;
 		case REMOTE_CALL:
 			msg = new RemoteCallMessage(input);
@@ -241,6 +292,7 @@ public abstract class RemoteOSGiMessage {
 		}
 		msg.funcID = funcID;
 		msg.xid = xid;
+		msg.version = version;
 		return msg;
 	}
 
@@ -254,7 +306,7 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public final void send(final ObjectOutputStream out) throws IOException {
 		synchronized (out) {
-			out.write(1);
+			out.write(version);
 			out.write(funcID);
 			out.writeInt(xid);
 			writeBody(out);
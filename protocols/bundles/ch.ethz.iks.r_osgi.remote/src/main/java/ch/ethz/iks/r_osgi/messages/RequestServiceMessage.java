@@ -48,6 +48,12 @@ public final class RequestServiceMessage extends RemoteOSGiMessage {
 	 */
 	private String serviceID;
 
+	/**
+	 * the digest of the proxy bundle the requesting peer has cached, or
+	 * <code>null</code>.
+	 */
+	private String digest;
+
 	/**
 	 * creates a new FetchServiceMessage from <code>ServiceURL</code>.
 	 * 
@@ -67,17 +73,26 @@ public final class RequestServiceMessage extends RemoteOSGiMessage {
 	 *    +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 	 *    |   length of &lt;serviceID&gt;     |     &lt;serviceID&gt; String      \
 	 *    +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+	 *    |   length of &lt;digest&gt;        |     &lt;digest&gt; String (v2)    \
+	 *    +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 	 * </pre>
 	 * 
 	 * @param input
 	 *            an <code>ObjectInputStream</code> that provides the body of a
 	 *            R-OSGi network packet.
+	 * @param version
+	 *            the protocol version of the message.
 	 * @throws IOException
 	 *             if something goes wrong.
 	 */
-	RequestServiceMessage(final ObjectInputStream input) throws IOException {
+	RequestServiceMessage(final ObjectInputStream input, final short version)
+			throws IOException {
 		super(REQUEST_SERVICE);
 		serviceID = input.readUTF();
+		if (version >= VERSION_2) {
+			final String d = input.readUTF();
+			digest = "".equals(d) ? null : d; //$NON-NLS-1$
+		}
 	}
 
 	/**
@@ -90,6 +105,9 @@ public final class RequestServiceMessage extends RemoteOSGiMessage {
 	 */
 	public void writeBody(final ObjectOutputStream out) throws IOException {
 		out.writeUTF(serviceID);
+		if (getVersion() >= VERSION_2) {
+			out.writeUTF(digest == null ? "" : digest); //$NON-NLS-1$
+		}
 	}
 
 	/**
@@ -111,6 +129,28 @@ public final class RequestServiceMessage extends RemoteOSGiMessage {
 		this.serviceID = serviceID;
 	}
 
+	/**
+	 * get the digest of the proxy bundle that the requesting peer has cached.
+	 * 
+	 * @return the digest, or <code>null</code>.
+	 * @since 1.1
+	 */
+	public String getDigest() {
+		return digest;
+	}
+
+	/**
+	 * set the digest of the cached proxy bundle. Only sent to peers that
+	 * speak protocol version 2.
+	 * 
+	 * @param digest
+	 *            the digest, or <code>null</code>.
+	 * @since 1.1
+	 */
+	public void setDigest(final String digest) {
+		this.digest = digest;
+	}
+
 	/**
 	 * String representation for debug outputs.
 	 * 
@@ -124,6 +164,10 @@ public final class RequestServiceMessage extends RemoteOSGiMessage {
 		buffer.append(xid);
 		buffer.append(", serviceID: "); //$NON-NLS-1$
 		buffer.append(serviceID);
+		if (digest != null) {
+			buffer.append(", digest: "); //$NON-NLS-1$
+			buffer.append(digest);
+		}
 		return buffer.toString();
 	}
 }
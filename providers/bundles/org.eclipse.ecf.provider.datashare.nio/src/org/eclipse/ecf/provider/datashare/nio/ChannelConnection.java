@@ -0,0 +1,264 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.datashare.nio;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.LinkedList;
+
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * The state of a socket connection with a remote peer. Instances are only
+ * used by the thread of the selector that the socket is registered with.
+ * <p>
+ * Peers write individually serialized objects to the socket without any
+ * framing, so received bytes are accumulated until they form a complete
+ * object. Messages are serialized <code>byte[]</code>s, whose length can be
+ * read from the start of the serialized form, so the receive buffer is grown
+ * to the size of the message at once and no attempt is made to deserialize a
+ * message until all of it has been received. Messages larger than
+ * {@link #MAX_MESSAGE_SIZE} are refused, so that a peer cannot make the
+ * connection allocate an arbitrarily large buffer.
+ * </p>
+ */
+final class ChannelConnection {
+
+	/**
+	 * The size of the direct buffer each connection reads into.
+	 */
+	static final int READ_BUFFER_SIZE = Integer.parseInt(System.getProperty(
+			"org.eclipse.ecf.provider.datashare.nio.readBufferSize", "8192")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * The maximum size of a serialized message that is accepted from a peer.
+	 */
+	static final int MAX_MESSAGE_SIZE = Integer.parseInt(System.getProperty(
+			"org.eclipse.ecf.provider.datashare.nio.maxMessageSize", "67108864")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * The length of the serialized form of a <code>byte[]</code> that precedes
+	 * its contents: the stream header, TC_ARRAY, the class descriptor of
+	 * <code>[B</code> and the array length.
+	 */
+	private static final int BYTE_ARRAY_HEADER_LENGTH = 27;
+
+	private final SocketChannel socketChannel;
+
+	private final ByteBuffer readBuffer = ByteBuffer
+			.allocateDirect(READ_BUFFER_SIZE);
+
+	/**
+	 * Bytes that have been received but not deserialized yet. Only the first
+	 * <code>receivedLength</code> bytes are valid.
+	 */
+	private byte[] received = new byte[READ_BUFFER_SIZE];
+
+	private int receivedLength;
+
+	/**
+	 * The <code>ByteBuffer</code>s waiting to be written to the socket.
+	 */
+	private final LinkedList writeQueue = new LinkedList();
+
+	/**
+	 * The ID of the remote peer, <code>null</code> until the handshake has
+	 * completed.
+	 */
+	private ID peerId;
+
+	/**
+	 * The ID of the channel that the remote peer responded with, only used
+	 * while the container is handshaking with the peer.
+	 */
+	private ID channelId;
+
+	ChannelConnection(SocketChannel socketChannel) {
+		this.socketChannel = socketChannel;
+	}
+
+	SocketChannel getSocketChannel() {
+		return socketChannel;
+	}
+
+	ID getPeerId() {
+		return peerId;
+	}
+
+	void setPeerId(ID peerId) {
+		this.peerId = peerId;
+	}
+
+	ID getChannelId() {
+		return channelId;
+	}
+
+	void setChannelId(ID channelId) {
+		this.channelId = channelId;
+	}
+
+	/**
+	 * Reads all the bytes that are currently available from the socket.
+	 *
+	 * @return <code>false</code> if the socket has reached end-of-stream,
+	 *         <code>true</code> otherwise
+	 * @throws IOException
+	 *             if an error occurs while reading from the socket
+	 */
+	boolean read() throws IOException {
+		while (true) {
+			int read = socketChannel.read(readBuffer);
+			if (read <= 0) {
+				return read == 0;
+			}
+			readBuffer.flip();
+			ensureCapacity(receivedLength + read);
+			readBuffer.get(received, receivedLength, read);
+			receivedLength += read;
+			readBuffer.clear();
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > received.length) {
+			byte[] bytes = new byte[Math.max(capacity, received.length * 2)];
+			System.arraycopy(received, 0, bytes, 0, receivedLength);
+			received = bytes;
+		}
+	}
+
+	/**
+	 * Returns the total length of the serialized <code>byte[]</code> that has
+	 * been partially received, or -1 if the length cannot be determined yet or
+	 * the received object is not a <code>byte[]</code>.
+	 */
+	private int getExpectedLength() {
+		if (receivedLength < BYTE_ARRAY_HEADER_LENGTH
+				|| received[4] != 0x75 || received[5] != 0x72
+				|| received[8] != '[' || received[9] != 'B') {
+			return -1;
+		}
+		int length = ((received[23] & 0xff) << 24)
+				| ((received[24] & 0xff) << 16)
+				| ((received[25] & 0xff) << 8) | (received[26] & 0xff);
+		if (length < 0) {
+			return -1;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, (long) BYTE_ARRAY_HEADER_LENGTH
+				+ length);
+	}
+
+	/**
+	 * Deserializes the next object from the received bytes.
+	 *
+	 * @return the next object, or <code>null</code> if not all of it has been
+	 *         received yet
+	 * @throws IOException
+	 *             if the received data is corrupt or the message is larger
+	 *             than {@link #MAX_MESSAGE_SIZE}
+	 * @throws ClassNotFoundException
+	 *             if the class of the received object cannot be found
+	 */
+	Object readObject() throws IOException, ClassNotFoundException {
+		if (receivedLength == 0) {
+			return null;
+		}
+		int expected = getExpectedLength();
+		if (expected > MAX_MESSAGE_SIZE) {
+			throw new IOException("Message of " + expected //$NON-NLS-1$
+					+ " bytes exceeds the maximum of " + MAX_MESSAGE_SIZE); //$NON-NLS-1$
+		}
+		if (expected > receivedLength) {
+			// make room for the rest of the message right away
+			ensureCapacity(expected);
+			return null;
+		}
+
+		ByteArrayInputStream bais = new ByteArrayInputStream(received, 0,
+				receivedLength);
+		Object object;
+		try {
+			object = new ObjectInputStream(bais).readObject();
+		} catch (EOFException e) {
+			if (receivedLength > MAX_MESSAGE_SIZE) {
+				throw new IOException("Incomplete object exceeds the maximum of " //$NON-NLS-1$
+						+ MAX_MESSAGE_SIZE + " bytes"); //$NON-NLS-1$
+			}
+			// wait for the rest of the object
+			return null;
+		}
+
+		int consumed = receivedLength - bais.available();
+		System.arraycopy(received, consumed, received, 0, receivedLength
+				- consumed);
+		receivedLength -= consumed;
+		return object;
+	}
+
+	/**
+	 * Queues data to be written to the socket by {@link #flush()}.
+	 *
+	 * @param data
+	 *            the data to write
+	 */
+	void enqueue(byte[] data) {
+		writeQueue.add(ByteBuffer.wrap(data));
+	}
+
+	boolean hasPendingWrites() {
+		return !writeQueue.isEmpty();
+	}
+
+	/**
+	 * Writes as much of the queued data to the socket as it accepts without
+	 * blocking.
+	 *
+	 * @return <code>true</code> if all of the queued data has been written
+	 * @throws IOException
+	 *             if an error occurs while writing to the socket
+	 */
+	boolean flush() throws IOException {
+		while (!writeQueue.isEmpty()) {
+			ByteBuffer buffer = (ByteBuffer) writeQueue.getFirst();
+			socketChannel.write(buffer);
+			if (buffer.hasRemaining()) {
+				return false;
+			}
+			writeQueue.removeFirst();
+		}
+		return true;
+	}
+
+	/**
+	 * Updates the operations the specified key is interested in, so that the
+	 * selector reports the socket as writable only while there is data queued
+	 * for writing.
+	 *
+	 * @param key
+	 *            the key of the socket
+	 */
+	void updateInterestOps(SelectionKey key) {
+		key.interestOps(writeQueue.isEmpty() ? SelectionKey.OP_READ
+				: SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+	}
+
+	void close() {
+		Util.closeChannel(socketChannel);
+	}
+
+}
@@ -12,18 +12,18 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.datashare.nio;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.ServerSocket;
 import java.net.SocketAddress;
-import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -107,16 +107,24 @@ public abstract class NIOChannel implements IChannel {
 	 */
 	private final int localPort;
 
+	/**
+	 * The selector that the server socket and all connected sockets are
+	 * registered with.
+	 */
+	private Selector selector;
+
 	/**
 	 * A map of <code>ID</code>s to their corresponding
-	 * <code>SocketChannel</code>s.
+	 * <code>ChannelConnection</code>s.
 	 */
 	private Map connectedSockets;
 
 	/**
-	 * A list of sockets that is waiting to handshake with remote peers.
+	 * A list of connections that have completed their handshake with the
+	 * datashare container and are waiting to be registered with this
+	 * channel's selector.
 	 */
-	private List pendingSockets;
+	private List pendingConnections;
 
 	/**
 	 * A queue of messages that needs to be sent to remote clients.
@@ -134,6 +142,8 @@ public abstract class NIOChannel implements IChannel {
 	 */
 	private Thread processingThread;
 
+	private volatile boolean disposed;
+
 	/**
 	 * Instantiates a new channel for sending and receiving messages in a
 	 * non-blocking manner via sockets.
@@ -180,14 +190,24 @@ public abstract class NIOChannel implements IChannel {
 			ServerSocket socket = serverSocketChannel.socket();
 			socket.bind(getBindAddress(), getBackLog());
 		} catch (IOException e) {
+			Util.closeChannel(serverSocketChannel);
 			throw new ECFException(new Status(IStatus.ERROR, Util.PLUGIN_ID,
 					"Could not bind server socket", e)); //$NON-NLS-1$
 		}
 
+		try {
+			selector = Selector.open();
+			serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			Util.closeChannel(serverSocketChannel);
+			throw new ECFException(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+					"Could not open selector", e)); //$NON-NLS-1$
+		}
+
 		localPort = serverSocketChannel.socket().getLocalPort();
 
-		connectedSockets = new HashMap();
-		pendingSockets = new ArrayList();
+		connectedSockets = Collections.synchronizedMap(new HashMap());
+		pendingConnections = new ArrayList();
 		messages = new LinkedList();
 
 		processingThread = new Thread(new ProcessingRunnable(), getClass()
@@ -280,210 +300,202 @@ public abstract class NIOChannel implements IChannel {
 	}
 
 	/**
-	 * Sends any pending messages we may have queued up.
+	 * Sends any pending messages we may have queued up. Messages are appended
+	 * to the write queue of the connection with their target, and are written
+	 * out as the socket accepts them.
 	 */
 	private void sendPendingMessages() {
-		Collection deadSockets = null;
-		Collection processedMessages = null;
+		Collection writing = null;
 
-		for (Iterator it = messages.iterator(); it.hasNext();) {
-			ChannelMessage message = (ChannelMessage) it.next();
-			ID id = message.getId();
-			SocketChannel channel = (SocketChannel) connectedSockets.get(id);
-			// check if we have a socket for the target of this message
-			if (channel != null) {
-				byte[] data = message.getData();
+		synchronized (messages) {
+			for (Iterator it = messages.iterator(); it.hasNext();) {
+				ChannelMessage message = (ChannelMessage) it.next();
+				ChannelConnection connection = (ChannelConnection) connectedSockets
+						.get(message.getId());
+				// check if we have a socket for the target of this message
+				if (connection != null) {
+					connection.enqueue(message.getData());
+					it.remove();
+					if (writing == null) {
+						writing = new HashSet();
+					}
+					writing.add(connection);
+				}
+			}
+		}
 
+		if (writing != null) {
+			for (Iterator it = writing.iterator(); it.hasNext();) {
+				ChannelConnection connection = (ChannelConnection) it.next();
 				try {
-					// flush the data directly with regular IO, this method
-					// saves us the extra work of having to constantly flip and
-					// clear a ByteBuffer and in a way ensures the message is
-					// sent in one piece instead of chunks
-					channel.configureBlocking(true);
-					channel.socket().getOutputStream().write(data);
-					channel.socket().getOutputStream().flush();
-					// turn off blocking
-					channel.configureBlocking(false);
+					flush(connection);
 				} catch (IOException e) {
 					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
 							"Error occurred while sending message", e)); //$NON-NLS-1$
-					if (deadSockets == null) {
-						deadSockets = new HashSet();
-					}
-					deadSockets.add(id);
+					close(connection);
 				}
-
-				if (processedMessages == null) {
-					processedMessages = new LinkedList();
-				}
-				// store the processed message
-				processedMessages.add(message);
-			}
-		}
-
-		// remove all messages that have been processed
-		if (processedMessages != null) {
-			messages.removeAll(processedMessages);
-		}
-
-		if (deadSockets != null) {
-			for (Iterator it = deadSockets.iterator(); it.hasNext();) {
-				ID id = (ID) it.next();
-				SocketChannel channel = (SocketChannel) connectedSockets
-						.remove(id);
-				Util.closeChannel(channel);
 			}
 		}
 	}
 
 	/**
-	 * Reads in any incoming messages from remote clients.
+	 * Writes as much of the data queued for the connection as the socket
+	 * accepts, and registers interest in the socket becoming writable if not
+	 * all of the data could be written.
 	 * 
-	 * @param buffer
-	 *            the buffer to use for reading the socket
+	 * @param connection
+	 *            the connection to write to
 	 * @throws IOException
-	 *             if an error occurs while reading from the socket
+	 *             if an error occurs while writing to the socket
 	 */
-	private void processIncomingMessages(ByteBuffer buffer) throws IOException {
-		Collection deadSockets = null;
-
-		for (Iterator it = connectedSockets.entrySet().iterator(); it.hasNext();) {
-			Map.Entry entry = (Map.Entry) it.next();
-			SocketChannel socketChannel = (SocketChannel) entry.getValue();
-
-			try {
-				if (!processIncomingMessages(socketChannel, buffer)) {
-					if (deadSockets == null) {
-						deadSockets = new HashSet();
-					}
-					deadSockets.add(entry.getKey());
-				}
-			} catch (IOException e) {
-				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-						"Error occurred while sending message", e)); //$NON-NLS-1$
-				if (deadSockets == null) {
-					deadSockets = new HashSet();
-				}
-				deadSockets.add(entry.getKey());
-			}
-		}
-
-		if (deadSockets != null) {
-			for (Iterator it = deadSockets.iterator(); it.hasNext();) {
-				ID id = (ID) it.next();
-				SocketChannel channel = (SocketChannel) connectedSockets
-						.remove(id);
-				Util.closeChannel(channel);
-			}
+	private void flush(ChannelConnection connection) throws IOException {
+		connection.flush();
+		SelectionKey key = connection.getSocketChannel().keyFor(selector);
+		if (key != null && key.isValid()) {
+			connection.updateInterestOps(key);
 		}
 	}
 
 	/**
-	 * Processes any incoming messages from the specified channel by reading it
-	 * into the specified buffer and returns whether the channel has reached
-	 * end-of-stream.
+	 * Accepts an incoming connection. The remote peer will identify itself
+	 * with its ID before sending any messages.
 	 * 
-	 * @param socketChannel
-	 *            the channel to read messages from
-	 * @param buffer
-	 *            the buffer to use to read the messages into
-	 * @return <code>true</code> if the channel is still active,
-	 *         <code>false</code> has reached end-of-stream
 	 * @throws IOException
-	 *             if an error occurred while trying to read from the channel
+	 *             if an error occurs while accepting the connection
 	 */
-	private boolean processIncomingMessages(SocketChannel socketChannel,
-			ByteBuffer buffer) throws IOException {
-		ChannelData channelData = Util.read(socketChannel, buffer);
-		byte[] message = channelData.getData();
-
-		if (message != null) {
-			processIncomingMessage(socketChannel, message);
+	private void accept() throws IOException {
+		SocketChannel socketChannel = serverSocketChannel.accept();
+		if (socketChannel != null) {
+			socketChannel.configureBlocking(false);
+			socketChannel.register(selector, SelectionKey.OP_READ,
+					new ChannelConnection(socketChannel));
 		}
-		return channelData.isOpen();
 	}
 
 	/**
-	 * Processes the message that has been received from the specified channel.
+	 * Registers the connections handed over by the datashare container with
+	 * this channel's selector.
 	 * 
-	 * @param socketChannel
-	 *            the channel that the message was from
-	 * @param message
-	 *            the message that was received
+	 * @throws IOException
+	 *             if a socket could not be registered
 	 */
-	void processIncomingMessage(SocketChannel socketChannel, byte[] message) {
-		// we read something, need to notify
-		IChannelListener listener = getListener();
-		if (listener != null) {
-			// we have a listener, convert our data and then notify
-			byte[][] messages = convert(message);
-			if (messages != null) {
-				fireMessageEvents(listener, socketChannel, messages);
+	private void registerPendingConnections() throws IOException {
+		Object[] connections;
+		synchronized (pendingConnections) {
+			if (pendingConnections.isEmpty()) {
+				return;
+			}
+			connections = pendingConnections.toArray();
+			pendingConnections.clear();
+		}
+
+		for (int i = 0; i < connections.length; i++) {
+			ChannelConnection connection = (ChannelConnection) connections[i];
+			SocketChannel socketChannel = connection.getSocketChannel();
+			if (!socketChannel.isOpen()) {
+				continue;
+			}
+			SelectionKey key = socketChannel.register(selector,
+					SelectionKey.OP_READ, connection);
+			connection.updateInterestOps(key);
+			try {
+				// messages may have been received along with the handshake
+				processReceived(connection);
+			} catch (ClassNotFoundException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"Could not deserialize", e)); //$NON-NLS-1$
+				close(connection);
 			}
 		}
 	}
 
 	/**
-	 * Converts the data that has been read from the socket into separate byte[]
-	 * instances.
-	 * 
-	 * @param message
-	 *            the data read from the socket
-	 * @return a byte[][] containing the individual messages
+	 * Processes the keys selected by the selector.
 	 */
-	private byte[][] convert(byte[] message) {
-		try {
-			// back the read in data with a ByteArrayInputStream
-			ByteArrayInputStream bais = new ByteArrayInputStream(message);
-			// instantiate an ObjectInputStream and read the individual
-			// byte[]
-			byte[] bytes = (byte[]) new ObjectInputStream(bais).readObject();
-
-			if (bais.available() == 0) {
-				return new byte[][] { bytes };
+	private void processSelectedKeys() throws IOException {
+		for (Iterator it = selector.selectedKeys().iterator(); it.hasNext();) {
+			SelectionKey key = (SelectionKey) it.next();
+			it.remove();
+			if (!key.isValid()) {
+				continue;
 			}
 
-			Collection c = new ArrayList();
-			c.add(bytes);
-
-			while (bais.available() != 0) {
-				// instantiate an ObjectInputStream and read the individual
-				// byte[]
-				bytes = (byte[]) new ObjectInputStream(bais).readObject();
-				// store it
-				c.add(bytes);
+			if (key.isAcceptable()) {
+				accept();
+				continue;
 			}
 
-			// return all the individual byte[]s
-			return (byte[][]) c.toArray(new byte[c.size()][]);
-		} catch (IOException e) {
-			return null;
-		} catch (ClassNotFoundException e) {
-			return null;
+			ChannelConnection connection = (ChannelConnection) key
+					.attachment();
+			try {
+				if (key.isReadable()) {
+					boolean open = connection.read();
+					processReceived(connection);
+					if (!open) {
+						// the remote peer has closed the connection
+						close(connection);
+						continue;
+					}
+				}
+				if (key.isValid() && key.isWritable()) {
+					flush(connection);
+				}
+			} catch (ClassNotFoundException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"Could not deserialize", e)); //$NON-NLS-1$
+				close(connection);
+			} catch (IOException e) {
+				if (!disposed) {
+					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+							"Error occurred while reading message", e)); //$NON-NLS-1$
+				}
+				close(connection);
+			}
 		}
 	}
 
 	/**
-	 * Fires message events to the specified listener for each of the message
-	 * that was received.
+	 * Processes the objects that have been completely received from the
+	 * specified connection. The first object received from a peer that
+	 * connected to this channel is the peer's ID, the other objects are
+	 * messages.
 	 * 
-	 * @param listener
-	 *            the listener to notify
-	 * @param socketChannel
-	 *            the socket that the message was read from
-	 * @param messages
-	 *            the messages that have been received
+	 * @param connection
+	 *            the connection that the objects were received from
+	 * @throws ClassNotFoundException
+	 *             if the class of a received object could not be found
+	 * @throws IOException
+	 *             if the received data is corrupt
 	 */
-	private void fireMessageEvents(IChannelListener listener,
-			SocketChannel socketChannel, byte[][] messages) {
-		for (int i = 0; i < messages.length; i++) {
-			IChannelEvent event = createMessageEvent(socketChannel, messages[i]);
-			if (event != null) {
-				fireChannelEvent(listener, event);
+	private void processReceived(ChannelConnection connection)
+			throws ClassNotFoundException, IOException {
+		Object object;
+		while (connection.getSocketChannel().isOpen()
+				&& (object = connection.readObject()) != null) {
+			if (connection.getPeerId() == null) {
+				handshake(connection, object);
+			} else if (object instanceof byte[]) {
+				processIncomingMessage(connection.getPeerId(), (byte[]) object);
 			}
 		}
 	}
 
+	/**
+	 * Processes the message that has been received from the specified peer.
+	 * 
+	 * @param fromId
+	 *            the ID of the peer that the message was from
+	 * @param message
+	 *            the message that was received
+	 */
+	private void processIncomingMessage(ID fromId, byte[] message) {
+		// we read something, need to notify
+		IChannelListener listener = getListener();
+		if (listener != null) {
+			fireChannelEvent(listener, createMessageEvent(fromId, message));
+		}
+	}
+
 	/**
 	 * Notifies the specified listener of the given channel event. The code is
 	 * run within a SafeRunner to ensure that the program flow is not affected
@@ -512,159 +524,107 @@ public abstract class NIOChannel implements IChannel {
 
 	/**
 	 * Creates and returns a message event corresponding to the specified
-	 * channel and the data that was read.
+	 * peer and the data that was read.
 	 * 
-	 * @param channel
-	 *            the socket channel that the message was from
+	 * @param fromId
+	 *            the ID of the peer that the message was from
 	 * @param data
 	 *            the message from the remote peer
-	 * @return a message event describing the received message, may be
-	 *         <code>null</code> if the channel could not be identified
+	 * @return a message event describing the received message
 	 */
-	private IChannelEvent createMessageEvent(SocketChannel channel,
-			final byte[] data) {
-		// search for the id of the corresponding channel
-		for (Iterator it = connectedSockets.entrySet().iterator(); it.hasNext();) {
-			Map.Entry entry = (Map.Entry) it.next();
-			if (channel == entry.getValue()) {
-				final ID fromId = (ID) entry.getKey();
-
-				return new IChannelMessageEvent() {
-					public byte[] getData() {
-						return data;
-					}
+	private IChannelEvent createMessageEvent(final ID fromId, final byte[] data) {
+		return new IChannelMessageEvent() {
+			public byte[] getData() {
+				return data;
+			}
 
-					public ID getFromContainerID() {
-						return fromId;
-					}
+			public ID getFromContainerID() {
+				return fromId;
+			}
 
-					public ID getChannelID() {
-						return id;
-					}
+			public ID getChannelID() {
+				return id;
+			}
 
-					public String toString() {
-						StringBuffer buffer = new StringBuffer();
-						buffer.append("IChannelMessageEvent["); //$NON-NLS-1$
-						buffer.append("container=").append(fromId); //$NON-NLS-1$
-						buffer.append(",channel=").append(id); //$NON-NLS-1$
-						buffer.append(",data=").append(data).append(']'); //$NON-NLS-1$
-						return buffer.toString();
-					}
-				};
+			public String toString() {
+				StringBuffer buffer = new StringBuffer();
+				buffer.append("IChannelMessageEvent["); //$NON-NLS-1$
+				buffer.append("container=").append(fromId); //$NON-NLS-1$
+				buffer.append(",channel=").append(id); //$NON-NLS-1$
+				buffer.append(",data=").append(data).append(']'); //$NON-NLS-1$
+				return buffer.toString();
 			}
-		}
-		return null;
+		};
 	}
 
 	/**
-	 * Stores the specified ID with its corresponding socket into this channel.
-	 * The socket will now be actively used for reading and sending messages.
+	 * Stores the specified connection, which has completed its handshake with
+	 * the datashare container, into this channel. The socket will now be
+	 * actively used for reading and sending messages.
 	 * 
-	 * @param id
-	 *            the target that the socket is connected with
-	 * @param socketChannel
-	 *            the socket channel to be stored
+	 * @param connection
+	 *            the connection to be stored, its peer ID must have been set
 	 */
-	void put(ID id, SocketChannel socketChannel) {
-		connectedSockets.put(id, socketChannel);
+	void put(ChannelConnection connection) {
+		connectedSockets.put(connection.getPeerId(), connection);
+		synchronized (pendingConnections) {
+			pendingConnections.add(connection);
+		}
+		selector.wakeup();
 	}
 
 	/**
-	 * Accept the socket as a potential client and attempt to handshake with it.
+	 * Closes the specified connection and forgets about it.
 	 * 
-	 * @param socketChannel
-	 *            the socket to establish a connection with
-	 * @throws ClassNotFoundException
-	 *             if the class of an object being deserialized could not be
-	 *             found
-	 * @throws IOException
-	 *             if a networking error occurs with the socket while
-	 *             reading/sending messages
+	 * @param connection
+	 *            the connection to close
 	 */
-	// private boolean accept2(SocketChannel socketChannel, ByteBuffer buffer)
-	// throws ClassNotFoundException, IOException {
-	// int read = socketChannel.read(buffer);
-	// buffer.flip();
-	// byte[] bytes = new byte[read];
-	// buffer.get(bytes);
-	// buffer.clear();
-	//
-	// ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(
-	// bytes));
-	// Object object = ois.readObject();
-	//
-	// if (object instanceof ID) {
-	// bytes = serialize(id);
-	// socketChannel.socket().getOutputStream().write(bytes);
-	//
-	// bytes = serialize(containerId);
-	// socketChannel.socket().getOutputStream().write(bytes);
-	// socketChannel.socket().getOutputStream().flush();
-	//
-	// socketChannel.configureBlocking(false);
-	// put((ID) object, socketChannel);
-	// }
-	// return true;
-	// }
+	private void close(ChannelConnection connection) {
+		ID peerId = connection.getPeerId();
+		if (peerId != null) {
+			synchronized (connectedSockets) {
+				if (connectedSockets.get(peerId) == connection) {
+					connectedSockets.remove(peerId);
+				}
+			}
+		}
+		connection.close();
+	}
 
 	/**
-	 * Performs a handshake with a remote peer via the provided socket channel
-	 * and returns whether <code>true</code> if no further attempts are
-	 * required. Note that <code>true</code> does not indicate that the
-	 * handshake has been successful.
-	 * <p>
-	 * For example, if the remote peer has closed this channel then
-	 * <code>true</code> would be returned as no further attempts should be
-	 * attempted.
-	 * </p>
+	 * Performs the handshake with a remote peer that has connected to this
+	 * channel, by replying to the peer's ID with the ID of this channel and of
+	 * the owner container. If the peer did not send an ID, the connection is
+	 * closed.
 	 * 
-	 * @param socketChannel
-	 *            the channel to use to handshake with the remote peer
-	 * @param buffer
-	 *            the buffer to use for reading and writing data from the
-	 *            channel
-	 * @return <code>true</code> if no further handshake attempts are required,
-	 *         <code>false</code> otherwise
-	 * @throws ClassNotFoundException
-	 *             if deserialization failed during the handshake
+	 * @param connection
+	 *            the connection with the remote peer
+	 * @param object
+	 *            the first object received from the remote peer
 	 * @throws IOException
 	 *             if an IO error occurred while performing the handshake
 	 */
-	private boolean handshake(SocketChannel socketChannel, ByteBuffer buffer)
-			throws ClassNotFoundException, IOException {
-		ChannelData data = Util.read(socketChannel, buffer);
-		if (!data.isOpen()) {
-			// this channel is dead, close it
-			Util.closeChannel(socketChannel);
-			return true;
-		}
-
-		byte[] bytes = data.getData();
-		if (bytes == null) {
-			return false;
+	private void handshake(ChannelConnection connection, Object object)
+			throws IOException {
+		if (!(object instanceof ID)) {
+			connection.close();
+			return;
 		}
 
-		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(
-				bytes));
-		Object object = ois.readObject();
-
-		if (object instanceof ID) {
-			socketChannel.configureBlocking(true);
-			byte[] one = Util.serialize(id);
-			byte[] two = Util.serialize(containerId);
-			bytes = new byte[one.length + two.length];
-			System.arraycopy(one, 0, bytes, 0, one.length);
-			System.arraycopy(two, 0, bytes, one.length, two.length);
+		byte[] one = Util.serialize(id);
+		byte[] two = Util.serialize(containerId);
+		byte[] bytes = new byte[one.length + two.length];
+		System.arraycopy(one, 0, bytes, 0, one.length);
+		System.arraycopy(two, 0, bytes, one.length, two.length);
 
-			socketChannel.socket().getOutputStream().write(bytes);
-			socketChannel.socket().getOutputStream().flush();
+		connection.enqueue(bytes);
+		flush(connection);
 
-			socketChannel.configureBlocking(false);
-			put((ID) object, socketChannel);
-		}
-		return true;
+		connection.setPeerId((ID) object);
+		connectedSockets.put(object, connection);
 	}
 
+
 	/**
 	 * Returns the port that is currently open for incoming socket connections.
 	 * 
@@ -735,6 +695,8 @@ public abstract class NIOChannel implements IChannel {
 			// enqueue the message for processing
 			messages.add(new ChannelMessage(receiver, message));
 		}
+		// have the processing thread send it right away
+		selector.wakeup();
 	}
 
 	/**
@@ -743,6 +705,7 @@ public abstract class NIOChannel implements IChannel {
 	 * method returns.
 	 */
 	public void dispose() {
+		disposed = true;
 		processingThread.interrupt();
 
 		try {
@@ -760,8 +723,8 @@ public abstract class NIOChannel implements IChannel {
 			// close all connections
 			for (Iterator it = connectedSockets.values().iterator(); it
 					.hasNext();) {
-				SocketChannel socket = (SocketChannel) it.next();
-				Util.closeChannel(socket);
+				ChannelConnection connection = (ChannelConnection) it.next();
+				connection.close();
 			}
 
 			connectedSockets.clear();
@@ -794,52 +757,38 @@ public abstract class NIOChannel implements IChannel {
 	private final class ProcessingRunnable implements Runnable {
 
 		public void run() {
-			ByteBuffer buffer = ByteBuffer.allocate(1024);
-			while (true) {
-				try {
-					Thread.sleep(50);
-
-					if (Thread.currentThread().isInterrupted()) {
-						return;
-					}
+			try {
+				while (!disposed && !Thread.currentThread().isInterrupted()) {
+					try {
+						// wait until a socket is ready or wakeup() is called
+						selector.select();
 
-					// perform handshaking for any pending sockets
-					for (int i = 0; i < pendingSockets.size(); i++) {
-						SocketChannel channel = (SocketChannel) pendingSockets
-								.get(i);
-						if (handshake(channel, buffer)) {
-							// remove if handled
-							pendingSockets.remove(i);
-							i--;
+						if (disposed || Thread.currentThread().isInterrupted()) {
+							return;
 						}
-					}
-
-					processIncomingMessages(buffer);
 
-					// check if we have pending messages to send
-					synchronized (messages) {
-						if (!messages.isEmpty()) {
-							sendPendingMessages();
+						registerPendingConnections();
+						processSelectedKeys();
+						sendPendingMessages();
+					} catch (IOException e) {
+						if (!disposed) {
+							log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+									"An IO error occurred", e)); //$NON-NLS-1$
 						}
+					} catch (RuntimeException e) {
+						log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+								"A runtime error occurred", e)); //$NON-NLS-1$
 					}
-
-					SocketChannel socketChannel = serverSocketChannel.accept();
-					if (socketChannel != null) {
-						socketChannel.configureBlocking(false);
-						pendingSockets.add(socketChannel);
-					}
-				} catch (InterruptedException e) {
-					Thread.interrupted();
-					return;
-				} catch (ClassNotFoundException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"Could not deserialize", e)); //$NON-NLS-1$
+				}
+			} finally {
+				// accepted sockets that never completed their handshake
+				for (Iterator it = selector.keys().iterator(); it.hasNext();) {
+					Util.closeChannel(((SelectionKey) it.next()).channel());
+				}
+				try {
+					selector.close();
 				} catch (IOException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"An IO error occurred", e)); //$NON-NLS-1$
-				} catch (RuntimeException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"A runtime error occurred", e)); //$NON-NLS-1$
+					// ignored
 				}
 			}
 		}
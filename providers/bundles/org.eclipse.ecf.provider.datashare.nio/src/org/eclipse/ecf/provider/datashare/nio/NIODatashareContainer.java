@@ -12,17 +12,14 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.datashare.nio;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.net.SocketAddress;
-import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
@@ -92,15 +89,15 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	private Thread connectionThread;
 
 	/**
-	 * A list of IP addresses that should be connected to.
+	 * The selector that the sockets handshaking with remote peers are
+	 * registered with, used by the connection thread.
 	 */
-	private LinkedList pendingConnections;
+	private Selector connectionSelector;
 
 	/**
-	 * A list of socket channels that needs to be processed for handshaking with
-	 * the remote peer.
+	 * A list of IP addresses that should be connected to.
 	 */
-	private List pendingSockets;
+	private LinkedList pendingConnections;
 
 	/**
 	 * A map of datashare channels owned by this container mapped by their ids.
@@ -149,7 +146,6 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 
 		channels = new HashMap();
 		pendingConnections = new LinkedList();
-		pendingSockets = new ArrayList();
 		listenerList = new ListenerList();
 	}
 
@@ -281,22 +277,16 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	}
 
 	private void disconnect() {
-		if (connectionThread != null) {
-			connectionThread.interrupt();
-			connectionThread = null;
-		}
-		
 		synchronized (pendingConnections) {
 			pendingConnections.clear();
-		}
-		
-		synchronized (pendingSockets) {
-			for (int i = 0; i < pendingSockets.size(); i++) {
-				SocketChannel channel = (SocketChannel) pendingSockets.get(i);
-				Util.closeChannel(channel);
+
+			if (connectionThread != null) {
+				// the connection thread closes the sockets that are still
+				// handshaking when it exits
+				connectionThread.interrupt();
+				connectionThread = null;
+				connectionSelector = null;
 			}
-			
-			pendingSockets.clear();
 		}
 
 		synchronized (channels) {
@@ -321,35 +311,52 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	}
 
 	/**
-	 * Attempts to connect to a remote address that has been enqueued to this
-	 * channel container for processing via the {@link #enqueue(SocketAddress)}
-	 * method.
+	 * Starts connecting to the remote addresses that have been enqueued to
+	 * this channel container for processing via the
+	 * {@link #enqueue(SocketAddress)} method. Each socket is registered with
+	 * the specified selector, which completes the connection and the
+	 * handshake.
 	 * 
-	 * @param buffer
-	 *            the buffer to use for reading and writing data
-	 * @throws IOException
-	 *             if an IO error occurs while attempting to contact the peer
+	 * @param selector
+	 *            the selector of the connection thread
 	 */
-	private void connect(ByteBuffer buffer) throws IOException {
-		while (!pendingConnections.isEmpty()) {
+	private void connect(Selector selector) {
+		while (true) {
 			// retrieve an IP address to connect to
-			SocketAddress remote = (SocketAddress) pendingConnections
-					.removeFirst();
-
-			// open a socket channel to the remote address
-			SocketChannel socketChannel = SocketChannel.open(remote);
-
-			byte[] bytes = Util.serialize(container.getConnectedID());
-			if (bytes == null) {
-				// serialization failed, close the socket
-				Util.closeChannel(socketChannel);
-				return;
+			SocketAddress remote;
+			synchronized (pendingConnections) {
+				if (pendingConnections.isEmpty()) {
+					return;
+				}
+				remote = (SocketAddress) pendingConnections.removeFirst();
 			}
 
-			socketChannel.configureBlocking(false);
-			Util.write(socketChannel, buffer, bytes);
-
-			pendingSockets.add(socketChannel);
+			SocketChannel socketChannel = null;
+			try {
+				// identify ourselves to the remote channel
+				byte[] bytes = Util.serialize(container.getConnectedID());
+
+				// open a socket channel to the remote address
+				socketChannel = SocketChannel.open();
+				socketChannel.configureBlocking(false);
+				ChannelConnection connection = new ChannelConnection(
+						socketChannel);
+				connection.enqueue(bytes);
+
+				if (socketChannel.connect(remote)) {
+					socketChannel.register(selector, SelectionKey.OP_READ
+							| SelectionKey.OP_WRITE, connection);
+				} else {
+					socketChannel.register(selector, SelectionKey.OP_CONNECT,
+							connection);
+				}
+			} catch (IOException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"Could not connect to " + remote, e)); //$NON-NLS-1$
+				if (socketChannel != null) {
+					Util.closeChannel(socketChannel);
+				}
+			}
 		}
 	}
 
@@ -364,113 +371,129 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 	public void enqueue(SocketAddress address) {
 		Assert.isNotNull(address, "Socket address cannot be null"); //$NON-NLS-1$
 
-		if (connectionThread == null) {
-			connectionThread = new Thread(new ConnectionRunnable(), getClass()
-					.getName()
-					+ "Thread-" + container.getID().toString()); //$NON-NLS-1$
-			connectionThread.start();
+		synchronized (pendingConnections) {
+			if (connectionThread == null) {
+				try {
+					connectionSelector = Selector.open();
+				} catch (IOException e) {
+					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+							"Could not open selector", e)); //$NON-NLS-1$
+					return;
+				}
+				connectionThread = new Thread(new ConnectionRunnable(
+						connectionSelector), getClass().getName()
+						+ "Thread-" + container.getID().toString()); //$NON-NLS-1$
+				connectionThread.start();
+			}
+
+			pendingConnections.add(address);
+			connectionSelector.wakeup();
 		}
+	}
 
-		pendingConnections.add(address);
+	/**
+	 * Processes the keys selected by the connection thread's selector,
+	 * completing connections, writing our ID to the remote peers and reading
+	 * their responses.
+	 * 
+	 * @param selector
+	 *            the selector of the connection thread
+	 */
+	private void processSelectedKeys(Selector selector) {
+		for (Iterator it = selector.selectedKeys().iterator(); it.hasNext();) {
+			SelectionKey key = (SelectionKey) it.next();
+			it.remove();
+			if (!key.isValid()) {
+				continue;
+			}
+
+			ChannelConnection connection = (ChannelConnection) key
+					.attachment();
+			try {
+				if (key.isConnectable()) {
+					if (connection.getSocketChannel().finishConnect()) {
+						key.interestOps(SelectionKey.OP_READ
+								| SelectionKey.OP_WRITE);
+					}
+					continue;
+				}
+				if (key.isWritable()) {
+					connection.flush();
+					connection.updateInterestOps(key);
+				}
+				if (key.isReadable()) {
+					boolean open = connection.read();
+					if (!handshake(key, connection) && !open) {
+						// the remote peer closed the connection before
+						// completing the handshake
+						connection.close();
+					}
+				}
+			} catch (ClassNotFoundException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"Could not deserialize", e)); //$NON-NLS-1$
+				connection.close();
+			} catch (IOException e) {
+				log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+						"An IO error occurred", e)); //$NON-NLS-1$
+				connection.close();
+			}
+		}
 	}
 
 	/**
-	 * Performs a handshake operation with the remote peer.
+	 * Performs a handshake operation with the remote peer, which responds with
+	 * the ID of the channel and its own ID. Once both have been received, the
+	 * connection is handed over to the corresponding channel.
 	 * 
-	 * @param socketChannel
-	 *            the socket channel to handshake with
-	 * @param data
-	 *            the data sent from the channel thus far
+	 * @param key
+	 *            the key of the connection's socket
+	 * @param connection
+	 *            the connection to handshake with
+	 * @return <code>true</code> if the handshake has completed and the
+	 *         connection is no longer handled by this container,
+	 *         <code>false</code> if more data needs to be received
 	 * @throws ClassNotFoundException
 	 *             if a deserialization error occurs
 	 * @throws IOException
-	 *             if an IO error occurs while reading or writing data
+	 *             if an IO error occurs while reading data
 	 */
-	private void handshake(SocketChannel socketChannel, ChannelData data)
+	private boolean handshake(SelectionKey key, ChannelConnection connection)
 			throws ClassNotFoundException, IOException {
-		// retrieve the data that was sent
-		byte[] message = data.getData();
+		if (connection.getChannelId() == null) {
+			// first response should be the channel id
+			ID channelId = (ID) connection.readObject();
+			if (channelId == null) {
+				return false;
+			}
+			connection.setChannelId(channelId);
+		}
 
-		// read in the response
-		ByteArrayInputStream bais = new ByteArrayInputStream(message);
-		ObjectInputStream ois = new ObjectInputStream(bais);
+		// next id is the id of the remote user
+		ID peerId = (ID) connection.readObject();
+		if (peerId == null) {
+			return false;
+		}
 
-		// first response should be the channel id
-		ID channelId = (ID) ois.readObject();
+		// the channel's own selector takes over the socket
+		key.cancel();
 
 		synchronized (channels) {
 			// retrieve the channel that corresponds to that id
-			IChannel channel = getChannel(channelId);
+			IChannel channel = getChannel(connection.getChannelId());
 			if (channel == null) {
 				// can't find a channel that corresponds to the id, close the
 				// socket
-				Util.closeChannel(socketChannel);
+				connection.close();
 			} else {
-				// open another ObjectInputStream because each object is
-				// serialized separately
-				ois = new ObjectInputStream(bais);
-
-				// next id is the id of the remote user
-				ID peerId = (ID) ois.readObject();
-
-				// store the peer id and the corresponding socket in the
-				// retrieved NIO channel
-				NIOChannel datashare = (NIOChannel) channel;
-				datashare.put(peerId, socketChannel);
-
-				// check if we have any bytes left to read
-				int available = bais.available();
-				if (available != 0) {
-					// if there are extra bytes that means this is data that
-					// the sender has sent to us, we must process these messages
-					byte[] received = new byte[available];
-					// copy the remaining information
-					System.arraycopy(message, message.length - available,
-							received, 0, available);
-					// process the received data
-					datashare.processIncomingMessage(socketChannel, received);
-				}
-			}
-		}
-	}
-
-	/**
-	 * Processes any pending sockets that are currently queued up in this
-	 * channel container and is waiting to initiate the handshake process with
-	 * the remote peer.
-	 * 
-	 * @param buffer
-	 *            the buffer to use for reading and writing data
-	 * @throws ClassNotFoundException
-	 *             if a serialization or deserialization operation encountered
-	 *             errors
-	 * @throws IOException
-	 *             if an IO error occurs while reading or writing data
-	 */
-	private void processPendingSockets(ByteBuffer buffer)
-			throws ClassNotFoundException, IOException {
-		for (int i = 0; i < pendingSockets.size(); i++) {
-			SocketChannel socketChannel = (SocketChannel) pendingSockets.get(i);
-
-			buffer.clear();
-			// read in the response
-			ChannelData data = Util.read(socketChannel, buffer);
-			if (!data.isOpen()) {
-				// the channel isn't open, we should close it on our end also
-				Util.closeChannel(socketChannel);
-				// remove this channel
-				pendingSockets.remove(i);
-				i--;
-			} else if (data.getData() != null) {
-				try {
-					handshake(socketChannel, data);
-				} finally {
-					// this socket has been processed, remove it
-					pendingSockets.remove(i);
-					i--;
-				}
+				// store the peer id and the corresponding connection in the
+				// retrieved NIO channel, any bytes received after the
+				// handshake are messages that it will process
+				connection.setPeerId(peerId);
+				((NIOChannel) channel).put(connection);
 			}
 		}
+		return true;
 	}
 
 	/**
@@ -577,37 +600,47 @@ public abstract class NIODatashareContainer implements IChannelContainerAdapter
 
 	private class ConnectionRunnable implements Runnable {
 
-		public void run() {
-			ByteBuffer buffer = ByteBuffer.allocate(1024);
-			while (true) {
-				try {
-					buffer.clear();
+		private final Selector selector;
 
-					if (Thread.currentThread().isInterrupted()) {
-						return;
-					}
+		ConnectionRunnable(Selector selector) {
+			this.selector = selector;
+		}
 
-					synchronized (pendingConnections) {
-						if (!pendingConnections.isEmpty()) {
-							connect(buffer);
-						}	
-					}
+		public void run() {
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					try {
+						connect(selector);
 
-					processPendingSockets(buffer);
+						// wait until a socket is ready or an address is
+						// enqueued
+						selector.select();
 
-					Thread.sleep(50);
-				} catch (InterruptedException e) {
-					Thread.interrupted();
-					return;
-				} catch (ClassNotFoundException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"Could not deserialize", e)); //$NON-NLS-1$
+						if (Thread.currentThread().isInterrupted()) {
+							return;
+						}
+
+						processSelectedKeys(selector);
+					} catch (IOException e) {
+						log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+								"An IO error occurred", e)); //$NON-NLS-1$
+					} catch (RuntimeException e) {
+						log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
+								"A runtime error occurred", e)); //$NON-NLS-1$
+					}
+				}
+			} finally {
+				// close the sockets that are still handshaking
+				for (Iterator it = selector.keys().iterator(); it.hasNext();) {
+					SelectionKey key = (SelectionKey) it.next();
+					if (key.isValid()) {
+						Util.closeChannel(key.channel());
+					}
+				}
+				try {
+					selector.close();
 				} catch (IOException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"An IO error occurred", e)); //$NON-NLS-1$
-				} catch (RuntimeException e) {
-					log(new Status(IStatus.ERROR, Util.PLUGIN_ID,
-							"A runtime error occurred", e)); //$NON-NLS-1$
+					// ignored
 				}
 			}
 		}
@@ -14,6 +14,7 @@ package org.eclipse.ecf.provider.discovery;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.IContainer;
@@ -38,6 +39,10 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		 * @see org.eclipse.ecf.discovery.IServiceListener#serviceDiscovered(org.eclipse.ecf.discovery.IServiceEvent)
 		 */
 		public void serviceDiscovered(final IServiceEvent event) {
+			synchronized (services) {
+				recordServiceEvent(event.getServiceInfo().getServiceID());
+				cacheService(event.getLocalContainerID(), event.getServiceInfo());
+			}
 			final Collection col = getListeners(event.getServiceInfo().getServiceID().getServiceTypeID());
 			if (!col.isEmpty()) {
 				for (final Iterator itr = col.iterator(); itr.hasNext();) {
@@ -58,6 +63,10 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		 * @see org.eclipse.ecf.discovery.IServiceListener#serviceUndiscovered(org.eclipse.ecf.discovery.IServiceEvent)
 		 */
 		public void serviceUndiscovered(final IServiceEvent event) {
+			synchronized (services) {
+				recordServiceEvent(event.getServiceInfo().getServiceID());
+				uncacheService(event.getLocalContainerID(), event.getServiceInfo());
+			}
 			final Collection col = getListeners(event.getServiceInfo().getServiceID().getServiceTypeID());
 			if (!col.isEmpty()) {
 				for (final Iterator itr = col.iterator(); itr.hasNext();) {
@@ -103,14 +112,12 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 			// add ourself as a listener to the underlying providers. This might
 			// trigger a serviceAdded alread
 			final IServiceTypeID istid = event.getServiceTypeID();
-			synchronized (containers) {
-				for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-					// TODO ccstl doesn't have to be a listener for a non
-					// matching (namespace) container, but it doesn't hurt
-					// either
-					final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
-					idca.addServiceListener(istid, ccsl);
-				}
+			for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+				// TODO ccstl doesn't have to be a listener for a non
+				// matching (namespace) container, but it doesn't hurt
+				// either
+				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
+				idca.addServiceListener(istid, ccsl);
 			}
 		}
 	}
@@ -119,6 +126,20 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 
 	protected static final String METHODS_TRACING = Activator.PLUGIN_ID + "/debug/methods/tracing"; //$NON-NLS-1$
 
+	/**
+	 * How long a query waits for the child containers whose services are not
+	 * cached yet, in milliseconds.
+	 */
+	private static final long QUERY_TIMEOUT = Long.getLong(Activator.PLUGIN_ID + ".queryTimeout", 5000).longValue(); //$NON-NLS-1$
+
+	private static final ExecutorService QUERY_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, "CompositeDiscoveryContainer query"); //$NON-NLS-1$
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
 	protected final CompositeContainerServiceListener ccsl = new CompositeContainerServiceListener();
 	protected final CompositeContainerServiceTypeListener ccstl = new CompositeContainerServiceTypeListener();
 
@@ -131,6 +152,84 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 
 	protected final Collection containers;
 
+	/**
+	 * The services of all child containers, IServiceID -> CompositeServiceInfoWrapper.
+	 * Each child is queried once, in parallel with the others, and from then on
+	 * the cache is kept up to date by the service events of the child. Queries
+	 * read the cache without locking.
+	 */
+	private final ConcurrentMap services = new ConcurrentHashMap();
+
+	/**
+	 * The same services by type, IServiceTypeID -> (IServiceID -> CompositeServiceInfoWrapper).
+	 */
+	private final ConcurrentMap servicesByType = new ConcurrentHashMap();
+
+	/**
+	 * The initial queries of the child containers, IDiscoveryLocator -> ContainerSnapshot.
+	 * A snapshot only enters the cache while it is still the one in this map, so
+	 * the result of a query that outlived the removal of its container, or a
+	 * purge of the cache, is dropped.
+	 */
+	private final ConcurrentMap cachedContainers = new ConcurrentHashMap();
+
+	/**
+	 * While snapshots are running, the sequence number of the last event of each
+	 * service, IServiceID -> Long.  A snapshot does not overwrite a service that
+	 * had an event after the snapshot started.  Guarded by {@link #services}.
+	 */
+	private final Map serviceEvents = new HashMap();
+
+	// guarded by services
+	private long eventSequence;
+
+	// guarded by services
+	private int runningSnapshots;
+
+	/**
+	 * The initial query of one child container.
+	 */
+	private class ContainerSnapshot extends FutureTask {
+
+		ContainerSnapshot(final IDiscoveryLocator idca) {
+			super(new Callable() {
+				public Object call() throws Exception {
+					return null;
+				}
+			});
+			this.idca = idca;
+		}
+
+		private final IDiscoveryLocator idca;
+
+		public void run() {
+			final long start;
+			synchronized (services) {
+				if (cachedContainers.get(idca) != this) {
+					cancel(false);
+					return;
+				}
+				runningSnapshots++;
+				start = eventSequence;
+			}
+			try {
+				final IServiceInfo[] infos = idca.getServices();
+				applySnapshot(this, ((IContainer) idca).getID(), infos, start);
+				set(null);
+			} catch (final RuntimeException e) {
+				// query it again next time
+				cachedContainers.remove(idca, this);
+				setException(e);
+			} finally {
+				synchronized (services) {
+					if (--runningSnapshots == 0) {
+						serviceEvents.clear();
+					}
+				}
+			}
+		}
+	}
+
 	private ID targetID;
 
 	/**
@@ -191,6 +290,7 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		synchronized (registeredServices) {
 			registeredServices.clear();
 		}
+		clearCache();
 		synchronized (allServiceListeners) {
 			allServiceListeners.clear();
 		}
@@ -285,19 +385,164 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		return service;
 	}
 
+	/**
+	 * @return a copy of the child containers, so they can be called without
+	 *         holding the lock on {@link #containers}.
+	 */
+	private List getContainersSnapshot() {
+		synchronized (containers) {
+			return new ArrayList(containers);
+		}
+	}
+
+	private void cacheService(final ID containerId, final IServiceInfo serviceInfo) {
+		final IServiceID serviceID = serviceInfo.getServiceID();
+		final CompositeServiceInfoWrapper wrapper = new CompositeServiceInfoWrapper(serviceInfo, containerId);
+		// keeps both indexes consistent, queries do not lock
+		synchronized (services) {
+			services.put(serviceID, wrapper);
+			Map byType = (Map) servicesByType.get(serviceID.getServiceTypeID());
+			if (byType == null) {
+				byType = new ConcurrentHashMap();
+				servicesByType.put(serviceID.getServiceTypeID(), byType);
+			}
+			byType.put(serviceID, wrapper);
+		}
+	}
+
+	private void uncacheService(final ID containerId, final IServiceInfo serviceInfo) {
+		final IServiceID serviceID = serviceInfo.getServiceID();
+		synchronized (services) {
+			final CompositeServiceInfoWrapper cached = (CompositeServiceInfoWrapper) services.get(serviceID);
+			// another container might still know the service
+			if (cached == null || (containerId != null && !containerId.equals(cached.getId()))) {
+				return;
+			}
+			services.remove(serviceID);
+			final Map byType = (Map) servicesByType.get(serviceID.getServiceTypeID());
+			if (byType != null) {
+				byType.remove(serviceID);
+				if (byType.isEmpty()) {
+					servicesByType.remove(serviceID.getServiceTypeID());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Must be called holding the lock on {@link #services}.
+	 */
+	private void recordServiceEvent(final IServiceID serviceID) {
+		if (runningSnapshots > 0) {
+			serviceEvents.put(serviceID, new Long(++eventSequence));
+		}
+	}
+
+	private void applySnapshot(final ContainerSnapshot snapshot, final ID containerId, final IServiceInfo[] infos, final long start) {
+		synchronized (services) {
+			// the container was removed or the cache purged meanwhile
+			if (cachedContainers.get(snapshot.idca) != snapshot) {
+				return;
+			}
+			for (int i = 0; i < infos.length; i++) {
+				final Long event = (Long) serviceEvents.get(infos[i].getServiceID());
+				// the event is more recent than the snapshot
+				if (event != null && event.longValue() > start) {
+					continue;
+				}
+				cacheService(containerId, infos[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the services of the container have been
+	 *         cached and are kept up to date by its events.
+	 */
+	private boolean isCached(final IDiscoveryLocator idca) {
+		final Future future = (Future) cachedContainers.get(idca);
+		return future != null && future.isDone() && !future.isCancelled();
+	}
+
+	private void uncacheContainer(final IDiscoveryLocator idca) {
+		final ID containerId = ((IContainer) idca).getID();
+		synchronized (services) {
+			cachedContainers.remove(idca);
+			for (final Iterator itr = new ArrayList(services.values()).iterator(); itr.hasNext();) {
+				final CompositeServiceInfoWrapper cached = (CompositeServiceInfoWrapper) itr.next();
+				if (containerId.equals(cached.getId())) {
+					uncacheService(containerId, cached);
+				}
+			}
+		}
+	}
+
+	private void clearCache() {
+		synchronized (services) {
+			cachedContainers.clear();
+			services.clear();
+			servicesByType.clear();
+		}
+	}
+
+	/**
+	 * Queries the child containers whose services are not cached yet, all in
+	 * parallel, and waits at most {@link #QUERY_TIMEOUT} for them. A container
+	 * that is slower does not hold up the query; its services are added to the
+	 * cache once it answers.
+	 */
+	private void awaitCache() {
+		final Map pending = new HashMap();
+		for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+			final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
+			Future future = (Future) cachedContainers.get(idca);
+			if (future == null) {
+				final ContainerSnapshot task = new ContainerSnapshot(idca);
+				future = (Future) cachedContainers.putIfAbsent(idca, task);
+				if (future == null) {
+					future = task;
+					QUERY_EXECUTOR.execute(task);
+				}
+			}
+			if (!future.isDone()) {
+				pending.put(idca, future);
+			}
+		}
+		final long deadline = System.currentTimeMillis() + QUERY_TIMEOUT;
+		for (final Iterator itr = pending.entrySet().iterator(); itr.hasNext();) {
+			final Map.Entry entry = (Map.Entry) itr.next();
+			try {
+				((Future) entry.getValue()).get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+			} catch (final TimeoutException e) {
+				Trace.trace(Activator.PLUGIN_ID, METHODS_TRACING, this.getClass(), "awaitCache", "query timed out for " + entry.getKey()); //$NON-NLS-1$ //$NON-NLS-2$
+			} catch (final ExecutionException e) {
+				Trace.catching(Activator.PLUGIN_ID, METHODS_CATCHING, this.getClass(), "awaitCache", e.getCause()); //$NON-NLS-1$
+			} catch (final CancellationException e) {
+				// the container was removed or the cache purged
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.ecf.discovery.IDiscoveryContainerAdapter#getServiceInfo(org.eclipse.ecf.discovery.identity.IServiceID)
 	 */
 	public IServiceInfo getServiceInfo(final IServiceID aService) {
 		Assert.isNotNull(aService);
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
-				final IServiceID isi = getServiceIDForDiscoveryContainer(aService, idca);
-				final IServiceInfo service = idca.getServiceInfo(isi);
-				if (service != null) {
-					return service;
-				}
+		awaitCache();
+		final CompositeServiceInfoWrapper cached = (CompositeServiceInfoWrapper) services.get(aService);
+		if (cached != null) {
+			return cached.anInfo;
+		}
+		// the service might not have been discovered yet
+		for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+			final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
+			final IServiceID isi = getServiceIDForDiscoveryContainer(aService, idca);
+			final IServiceInfo service = idca.getServiceInfo(isi);
+			if (service != null) {
+				return service;
 			}
 		}
 		return null;
@@ -314,20 +559,8 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 	 * @see org.eclipse.ecf.discovery.IDiscoveryContainerAdapter#getServices()
 	 */
 	public IServiceInfo[] getServices() {
-		final Set set = new HashSet();
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
-				final ID containerId = ((IContainer) idca).getID();
-				final IServiceInfo[] services = idca.getServices();
-				for (int i = 0; i < services.length; i++) {
-					IServiceInfo iServiceInfo = services[i];
-					services[i] = new CompositeServiceInfoWrapper(iServiceInfo, containerId);
-				}
-				set.addAll(Arrays.asList(services));
-			}
-		}
-		return (IServiceInfo[]) set.toArray(new IServiceInfo[set.size()]);
+		awaitCache();
+		return (IServiceInfo[]) services.values().toArray(new IServiceInfo[0]);
 	}
 
 	/* (non-Javadoc)
@@ -335,16 +568,32 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 	 */
 	public IServiceInfo[] getServices(final IServiceTypeID type) {
 		Assert.isNotNull(type);
-		final Set set = new HashSet();
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
-				final IServiceTypeID isti = getServiceTypeIDForDiscoveryContainer(type, idca);
-				final IServiceInfo[] services = idca.getServices(isti);
-				set.addAll(Arrays.asList(services));
+		awaitCache();
+		// IServiceID -> IServiceInfo
+		final Map result = new LinkedHashMap();
+		for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+			final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
+			// the cache holds the type IDs of the container's namespace
+			final IServiceTypeID isti = getServiceTypeIDForDiscoveryContainer(type, idca);
+			if (isCached(idca)) {
+				final Map byType = (Map) servicesByType.get(isti);
+				if (byType != null) {
+					for (final Iterator itr2 = byType.values().iterator(); itr2.hasNext();) {
+						final CompositeServiceInfoWrapper cached = (CompositeServiceInfoWrapper) itr2.next();
+						result.put(cached.getServiceID(), cached.anInfo);
+					}
+				}
+			} else {
+				// not cached yet, e.g. the query timed out
+				final IServiceInfo[] infos = idca.getServices(isti);
+				for (int i = 0; i < infos.length; i++) {
+					if (!result.containsKey(infos[i].getServiceID())) {
+						result.put(infos[i].getServiceID(), infos[i]);
+					}
+				}
 			}
 		}
-		return (IServiceInfo[]) set.toArray(new IServiceInfo[set.size()]);
+		return (IServiceInfo[]) result.values().toArray(new IServiceInfo[result.size()]);
 	}
 
 	private IServiceTypeID getServiceTypeIDForDiscoveryContainer(final IServiceTypeID type, final IDiscoveryLocator dca) {
@@ -359,15 +608,8 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 	 * @see org.eclipse.ecf.discovery.IDiscoveryContainerAdapter#getServiceTypes()
 	 */
 	public IServiceTypeID[] getServiceTypes() {
-		final Set set = new HashSet();
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
-				final IServiceTypeID[] services = idca.getServiceTypes();
-				set.addAll(Arrays.asList(services));
-			}
-		}
-		return (IServiceTypeID[]) set.toArray(new IServiceTypeID[set.size()]);
+		awaitCache();
+		return (IServiceTypeID[]) servicesByType.keySet().toArray(new IServiceTypeID[0]);
 	}
 
 	/* (non-Javadoc)
@@ -378,14 +620,12 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		synchronized (registeredServices) {
 			Assert.isTrue(registeredServices.add(serviceInfo));
 		}
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryAdvertiser dca = (IDiscoveryAdvertiser) itr.next();
-				final IServiceInfo isi = getServiceInfoForDiscoveryContainer(serviceInfo, (IDiscoveryLocator) dca);
-				dca.registerService(isi);
-				Trace.trace(Activator.PLUGIN_ID, METHODS_TRACING, this.getClass(), "registerService", "registeredService " //$NON-NLS-1$ //$NON-NLS-2$
-						+ serviceInfo.toString());
-			}
+		for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+			final IDiscoveryAdvertiser dca = (IDiscoveryAdvertiser) itr.next();
+			final IServiceInfo isi = getServiceInfoForDiscoveryContainer(serviceInfo, (IDiscoveryLocator) dca);
+			dca.registerService(isi);
+			Trace.trace(Activator.PLUGIN_ID, METHODS_TRACING, this.getClass(), "registerService", "registeredService " //$NON-NLS-1$ //$NON-NLS-2$
+					+ serviceInfo.toString());
 		}
 	}
 
@@ -398,12 +638,10 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 			// no assert as unregisterService might be called with an non-existing ISI
 			registeredServices.remove(serviceInfo);
 		}
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryAdvertiser idca = (IDiscoveryAdvertiser) itr.next();
-				final IServiceInfo isi = getServiceInfoForDiscoveryContainer(serviceInfo, (IDiscoveryLocator) idca);
-				idca.unregisterService(isi);
-			}
+		for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+			final IDiscoveryAdvertiser idca = (IDiscoveryAdvertiser) itr.next();
+			final IServiceInfo isi = getServiceInfoForDiscoveryContainer(serviceInfo, (IDiscoveryLocator) idca);
+			idca.unregisterService(isi);
 		}
 	}
 
@@ -412,14 +650,12 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 	 */
 	public void unregisterAllServices() {
 		synchronized (registeredServices) {
-			synchronized (containers) {
-				for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-					final IDiscoveryAdvertiser idca = (IDiscoveryAdvertiser) itr.next();
-					for (Iterator itr2 = registeredServices.iterator(); itr2.hasNext();) {
-						final IServiceInfo serviceInfo = (IServiceInfo) itr2.next();
-						final IServiceInfo isi = getServiceInfoForDiscoveryContainer(serviceInfo, (IDiscoveryLocator) idca);
-						idca.unregisterService(isi);
-					}
+			for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+				final IDiscoveryAdvertiser idca = (IDiscoveryAdvertiser) itr.next();
+				for (Iterator itr2 = registeredServices.iterator(); itr2.hasNext();) {
+					final IServiceInfo serviceInfo = (IServiceInfo) itr2.next();
+					final IServiceInfo isi = getServiceInfoForDiscoveryContainer(serviceInfo, (IDiscoveryLocator) idca);
+					idca.unregisterService(isi);
 				}
 			}
 		}
@@ -430,12 +666,11 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 	 */
 	public IServiceInfo[] purgeCache() {
 		final Set set = new HashSet();
-		synchronized (containers) {
-			for (final Iterator itr = containers.iterator(); itr.hasNext();) {
-				final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
-				final IServiceInfo[] services = idca.purgeCache();
-				set.addAll(Arrays.asList(services));
-			}
+		clearCache();
+		for (final Iterator itr = getContainersSnapshot().iterator(); itr.hasNext();) {
+			final IDiscoveryLocator idca = (IDiscoveryLocator) itr.next();
+			final IServiceInfo[] purged = idca.purgeCache();
+			set.addAll(Arrays.asList(purged));
 		}
 		return (IServiceInfo[]) set.toArray(new IServiceInfo[set.size()]);
 	}
@@ -489,11 +724,14 @@ public class CompositeDiscoveryContainer extends AbstractDiscoveryContainerAdapt
 		final IDiscoveryLocator idca = (IDiscoveryLocator) object;
 		idca.removeServiceListener(ccsl);
 		idca.removeServiceTypeListener(ccstl);
+		final boolean removed;
 		synchronized (containers) {
 			Trace.trace(Activator.PLUGIN_ID, METHODS_TRACING, this.getClass(), "removeContainer(Object)", "removeContainer " //$NON-NLS-1$ //$NON-NLS-2$
 					+ object.toString());
-			return containers.remove(object);
+			removed = containers.remove(object);
 		}
+		uncacheContainer(idca);
+		return removed;
 	}
 
 	/**
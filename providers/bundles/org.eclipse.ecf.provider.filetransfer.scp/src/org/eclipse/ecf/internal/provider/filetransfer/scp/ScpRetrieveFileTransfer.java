@@ -154,6 +154,18 @@ public class ScpRetrieveFileTransfer extends AbstractRetrieveFileTransfer
 		return b;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.eclipse.ecf.provider.filetransfer.retrieve.AbstractRetrieveFileTransfer
+	 * #isChannelReceive()
+	 */
+	protected boolean isChannelReceive() {
+		// the scp ack follows the file data, see handleReceivedData
+		return false;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -22,6 +22,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.text.DecimalFormat;
 import java.util.Date;
 import java.util.Map;
@@ -76,6 +80,26 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 
 	protected static final int CLOSE_TIMEOUT = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.filetransfer.retrieve.closeTimeout", "1000")); //$NON-NLS-1$ //$NON-NLS-2$;
 
+	/**
+	 * Receive into a {@link FileChannel} when the transfer is saved to a local
+	 * file. The remote stream is then read on the job thread, with the socket
+	 * read timeout of the connection, instead of through a
+	 * {@link TimeoutInputStream} and its reader thread. May also be given as
+	 * option with the same name.
+	 */
+	private static final String CHANNEL_RECEIVE_PROPERTY = "org.eclipse.ecf.provider.filetransfer.retrieve.channelReceive"; //$NON-NLS-1$
+
+	private static final boolean CHANNEL_RECEIVE = Boolean.getBoolean(CHANNEL_RECEIVE_PROPERTY);
+
+	private static final int CHANNEL_BUFFER_SIZE = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.filetransfer.retrieve.channelBufferSize", "262144")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * Minimum interval in milliseconds between two updates of the transfer rate
+	 * in the task name and, when receiving into a file channel, between two
+	 * progress and data events.
+	 */
+	private static final long PROGRESS_INTERVAL = Long.parseLong(System.getProperty("org.eclipse.ecf.provider.filetransfer.retrieve.progressInterval", "100")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	private static final String readTimeoutMessage = "Timeout while reading input stream.\n" + //$NON-NLS-1$
 			"The following system properties can be used to adjust the readTimeout, retryAttempts, and closeTimeout\n" + //$NON-NLS-1$
 			"\torg.eclipse.ecf.provider.filetransfer.retrieve.readTimeout=<default:1000>\n" + //$NON-NLS-1$
@@ -109,6 +133,10 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 
 	protected boolean closeOutputStream = true;
 
+	private FileChannel localFileChannel;
+
+	private long lastProgressUpdate;
+
 	protected Exception exception;
 
 	protected long fileLength = -1;
@@ -162,7 +190,8 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 	private IFileTransferRunnable fileTransferRunnable = new IFileTransferRunnable() {
 		public IStatus performFileTransfer(IProgressMonitor monitor) {
 			transferStartTime = System.currentTimeMillis();
-			final byte[] buf = new byte[buff_length];
+			lastProgressUpdate = 0;
+			final byte[] buf = (localFileChannel == null) ? new byte[buff_length] : null;
 			final long totalWork = ((fileLength == -1) ? 100 : fileLength);
 			double factor = (totalWork > Integer.MAX_VALUE) ? (((double) Integer.MAX_VALUE) / ((double) totalWork)) : 1.0;
 			int work = (totalWork > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) totalWork;
@@ -175,6 +204,13 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 					throw new IOException("input stream cannot be null"); //$NON-NLS-1$
 				// Create read input stream
 				readInputStream = wrapTransferReadInputStream(remoteFileContents, monitor);
+				if (localFileChannel != null) {
+					try {
+						receiveToChannel(readInputStream, factor, monitor);
+					} catch (OperationCanceledException e) {
+						throw new UserCancelledException(Messages.AbstractRetrieveFileTransfer_Exception_User_Cancelled);
+					}
+				}
 				while (!isDone() && !isPaused()) {
 					try {
 						final int bytes = readInputStream.read(buf);
@@ -197,6 +233,8 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 						a.log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, IStatus.ERROR, "hardClose", e)); //$NON-NLS-1$
 				}
 				hardClose();
+				// subclasses may override hardClose without calling super
+				localFileChannel = null;
 				monitor.done();
 				try {
 					if (isPaused())
@@ -263,11 +301,45 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 	}
 
 	protected void setInputStream(InputStream ins) {
-		remoteFileContents = new TimeoutInputStream(ins, TIMEOUT_INPUTSTREAM_BUFFER_SIZE, getSocketReadTimeout(), getSocketCloseTimeout());
+		if (isChannelReceive())
+			remoteFileContents = ins;
+		else
+			remoteFileContents = new TimeoutInputStream(ins, TIMEOUT_INPUTSTREAM_BUFFER_SIZE, getSocketReadTimeout(), getSocketCloseTimeout());
+	}
+
+	/**
+	 * @return <code>true</code> if a transfer that is saved to a local file
+	 *         is received into a {@link FileChannel}. Subclasses that read
+	 *         the remote stream themselves, or that override
+	 *         {@link #handleReceivedData(byte[], int, double, IProgressMonitor)},
+	 *         should return <code>false</code>.
+	 * @since 3.3
+	 */
+	protected boolean isChannelReceive() {
+		Map localOptions = getOptions();
+		if (localOptions != null) {
+			Object o = localOptions.get(CHANNEL_RECEIVE_PROPERTY);
+			if (o instanceof Boolean)
+				return ((Boolean) o).booleanValue();
+			else if (o instanceof String)
+				return Boolean.valueOf((String) o).booleanValue();
+		}
+		return CHANNEL_RECEIVE;
+	}
+
+	private void setOutputFile(String name, boolean append) throws IOException {
+		if (isChannelReceive()) {
+			final FileOutputStream fos = new FileOutputStream(name, append);
+			setOutputStream(fos);
+			localFileChannel = fos.getChannel();
+		} else
+			setOutputStream(new BufferedOutputStream(new FileOutputStream(name, append)));
 	}
 
 	protected void setOutputStream(OutputStream outs) {
 		localFileContents = outs;
+		// only setOutputFile receives into a channel, see performFileTransfer
+		localFileChannel = null;
 	}
 
 	protected void setCloseOutputStream(boolean close) {
@@ -290,14 +362,66 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 		if (bytes != -1) {
 			bytesReceived += bytes;
 			localFileContents.write(buf, 0, bytes);
-			downloadRateBytesPerSecond = (bytesReceived / ((System.currentTimeMillis() + 1 - transferStartTime) / 1000.0));
-			monitor.setTaskName(createJobName() + Messages.AbstractRetrieveFileTransfer_Progress_Data + NLS.bind(Messages.AbstractRetrieveFileTransfer_InfoTransferRate, toHumanReadableBytes(downloadRateBytesPerSecond)));
+			final long now = System.currentTimeMillis();
+			if (now - lastProgressUpdate >= PROGRESS_INTERVAL) {
+				updateTransferRate(now, monitor);
+			}
 			monitor.worked((int) Math.round(factor * bytes));
 			fireTransferReceiveDataEvent();
 		} else
 			setDone(true);
 	}
 
+	private void updateTransferRate(long now, IProgressMonitor monitor) {
+		lastProgressUpdate = now;
+		downloadRateBytesPerSecond = (bytesReceived / ((now + 1 - transferStartTime) / 1000.0));
+		monitor.setTaskName(createJobName() + Messages.AbstractRetrieveFileTransfer_Progress_Data + NLS.bind(Messages.AbstractRetrieveFileTransfer_InfoTransferRate, toHumanReadableBytes(downloadRateBytesPerSecond)));
+	}
+
+	/**
+	 * Receives into {@link #localFileChannel} through a direct buffer of
+	 * <code>channelBufferSize</code> bytes, which is written to the file
+	 * without further copies once it is full. Progress, rate and data
+	 * events are reported at most every <code>progressInterval</code>
+	 * milliseconds and once more when the transfer ends.
+	 * <p>
+	 * If a read throws, the bytes still in the buffer, up to
+	 * <code>channelBufferSize</code> of them, are not written to the file,
+	 * although they are counted in {@link #bytesReceived}. The transfer is
+	 * done with the exception, and the file is incomplete.
+	 * </p>
+	 */
+	private void receiveToChannel(InputStream readInputStream, double factor, IProgressMonitor monitor) throws IOException {
+		final ReadableByteChannel in = Channels.newChannel(readInputStream);
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE);
+		long reported = bytesReceived;
+		while (!isDone() && !isPaused()) {
+			final int bytes = in.read(buffer);
+			if (bytes == -1)
+				setDone(true);
+			else
+				bytesReceived += bytes;
+			if (bytes == -1 || !buffer.hasRemaining())
+				writeToChannel(buffer);
+			final long now = System.currentTimeMillis();
+			if (isDone() || now - lastProgressUpdate >= PROGRESS_INTERVAL) {
+				updateTransferRate(now, monitor);
+				monitor.worked((int) Math.round(factor * (bytesReceived - reported)));
+				reported = bytesReceived;
+				fireTransferReceiveDataEvent();
+			}
+		}
+		// paused, keep what was received for resume
+		writeToChannel(buffer);
+	}
+
+	private synchronized void writeToChannel(ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			localFileChannel.write(buffer);
+		buffer.clear();
+	}
+
 	public static String toHumanReadableBytes(double size) {
 		double convertedSize;
 		String unit;
@@ -349,6 +473,7 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 		// leave job intact to ensure only one done event is fired
 		remoteFileContents = null;
 		localFileContents = null;
+		localFileChannel = null;
 	}
 
 	protected void fireTransferReceivePausedEvent() {
@@ -711,7 +836,7 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 			 * org.eclipse.ecf.filetransfer.FileTransferJob)
 			 */
 			public IIncomingFileTransfer receive(File localFileToSave, FileTransferJob fileTransferJob) throws IOException {
-				setOutputStream(new BufferedOutputStream(new FileOutputStream(localFileToSave)));
+				setOutputFile(localFileToSave.getPath(), false);
 				setupAndScheduleJob(fileTransferJob);
 				return AbstractRetrieveFileTransfer.this;
 			}
@@ -783,7 +908,7 @@ public abstract class AbstractRetrieveFileTransfer implements IIncomingFileTrans
 			}
 
 			public IIncomingFileTransfer receive(File localFileToSave, FileTransferJob fileTransferJob, boolean append) throws IOException {
-				setOutputStream(new BufferedOutputStream(new FileOutputStream(localFileToSave.getName(), append)));
+				setOutputFile(localFileToSave.getName(), append);
 				setupAndScheduleJob(fileTransferJob);
 				return AbstractRetrieveFileTransfer.this;
 			}
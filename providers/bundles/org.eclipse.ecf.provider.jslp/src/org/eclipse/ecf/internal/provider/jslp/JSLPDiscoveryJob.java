@@ -23,15 +23,41 @@ import org.eclipse.ecf.provider.jslp.container.JSLPDiscoveryContainer;
 import org.eclipse.ecf.provider.jslp.container.JSLPServiceInfo;
 import org.osgi.framework.Bundle;
 
+/**
+ * Rediscovers the SLP services periodically and reports the services that came
+ * and went. A rediscovery only asks for the service types and the service URLs
+ * of each type; the attributes are only requested for services that are new.
+ * While rediscoveries find no changes, the interval between them doubles from
+ * {@link JSLPDiscoveryContainer#REDISCOVER} up to <code>net.slp.rediscover.max</code>
+ * milliseconds (eight times <code>net.slp.rediscover</code> by default). A change
+ * resets the interval, and services (un)registered by this container are
+ * rediscovered right away.
+ */
 public final class JSLPDiscoveryJob extends Job {
 
+	private static final Long REDISCOVER_MAX = Long.getLong("net.slp.rediscover.max"); //$NON-NLS-1$
+
 	private final JSLPDiscoveryContainer discoveryContainer;
+	private final LocatorDecorator locator;
 	private final Map services;
+	private volatile long interval;
+	private volatile boolean rediscover;
 
 	public JSLPDiscoveryJob(final JSLPDiscoveryContainer container) {
+		this(container, null);
+	}
+
+	/**
+	 * @param container the container to report the services to
+	 * @param aLocator the locator to rediscover with, or <code>null</code> for the
+	 * locator of the jSLP bundle
+	 */
+	public JSLPDiscoveryJob(final JSLPDiscoveryContainer container, final LocatorDecorator aLocator) {
 		super("SLP Discovery"); //$NON-NLS-1$
 		discoveryContainer = container;
+		locator = aLocator;
 		services = Collections.synchronizedMap(new HashMap());
+		interval = JSLPDiscoveryContainer.REDISCOVER;
 	}
 
 	/*
@@ -41,22 +67,29 @@ public final class JSLPDiscoveryJob extends Job {
 	 */
 	protected IStatus run(final IProgressMonitor monitor) {
 		Assert.isNotNull(monitor);
+		rediscover = false;
+		boolean changed = false;
 		try {
-			final Map availableServices = Activator.getDefault().getLocator().getServiceURLs();
+			final LocatorDecorator locator = this.locator != null ? this.locator : Activator.getDefault().getLocator();
+			final List availableServices = locator.getServiceURLs((String) null, null);
 			final Map removedServices = new HashMap(services);
-			for (final Iterator itr = availableServices.entrySet().iterator(); itr.hasNext() && !monitor.isCanceled();) {
-				final Map.Entry entry = (Map.Entry) itr.next();
-				final ServiceURL url = (ServiceURL) entry.getKey();
+			for (final Iterator itr = availableServices.iterator(); itr.hasNext() && !monitor.isCanceled();) {
+				final ServiceURL url = (ServiceURL) itr.next();
 				// do we know the service already?
-				if (removedServices.containsKey(url)) {
-					removedServices.remove(url);
-				} else { // we don't know the service, so we need to create the
-					final ServicePropertiesAdapter spa = new ServicePropertiesAdapter((List) entry.getValue());
-					final String serviceName = spa.getServiceName() == null ? url.toString() : spa.getServiceName();
-					final IServiceInfo serviceInfo = new JSLPServiceInfo(serviceName, new ServiceURLAdapter(url), spa.getPriority(), spa.getWeight(), spa);
-					services.put(url, serviceInfo);
-					discoveryContainer.fireServiceTypeDiscovered(serviceInfo.getServiceID().getServiceTypeID());
-					discoveryContainer.fireServiceDiscovered(serviceInfo);
+				if (removedServices.remove(url) == null && !services.containsKey(url)) {
+					// we don't know the service, so we need its attributes
+					try {
+						final ServicePropertiesAdapter spa = new ServicePropertiesAdapter(Collections.list(locator.findAttributes(url, null, null)));
+						final String serviceName = spa.getServiceName() == null ? url.toString() : spa.getServiceName();
+						final IServiceInfo serviceInfo = new JSLPServiceInfo(serviceName, new ServiceURLAdapter(url), spa.getPriority(), spa.getWeight(), spa);
+						services.put(url, serviceInfo);
+						changed = true;
+						discoveryContainer.fireServiceTypeDiscovered(serviceInfo.getServiceID().getServiceTypeID());
+						discoveryContainer.fireServiceDiscovered(serviceInfo);
+					} catch (final ServiceLocationException e) {
+						// gone in the meantime, or retried with the next rediscovery
+						Trace.catching(Activator.PLUGIN_ID, JSLPDebugOptions.EXCEPTIONS_CATCHING, this.getClass(), "run", e); //$NON-NLS-1$
+					}
 				}
 				monitor.worked(1);
 			}
@@ -67,6 +100,7 @@ public final class JSLPDiscoveryJob extends Job {
 				final IServiceInfo value = (IServiceInfo) entry.getValue();
 				discoveryContainer.fireServiceUndiscovered(value);
 				services.remove(key);
+				changed = true;
 				monitor.worked(1);
 			}
 
@@ -77,13 +111,44 @@ public final class JSLPDiscoveryJob extends Job {
 			Trace.catching(Activator.PLUGIN_ID, JSLPDebugOptions.EXCEPTIONS_CATCHING, this.getClass(), "run", e); //$NON-NLS-1$
 		}
 
+		final long delay = nextInterval(changed);
 		// check if the JSLPDiscoveryContainer has been disconnected or disposed
 		if (discoveryContainer.getConnectedID() != null) {
-			this.schedule(JSLPDiscoveryContainer.REDISCOVER);
+			this.schedule(delay);
 		}
 		return Status.OK_STATUS;
 	}
 
+	private long nextInterval(final boolean changed) {
+		final long min = JSLPDiscoveryContainer.REDISCOVER;
+		if (changed || rediscover) {
+			interval = min;
+		} else {
+			final long max = REDISCOVER_MAX == null ? min * 8 : Math.max(REDISCOVER_MAX.longValue(), min);
+			interval = Math.min(interval * 2, max);
+		}
+		// a service has been (un)registered while we were running
+		return rediscover ? 0 : interval;
+	}
+
+	/**
+	 * @return the interval between the current and the next rediscovery in
+	 * milliseconds, unless a rediscovery is requested earlier
+	 */
+	public long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Rediscovers now instead of after the current interval, e.g. because a
+	 * service has been registered or unregistered.
+	 */
+	public void rediscover() {
+		rediscover = true;
+		interval = JSLPDiscoveryContainer.REDISCOVER;
+		wakeUp();
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.core.runtime.jobs.Job#shouldRun()
 	 */
@@ -187,6 +187,7 @@ public class JSLPDiscoveryContainer extends AbstractDiscoveryContainerAdapter im
 			JSLPServiceInfo si = new JSLPServiceInfo(aServiceInfo);
 			IServiceTypeID stid = si.getServiceID().getServiceTypeID();
 			Activator.getDefault().getAdvertiser().register(si.getServiceURL(), Arrays.asList(stid.getScopes()), new ServicePropertiesAdapter(si).toProperties());
+			rediscover();
 		} catch (ServiceLocationException e) {
 			Trace.catching(Activator.PLUGIN_ID, JSLPDebugOptions.EXCEPTIONS_CATCHING, this.getClass(), "registerService(IServiceInfo)", e); //$NON-NLS-1$
 			throw new ECFRuntimeException(e.getMessage(), e);
@@ -201,6 +202,7 @@ public class JSLPDiscoveryContainer extends AbstractDiscoveryContainerAdapter im
 		JSLPServiceInfo si = new JSLPServiceInfo(aServiceInfo);
 		try {
 			Activator.getDefault().getAdvertiser().deregister(si.getServiceURL());
+			rediscover();
 		} catch (ServiceLocationException e) {
 			Trace.catching(Activator.PLUGIN_ID, JSLPDebugOptions.EXCEPTIONS_CATCHING, this.getClass(), "unregisterService(IServiceInfo)", e); //$NON-NLS-1$
 		}
@@ -258,6 +260,14 @@ public class JSLPDiscoveryContainer extends AbstractDiscoveryContainerAdapter im
 		super.addServiceTypeListener(listener);
 	}
 
+	// report our own changes right away instead of with the next rediscovery
+	private void rediscover() {
+		final JSLPDiscoveryJob job = discoveryJob;
+		if (job != null) {
+			job.rediscover();
+		}
+	}
+
 	// done here for lazyness
 	private synchronized void instantiateDiscoveryJob() {
 		if (discoveryJob == null) {
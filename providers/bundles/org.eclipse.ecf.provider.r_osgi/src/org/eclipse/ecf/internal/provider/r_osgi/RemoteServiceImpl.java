@@ -13,12 +13,19 @@
 
 package org.eclipse.ecf.internal.provider.r_osgi;
 
-import ch.ethz.iks.r_osgi.RemoteOSGiException;
+import ch.ethz.iks.r_osgi.*;
 import java.lang.reflect.Method;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.core.util.reflection.ClassUtil;
 import org.eclipse.ecf.remoteservice.*;
+import org.eclipse.ecf.remoteservice.asyncproxy.AsyncReturnUtil;
 import org.eclipse.ecf.remoteservice.events.IRemoteCallCompleteEvent;
 import org.eclipse.ecf.remoteservice.events.IRemoteCallStartEvent;
 import org.eclipse.equinox.concurrent.future.*;
@@ -30,6 +37,18 @@ import org.eclipse.equinox.concurrent.future.*;
  */
 final class RemoteServiceImpl extends AbstractRemoteService {
 
+	/**
+	 * expires the async calls that have not completed within the call timeout.
+	 * Shared by all remote services.
+	 */
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, "R-OSGi RemoteService CallTimeoutThread"); //$NON-NLS-1$
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
 	// the ECF remote refImpl
 	RemoteServiceReferenceImpl refImpl;
 
@@ -73,7 +92,60 @@ final class RemoteServiceImpl extends AbstractRemoteService {
 	 *      org.eclipse.ecf.remoteservice.IRemoteCallListener)
 	 */
 	public void callAsync(final IRemoteCall call, final IRemoteCallListener listener) {
-		new AsyncResult(call, listener).start();
+		final Object[] parameters = getParameters(call);
+		final Method method = getAsyncMethod(call, parameters);
+		if (method == null) {
+			new AsyncResult(call, listener).start();
+			return;
+		}
+
+		final long reqID = getNextID();
+		if (listener != null) {
+			listener.handleEvent(new IRemoteCallStartEvent() {
+				public IRemoteCall getCall() {
+					return call;
+				}
+
+				public IRemoteServiceReference getReference() {
+					return refImpl;
+				}
+
+				public long getRequestId() {
+					return reqID;
+				}
+			});
+		}
+
+		invokeAsync(call, method, parameters, new AsyncRemoteCallCallback() {
+			public void remoteCallResult(final boolean success, final Object o) {
+				if (listener != null) {
+					listener.handleEvent(new IRemoteCallCompleteEvent() {
+
+						public Throwable getException() {
+							return success ? null : (Throwable) o;
+						}
+
+						public Object getResponse() {
+							return success ? o : null;
+						}
+
+						public boolean hadException() {
+							return !success;
+						}
+
+						public long getRequestId() {
+							return reqID;
+						}
+					});
+				}
+			}
+		});
+	}
+
+	protected boolean isCallAsyncNative() {
+		// callAsync with a listener is completed by the r-OSGi async remote call callback,
+		// or with a timeout after call.getTimeout()
+		return true;
 	}
 
 	/**
@@ -85,11 +157,29 @@ final class RemoteServiceImpl extends AbstractRemoteService {
 	 * @see org.eclipse.ecf.remoteservice.IRemoteService#callAsync(org.eclipse.ecf.remoteservice.IRemoteCall)
 	 */
 	public IFuture callAsync(final IRemoteCall call) {
-		return getAsyncExecutor().execute(new IProgressRunnable() {
-			public Object run(IProgressMonitor monitor) throws Exception {
-				return callSync(call);
+		final Object[] parameters = getParameters(call);
+		final Method method = getAsyncMethod(call, parameters);
+		if (method == null) {
+			return getAsyncExecutor().execute(new IProgressRunnable() {
+				public Object run(IProgressMonitor monitor) throws Exception {
+					return callSync(call);
+				}
+			}, null);
+		}
+
+		final SingleOperationFuture future = new SingleOperationFuture(null);
+		invokeAsync(call, method, parameters, new AsyncRemoteCallCallback() {
+			public void remoteCallResult(final boolean success, final Object o) {
+				future.runWithProgress(new IProgressRunnable() {
+					public Object run(IProgressMonitor monitor) throws Exception {
+						if (success)
+							return o;
+						throw (ECFException) o;
+					}
+				});
 			}
-		}, null);
+		});
+		return future;
 	}
 
 	private IExecutor asyncExecutor;
@@ -116,6 +206,137 @@ final class RemoteServiceImpl extends AbstractRemoteService {
 		}
 	}
 
+	private Object[] getParameters(final IRemoteCall call) {
+		final Object[] ps = call.getParameters();
+		return (ps == null) ? EMPTY_ARGS : ps;
+	}
+
+	private Method getMethod(final IRemoteCall call, final Object[] parameters) throws NoSuchMethodException {
+		final Class[] formalParams = new Class[parameters.length];
+		for (int i = 0; i < formalParams.length; i++) {
+			formalParams[i] = parameters[i].getClass();
+		}
+		return ClassUtil.getMethod(service.getClass(), call.getMethod(), formalParams);
+	}
+
+	/**
+	 * get the proxy method to invoke with
+	 * {@link RemoteOSGiService#asyncRemoteCall(ch.ethz.iks.r_osgi.URI, String, Object[], AsyncRemoteCallCallback)}
+	 * , which does not block a thread while waiting for the result.
+	 * 
+	 * @return the method, or <code>null</code> if the call has to be invoked
+	 *         through the proxy.
+	 */
+	private Method getAsyncMethod(final IRemoteCall call, final Object[] parameters) {
+		if (Activator.getDefault().getRemoteOSGiService() == null) {
+			return null;
+		}
+		// a smart proxy may implement methods locally, which asyncRemoteCall
+		// would send to the remote service instead
+		if (refImpl.getR_OSGiServiceReference().getProperty(RemoteOSGiService.SMART_PROXY) != null) {
+			return null;
+		}
+		for (int i = 0; i < parameters.length; i++) {
+			if (parameters[i] == null) {
+				return null;
+			}
+		}
+		final Method method;
+		try {
+			method = getMethod(call, parameters);
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+		// the proxy converts the results of async methods
+		return AsyncReturnUtil.isAsyncType(method.getReturnType()) ? null : method;
+	}
+
+	/**
+	 * invoke the method with
+	 * {@link RemoteOSGiService#asyncRemoteCall(ch.ethz.iks.r_osgi.URI, String, Object[], AsyncRemoteCallCallback)}
+	 * . The callback is completed exactly once, either with the result or with
+	 * an ECFException, which is also the case when the call does not complete
+	 * within {@link IRemoteCall#getTimeout()}.
+	 */
+	private void invokeAsync(final IRemoteCall call, final Method method, final Object[] parameters, final AsyncRemoteCallCallback callback) {
+		final AtomicBoolean completed = new AtomicBoolean();
+		final long timeout = call.getTimeout();
+		final ScheduledFuture expiry = (timeout <= 0) ? null : TIMER.schedule(new Runnable() {
+			public void run() {
+				if (completed.compareAndSet(false, true)) {
+					callback.remoteCallResult(false, new ECFException("callAsync timed out after " + Long.toString(timeout) + "ms", new TimeoutException(timeout))); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}
+		}, timeout, TimeUnit.MILLISECONDS);
+		final AsyncRemoteCallCallback once = new AsyncRemoteCallCallback() {
+			public void remoteCallResult(final boolean success, final Object o) {
+				if (!completed.compareAndSet(false, true)) {
+					// already timed out
+					return;
+				}
+				if (expiry != null) {
+					expiry.cancel(false);
+				}
+				if (success || o instanceof ECFException) {
+					callback.remoteCallResult(success, o);
+				} else {
+					callback.remoteCallResult(false, new ECFException("Exception during callAsync", (Throwable) o)); //$NON-NLS-1$
+				}
+			}
+		};
+		final RemoteOSGiService remoteOSGiService = Activator.getDefault().getRemoteOSGiService();
+		try {
+			if (remoteOSGiService == null) {
+				throw new RemoteOSGiException("R-OSGi service is not available"); //$NON-NLS-1$
+			}
+			remoteOSGiService.asyncRemoteCall(refImpl.getR_OSGiServiceReference().getURI(), getMethodSignature(method), (Object[]) parameters.clone(), once);
+		} catch (final RuntimeException e) {
+			once.remoteCallResult(false, e);
+		}
+	}
+
+	/**
+	 * get the signature that R-OSGi uses to identify a method, i.e., the method
+	 * name followed by the method descriptor.
+	 */
+	private static String getMethodSignature(final Method method) {
+		final StringBuffer buf = new StringBuffer(method.getName());
+		buf.append('(');
+		final Class[] params = method.getParameterTypes();
+		for (int i = 0; i < params.length; i++) {
+			appendDescriptor(buf, params[i]);
+		}
+		buf.append(')');
+		appendDescriptor(buf, method.getReturnType());
+		return buf.toString();
+	}
+
+	private static void appendDescriptor(final StringBuffer buf, final Class clazz) {
+		if (clazz.isArray()) {
+			buf.append(clazz.getName().replace('.', '/'));
+		} else if (!clazz.isPrimitive()) {
+			buf.append('L').append(clazz.getName().replace('.', '/')).append(';');
+		} else if (clazz == Void.TYPE) {
+			buf.append('V');
+		} else if (clazz == Boolean.TYPE) {
+			buf.append('Z');
+		} else if (clazz == Byte.TYPE) {
+			buf.append('B');
+		} else if (clazz == Character.TYPE) {
+			buf.append('C');
+		} else if (clazz == Short.TYPE) {
+			buf.append('S');
+		} else if (clazz == Integer.TYPE) {
+			buf.append('I');
+		} else if (clazz == Long.TYPE) {
+			buf.append('J');
+		} else if (clazz == Float.TYPE) {
+			buf.append('F');
+		} else {
+			buf.append('D');
+		}
+	}
+
 	/**
 	 * call the service synchronously.
 	 * 
@@ -125,15 +346,10 @@ final class RemoteServiceImpl extends AbstractRemoteService {
 	 * @see org.eclipse.ecf.remoteservice.IRemoteService#callSync(org.eclipse.ecf.remoteservice.IRemoteCall)
 	 */
 	public Object callSync(final IRemoteCall call) throws ECFException {
-		Object[] ps = call.getParameters();
-		final Object[] parameters = (ps == null) ? EMPTY_ARGS : ps;
-		final Class[] formalParams = new Class[parameters.length];
-		for (int i = 0; i < formalParams.length; i++) {
-			formalParams[i] = call.getParameters()[i].getClass();
-		}
+		final Object[] parameters = getParameters(call);
 		IFuture future = getSyncExecutor().execute(new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
-				final Method method = ClassUtil.getMethod(service.getClass(), call.getMethod(), formalParams);
+				final Method method = getMethod(call, parameters);
 				return method.invoke(service, parameters);
 			}
 		}, null);
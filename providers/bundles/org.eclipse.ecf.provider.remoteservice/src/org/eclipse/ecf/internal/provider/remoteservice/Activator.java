@@ -12,11 +12,13 @@
 package org.eclipse.ecf.internal.provider.remoteservice;
 
 import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.identity.Namespace;
 import org.eclipse.ecf.core.util.*;
 import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceContainerAdapterFactory;
 import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceNamespace;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceRequestExecutor;
 import org.osgi.framework.*;
 import org.osgi.service.log.LogService;
 import org.osgi.util.tracker.ServiceTracker;
@@ -47,6 +49,10 @@ public class Activator implements BundleActivator {
 
 	private List rscAdapterFactories;
 
+	private ScheduledExecutorService requestTimer;
+
+	private RemoteServiceRequestExecutor requestExecutor;
+
 	private static IAdapterManager getAdapterManager(BundleContext ctx) {
 		AdapterManagerTracker t = new AdapterManagerTracker(ctx);
 		t.open();
@@ -95,10 +101,47 @@ public class Activator implements BundleActivator {
 			}
 			rscAdapterFactories = null;
 		}
+		synchronized (this) {
+			if (requestTimer != null) {
+				requestTimer.shutdownNow();
+				requestTimer = null;
+			}
+			if (requestExecutor != null) {
+				requestExecutor.shutdown();
+				requestExecutor = null;
+			}
+		}
 		this.context = null;
 		plugin = null;
 	}
 
+	/**
+	 * @return the single timer thread used for the timeouts of all pending remote
+	 * service requests
+	 */
+	public synchronized ScheduledExecutorService getRequestTimer() {
+		if (requestTimer == null) {
+			requestTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "RemoteService Request Timer"); //$NON-NLS-1$
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return requestTimer;
+	}
+
+	/**
+	 * @return the executor shared by all generic remote service containers for
+	 * executing the requests received for their registrations
+	 */
+	public synchronized RemoteServiceRequestExecutor getRequestExecutor() {
+		if (requestExecutor == null)
+			requestExecutor = new RemoteServiceRequestExecutor("RemoteService Request Handler"); //$NON-NLS-1$
+		return requestExecutor;
+	}
+
 	public BundleContext getContext() {
 		return context;
 	}
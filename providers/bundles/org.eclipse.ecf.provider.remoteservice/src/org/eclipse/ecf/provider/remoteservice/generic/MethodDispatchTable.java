@@ -0,0 +1,155 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
+import org.eclipse.ecf.core.util.reflection.ClassUtil;
+
+/**
+ * Resolves the methods to invoke for incoming calls on a target class, without
+ * searching the class' methods for every call.
+ * <p>
+ * For public methods (remote service calls), the methods that are the only
+ * public method of their name and number of parameters are bound when the table
+ * is created, and are found without looking at the argument types.  Calls to
+ * overloaded methods are resolved with {@link ClassUtil#getMethod(Class, String, Class[])}
+ * once per method name and argument types, and the result is cached.
+ * </p>
+ * <p>
+ * For declared methods (shared object messages), calls are resolved with
+ * {@link SharedObjectMsg#findMethodRecursive(Class, String, Class[])} once per
+ * method name and argument types, and the result is cached.
+ * </p>
+ */
+final class MethodDispatchTable {
+
+	// Limits the cache size for callers sending many different argument types
+	private static final int MAX_SIGNATURES = 256;
+
+	private final Class targetClass;
+	private final boolean publicMethods;
+	// method name -> Method[] indexed by parameter count.  null entries for overloaded methods
+	private final Map<String, Method[]> methodsByArity;
+	private final ConcurrentMap<Signature, Method> signatures = new ConcurrentHashMap<Signature, Method>();
+
+	/**
+	 * @param targetClass the class of the target objects
+	 * @param publicMethods <code>true</code> to dispatch to public methods (including
+	 * inherited ones), <code>false</code> to dispatch to declared methods of the class
+	 * and its superclasses
+	 */
+	MethodDispatchTable(Class targetClass, boolean publicMethods) {
+		this.targetClass = targetClass;
+		this.publicMethods = publicMethods;
+		this.methodsByArity = publicMethods ? createMethodsByArity(targetClass.getMethods()) : Collections.<String, Method[]> emptyMap();
+	}
+
+	private static Map<String, Method[]> createMethodsByArity(Method[] methods) {
+		final Map<String, Method[]> result = new HashMap<String, Method[]>();
+		final Set<String> overloaded = new HashSet<String>();
+		for (int i = 0; i < methods.length; i++) {
+			final String name = methods[i].getName();
+			final int arity = methods[i].getParameterTypes().length;
+			Method[] byArity = result.get(name);
+			if (byArity == null || byArity.length <= arity) {
+				final Method[] newByArity = new Method[arity + 1];
+				if (byArity != null)
+					System.arraycopy(byArity, 0, newByArity, 0, byArity.length);
+				byArity = newByArity;
+				result.put(name, byArity);
+			}
+			if (byArity[arity] != null || overloaded.contains(name + "/" + arity)) { //$NON-NLS-1$
+				overloaded.add(name + "/" + arity); //$NON-NLS-1$
+				byArity[arity] = null;
+			} else
+				byArity[arity] = methods[i];
+		}
+		return result;
+	}
+
+	/**
+	 * @param methodName the name of the method to call
+	 * @param args the arguments for the call.  Must not be <code>null</code>.
+	 * @return the method to invoke
+	 * @throws NoSuchMethodException if there is no matching method
+	 */
+	Method getMethod(String methodName, Object[] args) throws NoSuchMethodException {
+		final Method[] byArity = methodsByArity.get(methodName);
+		if (byArity != null && args.length < byArity.length && byArity[args.length] != null)
+			return byArity[args.length];
+		final Class[] types = SharedObjectMsg.getTypesForParameters(args);
+		final Signature signature = new Signature(methodName, types);
+		Method method = signatures.get(signature);
+		if (method == null) {
+			method = findMethod(methodName, types);
+			if (signatures.size() < MAX_SIGNATURES)
+				signatures.put(signature, method);
+		}
+		return method;
+	}
+
+	/**
+	 * @return <code>true</code> if the given method was bound by name and number of parameters
+	 * only, and the types of the arguments have not been checked
+	 */
+	boolean isBoundByArity(Method method) {
+		final Method[] byArity = methodsByArity.get(method.getName());
+		final int arity = method.getParameterTypes().length;
+		return byArity != null && arity < byArity.length && byArity[arity] == method;
+	}
+
+	private Method findMethod(String methodName, Class[] types) throws NoSuchMethodException {
+		if (publicMethods)
+			return ClassUtil.getMethod(targetClass, methodName, types);
+		final Method method = SharedObjectMsg.findMethodRecursive(targetClass, methodName, types);
+		if (method == null)
+			throw new NoSuchMethodException("No such method: " + methodName + "(" + Arrays.asList(types) + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		AccessController.doPrivileged(new PrivilegedAction() {
+			public Object run() {
+				if (!method.isAccessible())
+					method.setAccessible(true);
+				return null;
+			}
+		});
+		return method;
+	}
+
+	private static final class Signature {
+		private final String methodName;
+		private final Class[] types;
+		private final int hash;
+
+		Signature(String methodName, Class[] types) {
+			this.methodName = methodName;
+			this.types = types;
+			this.hash = methodName.hashCode() * 31 + Arrays.hashCode(types);
+		}
+
+		public int hashCode() {
+			return hash;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Signature))
+				return false;
+			final Signature other = (Signature) obj;
+			return methodName.equals(other.methodName) && Arrays.equals(types, other.types);
+		}
+	}
+}
@@ -17,6 +17,10 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.events.*;
@@ -25,6 +29,7 @@ import org.eclipse.ecf.core.jobs.JobsExecutor;
 import org.eclipse.ecf.core.security.IConnectContext;
 import org.eclipse.ecf.core.sharedobject.*;
 import org.eclipse.ecf.core.sharedobject.events.ISharedObjectActivatedEvent;
+import org.eclipse.ecf.core.sharedobject.util.MessageBatcher;
 import org.eclipse.ecf.core.status.SerializableStatus;
 import org.eclipse.ecf.core.util.*;
 import org.eclipse.ecf.core.util.reflection.ClassUtil;
@@ -50,6 +55,9 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 */
 	protected static final boolean PROPAGATE_RESPONSE_ERROR = new Boolean(System.getProperty("org.eclipse.ecf.provider.remoteservice.propagateResponseError", "true")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
 
+	// system property allowing batching of call requests and responses to be disabled
+	private static final boolean BATCH_MESSAGES = Boolean.valueOf(System.getProperty("org.eclipse.ecf.provider.remoteservice.batchMessages", "true")).booleanValue(); //$NON-NLS-1$ //$NON-NLS-2$
+
 	private static int uniqueRequestId = 0;
 
 	private static synchronized Integer createNextRequestId() {
@@ -81,10 +89,29 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	protected int addRegistrationRequestTimeout = ADD_REGISTRATION_REQUEST_TIMEOUT;
 	/**
 	 * List of invocation requests...instances of Request
+	 * @deprecated pending requests are no longer kept in this list.  Use {@link #addRequest(Request)},
+	 * {@link #getRequest(long)} and {@link #removeRequest(Request)} instead.
 	 */
 	@SuppressWarnings("unchecked")
 	protected List requests = Collections.synchronizedList(new ArrayList());
 
+	/**
+	 * Pending invocation requests.  key:  Long (request id), value: Request
+	 */
+	private final ConcurrentMap<Long, Request> pendingRequests = new ConcurrentHashMap<Long, Request>();
+
+	/**
+	 * Batchers for call requests sent to hosts accepting batches, and for responses
+	 * sent to containers that have sent batches.  key:  container ID
+	 */
+	private final ConcurrentMap<ID, RequestBatcher> requestBatchers = new ConcurrentHashMap<ID, RequestBatcher>();
+	private final ConcurrentMap<ID, ResponseBatcher> responseBatchers = new ConcurrentHashMap<ID, ResponseBatcher>();
+
+	/**
+	 * Methods of this shared object invoked by shared object messages
+	 */
+	private volatile MethodDispatchTable messageDispatchTable;
+
 	/**
 	 * Connect context to be used for connect.
 	 * @since 3.0
@@ -130,7 +157,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	private Hashtable pendingUpdateContainers = new Hashtable();
 	private List registryUpdateRequests = new ArrayList();
 
-	// system property allowing the executorType to be configured.  Currently types are:  jobs, threads, immediate.
+	// system property allowing the executorType to be configured.  Currently types are:  jobs (default), pool, threads, immediate.
 	private static final String DEFAULT_EXECUTOR_TYPE = System.getProperty("org.eclipse.ecf.provider.remoteservice.executorType", "jobs"); //$NON-NLS-1$ //$NON-NLS-2$
 
 	private IExecutor requestExecutor;
@@ -489,9 +516,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		synchronized (addRegistrationRequests) {
 			addRegistrationRequests.clear();
 		}
-		synchronized (requests) {
-			requests.clear();
-		}
+		pendingRequests.clear();
 		synchronized (pendingUpdateContainers) {
 			pendingUpdateContainers.clear();
 		}
@@ -752,6 +777,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			}
 		}
 
+		requestBatchers.remove(targetID);
+		responseBatchers.remove(targetID);
 		// remove from localRegistryUnregistrationTargets
 		removeUnregistrationTarget(targetID);
 		// Remove from pending updates
@@ -939,30 +966,20 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	}
 
 	protected Object callSynch(RemoteServiceRegistrationImpl registration, IRemoteCall call) throws ECFException {
-		boolean doneWaiting = false;
 		Response response = null;
 		try {
 			// First send request
 			final Request request = sendCallRequest(registration, call);
-			long requestId = request.getRequestId();
-			// Then get the specified timeout and calculate when we should
-			// timeout in real time
-			final long timeout = call.getTimeout() + System.currentTimeMillis();
-			// Now loop until timeout time has elapsed
-			while ((timeout - System.currentTimeMillis()) > 0 && !doneWaiting) {
-				synchronized (request) {
-					if (request.isDone()) {
-						doneWaiting = true;
-						response = request.getResponse();
-						if (response == null)
-							throw new ECFException("Invalid response for requestId=" + requestId); //$NON-NLS-1$
-					} else {
-						request.wait(RESPONSE_WAIT_INTERVAL);
-					}
-				}
+			// Then wait for handleCallResponse to complete the request
+			if (!request.awaitResponse(call.getTimeout())) {
+				if (removeRequest(request))
+					throw new ECFException("Request timed out after " + Long.toString(call.getTimeout()) + "ms", new TimeoutException(call.getTimeout())); //$NON-NLS-1$ //$NON-NLS-2$
+				// The response arrived just as the wait timed out, and is being completed by handleCallResponse
+				request.awaitResponse(call.getTimeout());
 			}
-			if (!doneWaiting)
-				throw new ECFException("Request timed out after " + Long.toString(call.getTimeout()) + "ms", new TimeoutException(call.getTimeout())); //$NON-NLS-1$ //$NON-NLS-2$
+			response = request.getResponse();
+			if (response == null)
+				throw new ECFException("Invalid response for requestId=" + request.getRequestId()); //$NON-NLS-1$
 		} catch (final IOException e) {
 			log(CALL_REQUEST_ERROR_CODE, CALL_REQUEST_ERROR_MESSAGE, e);
 			throw new ECFException("Error sending request", e); //$NON-NLS-1$
@@ -1082,6 +1099,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 
 	private static final String CALL_REQUEST = "handleCallRequest"; //$NON-NLS-1$
 
+	private static final String CALL_REQUESTS = "handleCallRequests"; //$NON-NLS-1$
+
 	private static final String CALL_REQUEST_ERROR_MESSAGE = "exception sending call request message"; //$NON-NLS-1$
 
 	private static final int CALL_REQUEST_ERROR_CODE = 203;
@@ -1100,6 +1119,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 
 	private static final String CALL_RESPONSE = "handleCallResponse"; //$NON-NLS-1$
 
+	private static final String CALL_RESPONSES = "handleCallResponses"; //$NON-NLS-1$
+
 	private static final String CALL_RESPONSE_ERROR_MESSAGE = "Exception sending response"; //$NON-NLS-1$
 
 	private static final int CALL_RESPONSE_ERROR_CODE = 210;
@@ -1108,7 +1129,6 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 
 	private static final int REQUEST_NOT_FOUND_ERROR_CODE = 211;
 
-	private static final long RESPONSE_WAIT_INTERVAL = 500;
 
 	private static final String ADD_REGISTRATION = "handleAddRegistration"; //$NON-NLS-1$
 
@@ -1409,6 +1429,12 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	protected Request sendCallRequest(RemoteServiceRegistrationImpl remoteRegistration, final IRemoteCall call) throws IOException {
 		final Request request = createRequest(remoteRegistration, call, null);
 		addRequest(request);
+		final RequestBatcher batcher = getRequestBatcher(remoteRegistration);
+		if (batcher != null) {
+			// Send errors complete the request
+			batcher.add(request);
+			return request;
+		}
 		try {
 			sendSharedObjectMsgTo(remoteRegistration.getContainerID(), SharedObjectMsg.createMsg(CALL_REQUEST, request));
 		} catch (final IOException e) {
@@ -1418,6 +1444,48 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		return request;
 	}
 
+	private RequestBatcher getRequestBatcher(RemoteServiceRegistrationImpl remoteRegistration) {
+		if (!BATCH_MESSAGES || !remoteRegistration.acceptsBatches())
+			return null;
+		final ID target = remoteRegistration.getContainerID();
+		RequestBatcher batcher = requestBatchers.get(target);
+		if (batcher == null) {
+			final RequestBatcher newBatcher = new RequestBatcher(target);
+			batcher = requestBatchers.putIfAbsent(target, newBatcher);
+			if (batcher == null)
+				batcher = newBatcher;
+		}
+		return batcher;
+	}
+
+	/**
+	 * Sends the call requests to one host, with requests sent concurrently by
+	 * several threads combined into one message.
+	 */
+	private class RequestBatcher extends MessageBatcher<Request> {
+		private final ID target;
+
+		RequestBatcher(ID target) {
+			this.target = target;
+		}
+
+		protected void send(List<Request> requests) throws IOException {
+			if (requests.size() == 1)
+				sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(CALL_REQUEST, requests.get(0)));
+			else
+				sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(CALL_REQUESTS, new Object[] {requests.toArray()}));
+		}
+
+		protected void sendFailed(List<Request> requests, IOException exception) {
+			log(CALL_REQUEST_ERROR_CODE, CALL_REQUEST_ERROR_MESSAGE, exception);
+			for (int i = 0; i < requests.size(); i++) {
+				final Request request = requests.get(i);
+				if (removeRequest(request))
+					completeRequest(request, new Response(request.getRequestId(), exception));
+			}
+		}
+	}
+
 	private IExecutor getRequestExecutor(Request request) {
 		if (requestExecutor == null) {
 			requestExecutor = createRequestExecutor(request);
@@ -1432,7 +1500,9 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 */
 	protected IExecutor createRequestExecutor(final Request request) {
 		IExecutor executor = null;
-		if (DEFAULT_EXECUTOR_TYPE.equals("jobs")) { //$NON-NLS-1$
+		if (DEFAULT_EXECUTOR_TYPE.equals("pool")) { //$NON-NLS-1$
+			executor = Activator.getDefault().getRequestExecutor();
+		} else if (DEFAULT_EXECUTOR_TYPE.equals("jobs")) { //$NON-NLS-1$
 			executor = new JobsExecutor("Remote Request Handler") { //$NON-NLS-1$
 				protected String createJobName(String executorName, int jobCounter, IProgressRunnable runnable) {
 					return executorName + " - " + request.getCall().getMethod() + ":" + request.getRequestId(); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1458,9 +1528,19 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		Object[] args = (callArgs == null) ? SharedObjectMsg.nullArgs : callArgs;
 		Object service = reg.getService();
 		// Find appropriate method on service
-		final Method method = ClassUtil.getMethod(service.getClass(), call.getMethod(), SharedObjectMsg.getTypesForParameters(args));
+		final MethodDispatchTable dispatchTable = reg.getDispatchTable();
+		final Method method = dispatchTable.getMethod(call.getMethod(), args);
 		// Actually invoke method on service object
-		Object result = method.invoke(service, args);
+		Object result;
+		try {
+			result = method.invoke(service, args);
+		} catch (final IllegalArgumentException e) {
+			// If the method was bound without checking the argument types, search for
+			// a matching method so that the same exception as before is thrown
+			if (dispatchTable.isBoundByArity(method))
+				ClassUtil.getMethod(service.getClass(), call.getMethod(), SharedObjectMsg.getTypesForParameters(args));
+			throw e;
+		}
 		if (result != null) {
 			Class returnType = method.getReturnType();
 			// provider must expose osgi.async property and must be async return type
@@ -1480,7 +1560,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 */
 	@SuppressWarnings("unchecked")
 	protected void executeRequest(IExecutor executor, final Request request, final ID responseTarget, final RemoteServiceRegistrationImpl localRegistration, final boolean respond) {
-		IProgressRunnable runnable = new IProgressRunnable() {
+		final IProgressRunnable runnable = new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
 				final RemoteCallImpl call = request.getCall();
 				Response response = null;
@@ -1513,8 +1593,24 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 				return null;
 			}
 		};
-		// Now actually execute the runnable asynchronously using the executor
-		executor.execute(runnable, new NullProgressMonitor());
+		// Now actually execute the runnable asynchronously using the executor, within the limits for the registration
+		localRegistration.getRequestLimiter().execute(executor, new RequestLimiter.Task() {
+			void run() {
+				try {
+					runnable.run(new NullProgressMonitor());
+				} catch (Exception e) {
+					logRemoteCallException("Unexpected exception executing remote service request.  Remote request=" + request, e); //$NON-NLS-1$
+				}
+			}
+
+			void rejected(RejectedExecutionException e) {
+				// Respond right away rather than letting the caller wait for its timeout
+				if (respond)
+					sendErrorResponse(responseTarget, request.getRequestId(), "Remote service request rejected.  Remote request=" + request, e); //$NON-NLS-1$
+				else
+					logRemoteCallException("Remote service request rejected.  Remote request=" + request, e); //$NON-NLS-1$
+			}
+		});
 	}
 
 	private void sendErrorResponse(ID responseTarget, long requestId, String message, Throwable e) {
@@ -1523,6 +1619,21 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		sendCallResponse(responseTarget, response);
 	}
 
+	/**
+	 * @param requests the requests, sent by a container combining concurrent requests
+	 * @since 4.5
+	 */
+	protected void handleCallRequests(Object[] requests) {
+		for (int i = 0; i < requests.length; i++) {
+			final Request request = (Request) requests[i];
+			// The sender accepts batched responses
+			final ID responseTarget = (request == null) ? null : request.getRequestContainerID();
+			if (BATCH_MESSAGES && responseTarget != null && !responseBatchers.containsKey(responseTarget))
+				responseBatchers.putIfAbsent(responseTarget, new ResponseBatcher(responseTarget));
+			handleCallRequest(request);
+		}
+	}
+
 	protected void handleCallRequest(Request request) {
 		// If request is null, it's bogus, give up/do not respond
 		if (request == null) {
@@ -1575,11 +1686,43 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		fireCallStartEvent(listener, request.getRequestId(), remoteRegistration.getReference(), call);
 		try {
 			addRequest(request);
-			sendSharedObjectMsgTo(remoteRegistration.getContainerID(), SharedObjectMsg.createMsg(CALL_REQUEST, request));
+			final RequestBatcher batcher = getRequestBatcher(remoteRegistration);
+			if (batcher != null)
+				// Send errors complete the request
+				batcher.add(request);
+			else
+				sendSharedObjectMsgTo(remoteRegistration.getContainerID(), SharedObjectMsg.createMsg(CALL_REQUEST, request));
 		} catch (final IOException e) {
 			log(CALL_REQUEST_ERROR_CODE, CALL_REQUEST_ERROR_MESSAGE, e);
 			removeRequest(request);
 			fireCallCompleteEvent(listener, request.getRequestId(), null, true, e);
+			return;
+		}
+		scheduleRequestTimeout(request, call.getTimeout());
+	}
+
+	/**
+	 * Complete the given request with a {@link java.util.concurrent.TimeoutException} if it
+	 * is still pending after the given timeout.  All timeouts are handled by a single timer
+	 * thread.
+	 */
+	private void scheduleRequestTimeout(final Request request, final long timeout) {
+		if (timeout <= 0)
+			return;
+		// The timer task only refers to the request id, so that responses are not kept
+		// reachable by the timer after the request has been completed
+		final long requestId = request.getRequestId();
+		final String method = request.getCall().getMethod();
+		try {
+			Activator.getDefault().getRequestTimer().schedule(new Runnable() {
+				public void run() {
+					final Request timedOut = pendingRequests.remove(new Long(requestId));
+					if (timedOut != null)
+						completeRequest(timedOut, new Response(requestId, new java.util.concurrent.TimeoutException("Timeout calling remote service method=" + method + " timeout=" + timeout))); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+		} catch (final RejectedExecutionException e) {
+			// timer has been shut down
 		}
 	}
 
@@ -1588,6 +1731,39 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	}
 
 	protected void sendCallResponse(ID responseTarget, Response response) {
+		final ResponseBatcher batcher = responseBatchers.get(responseTarget);
+		if (batcher != null)
+			batcher.add(response);
+		else
+			sendCallResponseMsg(responseTarget, response);
+	}
+
+	/**
+	 * Sends the call responses to one container that has sent batched requests,
+	 * with responses sent concurrently by several threads combined into one message.
+	 */
+	private class ResponseBatcher extends MessageBatcher<Response> {
+		private final ID target;
+
+		ResponseBatcher(ID target) {
+			this.target = target;
+		}
+
+		protected void send(List<Response> responses) throws IOException {
+			if (responses.size() == 1)
+				sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(CALL_RESPONSE, responses.get(0)));
+			else
+				sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(CALL_RESPONSES, new Object[] {responses.toArray()}));
+		}
+
+		protected void sendFailed(List<Response> responses, IOException exception) {
+			// Send individually, e.g. so that a response that can not be serialized only fails itself
+			for (int i = 0; i < responses.size(); i++)
+				sendCallResponseMsg(target, responses.get(i));
+		}
+	}
+
+	private void sendCallResponseMsg(ID responseTarget, Response response) {
 		try {
 			sendSharedObjectMsgTo(responseTarget, SharedObjectMsg.createMsg(CALL_RESPONSE, response));
 		} catch (final IOException e) {
@@ -1605,23 +1781,32 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		}
 	}
 
+	/**
+	 * @param responses the responses, sent by a host combining the responses to
+	 * concurrent requests
+	 * @since 4.5
+	 */
+	protected void handleCallResponses(Object[] responses) {
+		for (int i = 0; i < responses.length; i++)
+			handleCallResponse((Response) responses[i]);
+	}
+
 	protected void handleCallResponse(Response response) {
-		final Request request = getRequest(response.getRequestId());
+		final Request request = pendingRequests.remove(new Long(response.getRequestId()));
 		if (request == null) {
 			log(REQUEST_NOT_FOUND_ERROR_CODE, REQUEST_NOT_FOUND_ERROR_MESSAGE, new NullPointerException());
 			return;
 		}
-		removeRequest(request);
+		completeRequest(request, response);
+	}
+
+	private void completeRequest(Request request, Response response) {
 		final IRemoteCallListener listener = request.getListener();
 		if (listener != null) {
 			fireCallCompleteEvent(listener, request.getRequestId(), response.getResponse(), response.hadException(), response.getException());
 			return;
 		}
-		synchronized (request) {
-			request.setResponse(response);
-			request.setDone(true);
-			request.notify();
-		}
+		request.complete(response);
 	}
 
 	protected Request sendFireRequest(RemoteServiceRegistrationImpl remoteRegistration, IRemoteCall call) throws ECFException {
@@ -1852,11 +2037,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @return true if added, false if not added
 	 * @since 3.2
 	 */
-	@SuppressWarnings("unchecked")
 	protected boolean addRequest(Request request) {
-		synchronized (requests) {
-			return requests.add(request);
-		}
+		return pendingRequests.putIfAbsent(new Long(request.getRequestId()), request) == null;
 	}
 
 	/**
@@ -1865,16 +2047,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @since 3.2
 	 */
 	protected Request getRequest(long requestId) {
-		synchronized (requests) {
-			for (final Iterator i = requests.iterator(); i.hasNext();) {
-				final Request req = (Request) i.next();
-				final long reqId = req.getRequestId();
-				if (reqId == requestId) {
-					return req;
-				}
-			}
-		}
-		return null;
+		return pendingRequests.get(new Long(requestId));
 	}
 
 	/**
@@ -1883,9 +2056,14 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @since 3.2
 	 */
 	protected boolean removeRequest(Request request) {
-		synchronized (requests) {
-			return requests.remove(request);
-		}
+		return pendingRequests.remove(new Long(request.getRequestId()), request);
+	}
+
+	private MethodDispatchTable getMessageDispatchTable() {
+		MethodDispatchTable table = messageDispatchTable;
+		if (table == null)
+			messageDispatchTable = table = new MethodDispatchTable(getClass(), false);
+		return table;
 	}
 
 	protected void logException(int code, String message, Throwable e) {
@@ -1894,7 +2072,11 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 
 	protected boolean handleSharedObjectMsg(SharedObjectMsg msg) {
 		try {
-			msg.invoke(this);
+			final Object[] args = msg.getParameters();
+			if (msg.getClassName() == null && args != null)
+				getMessageDispatchTable().getMethod(msg.getMethod(), args).invoke(this, args);
+			else
+				msg.invoke(this);
 			return true;
 		} catch (final Exception e) {
 			logException(MSG_INVOKE_ERROR_CODE, "Exception invoking shared object message=" + msg, e); //$NON-NLS-1$
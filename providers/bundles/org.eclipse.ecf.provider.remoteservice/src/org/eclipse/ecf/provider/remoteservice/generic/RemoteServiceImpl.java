@@ -11,8 +11,6 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.remoteservice.generic;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicReference;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.remoteservice.*;
 import org.eclipse.ecf.remoteservice.events.IRemoteCallCompleteEvent;
@@ -47,28 +45,25 @@ public class RemoteServiceImpl extends AbstractRemoteService {
 	 * @see org.eclipse.ecf.remoteservice.IRemoteService#callAsync(org.eclipse.ecf.remoteservice.IRemoteCall, org.eclipse.ecf.remoteservice.IRemoteCallListener)
 	 */
 	public void callAsync(final IRemoteCall call, final IRemoteCallListener listener) {
-		callAsyncWithTimeout(call, new Callable<IRemoteCallCompleteEvent>() {
-			public IRemoteCallCompleteEvent call() throws Exception {
-				final AtomicReference<IRemoteCallCompleteEvent> ar = new AtomicReference<IRemoteCallCompleteEvent>();
-				sharedObject.sendCallRequestWithListener(registration, call, new IRemoteCallListener() {
-					public void handleEvent(IRemoteCallEvent event) {
-						if (event instanceof IRemoteCallCompleteEvent)
-							synchronized (ar) {
-								ar.set((IRemoteCallCompleteEvent) event);
-								ar.notify();
-							}
-					}
-				});
-				synchronized (ar) {
-					while (true) {
-						IRemoteCallCompleteEvent result = ar.get();
-						if (result != null)
-							return result;
-						ar.wait(call.getTimeout());
-					}
+		// The request is completed by the response or by the request timeout in the shared object, so
+		// no thread is needed to wait for it.  The listener is notified via the future executor service.
+		sharedObject.sendCallRequestWithListener(registration, call, new IRemoteCallListener() {
+			public void handleEvent(IRemoteCallEvent event) {
+				if (event instanceof IRemoteCallCompleteEvent) {
+					final IRemoteCallEvent completeEvent = event;
+					getFutureExecutorService(call).submit(new Runnable() {
+						public void run() {
+							listener.handleEvent(completeEvent);
+						}
+					});
 				}
 			}
-		}, listener);
+		});
+	}
+
+	protected boolean isCallAsyncNative() {
+		// callAsync with a listener is completed by the response, so the futures are too
+		return true;
 	}
 
 	/**
@@ -0,0 +1,263 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.io.*;
+import org.eclipse.ecf.core.identity.*;
+import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
+import org.eclipse.ecf.core.sharedobject.util.CachingSharedObjectMessageSerializer;
+import org.eclipse.ecf.core.sharedobject.util.ISharedObjectMessageSerializer;
+import org.eclipse.ecf.provider.generic.SOContainer;
+import org.eclipse.ecf.remoteservice.RemoteServiceID;
+
+/**
+ * Shared object message serializer for containers used for generic remote
+ * services.  The messages sent by the {@link RegistrySharedObject} ({@link SharedObjectMsg}s
+ * carrying {@link Request}s and {@link Response}s) are written field by field
+ * with a fixed schema, as are IDs in the default namespaces, strings, common
+ * wrapper types, <code>byte[]</code> and <code>Object[]</code> values within them.
+ * Any other values (e.g. remote call parameters of application types, and
+ * exceptions) are written with a fallback serializer, by default a
+ * {@link CachingSharedObjectMessageSerializer}.
+ * <p>
+ * Data that was not written by this serializer is passed to the fallback
+ * serializer for deserialization, so messages from peers using the default
+ * serializer can still be read.  To use, set on both the client and server
+ * containers via
+ * {@link org.eclipse.ecf.core.sharedobject.ISharedObjectContainer#setSharedObjectMessageSerializer(ISharedObjectMessageSerializer)}.
+ * </p>
+ * @since 4.5
+ */
+public class RemoteServiceMessageSerializer implements ISharedObjectMessageSerializer {
+
+	static final byte MAGIC = (byte) 0xE5;
+	static final byte VERSION = 1;
+
+	private static final byte NULL = 0;
+	private static final byte SHARED_OBJECT_MSG = 1;
+	private static final byte REMOTE_CALL = 2;
+	private static final byte REQUEST = 3;
+	private static final byte RESPONSE = 4;
+	private static final byte STRING_ID = 5;
+	private static final byte GUID_ID = 6;
+	private static final byte STRING = 7;
+	private static final byte INTEGER = 8;
+	private static final byte LONG = 9;
+	private static final byte BOOLEAN_TRUE = 10;
+	private static final byte BOOLEAN_FALSE = 11;
+	private static final byte DOUBLE = 12;
+	private static final byte BYTES = 13;
+	private static final byte OBJECT_ARRAY = 14;
+	private static final byte SERIALIZED = 15;
+
+	// Longer strings are still possible, but are sent with the fallback serializer
+	private static final int MAX_UTF_STRING = 16 * 1024;
+
+	// Message classes of this provider that the default fallback serializer sends
+	// as an index.  Entries may only be appended, as the index is sent in place of the name
+	private static final String[] FALLBACK_CLASS_NAMES = {RemoteCallImpl.class.getName(), Request.class.getName(), Response.class.getName(), AddRegistrationRequest.class.getName(), RemoteServiceRegistrationImpl.class.getName(), RemoteServiceID.class.getName()};
+
+	private final ISharedObjectMessageSerializer fallback;
+
+	/**
+	 * @param fallback the serializer used for values that are not part of the
+	 * schema, and for data not written by this serializer.  Must not be <code>null</code>.
+	 */
+	public RemoteServiceMessageSerializer(ISharedObjectMessageSerializer fallback) {
+		if (fallback == null)
+			throw new NullPointerException("fallback serializer cannot be null"); //$NON-NLS-1$
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Create a serializer using a {@link CachingSharedObjectMessageSerializer}
+	 * that loads classes in the same way as the default serializer of
+	 * {@link SOContainer}.
+	 */
+	public RemoteServiceMessageSerializer() {
+		this(new CachingSharedObjectMessageSerializer(SOContainer.class.getClassLoader(), FALLBACK_CLASS_NAMES));
+	}
+
+	public byte[] serializeMessage(ID sharedObjectID, Object message) throws IOException {
+		final ByteArrayOutputStream bouts = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bouts);
+		out.writeByte(MAGIC);
+		out.writeByte(VERSION);
+		writeValue(out, sharedObjectID, message);
+		out.flush();
+		return bouts.toByteArray();
+	}
+
+	public Object deserializeMessage(byte[] data) throws IOException, ClassNotFoundException {
+		if (data.length < 2 || data[0] != MAGIC)
+			return fallback.deserializeMessage(data);
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		in.readByte();
+		final byte version = in.readByte();
+		if (version != VERSION)
+			throw new StreamCorruptedException("Unsupported remote service message version=" + version); //$NON-NLS-1$
+		return readValue(in);
+	}
+
+	private void writeValue(DataOutputStream out, ID sharedObjectID, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+			return;
+		}
+		final Class c = value.getClass();
+		if (c == String.class && ((String) value).length() <= MAX_UTF_STRING) {
+			out.writeByte(STRING);
+			out.writeUTF((String) value);
+		} else if (c == Integer.class) {
+			out.writeByte(INTEGER);
+			out.writeInt(((Integer) value).intValue());
+		} else if (c == Long.class) {
+			out.writeByte(LONG);
+			out.writeLong(((Long) value).longValue());
+		} else if (c == Boolean.class) {
+			out.writeByte(((Boolean) value).booleanValue() ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+		} else if (c == Double.class) {
+			out.writeByte(DOUBLE);
+			out.writeDouble(((Double) value).doubleValue());
+		} else if (c == byte[].class) {
+			final byte[] bytes = (byte[]) value;
+			out.writeByte(BYTES);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		} else if (c == Object[].class) {
+			final Object[] array = (Object[]) value;
+			out.writeByte(OBJECT_ARRAY);
+			out.writeInt(array.length);
+			for (int i = 0; i < array.length; i++)
+				writeValue(out, sharedObjectID, array[i]);
+		} else if (c == StringID.class && isDefaultNamespace((ID) value, StringID.class)) {
+			out.writeByte(STRING_ID);
+			out.writeUTF(((ID) value).getName());
+		} else if (c == GUID.class && isDefaultNamespace((ID) value, GUID.class)) {
+			out.writeByte(GUID_ID);
+			out.writeUTF(((ID) value).getName());
+		} else if (c == SharedObjectMsg.class && ((SharedObjectMsg) value).getMethod() != null && ((SharedObjectMsg) value).getParameters() != null) {
+			final SharedObjectMsg msg = (SharedObjectMsg) value;
+			out.writeByte(SHARED_OBJECT_MSG);
+			writeValue(out, sharedObjectID, msg.getClassName());
+			out.writeUTF(msg.getMethod());
+			writeValue(out, sharedObjectID, msg.getParameters());
+		} else if (c == RemoteCallImpl.class && ((RemoteCallImpl) value).getMethod() != null) {
+			final RemoteCallImpl call = (RemoteCallImpl) value;
+			out.writeByte(REMOTE_CALL);
+			writeValue(out, sharedObjectID, call.getClassName());
+			out.writeUTF(call.getMethod());
+			writeValue(out, sharedObjectID, call.getParameters());
+			out.writeLong(call.getTimeout());
+		} else if (c == Request.class) {
+			final Request request = (Request) value;
+			out.writeByte(REQUEST);
+			out.writeLong(request.requestId);
+			writeValue(out, sharedObjectID, request.requestContainerID);
+			out.writeLong(request.serviceId);
+			writeValue(out, sharedObjectID, request.call);
+			writeValue(out, sharedObjectID, request.response);
+			out.writeBoolean(request.done);
+		} else if (c == Response.class) {
+			final Response response = (Response) value;
+			out.writeByte(RESPONSE);
+			out.writeLong(response.requestId);
+			writeValue(out, sharedObjectID, response.response);
+			writeValue(out, sharedObjectID, response.exception);
+		} else {
+			final byte[] bytes = fallback.serializeMessage(sharedObjectID, value);
+			out.writeByte(SERIALIZED);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private boolean isDefaultNamespace(ID id, Class idClass) {
+		// Only IDs in the default namespaces can be recreated from the name alone
+		return id.getName() != null && id.getName().length() <= MAX_UTF_STRING && idClass.getName().equals(id.getNamespace().getName());
+	}
+
+	private Object readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+		final byte type = in.readByte();
+		switch (type) {
+			case NULL :
+				return null;
+			case STRING :
+				return in.readUTF();
+			case INTEGER :
+				return new Integer(in.readInt());
+			case LONG :
+				return new Long(in.readLong());
+			case BOOLEAN_TRUE :
+				return Boolean.TRUE;
+			case BOOLEAN_FALSE :
+				return Boolean.FALSE;
+			case DOUBLE :
+				return new Double(in.readDouble());
+			case BYTES :
+				return readBytes(in);
+			case OBJECT_ARRAY :
+				final int length = in.readInt();
+				if (length < 0 || length > in.available())
+					throw new StreamCorruptedException("Invalid array length=" + length); //$NON-NLS-1$
+				final Object[] array = new Object[length];
+				for (int i = 0; i < length; i++)
+					array[i] = readValue(in);
+				return array;
+			case STRING_ID :
+			case GUID_ID :
+				return createID(type, in.readUTF());
+			case SHARED_OBJECT_MSG :
+				return SharedObjectMsg.createMsg((String) readValue(in), in.readUTF(), (Object[]) readValue(in));
+			case REMOTE_CALL :
+				final String clazz = (String) readValue(in);
+				final String method = in.readUTF();
+				return RemoteCallImpl.createRemoteCall(clazz, method, (Object[]) readValue(in), in.readLong());
+			case REQUEST :
+				final long requestId = in.readLong();
+				final ID requestContainerID = (ID) readValue(in);
+				final long serviceId = in.readLong();
+				final RemoteCallImpl call = (RemoteCallImpl) readValue(in);
+				final Response requestResponse = (Response) readValue(in);
+				return new Request(requestId, requestContainerID, serviceId, call, requestResponse, in.readBoolean());
+			case RESPONSE :
+				final long responseId = in.readLong();
+				final Object response = readValue(in);
+				final Throwable exception = (Throwable) readValue(in);
+				return (exception == null) ? new Response(responseId, response) : new Response(responseId, exception);
+			case SERIALIZED :
+				return fallback.deserializeMessage(readBytes(in));
+			default :
+				throw new StreamCorruptedException("Invalid remote service message value type=" + type); //$NON-NLS-1$
+		}
+	}
+
+	private ID createID(byte type, String name) throws IOException {
+		try {
+			return (type == STRING_ID) ? IDFactory.getDefault().createStringID(name) : IDFactory.getDefault().createID(GUID.class.getName(), new Object[] {name});
+		} catch (final IDCreateException e) {
+			final IOException except = new InvalidObjectException("Could not create ID"); //$NON-NLS-1$
+			except.initCause(e);
+			throw except;
+		}
+	}
+
+	private byte[] readBytes(DataInputStream in) throws IOException {
+		final int length = in.readInt();
+		if (length < 0 || length > in.available())
+			throw new StreamCorruptedException("Invalid length=" + length); //$NON-NLS-1$
+		final byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+}
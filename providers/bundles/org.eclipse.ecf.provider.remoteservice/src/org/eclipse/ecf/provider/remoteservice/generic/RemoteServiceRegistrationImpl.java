@@ -56,11 +56,21 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 
 	protected transient RegistrySharedObject sharedObject = null;
 
+	// Methods of the service object, created on publish
+	private transient volatile MethodDispatchTable dispatchTable;
+
+	// Limits for requests to the service, created from the properties on first request
+	private transient volatile RequestLimiter requestLimiter;
+	private transient RemoteServiceRequestMetrics requestMetrics;
+
 	/**
 	 * @since 3.0
 	 */
 	protected IRemoteServiceID remoteServiceID;
 
+	// Set by hosts that accept batched call requests.  Not set in registrations received from older hosts
+	private boolean acceptsBatches;
+
 	public RemoteServiceRegistrationImpl() {
 		//
 
@@ -85,6 +95,9 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 		this.service = svc;
 		this.clazzes = clzzes;
 		this.reference = new RemoteServiceReferenceImpl(this);
+		this.acceptsBatches = true;
+		if (svc != null)
+			this.dispatchTable = new MethodDispatchTable(svc.getClass(), true);
 		synchronized (registry) {
 			ID containerID = registry.getContainerID();
 			if (containerID == null)
@@ -99,6 +112,60 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 		return service;
 	}
 
+	MethodDispatchTable getDispatchTable() {
+		MethodDispatchTable table = dispatchTable;
+		if (table == null)
+			dispatchTable = table = new MethodDispatchTable(service.getClass(), true);
+		return table;
+	}
+
+	/**
+	 * @return <code>true</code> if the host of this registration accepts batched call requests
+	 */
+	boolean acceptsBatches() {
+		return acceptsBatches;
+	}
+
+	RequestLimiter getRequestLimiter() {
+		RequestLimiter limiter = requestLimiter;
+		if (limiter == null) {
+			synchronized (registrationLock) {
+				limiter = requestLimiter;
+				if (limiter == null)
+					requestLimiter = limiter = new RequestLimiter(getIntProperty(RemoteServiceRequestExecutor.MAX_CONCURRENT_REQUESTS), getIntProperty(RemoteServiceRequestExecutor.MAX_QUEUED_REQUESTS), getRequestMetrics());
+			}
+		}
+		return limiter;
+	}
+
+	private int getIntProperty(String key) {
+		final Object value = (properties == null) ? null : properties.getProperty(key);
+		if (value instanceof Number)
+			return ((Number) value).intValue();
+		if (value instanceof String) {
+			try {
+				return Integer.parseInt(((String) value).trim());
+			} catch (final NumberFormatException e) {
+				// fall through
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the counts and times of the requests received for this registration.
+	 * 
+	 * @return the request metrics.  Will not be <code>null</code>.
+	 * @since 4.5
+	 */
+	public RemoteServiceRequestMetrics getRequestMetrics() {
+		synchronized (registrationLock) {
+			if (requestMetrics == null)
+				requestMetrics = new RemoteServiceRequestMetrics();
+			return requestMetrics;
+		}
+	}
+
 	public ID getContainerID() {
 		return (remoteServiceID == null) ? null : remoteServiceID.getContainerID();
 	}
@@ -123,6 +190,8 @@ public class RemoteServiceRegistrationImpl implements IRemoteServiceRegistration
 				throw new IllegalStateException("Service already registered"); //$NON-NLS-1$
 			}
 			this.properties = createProperties(properties);
+			// Limits are created from the new properties on the next request
+			this.requestLimiter = null;
 		}
 
 		// XXX Need to notify that registration modified
@@ -0,0 +1,159 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.equinox.concurrent.future.*;
+
+/**
+ * Executor for remote service requests, using a fixed number of worker threads
+ * and a bounded queue.  When all workers are busy and the queue is full,
+ * {@link #execute(IProgressRunnable, IProgressMonitor)} throws a
+ * {@link RejectedExecutionException} rather than queueing more requests, so that
+ * the request can be answered with an error right away.
+ * <p>
+ * This is the executor used by the {@link RegistrySharedObject}s of all generic
+ * containers when the <code>org.eclipse.ecf.provider.remoteservice.executorType</code>
+ * system property is <code>pool</code>.  By default each request is executed as a
+ * job.  The number of threads and the queue size of the shared executor can be set
+ * with the system properties
+ * <code>org.eclipse.ecf.provider.remoteservice.executor.threads</code> and
+ * <code>org.eclipse.ecf.provider.remoteservice.executor.queueSize</code>.
+ * </p>
+ * <p>
+ * The number of concurrently executing and queued requests of a single remote
+ * service can be limited with the {@link #MAX_CONCURRENT_REQUESTS} and
+ * {@link #MAX_QUEUED_REQUESTS} service properties.
+ * </p>
+ * @since 4.5
+ */
+public class RemoteServiceRequestExecutor extends AbstractExecutor {
+
+	/**
+	 * Service property for the maximum number of requests to a remote service that
+	 * are executed concurrently.  Further requests are queued until a request
+	 * completes.  Value is an {@link Integer} or a {@link String} holding an integer.
+	 * If not set, the number of concurrent requests is only limited by the executor.
+	 */
+	public static final String MAX_CONCURRENT_REQUESTS = "ecf.generic.rsvc.maxConcurrentRequests"; //$NON-NLS-1$
+
+	/**
+	 * Service property for the maximum number of requests to a remote service that
+	 * wait for one of the {@link #MAX_CONCURRENT_REQUESTS} to complete.  Further
+	 * requests are rejected with an error response.  Value is an {@link Integer}
+	 * or a {@link String} holding an integer.  If not set, the number of waiting
+	 * requests is not limited.
+	 */
+	public static final String MAX_QUEUED_REQUESTS = "ecf.generic.rsvc.maxQueuedRequests"; //$NON-NLS-1$
+
+	public static final int DEFAULT_THREADS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.remoteservice.executor.threads", "50")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	public static final int DEFAULT_QUEUE_SIZE = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.remoteservice.executor.queueSize", "5000")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private final ThreadPoolExecutor pool;
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	/**
+	 * @param name the name prefix for the worker threads.  Must not be <code>null</code>.
+	 * @param threads the maximum number of worker threads.  Must be greater than zero.
+	 * @param queueSize the maximum number of requests waiting for a worker thread.  Must be greater than zero.
+	 */
+	public RemoteServiceRequestExecutor(final String name, int threads, int queueSize) {
+		Assert.isNotNull(name);
+		final AtomicInteger threadCount = new AtomicInteger();
+		this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name + "-" + threadCount.incrementAndGet()); //$NON-NLS-1$
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	public RemoteServiceRequestExecutor(String name) {
+		this(name, DEFAULT_THREADS, DEFAULT_QUEUE_SIZE);
+	}
+
+	protected AbstractFuture createFuture(IProgressMonitor progressMonitor) {
+		return new SingleOperationFuture(progressMonitor);
+	}
+
+	/**
+	 * @throws RejectedExecutionException if the queue is full, or the executor has been shut down
+	 */
+	public IFuture execute(final IProgressRunnable runnable, IProgressMonitor monitor) throws RejectedExecutionException {
+		Assert.isNotNull(runnable);
+		final AbstractFuture sof = createFuture(monitor);
+		try {
+			pool.execute(new Runnable() {
+				public void run() {
+					if (!sof.isCanceled())
+						sof.runWithProgress(runnable);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejectedCount.incrementAndGet();
+			throw e;
+		}
+		return sof;
+	}
+
+	/**
+	 * @return the approximate number of requests waiting for a worker thread
+	 */
+	public int getQueueSize() {
+		return pool.getQueue().size();
+	}
+
+	/**
+	 * @return the approximate number of worker threads executing requests
+	 */
+	public int getActiveCount() {
+		return pool.getActiveCount();
+	}
+
+	/**
+	 * @return the approximate number of requests executed
+	 */
+	public long getCompletedCount() {
+		return pool.getCompletedTaskCount();
+	}
+
+	/**
+	 * @return the number of requests rejected because the queue was full
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * Stop accepting requests.  Queued requests are still executed.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	public String toString() {
+		StringBuffer buf = new StringBuffer("RemoteServiceRequestExecutor["); //$NON-NLS-1$
+		buf.append("threads=").append(pool.getMaximumPoolSize()); //$NON-NLS-1$
+		buf.append(";active=").append(getActiveCount()); //$NON-NLS-1$
+		buf.append(";queued=").append(getQueueSize()); //$NON-NLS-1$
+		buf.append(";completed=").append(getCompletedCount()); //$NON-NLS-1$
+		buf.append(";rejected=").append(getRejectedCount()).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
@@ -0,0 +1,131 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts and times of the requests received for a remote service registration.
+ * Times are in nanoseconds.  The wait time of a request is the time from its
+ * receipt until its execution starts, the execution time is the time spent
+ * invoking the service and sending the response.
+ *
+ * @see RemoteServiceRegistrationImpl#getRequestMetrics()
+ * @since 4.5
+ */
+public class RemoteServiceRequestMetrics {
+
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong totalWaitTime = new AtomicLong();
+	private final AtomicLong maxWaitTime = new AtomicLong();
+	private final AtomicLong totalExecutionTime = new AtomicLong();
+	private final AtomicLong maxExecutionTime = new AtomicLong();
+
+	RemoteServiceRequestMetrics() {
+		//
+	}
+
+	void accepted() {
+		queued.incrementAndGet();
+	}
+
+	void started(long waitTime) {
+		queued.decrementAndGet();
+		active.incrementAndGet();
+		totalWaitTime.addAndGet(waitTime);
+		updateMax(maxWaitTime, waitTime);
+	}
+
+	void completed(long executionTime) {
+		active.decrementAndGet();
+		completed.incrementAndGet();
+		totalExecutionTime.addAndGet(executionTime);
+		updateMax(maxExecutionTime, executionTime);
+	}
+
+	void dequeued() {
+		queued.decrementAndGet();
+	}
+
+	void rejected() {
+		rejected.incrementAndGet();
+	}
+
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value))
+			current = max.get();
+	}
+
+	/**
+	 * @return the number of requests waiting to be executed
+	 */
+	public int getQueuedCount() {
+		return queued.get();
+	}
+
+	/**
+	 * @return the number of requests being executed
+	 */
+	public int getActiveCount() {
+		return active.get();
+	}
+
+	/**
+	 * @return the number of requests executed
+	 */
+	public long getCompletedCount() {
+		return completed.get();
+	}
+
+	/**
+	 * @return the number of requests rejected because of the limits for the
+	 * service or the executor
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	public long getTotalWaitTime() {
+		return totalWaitTime.get();
+	}
+
+	public long getMaxWaitTime() {
+		return maxWaitTime.get();
+	}
+
+	public long getTotalExecutionTime() {
+		return totalExecutionTime.get();
+	}
+
+	public long getMaxExecutionTime() {
+		return maxExecutionTime.get();
+	}
+
+	public String toString() {
+		StringBuffer buf = new StringBuffer("RemoteServiceRequestMetrics["); //$NON-NLS-1$
+		buf.append("queued=").append(getQueuedCount()); //$NON-NLS-1$
+		buf.append(";active=").append(getActiveCount()); //$NON-NLS-1$
+		buf.append(";completed=").append(getCompletedCount()); //$NON-NLS-1$
+		buf.append(";rejected=").append(getRejectedCount()); //$NON-NLS-1$
+		buf.append(";totalWaitTime=").append(getTotalWaitTime()); //$NON-NLS-1$
+		buf.append(";maxWaitTime=").append(getMaxWaitTime()); //$NON-NLS-1$
+		buf.append(";totalExecutionTime=").append(getTotalExecutionTime()); //$NON-NLS-1$
+		buf.append(";maxExecutionTime=").append(getMaxExecutionTime()).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
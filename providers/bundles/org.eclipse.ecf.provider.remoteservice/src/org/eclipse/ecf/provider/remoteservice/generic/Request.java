@@ -12,6 +12,8 @@
 package org.eclipse.ecf.provider.remoteservice.generic;
 
 import java.io.Serializable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.remoteservice.IRemoteCallListener;
 
@@ -35,6 +37,9 @@ public class Request implements Serializable {
 
 	transient IRemoteCallListener listener = null;
 
+	// Released when the response is set via complete(Response)
+	private transient CountDownLatch responseLatch = new CountDownLatch(1);
+
 	private synchronized static long getNextRequestId() {
 		long result = nextRequestId;
 		nextRequestId = (nextRequestId == Long.MAX_VALUE) ? 0L : nextRequestId + 1;
@@ -53,6 +58,18 @@ public class Request implements Serializable {
 		this.listener = listener;
 	}
 
+	/**
+	 * Recreate a received request, without allocating a new request id.
+	 */
+	Request(long requestId, ID requestContainerID, long serviceId, RemoteCallImpl call, Response response, boolean done) {
+		this.requestId = requestId;
+		this.requestContainerID = requestContainerID;
+		this.serviceId = serviceId;
+		this.call = call;
+		this.response = response;
+		this.done = done;
+	}
+
 	public long getRequestId() {
 		return requestId;
 	}
@@ -89,6 +106,27 @@ public class Request implements Serializable {
 		return listener;
 	}
 
+	/**
+	 * Set the response, and release any thread waiting in {@link #awaitResponse(long)}.
+	 */
+	void complete(Response resp) {
+		synchronized (this) {
+			this.response = resp;
+			this.done = true;
+		}
+		responseLatch.countDown();
+	}
+
+	/**
+	 * Wait for {@link #complete(Response)} to be called.
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return <code>true</code> if the request was completed, <code>false</code> if the timeout elapsed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	boolean awaitResponse(long timeout) throws InterruptedException {
+		return responseLatch.await(timeout, TimeUnit.MILLISECONDS);
+	}
+
 	public String toString() {
 		final StringBuffer buf = new StringBuffer("Request["); //$NON-NLS-1$
 		buf.append("requestId=").append(requestId).append(";cont=").append( //$NON-NLS-1$ //$NON-NLS-2$
@@ -0,0 +1,137 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.remoteservice.generic;
+
+import java.util.LinkedList;
+import java.util.concurrent.RejectedExecutionException;
+import org.eclipse.core.runtime.*;
+import org.eclipse.ecf.internal.provider.remoteservice.Activator;
+import org.eclipse.equinox.concurrent.future.IExecutor;
+import org.eclipse.equinox.concurrent.future.IProgressRunnable;
+
+/**
+ * Executes the requests for one remote service registration, with at most
+ * <code>maxConcurrent</code> requests executing at a time and at most
+ * <code>maxQueued</code> requests waiting for them.  Waiting requests are
+ * executed by the thread that completes a request, so that no executor thread
+ * is blocked on the limit.
+ */
+final class RequestLimiter {
+
+	/**
+	 * A request to execute.
+	 */
+	abstract static class Task {
+		final long receiveTime = System.nanoTime();
+
+		abstract void run();
+
+		/**
+		 * Called when the task is not executed because of the limits, on the
+		 * thread that submitted or dequeued the task.
+		 */
+		abstract void rejected(RejectedExecutionException e);
+	}
+
+	private final int maxConcurrent;
+	private final int maxQueued;
+	private final RemoteServiceRequestMetrics metrics;
+
+	// guarded by this
+	private final LinkedList<Task> waiting = new LinkedList<Task>();
+	private int running;
+
+	RequestLimiter(int maxConcurrent, int maxQueued, RemoteServiceRequestMetrics metrics) {
+		this.maxConcurrent = (maxConcurrent > 0) ? maxConcurrent : Integer.MAX_VALUE;
+		this.maxQueued = (maxQueued >= 0) ? maxQueued : Integer.MAX_VALUE;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Execute the task with the given executor, or queue it if the limit of
+	 * concurrently executing requests has been reached.  If rejected, {@link Task#rejected(RejectedExecutionException)}
+	 * is called before returning.
+	 */
+	void execute(IExecutor executor, final Task task) {
+		boolean full = false;
+		synchronized (this) {
+			if (running >= maxConcurrent) {
+				full = waiting.size() >= maxQueued;
+				if (!full) {
+					metrics.accepted();
+					waiting.add(task);
+					return;
+				}
+			} else
+				running++;
+		}
+		if (full) {
+			reject(task, new RejectedExecutionException("Too many requests queued for remote service.  maxConcurrent=" + maxConcurrent + " maxQueued=" + maxQueued)); //$NON-NLS-1$ //$NON-NLS-2$
+			return;
+		}
+		metrics.accepted();
+		try {
+			executor.execute(new IProgressRunnable() {
+				public Object run(IProgressMonitor monitor) throws Exception {
+					runTasks(task);
+					return null;
+				}
+			}, new NullProgressMonitor());
+		} catch (RejectedExecutionException e) {
+			metrics.dequeued();
+			reject(task, e);
+			// With no running task, nothing would run the waiting ones
+			Task[] orphans = null;
+			synchronized (this) {
+				if (--running == 0 && !waiting.isEmpty()) {
+					orphans = waiting.toArray(new Task[waiting.size()]);
+					waiting.clear();
+				}
+			}
+			for (int i = 0; orphans != null && i < orphans.length; i++) {
+				metrics.dequeued();
+				reject(orphans[i], e);
+			}
+		}
+	}
+
+	private void reject(Task task, RejectedExecutionException e) {
+		metrics.rejected();
+		task.rejected(e);
+	}
+
+	void runTasks(Task first) {
+		Task task = first;
+		while (task != null) {
+			final long start = System.nanoTime();
+			metrics.started(start - task.receiveTime);
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				// Tasks are expected to handle their exceptions, but the waiting tasks must still be run
+				Activator.getDefault().log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, IStatus.ERROR, "Unexpected exception executing remote service request", e)); //$NON-NLS-1$
+			} finally {
+				metrics.completed(System.nanoTime() - start);
+				synchronized (this) {
+					task = waiting.poll();
+					if (task == null)
+						running--;
+				}
+			}
+		}
+	}
+
+	RemoteServiceRequestMetrics getMetrics() {
+		return metrics;
+	}
+}
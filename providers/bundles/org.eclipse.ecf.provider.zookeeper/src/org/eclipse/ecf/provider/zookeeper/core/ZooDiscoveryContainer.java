@@ -16,9 +16,7 @@ package org.eclipse.ecf.provider.zookeeper.core;
 import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -332,22 +330,24 @@ public class ZooDiscoveryContainer extends AbstractDiscoveryContainerAdapter {
 
 	public IServiceInfo getServiceInfo(IServiceID serviceID) {
 		Assert.isNotNull(serviceID);
-		return watchManager.getAllKnownServices().get(serviceID.getName());
+		if (watchManager == null) {
+			return null;
+		}
+		return watchManager.getServiceCache().get(serviceID.getName());
 	}
 
 	public IServiceTypeID[] getServiceTypes() {
-		IServiceTypeID ids[] = new IServiceTypeID[getServices().length];
-		for (int i = 0; i < ids.length; i++) {
-			ids[i] = getServices()[i].getServiceID().getServiceTypeID();
+		if (watchManager == null) {
+			return new IServiceTypeID[0];
 		}
-		return ids;
+		return watchManager.getServiceCache().getServiceTypes();
 	}
 
 	public IServiceInfo[] getServices() {
 		if (watchManager == null) {
 			return new IServiceInfo[0];
 		}
-		return watchManager.getAllKnownServices().values().toArray(new IServiceInfo[watchManager.getAllKnownServices().size()]);
+		return watchManager.getServiceCache().getServices();
 	}
 
 	public IServiceInfo[] getServices(IServiceTypeID type) {
@@ -355,12 +355,7 @@ public class ZooDiscoveryContainer extends AbstractDiscoveryContainerAdapter {
 		if (watchManager == null) {
 			return new IServiceInfo[0];
 		}
-		List<IServiceInfo> services = new ArrayList<IServiceInfo>();
-		for (IServiceInfo sinfo : watchManager.getAllKnownServices().values()) {
-			if (sinfo.getServiceID().getServiceTypeID().getInternal() == type.getInternal())
-				services.add(sinfo);
-		}
-		return services.toArray(new IServiceInfo[services.size()]);
+		return watchManager.getServiceCache().getServices(type);
 	}
 
 	public Namespace getServicesNamespace() {
@@ -0,0 +1,324 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.zookeeper.node.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.ecf.discovery.IServiceProperties;
+import org.eclipse.ecf.discovery.ServiceProperties;
+import org.eclipse.ecf.provider.zookeeper.core.DefaultDiscoveryConfig;
+
+/**
+ * Encodes the node properties of an advertised service into the data of its
+ * ZooKeeper node and back. The compact encoding writes the property names and
+ * the values of the common types directly and only falls back to Java
+ * serialization for other values, so the node data does not carry the class
+ * descriptors of the maps and properties that hold them. Node data written by
+ * earlier versions, which serialize the whole map, is still read.
+ * <p>
+ * Earlier versions can only read the serialized form, so it is still written
+ * by default. Set <code>-Dzoodiscovery.legacyNodePayload=false</code> to write
+ * the compact encoding once all members of the discovery read it.
+ */
+public final class NodePayload {
+
+	public static final String LEGACY_NODE_PAYLOAD = DefaultDiscoveryConfig.ZOODISCOVERY_PREFIX
+			+ "legacyNodePayload"; //$NON-NLS-1$
+
+	private static final boolean LEGACY = Boolean.valueOf(
+			System.getProperty(LEGACY_NODE_PAYLOAD, "true")).booleanValue(); //$NON-NLS-1$
+
+	/* 'Z', 'D'. Serialized data starts with 0xACED instead. */
+	private static final byte MAGIC_0 = 0x5A;
+	private static final byte MAGIC_1 = 0x44;
+	private static final byte VERSION = 1;
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte BOOLEAN = 4;
+	private static final byte DOUBLE = 5;
+	private static final byte FLOAT = 6;
+	private static final byte SHORT = 7;
+	private static final byte BYTE = 8;
+	private static final byte CHARACTER = 9;
+	private static final byte BYTES = 10;
+	private static final byte STRINGS = 11;
+	private static final byte URI_ = 12;
+	private static final byte PROPERTIES = 13;
+	/* a byte[] set with IServiceProperties#setPropertyBytes */
+	private static final byte PROPERTY_BYTES = 14;
+	private static final byte SERIALIZED = 15;
+
+	private NodePayload() {
+		// static only
+	}
+
+	public static byte[] encode(Map<String, Object> nodeProperties)
+			throws IOException {
+		return encode(nodeProperties, LEGACY);
+	}
+
+	public static byte[] encode(Map<String, Object> nodeProperties,
+			boolean legacy) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		if (legacy) {
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(nodeProperties);
+			out.close();
+			return bytes.toByteArray();
+		}
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(MAGIC_0);
+		out.writeByte(MAGIC_1);
+		out.writeByte(VERSION);
+		writeLength(out, nodeProperties.size());
+		for (Map.Entry<String, Object> entry : nodeProperties.entrySet()) {
+			writeString(out, entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> decode(byte[] data) throws IOException {
+		if (data.length < 3 || data[0] != MAGIC_0 || data[1] != MAGIC_1) {
+			ObjectInputStream in = new ObjectInputStream(
+					new ByteArrayInputStream(data));
+			try {
+				return (Map<String, Object>) in.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e.getMessage());
+			} finally {
+				in.close();
+			}
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				data, 2, data.length - 2));
+		byte version = in.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported node payload version " //$NON-NLS-1$
+					+ version);
+		}
+		int size = readLength(in);
+		Map<String, Object> nodeProperties = new HashMap<String, Object>();
+		for (int i = 0; i < size; i++) {
+			String key = readString(in);
+			nodeProperties.put(key, readValue(in));
+		}
+		return nodeProperties;
+	}
+
+	private static void writeValue(DataOutputStream out, Object value)
+			throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value instanceof String) {
+			out.writeByte(STRING);
+			writeString(out, (String) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt(((Integer) value).intValue());
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong(((Long) value).longValue());
+		} else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean(((Boolean) value).booleanValue());
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble(((Double) value).doubleValue());
+		} else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat(((Float) value).floatValue());
+		} else if (value instanceof Short) {
+			out.writeByte(SHORT);
+			out.writeShort(((Short) value).shortValue());
+		} else if (value instanceof Byte) {
+			out.writeByte(BYTE);
+			out.writeByte(((Byte) value).byteValue());
+		} else if (value instanceof Character) {
+			out.writeByte(CHARACTER);
+			out.writeChar(((Character) value).charValue());
+		} else if (value instanceof byte[]) {
+			out.writeByte(BYTES);
+			writeBytes(out, (byte[]) value);
+		} else if (value instanceof String[]) {
+			String[] strings = (String[]) value;
+			out.writeByte(STRINGS);
+			writeLength(out, strings.length);
+			for (String s : strings) {
+				writeNullableString(out, s);
+			}
+		} else if (value instanceof URI) {
+			out.writeByte(URI_);
+			writeString(out, value.toString());
+		} else if (value instanceof IServiceProperties) {
+			IServiceProperties properties = (IServiceProperties) value;
+			out.writeByte(PROPERTIES);
+			writeLength(out, properties.size());
+			for (Enumeration<?> e = properties.getPropertyNames(); e
+					.hasMoreElements();) {
+				String name = (String) e.nextElement();
+				writeString(out, name);
+				byte[] propertyBytes = properties.getPropertyBytes(name);
+				if (propertyBytes != null) {
+					out.writeByte(PROPERTY_BYTES);
+					writeBytes(out, propertyBytes);
+				} else {
+					writeValue(out, properties.getProperty(name));
+				}
+			}
+		} else {
+			ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+			ObjectOutputStream oout = new ObjectOutputStream(serialized);
+			oout.writeObject(value);
+			oout.close();
+			out.writeByte(SERIALIZED);
+			writeBytes(out, serialized.toByteArray());
+		}
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case STRING:
+			return readString(in);
+		case INTEGER:
+			return new Integer(in.readInt());
+		case LONG:
+			return new Long(in.readLong());
+		case BOOLEAN:
+			return Boolean.valueOf(in.readBoolean());
+		case DOUBLE:
+			return new Double(in.readDouble());
+		case FLOAT:
+			return new Float(in.readFloat());
+		case SHORT:
+			return new Short(in.readShort());
+		case BYTE:
+			return new Byte(in.readByte());
+		case CHARACTER:
+			return new Character(in.readChar());
+		case BYTES:
+			return readBytes(in);
+		case STRINGS:
+			String[] strings = new String[readLength(in)];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = readNullableString(in);
+			}
+			return strings;
+		case URI_:
+			return URI.create(readString(in));
+		case PROPERTIES:
+			ServiceProperties properties = new ServiceProperties();
+			int size = readLength(in);
+			for (int i = 0; i < size; i++) {
+				String name = readString(in);
+				in.mark(1);
+				if (in.readByte() == PROPERTY_BYTES) {
+					properties.setPropertyBytes(name, readBytes(in));
+				} else {
+					in.reset();
+					properties.setProperty(name, readValue(in));
+				}
+			}
+			return properties;
+		case SERIALIZED:
+			ObjectInputStream oin = new ObjectInputStream(
+					new ByteArrayInputStream(readBytes(in)));
+			try {
+				return oin.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e.getMessage());
+			} finally {
+				oin.close();
+			}
+		default:
+			throw new IOException("Unknown node payload type " + type); //$NON-NLS-1$
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, String s)
+			throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null) {
+			writeString(out, s);
+		}
+	}
+
+	private static String readNullableString(DataInputStream in)
+			throws IOException {
+		return in.readBoolean() ? readString(in) : null;
+	}
+
+	private static void writeString(DataOutputStream out, String s)
+			throws IOException {
+		writeBytes(out, s.getBytes("UTF-8")); //$NON-NLS-1$
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return new String(readBytes(in), "UTF-8"); //$NON-NLS-1$
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] b)
+			throws IOException {
+		writeLength(out, b.length);
+		out.write(b);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] b = new byte[readLength(in)];
+		in.readFully(b);
+		return b;
+	}
+
+	/* unsigned variable length int, 7 bits per byte */
+	private static void writeLength(DataOutputStream out, int length)
+			throws IOException {
+		while ((length & ~0x7F) != 0) {
+			out.writeByte((length & 0x7F) | 0x80);
+			length >>>= 7;
+		}
+		out.writeByte(length);
+	}
+
+	private static int readLength(DataInputStream in) throws IOException {
+		int length = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			length |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (length < 0) {
+					break;
+				}
+				return length;
+			}
+		}
+		throw new IOException("Malformed node payload length"); //$NON-NLS-1$
+	}
+}
@@ -13,9 +13,7 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.zookeeper.node.internal;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.Map;
 
 import org.apache.zookeeper.WatchedEvent;
@@ -71,46 +69,23 @@ public class NodeReader implements Watcher,
 		if (p == null || !p.equals(getAbsolutePath()) || data == null) {
 			return;
 		}
-		ObjectInputStream objin = null;
-		ByteArrayInputStream bain = null;
 		Map<String, Object> serviceData = null;
 		try {
-			bain = new ByteArrayInputStream(data);
-			objin = new ObjectInputStream(bain);
-			try {
-				serviceData = (Map<String, Object>) objin.readObject();
-			} catch (ClassNotFoundException e) {
-				Logger.log(LogService.LOG_ERROR, "NodeReader.processResult: "
-						+ e.getMessage(), e);
-			}
+			serviceData = NodePayload.decode(data);
 			if (serviceData == null || serviceData.isEmpty()) {
 				return;
 			}
 			this.discovered = new DiscoverdService(getPath(), serviceData);
-			readRoot.getDiscoverdServices()
-					.put(this.discovered.getServiceID().getServiceTypeID()
-							.getName(), this.discovered);
+			readRoot.getDiscoverdServices().put(
+					this.discovered.getServiceID().getName(), this.discovered);
+			readRoot.getWatchManager().getServiceCache().put(this.discovered);
 			Logger.log(LogService.LOG_DEBUG, PrettyPrinter.prompt(PrettyPrinter.REMOTE_AVAILABLE, this.discovered), null);
 			Localizer.getSingleton().localize(
 					new Notification(this.discovered, Notification.AVAILABLE));
 
 		} catch (IOException e) {
-			Logger.log(LogService.LOG_DEBUG, e.getMessage(), e);
-		} finally {
-			if (objin != null) {
-				try {
-					objin.close();
-				} catch (IOException e) {
-					// ignore
-				}
-			}
-			if (bain != null) {
-				try {
-					bain.close();
-				} catch (IOException e) {
-					// ignore
-				}
-			}
+			Logger.log(LogService.LOG_ERROR, "NodeReader.processResult: "
+					+ e.getMessage(), e);
 		}
 	}
 
@@ -144,8 +119,9 @@ public class NodeReader implements Watcher,
 	public synchronized void dispose() {
 		if (isDisposed || discovered == null)
 			return;
-		if (null != readRoot.getDiscoverdServices().remove(
-				this.discovered.getServiceID().getServiceTypeID().getName())) {
+		String name = this.discovered.getServiceID().getName();
+		if (null != readRoot.getDiscoverdServices().remove(name)) {
+			readRoot.getWatchManager().getServiceCache().remove(name);
 			this.discovered.dispose();
 			isDisposed = true;
 
@@ -13,10 +13,12 @@
  *****************************************************************************/
 package org.eclipse.ecf.provider.zookeeper.node.internal;
 
-import org.apache.zookeeper.CreateMode;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.zookeeper.AsyncCallback.StringCallback;
+import org.apache.zookeeper.AsyncCallback.VoidCallback;
 import org.apache.zookeeper.KeeperException;
-import org.apache.zookeeper.ZooDefs.Ids;
-import org.apache.zookeeper.data.Stat;
+import org.apache.zookeeper.KeeperException.Code;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.provider.zookeeper.core.AdvertisedService;
 import org.eclipse.ecf.provider.zookeeper.core.internal.Localizer;
@@ -25,7 +27,7 @@ import org.eclipse.ecf.provider.zookeeper.util.Logger;
 import org.eclipse.ecf.provider.zookeeper.util.PrettyPrinter;
 import org.osgi.service.log.LogService;
 
-public class NodeWriter {
+public class NodeWriter implements StringCallback, VoidCallback {
 
 	private INode node;
 	private String ip;
@@ -50,61 +52,71 @@ public class NodeWriter {
 		return this.ip;
 	}
 
-	public synchronized void publish() {
+	/**
+	 * Queues the creation of the node. The node is written with the next batch
+	 * of the {@link WriteQueue}.
+	 */
+	public void publish() {
+		this.writeRoot.getWatchManager().getWriteQueue().create(this);
+	}
+
+	/**
+	 * Queues the deletion of the node. The node is deleted with the next batch
+	 * of the {@link WriteQueue}.
+	 */
+	public void remove() {
+		if (this.writeRoot.isConnected()) {
+			this.writeRoot.getWatchManager().getWriteQueue().delete(this);
+		} else if (writeRoot.getWatchManager().getConfig().isCentralized()) {
+			/*
+			 * connection lost to the central ZooDiscovery where our services
+			 * are published to.
+			 */
+			Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.UNPUBLISHED, this.getNode().getWrappedService()), null);
+		}
+
+	}
+
+	byte[] getData() {
+		return ((AdvertisedService) this.getNode().getWrappedService())
+				.getPropertiesAsBytes();
+	}
+
+	/*
+	 * node created
+	 */
+	public void processResult(int rc, String path, Object ctx, String name) {
 		try {
-			String parentPath = this.getNode().getAbsolutePath();
-			Stat stat = this.writeRoot.getWriteKeeper().exists(parentPath,
-					false);
-			if (stat == null) {
-				this.writeRoot.getWriteKeeper()
-						.create(parentPath,
-								((AdvertisedService) this.getNode()
-										.getWrappedService())
-										.getPropertiesAsBytes(),
-								Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL);
-			}
-			Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.PUBLISHED, this.getNode().getWrappedService()), null);
-		} catch (KeeperException e) {
-			if (e.code() == KeeperException.Code.CONNECTIONLOSS) {
-				Logger.log(LogService.LOG_ERROR, "Can't connect to server! "
-						+ e.getMessage(), e);
+			Code code = Code.get(rc);
+			if (code == Code.OK || code == Code.NODEEXISTS) {
+				Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.PUBLISHED, this.getNode().getWrappedService()), null);
+			} else if (code == Code.CONNECTIONLOSS) {
+				Logger.log(LogService.LOG_ERROR, "Can't connect to server! " //$NON-NLS-1$
+						+ path, null);
+			} else {
+				Logger.log(LogService.LOG_ERROR, "Error while publishing " //$NON-NLS-1$
+						+ path, KeeperException.create(code, path));
 			}
-		} catch (InterruptedException e) {
-			// ignore
+		} finally {
+			((CountDownLatch) ctx).countDown();
 		}
 	}
 
-	public synchronized void remove() {
-		if (this.writeRoot.isConnected()) {
-			try {
-				String nodePath = this.getNode().getAbsolutePath();
-				Stat stat = this.writeRoot.getWriteKeeper().exists(nodePath,
-						false);
-				if (stat == null) {
-					// nothing to remove
-					return;
-				}
-				// delete node
-				this.writeRoot.getWriteKeeper().delete(nodePath, -1);
+	/*
+	 * node deleted
+	 */
+	public void processResult(int rc, String path, Object ctx) {
+		try {
+			// NONODE: nothing to remove
+			if (Code.get(rc) == Code.OK) {
 				Localizer.getSingleton().localize(
 						new Notification(this.getNode().getWrappedService(),
 								Notification.UNAVAILABLE));
 				Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.UNPUBLISHED, this.getNode().getWrappedService()), null);
-
-			} catch (KeeperException e) {
-				// ignore
-			} catch (InterruptedException e) {
-				// ignore
 			}
-		} else if (!this.writeRoot.isConnected()
-				&& writeRoot.getWatchManager().getConfig().isCentralized()) {
-			/*
-			 * connection lost to the central ZooDiscovery where our services
-			 * are published to.
-			 */
-			Logger.log(LogService.LOG_INFO, PrettyPrinter.prompt(PrettyPrinter.UNPUBLISHED, this.getNode().getWrappedService()), null);
+		} finally {
+			((CountDownLatch) ctx).countDown();
 		}
-
 	}
 
 	public INode getNode() {
@@ -175,6 +175,10 @@ public class ReadRoot implements Watcher, ChildrenCallback {
 		return this.ip;
 	}
 
+	public WatchManager getWatchManager() {
+		return this.watchManager;
+	}
+
 	public Map<String, DiscoverdService> getDiscoverdServices() {
 		return discoverdServices;
 	}
@@ -0,0 +1,120 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.zookeeper.node.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+
+/**
+ * The services known to a {@link WatchManager}, both the ones published
+ * locally and the ones discovered by the {@link NodeReader}s, indexed by
+ * service ID name and by service type. The index is updated incrementally as
+ * services come and go, so lookups by name or type do not scan all services.
+ * Lookups do not lock; updates are serialized to keep both indexes consistent.
+ */
+public class ServiceCache {
+
+	private final ConcurrentMap<String, IServiceInfo> services = new ConcurrentHashMap<String, IServiceInfo>();
+
+	private final ConcurrentMap<String, ServiceType> types = new ConcurrentHashMap<String, ServiceType>();
+
+	public synchronized void put(IServiceInfo service) {
+		Assert.isNotNull(service);
+		String name = service.getServiceID().getName();
+		IServiceInfo old = services.put(name, service);
+		if (old != null) {
+			removeFromType(name, old);
+		}
+		IServiceTypeID typeID = service.getServiceID().getServiceTypeID();
+		ServiceType type = types.get(typeID.getInternal());
+		if (type == null) {
+			type = new ServiceType(typeID);
+			types.put(typeID.getInternal(), type);
+		}
+		type.services.put(name, service);
+	}
+
+	public synchronized IServiceInfo remove(String name) {
+		Assert.isNotNull(name);
+		IServiceInfo old = services.remove(name);
+		if (old != null) {
+			removeFromType(name, old);
+		}
+		return old;
+	}
+
+	private void removeFromType(String name, IServiceInfo service) {
+		String key = service.getServiceID().getServiceTypeID().getInternal();
+		ServiceType type = types.get(key);
+		if (type != null) {
+			type.services.remove(name);
+			if (type.services.isEmpty()) {
+				types.remove(key);
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		services.clear();
+		types.clear();
+	}
+
+	public IServiceInfo get(String name) {
+		return services.get(name);
+	}
+
+	public IServiceInfo[] getServices() {
+		return services.values().toArray(new IServiceInfo[0]);
+	}
+
+	public IServiceInfo[] getServices(IServiceTypeID typeID) {
+		ServiceType type = types.get(typeID.getInternal());
+		if (type == null) {
+			return new IServiceInfo[0];
+		}
+		return type.services.values().toArray(new IServiceInfo[0]);
+	}
+
+	public IServiceTypeID[] getServiceTypes() {
+		List<IServiceTypeID> result = new ArrayList<IServiceTypeID>(
+				types.size());
+		for (ServiceType type : types.values()) {
+			result.add(type.typeID);
+		}
+		return result.toArray(new IServiceTypeID[result.size()]);
+	}
+
+	/**
+	 * @return a live, read-only view of the services by service ID name.
+	 */
+	public Map<String, IServiceInfo> asMap() {
+		return Collections.unmodifiableMap(services);
+	}
+
+	private static class ServiceType {
+		final IServiceTypeID typeID;
+		final ConcurrentMap<String, IServiceInfo> services = new ConcurrentHashMap<String, IServiceInfo>();
+
+		ServiceType(IServiceTypeID typeID) {
+			this.typeID = typeID;
+		}
+	}
+}
@@ -19,6 +19,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 import org.apache.zookeeper.ZooKeeper;
 import org.eclipse.core.runtime.Assert;
@@ -38,10 +39,12 @@ public class WatchManager implements BundleStoppingListener {
 
 	private List<ZooKeeper> zooKeepers;
 	private Map<String, NodeWriter> nodeWriters;
-	private Map<String, IServiceInfo> allKnownServices;
+	private final ServiceCache allKnownServices;
+	private final WriteQueue writeQueue;
 	private Configuration config;
-	private WriteRoot writeRoot;
-	private Lock writeRootLock;
+	private volatile WriteRoot writeRoot;
+	/* opened once the write root is connected */
+	private final CountDownLatch writeRootReady;
 	private boolean isDisposed;
 
 	public WatchManager(Configuration config) {
@@ -49,8 +52,9 @@ public class WatchManager implements BundleStoppingListener {
 		DiscoveryActivator.registerBundleStoppingListner(this);
 		zooKeepers = new ArrayList<ZooKeeper>();
 		nodeWriters = new HashMap<String, NodeWriter>();
-		allKnownServices = new HashMap<String, IServiceInfo>();
-		writeRootLock = new Lock().lock();
+		allKnownServices = new ServiceCache();
+		writeQueue = new WriteQueue(this);
+		writeRootReady = new CountDownLatch(1);
 		isDisposed = false;
 	}
 
@@ -59,18 +63,9 @@ public class WatchManager implements BundleStoppingListener {
 		String serviceid = ref.getProperty(Constants.SERVICE_ID).toString();
 		if (WatchManager.this.getNodeWriters().containsKey(serviceid))
 			return;
-		if (!WatchManager.this.writeRootLock.isOpen()) {
-			synchronized (WatchManager.this.writeRootLock) {
-				try {
-					/* wait for the server to get ready */
-					WatchManager.this.writeRootLock.wait();
-				} catch (InterruptedException e) {
-					Logger.log(LogService.LOG_DEBUG, e.getMessage(), e);
-				}
-			}
-		}
+		awaitWriteRoot();
 		AdvertisedService published = new AdvertisedService(ref);
-		allKnownServices.put(published.getServiceID().getName(), published);
+		allKnownServices.put(published);
 		NodeWriter nodeWriter = new NodeWriter(published,
 				WatchManager.this.writeRoot);
 		WatchManager.this.getNodeWriters().put(serviceid, nodeWriter);
@@ -79,18 +74,26 @@ public class WatchManager implements BundleStoppingListener {
 
 	public void publish(AdvertisedService published) {
 		Assert.isNotNull(published);
+		awaitWriteRoot();
+		String serviceName = published.getServiceID().getName();
+		NodeWriter nodeWriter = new NodeWriter(published, writeRoot);
+		getNodeWriters().put(serviceName, nodeWriter);
+		allKnownServices.put(published);
+		nodeWriter.publish();
+	}
+
+	private void awaitWriteRoot() {
 		try {
 			/* wait for the server to get ready */
-			while (!writeRootLock.isOpen())
-				Thread.sleep(300);
+			writeRootReady.await();
 		} catch (InterruptedException e) {
 			Logger.log(LogService.LOG_DEBUG, e.getMessage(), e);
+			Thread.currentThread().interrupt();
 		}
-		String serviceName = published.getServiceID().getName();
-		NodeWriter nodeWriter = new NodeWriter(published, writeRoot);
-		getNodeWriters().put(serviceName, nodeWriter);
-		allKnownServices.put(serviceName, published);
-		nodeWriter.publish();
+	}
+
+	private void writeRootReady() {
+		writeRootReady.countDown();
 	}
 
 	public synchronized void unpublish(final String id) {
@@ -121,10 +124,7 @@ public class WatchManager implements BundleStoppingListener {
 				public void run() {
 					WatchManager.this.writeRoot = new WriteRoot(getConfig()
 							.getServerIps(), WatchManager.this);
-					synchronized (WatchManager.this.writeRootLock) {
-						WatchManager.this.writeRootLock.unlock();
-						WatchManager.this.writeRootLock.notifyAll();
-					}
+					writeRootReady();
 				}
 			});
 			ZooDiscoveryContainer.CACHED_THREAD_POOL.execute(new Runnable() {
@@ -139,10 +139,7 @@ public class WatchManager implements BundleStoppingListener {
 				public void run() {
 					WatchManager.this.writeRoot = new WriteRoot(getConfig()
 							.getServerIps(), WatchManager.this);
-					synchronized (WatchManager.this.writeRootLock) {
-						WatchManager.this.writeRootLock.unlock();
-						WatchManager.this.writeRootLock.notifyAll();
-					}
+					writeRootReady();
 				}
 			});
 			ZooDiscoveryContainer.CACHED_THREAD_POOL.execute(new Runnable() {
@@ -171,11 +168,8 @@ public class WatchManager implements BundleStoppingListener {
 							}
 						}
 					}
-					synchronized (WatchManager.this.writeRootLock) {
-						/* resume publication */
-						WatchManager.this.writeRootLock.unlock();
-						WatchManager.this.writeRootLock.notifyAll();
-					}
+					/* resume publication */
+					writeRootReady();
 				}
 			});
 			ZooDiscoveryContainer.CACHED_THREAD_POOL.execute(new Runnable() {
@@ -206,6 +200,8 @@ public class WatchManager implements BundleStoppingListener {
 				}
 				copy.clear();
 			}
+			// write the pending deletions before closing the sessions
+			writeQueue.flush();
 			for (ZooKeeper zk : this.zooKeepers) {
 				if (zk != null)
 					zk.close();
@@ -242,26 +238,12 @@ public class WatchManager implements BundleStoppingListener {
 		return this.writeRoot;
 	}
 
-	public Map<String, NodeWriter> getNodeWriters() {
-		return this.nodeWriters;
+	WriteQueue getWriteQueue() {
+		return this.writeQueue;
 	}
 
-	private class Lock {
-		boolean state;
-
-		boolean isOpen() {
-			return this.state;
-		}
-
-		Lock unlock() {
-			this.state = true;
-			return this;
-		}
-
-		Lock lock() {
-			this.state = false;
-			return this;
-		}
+	public Map<String, NodeWriter> getNodeWriters() {
+		return this.nodeWriters;
 	}
 
 	public void unpublishAll() {
@@ -278,13 +260,15 @@ public class WatchManager implements BundleStoppingListener {
 		for (int i = 0; i < nws.length; i++) {
 			nws[i].getNode().regenerateNodeId();
 			nws[i].publish();
-			allKnownServices.put(nws[i].getNode().getWrappedService()
-					.getServiceID().getName(), nws[i].getNode()
-					.getWrappedService());
+			allKnownServices.put(nws[i].getNode().getWrappedService());
 		}
 	}
 
 	public Map<String, IServiceInfo> getAllKnownServices() {
+		return allKnownServices.asMap();
+	}
+
+	public ServiceCache getServiceCache() {
 		return allKnownServices;
 	}
 
@@ -0,0 +1,181 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.zookeeper.node.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.ZooDefs.Ids;
+import org.apache.zookeeper.ZooKeeper;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.ecf.provider.zookeeper.core.DefaultDiscoveryConfig;
+import org.eclipse.ecf.provider.zookeeper.core.ZooDiscoveryContainer;
+import org.eclipse.ecf.provider.zookeeper.util.Logger;
+import org.osgi.service.log.LogService;
+
+/**
+ * Collects the node creations and deletions of the {@link NodeWriter}s of a
+ * {@link WatchManager} and writes them in batches. A batch is written when
+ * {@link #BATCH_SIZE} writes are pending or {@link #BATCH_DELAY} milliseconds
+ * after the first pending write, whichever comes first. The writes of a batch
+ * are issued back to back with the asynchronous ZooKeeper API and then awaited
+ * together, so a batch costs about one round trip to the server instead of
+ * one per service. ZooKeeper executes the requests of a session in order, so
+ * a deletion queued after a creation is applied after it.
+ * <p>
+ * Queuing never blocks and never writes on the calling thread, so services
+ * can be published from ZooKeeper callbacks and service listeners.
+ */
+class WriteQueue {
+
+	static final int BATCH_SIZE = Integer.getInteger(
+			DefaultDiscoveryConfig.ZOODISCOVERY_PREFIX + "publishBatchSize", //$NON-NLS-1$
+			100).intValue();
+
+	static final long BATCH_DELAY = Long.getLong(
+			DefaultDiscoveryConfig.ZOODISCOVERY_PREFIX + "publishBatchDelay", //$NON-NLS-1$
+			50).longValue();
+
+	/* how long a flush waits for the server to confirm a batch */
+	private static final long FLUSH_TIMEOUT = 30000;
+
+	private final WatchManager watchManager;
+	private final List<Write> pending = new ArrayList<Write>();
+	private boolean flushScheduled;
+	/* keeps the batches in order */
+	private final Object flushLock = new Object();
+
+	WriteQueue(WatchManager watchManager) {
+		Assert.isNotNull(watchManager);
+		this.watchManager = watchManager;
+	}
+
+	void create(NodeWriter nodeWriter) {
+		enqueue(new Write(nodeWriter, true));
+	}
+
+	void delete(NodeWriter nodeWriter) {
+		synchronized (this) {
+			/* a creation that was not written yet need not be written */
+			for (Iterator<Write> i = pending.iterator(); i.hasNext();) {
+				Write write = i.next();
+				if (write.create && write.nodeWriter == nodeWriter) {
+					i.remove();
+				}
+			}
+		}
+		enqueue(new Write(nodeWriter, false));
+	}
+
+	private synchronized void enqueue(Write write) {
+		pending.add(write);
+		if (pending.size() == BATCH_SIZE) {
+			schedule(0);
+		} else if (!flushScheduled) {
+			flushScheduled = true;
+			schedule(BATCH_DELAY);
+		}
+	}
+
+	private void schedule(final long delay) {
+		ZooDiscoveryContainer.CACHED_THREAD_POOL.execute(new Runnable() {
+			public void run() {
+				if (delay > 0) {
+					try {
+						Thread.sleep(delay);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				flush();
+			}
+		});
+	}
+
+	/**
+	 * Writes all pending creations and deletions and waits until the server
+	 * confirmed them.
+	 */
+	void flush() {
+		synchronized (flushLock) {
+			while (true) {
+				List<Write> batch;
+				synchronized (this) {
+					flushScheduled = false;
+					if (pending.isEmpty()) {
+						return;
+					}
+					int size = Math.min(pending.size(), Math.max(BATCH_SIZE,
+							1));
+					List<Write> head = pending.subList(0, size);
+					batch = new ArrayList<Write>(head);
+					head.clear();
+				}
+				write(batch);
+			}
+		}
+	}
+
+	private void write(List<Write> batch) {
+		WriteRoot writeRoot = watchManager.getWriteRoot();
+		if (writeRoot == null || !writeRoot.isConnected()) {
+			/*
+			 * the nodes are ephemeral and go with the session, creations are
+			 * repeated once connected again.
+			 */
+			Logger.log(LogService.LOG_DEBUG, "Not connected, dropped " //$NON-NLS-1$
+					+ batch.size() + " node writes", null); //$NON-NLS-1$
+			return;
+		}
+		ZooKeeper zooKeeper = writeRoot.getWriteKeeper();
+		CountDownLatch done = new CountDownLatch(batch.size());
+		for (Write write : batch) {
+			String path = write.nodeWriter.getNode().getAbsolutePath();
+			try {
+				if (write.create) {
+					zooKeeper.create(path, write.nodeWriter.getData(),
+							Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL,
+							write.nodeWriter, done);
+				} else {
+					zooKeeper.delete(path, -1, write.nodeWriter, done);
+				}
+			} catch (RuntimeException e) {
+				Logger.log(LogService.LOG_ERROR, "Error while writing node " //$NON-NLS-1$
+						+ path, e);
+				done.countDown();
+			}
+		}
+		try {
+			if (!done.await(FLUSH_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				Logger.log(LogService.LOG_WARNING, done.getCount()
+						+ " node writes not confirmed by the server", null); //$NON-NLS-1$
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class Write {
+		final NodeWriter nodeWriter;
+		final boolean create;
+
+		Write(NodeWriter nodeWriter, boolean create) {
+			this.nodeWriter = nodeWriter;
+			this.create = create;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.tests.filetransfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.httpclient.server.HttpRequestHandler;
+import org.apache.commons.httpclient.server.ResponseWriter;
+import org.apache.commons.httpclient.server.SimpleHttpServer;
+import org.apache.commons.httpclient.server.SimpleHttpServerConnection;
+import org.apache.commons.httpclient.server.SimpleRequest;
+import org.eclipse.ecf.filetransfer.events.IIncomingFileTransferReceiveDataEvent;
+import org.eclipse.ecf.filetransfer.events.IIncomingFileTransferReceiveStartEvent;
+import org.eclipse.ecf.internal.tests.filetransfer.httpserver.SimpleServer;
+
+/**
+ * Compares the stream and the channel receive of a file from a local server.
+ * Not part of {@link URLConnectionTestSuite}, run it on its own. The size of
+ * the served file can be set with the system property
+ * <code>org.eclipse.ecf.tests.filetransfer.benchmarkSize</code>, in bytes.
+ */
+public class URLRetrieveBenchmark extends AbstractRetrieveTestCase {
+
+	private static final String CHANNEL_RECEIVE = "org.eclipse.ecf.provider.filetransfer.retrieve.channelReceive";
+
+	private static final long SIZE = Long.parseLong(System.getProperty("org.eclipse.ecf.tests.filetransfer.benchmarkSize", String.valueOf(2L * 1024 * 1024 * 1024)));
+
+	private static final int RUNS = 3;
+
+	File tmpFile = null;
+	private SimpleServer server;
+	private int dataEventCount;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		tmpFile = File.createTempFile("ECFTest", "");
+		server = new SimpleServer(getName());
+		SimpleHttpServer simple = server.getSimpleHttpServer();
+		simple.setRequestHandler(new HttpRequestHandler() {
+
+			public boolean processRequest(SimpleHttpServerConnection conn, SimpleRequest request) throws IOException {
+				ResponseWriter w = conn.getWriter();
+				w.println("HTTP/1.0 200 OK");
+				w.println("Content-Length: " + SIZE);
+				w.println("Content-Type: application/octet-stream");
+				w.println("");
+				w.flush();
+				OutputStream out = conn.getOutputStream();
+				byte[] buf = new byte[65536];
+				for (long written = 0; written < SIZE; written += buf.length) {
+					out.write(buf, 0, (int) Math.min(buf.length, SIZE - written));
+				}
+				out.flush();
+				return true;
+			}
+
+		});
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		if (server != null) {
+			server.shutdown();
+		}
+		server = null;
+		if (tmpFile != null)
+			tmpFile.delete();
+		tmpFile = null;
+	}
+
+	protected void handleStartEvent(IIncomingFileTransferReceiveStartEvent event) {
+		super.handleStartEvent(event);
+		try {
+			incomingFileTransfer = event.receive(tmpFile);
+		} catch (final IOException e) {
+			fail(e.getLocalizedMessage());
+		}
+	}
+
+	protected void handleDataEvent(IIncomingFileTransferReceiveDataEvent event) {
+		// count only, a multi GB stream receive fires an event per 4k
+		dataEventCount++;
+	}
+
+	private void receive(boolean channel) throws Exception {
+		startEvents.clear();
+		doneEvents.clear();
+		dataEventCount = 0;
+		synchronized (lock) {
+			done = false;
+		}
+		final Map options = new HashMap();
+		options.put(CHANNEL_RECEIVE, String.valueOf(channel));
+		final long start = System.currentTimeMillis();
+		retrieveAdapter.sendRetrieveRequest(createFileID(new URL(server.getServerURL() + "/benchmark")), createFileTransferListener(), options);
+		waitForDone(3600000);
+		final long time = System.currentTimeMillis() - start;
+		assertDoneOK();
+		assertEquals(SIZE, tmpFile.length());
+		System.out.println((channel ? "channel" : "stream") + " receive of " + SIZE + " bytes: " + time + "ms, " + (SIZE * 1000 / 1024 / 1024 / Math.max(time, 1)) + "MB/s, " + dataEventCount + " data events");
+	}
+
+	public void testStreamAndChannelReceive() throws Exception {
+		for (int i = 0; i < RUNS; i++) {
+			receive(false);
+			receive(true);
+		}
+	}
+
+}
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -45,6 +47,8 @@ public class URLRetrievePauseResumeTest extends ContainerAbstractTestCase {
 
 	private static final String FILENAME = "foo.zip";
 
+	private static final String CHANNEL_RECEIVE = "org.eclipse.ecf.provider.filetransfer.retrieve.channelReceive";
+
 	private static final int PAUSE_TIME = 10000;
 	private static final double RESUMED_DOWNLOAD_AMOUNT_THRESHOLD = 1.5;
 
@@ -100,6 +104,15 @@ public class URLRetrievePauseResumeTest extends ContainerAbstractTestCase {
 	}
 
 	protected void testReceiveHttp(String url) throws Exception {
+		testReceiveHttp(url, false);
+	}
+
+	/**
+	 * @param channel if <code>true</code>, the transfer is started with
+	 *            receive(File) in channel receive mode, and resumed with
+	 *            receive(OutputStream) appending to the same file.
+	 */
+	protected void testReceiveHttp(String url, final boolean channel) throws Exception {
 		assertNotNull(transferInstance);
 		final AtomicBoolean wasPaused = new AtomicBoolean(false);
 		final AtomicBoolean wasResumed = new AtomicBoolean(false);
@@ -110,6 +123,8 @@ public class URLRetrievePauseResumeTest extends ContainerAbstractTestCase {
 					wasResumed.set(true);
 					try {
 						IIncomingFileTransferReceiveResumedEvent rse = (IIncomingFileTransferReceiveResumedEvent) event;
+						if (channel)
+							outs = new FileOutputStream(incomingFile, true);
 						session = rse.receive(outs);
 					} catch (Exception e) {
 						fail(e.getLocalizedMessage());
@@ -118,8 +133,12 @@ public class URLRetrievePauseResumeTest extends ContainerAbstractTestCase {
 					IIncomingFileTransferReceiveStartEvent rse = (IIncomingFileTransferReceiveStartEvent) event;
 					try {
 						incomingFile = new File(FILENAME);
-						outs = new FileOutputStream(incomingFile);
-						session = rse.receive(outs);
+						if (channel) {
+							session = rse.receive(incomingFile);
+						} else {
+							outs = new FileOutputStream(incomingFile);
+							session = rse.receive(outs);
+						}
 						pausable = session.getAdapter(IFileTransferPausable.class);
 						assertNotNull("pausable is null", pausable);
 					} catch (IOException e) {
@@ -144,7 +163,12 @@ public class URLRetrievePauseResumeTest extends ContainerAbstractTestCase {
 			}
 		};
 
-		transferInstance.sendRetrieveRequest(FileIDFactory.getDefault().createFileID(transferInstance.getRetrieveNamespace(), url), listener, null);
+		Map<String, String> options = null;
+		if (channel) {
+			options = new HashMap<String, String>();
+			options.put(CHANNEL_RECEIVE, "true");
+		}
+		transferInstance.sendRetrieveRequest(FileIDFactory.getDefault().createFileID(transferInstance.getRetrieveNamespace(), url), listener, options);
 
 		// Now if we can do pausing, then pause, wait a while and resume
 		Thread.sleep(500);
@@ -212,4 +236,8 @@ public class URLRetrievePauseResumeTest extends ContainerAbstractTestCase {
 	public void testReceiveFile() throws Exception {
 		testReceiveHttp(HTTP_RETRIEVE);
 	}
+
+	public void testReceiveFileToChannelResumeToStream() throws Exception {
+		testReceiveHttp(HTTP_RETRIEVE, true);
+	}
 }
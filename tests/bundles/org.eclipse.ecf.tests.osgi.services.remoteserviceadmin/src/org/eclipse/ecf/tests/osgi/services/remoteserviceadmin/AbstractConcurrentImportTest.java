@@ -0,0 +1,171 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.osgi.services.remoteserviceadmin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ecf.core.IContainer;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.remoteserviceadmin.EndpointDescription;
+import org.osgi.service.remoteserviceadmin.ExportRegistration;
+import org.osgi.service.remoteserviceadmin.ImportRegistration;
+import org.osgi.service.remoteserviceadmin.RemoteConstants;
+import org.osgi.service.remoteserviceadmin.RemoteServiceAdmin;
+
+/**
+ * Imports the same endpoint from many threads at once. All imports must share
+ * one imported service, and it must go away only when the last import
+ * registration is closed.
+ */
+public abstract class AbstractConcurrentImportTest extends AbstractDistributionTest {
+
+	private static final int IMPORTS = 20;
+
+	private static final long IMPORT_WAIT = 30000;
+
+	private ServiceRegistration registration;
+	private ServiceReference rsaReference;
+	private List<ExportRegistration> exportRegistrations = new ArrayList<ExportRegistration>();
+	private List<ImportRegistration> importRegistrations = new ArrayList<ImportRegistration>();
+
+	protected abstract String getServerContainerTypeName();
+
+	protected void tearDown() throws Exception {
+		for (ImportRegistration importRegistration : importRegistrations)
+			importRegistration.close();
+		importRegistrations.clear();
+		for (ExportRegistration exportRegistration : exportRegistrations)
+			exportRegistration.close();
+		exportRegistrations.clear();
+		if (registration != null) {
+			registration.unregister();
+			registration = null;
+		}
+		if (rsaReference != null) {
+			getContext().ungetService(rsaReference);
+			rsaReference = null;
+		}
+		super.tearDown();
+		IContainer[] containers = getContainerManager().getAllContainers();
+		for (int i = 0; i < containers.length; i++)
+			containers[i].dispose();
+		getContainerManager().removeAllContainers();
+	}
+
+	protected RemoteServiceAdmin getRemoteServiceAdmin() {
+		rsaReference = getContext().getServiceReference(RemoteServiceAdmin.class.getName());
+		assertNotNull(rsaReference);
+		return (RemoteServiceAdmin) getContext().getService(rsaReference);
+	}
+
+	protected EndpointDescription exportDefaultService(RemoteServiceAdmin rsa) throws Exception {
+		// registered without export properties, so the topology manager leaves
+		// it alone
+		registration = registerDefaultService(new Properties());
+		Map<String, Object> exportProperties = new HashMap<String, Object>();
+		exportProperties.put(RemoteConstants.SERVICE_EXPORTED_CONFIGS, getServerContainerTypeName());
+		exportProperties.put(RemoteConstants.SERVICE_EXPORTED_INTERFACES, "*");
+		Collection<ExportRegistration> exported = rsa.exportService(registration.getReference(), exportProperties);
+		exportRegistrations.addAll(exported);
+		assertEquals(1, exported.size());
+		ExportRegistration exportRegistration = exported.iterator().next();
+		assertNull(exportRegistration.getException());
+		return exportRegistration.getExportReference().getExportedEndpoint();
+	}
+
+	protected ServiceReference[] getImportedServiceReferences(EndpointDescription endpoint) throws Exception {
+		return getContext().getServiceReferences((String) null, "(&(" + RemoteConstants.SERVICE_IMPORTED + "=*)("
+				+ RemoteConstants.ENDPOINT_ID + "=" + endpoint.getId() + "))");
+	}
+
+	public void testConcurrentImport() throws Exception {
+		final RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		final EndpointDescription endpoint = exportDefaultService(rsa);
+
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(IMPORTS);
+		try {
+			List<Future<ImportRegistration>> imports = new ArrayList<Future<ImportRegistration>>();
+			for (int i = 0; i < IMPORTS; i++)
+				imports.add(executor.submit(new Callable<ImportRegistration>() {
+					public ImportRegistration call() throws Exception {
+						start.await();
+						return rsa.importService(endpoint);
+					}
+				}));
+			start.countDown();
+			for (Future<ImportRegistration> f : imports) {
+				ImportRegistration importRegistration = f.get(IMPORT_WAIT, TimeUnit.MILLISECONDS);
+				assertNotNull(importRegistration);
+				importRegistrations.add(importRegistration);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// All imports share one imported service
+		ServiceReference importedService = null;
+		for (ImportRegistration importRegistration : importRegistrations) {
+			assertNull(importRegistration.getException());
+			ServiceReference sr = importRegistration.getImportReference().getImportedService();
+			assertNotNull(sr);
+			if (importedService == null)
+				importedService = sr;
+			else
+				assertEquals(importedService, sr);
+		}
+		ServiceReference[] importedServices = getImportedServiceReferences(endpoint);
+		assertNotNull(importedServices);
+		assertEquals(1, importedServices.length);
+
+		// The imported service remains until the last registration is closed
+		for (int i = 0; i < importRegistrations.size() - 1; i++)
+			importRegistrations.get(i).close();
+		assertNotNull(getImportedServiceReferences(endpoint));
+		importRegistrations.get(importRegistrations.size() - 1).close();
+		importRegistrations.clear();
+		assertNull(getImportedServiceReferences(endpoint));
+	}
+
+	public void testImportAfterClose() throws Exception {
+		RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		EndpointDescription endpoint = exportDefaultService(rsa);
+
+		ImportRegistration first = rsa.importService(endpoint);
+		assertNotNull(first);
+		assertNull(first.getException());
+		first.close();
+		assertNull(getImportedServiceReferences(endpoint));
+
+		// A closed endpoint is not reused
+		ImportRegistration second = rsa.importService(endpoint);
+		assertNotNull(second);
+		importRegistrations.add(second);
+		assertNull(second.getException());
+		assertNotNull(second.getImportReference().getImportedService());
+		assertNotNull(getImportedServiceReferences(endpoint));
+	}
+
+}
@@ -0,0 +1,102 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.osgi.services.remoteserviceadmin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.osgi.services.remoteserviceadmin.RemoteServiceAdmin;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.remoteserviceadmin.ExportRegistration;
+import org.osgi.service.remoteserviceadmin.RemoteConstants;
+
+/**
+ * Exports and unexports many services with the bulk export API of the ECF
+ * {@link RemoteServiceAdmin}. The services are registered without export
+ * properties, so the topology manager leaves them alone. The number of
+ * services can be set with the system property
+ * <code>org.eclipse.ecf.tests.osgi.services.remoteserviceadmin.benchmarkServices</code>.
+ */
+public abstract class AbstractExportBenchmark extends AbstractDistributionTest {
+
+	private static final int SERVICES = Integer.getInteger(
+			"org.eclipse.ecf.tests.osgi.services.remoteserviceadmin.benchmarkServices", 10000).intValue();
+
+	private List<ServiceRegistration> registrations = new ArrayList<ServiceRegistration>();
+	private ServiceReference rsaReference;
+
+	protected abstract String getServerContainerTypeName();
+
+	protected void tearDown() throws Exception {
+		for (ServiceRegistration registration : registrations)
+			registration.unregister();
+		registrations.clear();
+		if (rsaReference != null) {
+			getContext().ungetService(rsaReference);
+			rsaReference = null;
+		}
+		super.tearDown();
+		IContainer[] containers = getContainerManager().getAllContainers();
+		for (int i = 0; i < containers.length; i++)
+			containers[i].dispose();
+		getContainerManager().removeAllContainers();
+	}
+
+	protected RemoteServiceAdmin getRemoteServiceAdmin() {
+		rsaReference = getContext().getServiceReference(
+				org.osgi.service.remoteserviceadmin.RemoteServiceAdmin.class.getName());
+		assertNotNull(rsaReference);
+		return (RemoteServiceAdmin) getContext().getService(rsaReference);
+	}
+
+	public void testExportServices() throws Exception {
+		RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		Map<String, Object> exportProperties = new LinkedHashMap<String, Object>();
+		exportProperties.put(RemoteConstants.SERVICE_EXPORTED_CONFIGS, getServerContainerTypeName());
+		exportProperties.put(RemoteConstants.SERVICE_EXPORTED_INTERFACES, "*");
+
+		Map<ServiceReference<?>, Map<String, ?>> exports = new LinkedHashMap<ServiceReference<?>, Map<String, ?>>();
+		for (int i = 0; i < SERVICES; i++) {
+			ServiceRegistration registration = registerDefaultService(new Properties());
+			registrations.add(registration);
+			exports.put(registration.getReference(), exportProperties);
+		}
+
+		long start = System.currentTimeMillis();
+		Map<ServiceReference<?>, Collection<ExportRegistration>> exported = rsa.exportServices(exports);
+		long exportTime = System.currentTimeMillis() - start;
+
+		assertEquals(SERVICES, exported.size());
+		for (Collection<ExportRegistration> exportRegistrations : exported.values()) {
+			assertEquals(1, exportRegistrations.size());
+			assertNull(exportRegistrations.iterator().next().getException());
+		}
+		assertEquals(1, rsa.getExportedRegistrations(registrations.get(0).getReference()).size());
+
+		start = System.currentTimeMillis();
+		List<RemoteServiceAdmin.ExportRegistration> closed = rsa.unexportServices(exports.keySet());
+		long unexportTime = System.currentTimeMillis() - start;
+
+		assertEquals(SERVICES, closed.size());
+		assertEquals(0, rsa.getExportedRegistrations(registrations.get(0).getReference()).size());
+		System.out.println("export of " + SERVICES + " services: " + exportTime + "ms, unexport: " + unexportTime
+				+ "ms");
+	}
+
+}
@@ -0,0 +1,179 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.osgi.services.remoteserviceadmin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.osgi.services.remoteserviceadmin.RemoteServiceAdmin;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.remoteserviceadmin.ExportReference;
+import org.osgi.service.remoteserviceadmin.ExportRegistration;
+import org.osgi.service.remoteserviceadmin.RemoteConstants;
+
+/**
+ * Tests the export registrations that the ECF {@link RemoteServiceAdmin}
+ * keeps by service reference. The services are registered without export
+ * properties, so the topology manager leaves them alone.
+ */
+public abstract class AbstractExportIndexTest extends AbstractDistributionTest {
+
+	private List<ServiceRegistration> registrations = new ArrayList<ServiceRegistration>();
+	private List<ExportRegistration> exportRegistrations = new ArrayList<ExportRegistration>();
+	private ServiceReference rsaReference;
+
+	protected abstract String getServerContainerTypeName();
+
+	protected void tearDown() throws Exception {
+		for (ExportRegistration exportRegistration : exportRegistrations)
+			exportRegistration.close();
+		exportRegistrations.clear();
+		for (ServiceRegistration registration : registrations)
+			registration.unregister();
+		registrations.clear();
+		if (rsaReference != null) {
+			getContext().ungetService(rsaReference);
+			rsaReference = null;
+		}
+		super.tearDown();
+		IContainer[] containers = getContainerManager().getAllContainers();
+		for (int i = 0; i < containers.length; i++)
+			containers[i].dispose();
+		getContainerManager().removeAllContainers();
+	}
+
+	protected RemoteServiceAdmin getRemoteServiceAdmin() {
+		rsaReference = getContext().getServiceReference(
+				org.osgi.service.remoteserviceadmin.RemoteServiceAdmin.class.getName());
+		assertNotNull(rsaReference);
+		return (RemoteServiceAdmin) getContext().getService(rsaReference);
+	}
+
+	protected Map<String, Object> getExportProperties() {
+		Map<String, Object> exportProperties = new HashMap<String, Object>();
+		exportProperties.put(RemoteConstants.SERVICE_EXPORTED_CONFIGS, getServerContainerTypeName());
+		exportProperties.put(RemoteConstants.SERVICE_EXPORTED_INTERFACES, "*");
+		return exportProperties;
+	}
+
+	protected ServiceReference registerService() throws Exception {
+		ServiceRegistration registration = registerDefaultService(new Properties());
+		registrations.add(registration);
+		return registration.getReference();
+	}
+
+	protected ExportRegistration export(RemoteServiceAdmin rsa, ServiceReference serviceReference) {
+		Collection<ExportRegistration> exported = rsa.exportService(serviceReference, getExportProperties());
+		exportRegistrations.addAll(exported);
+		assertEquals(1, exported.size());
+		ExportRegistration exportRegistration = exported.iterator().next();
+		assertNull(exportRegistration.getException());
+		return exportRegistration;
+	}
+
+	public void testReexportReusesEndpoint() throws Exception {
+		RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		ServiceReference serviceReference = registerService();
+
+		ExportRegistration first = export(rsa, serviceReference);
+		ExportRegistration second = export(rsa, serviceReference);
+		assertNotSame(first, second);
+		assertEquals(first.getExportReference().getExportedEndpoint().getId(),
+				second.getExportReference().getExportedEndpoint().getId());
+		assertEquals(2, rsa.getExportedRegistrations(serviceReference).size());
+	}
+
+	public void testCloseLastRegistrationRemovesEntry() throws Exception {
+		RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		ServiceReference serviceReference = registerService();
+
+		ExportRegistration first = export(rsa, serviceReference);
+		ExportRegistration second = export(rsa, serviceReference);
+		String endpointId = first.getExportReference().getExportedEndpoint().getId();
+
+		first.close();
+		assertEquals(1, rsa.getExportedRegistrations(serviceReference).size());
+		second.close();
+		assertEquals(0, rsa.getExportedRegistrations(serviceReference).size());
+
+		// A new export does not reuse the closed endpoint
+		ExportRegistration third = export(rsa, serviceReference);
+		assertFalse(endpointId.equals(third.getExportReference().getExportedEndpoint().getId()));
+		assertEquals(1, rsa.getExportedRegistrations(serviceReference).size());
+	}
+
+	public void testGetExportedRegistrations() throws Exception {
+		RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		ServiceReference exportedReference = registerService();
+		ServiceReference otherReference = registerService();
+
+		assertEquals(0, rsa.getExportedRegistrations(exportedReference).size());
+		ExportRegistration exportRegistration = export(rsa, exportedReference);
+
+		List<RemoteServiceAdmin.ExportRegistration> exported = rsa.getExportedRegistrations(exportedReference);
+		assertEquals(1, exported.size());
+		assertSame(exportRegistration, exported.get(0));
+		assertTrue(exported.get(0).match(exportedReference));
+		assertEquals(0, rsa.getExportedRegistrations(otherReference).size());
+	}
+
+	public void testGetExportedServices() throws Exception {
+		RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		ServiceReference serviceReference = registerService();
+
+		ExportRegistration first = export(rsa, serviceReference);
+		ExportRegistration second = export(rsa, serviceReference);
+		assertEquals(2, countExportReferences(rsa, serviceReference));
+		first.close();
+		assertEquals(1, countExportReferences(rsa, serviceReference));
+		second.close();
+		assertEquals(0, countExportReferences(rsa, serviceReference));
+	}
+
+	private int countExportReferences(RemoteServiceAdmin rsa, ServiceReference serviceReference) {
+		int count = 0;
+		for (ExportReference exportReference : rsa.getExportedServices())
+			if (serviceReference.equals(exportReference.getExportedService()))
+				count++;
+		return count;
+	}
+
+	public void testUnexportServices() throws Exception {
+		RemoteServiceAdmin rsa = getRemoteServiceAdmin();
+		ServiceReference first = registerService();
+		ServiceReference second = registerService();
+		ServiceReference notExported = registerService();
+		export(rsa, first);
+		export(rsa, first);
+		export(rsa, second);
+
+		List<RemoteServiceAdmin.ExportRegistration> closed = rsa
+				.unexportServices(Arrays.asList(new ServiceReference<?>[] { first, second, notExported }));
+		assertEquals(3, closed.size());
+		assertEquals(0, rsa.getExportedRegistrations(first).size());
+		assertEquals(0, rsa.getExportedRegistrations(second).size());
+		for (ExportReference exportReference : rsa.getExportedServices()) {
+			ServiceReference exportedService = exportReference.getExportedService();
+			assertFalse(first.equals(exportedService));
+			assertFalse(second.equals(exportedService));
+		}
+	}
+
+}
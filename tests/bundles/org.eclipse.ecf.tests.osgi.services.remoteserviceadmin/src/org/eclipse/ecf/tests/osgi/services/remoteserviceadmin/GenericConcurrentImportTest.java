@@ -1,33 +1,25 @@
 /****************************************************************************
- * Copyright (c) 2009 Remy Chi Jian Suen and others.
+ * Copyright (c) 2026 Composent, Inc. and others.
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
  * which is available at https://www.eclipse.org/legal/epl-2.0/
  *
  * Contributors:
- *     Remy Chi Jian Suen - initial API and implementation
+ *    Composent, Inc. - initial API and implementation
  *
  * SPDX-License-Identifier: EPL-2.0
  *****************************************************************************/
-package org.eclipse.ecf.provider.datashare.nio;
+package org.eclipse.ecf.tests.osgi.services.remoteserviceadmin;
 
-final class ChannelData {
+public class GenericConcurrentImportTest extends AbstractConcurrentImportTest {
 
-	private final byte[] data;
-	private final boolean open;
-
-	ChannelData(byte[] data, boolean open) {
-		this.data = data;
-		this.open = open;
-	}
-
-	public byte[] getData() {
-		return data;
+	protected String getServerContainerTypeName() {
+		return "ecf.generic.server";
 	}
 
-	public boolean isOpen() {
-		return open;
+	protected String getClientContainerName() {
+		return "ecf.generic.client";
 	}
 
-}
\ No newline at end of file
+}
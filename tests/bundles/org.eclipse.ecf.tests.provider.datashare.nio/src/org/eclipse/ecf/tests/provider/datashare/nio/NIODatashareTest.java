@@ -12,7 +12,15 @@
  *****************************************************************************/
 package org.eclipse.ecf.tests.provider.datashare.nio;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
 
@@ -246,6 +254,57 @@ public class NIODatashareTest extends TestCase {
 		assertEquals(expected, actual[0]);
 	}
 
+	/**
+	 * Test that many messages sent in succession, including ones larger than
+	 * the read buffer, are received whole and in order.
+	 */
+	public void testOneWaySendMany() throws Exception {
+		final int count = 200;
+		final List actual = new ArrayList();
+
+		channelA = createChannel(channelContainerA);
+
+		int targetPort = channelA.getPort();
+
+		channelB = createChannel(channelContainerB, new IChannelListener() {
+			public void handleChannelEvent(IChannelEvent event) {
+				if (event instanceof IChannelMessageEvent) {
+					actual.add(((IChannelMessageEvent) event).getData());
+
+					if (actual.size() == count) {
+						synchronized (waitObject) {
+							waitObject.notify();
+						}
+					}
+				}
+			}
+		});
+
+		byte[][] expected = new byte[count][];
+		for (int i = 0; i < count; i++) {
+			// every tenth message is large
+			expected[i] = new byte[i % 10 == 0 ? 1024 * 1024 + i : i + 1];
+			for (int j = 0; j < expected[i].length; j++) {
+				expected[i][j] = (byte) (i + j);
+			}
+		}
+
+		channelA.sendMessage(containerB.getConnectedID(), expected[0]);
+
+		channelContainerB.enqueue(new InetSocketAddress(LOCALHOST, targetPort));
+
+		for (int i = 1; i < count; i++) {
+			channelA.sendMessage(containerB.getConnectedID(), expected[i]);
+		}
+
+		waitForCompletion(30000);
+
+		assertEquals(count, actual.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(expected[i], (byte[]) actual.get(i));
+		}
+	}
+
 	public void testSendAndReply() throws Exception {
 		final byte[] expected1 = { 1, 2, 3 };
 		final byte[] expected2 = { 4, 5, 6 };
@@ -285,4 +344,41 @@ public class NIODatashareTest extends TestCase {
 		assertEquals(expected1, actual[0]);
 		assertEquals(expected2, actual[1]);
 	}
+
+	/**
+	 * Test that a peer announcing a message larger than the maximum message
+	 * size is disconnected instead of having its buffer allocated.
+	 */
+	public void testOversizedMessageClosesConnection() throws Exception {
+		channelA = createChannel(channelContainerA);
+
+		// the header of a serialized byte[] whose length is patched
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bytes);
+		oos.writeObject(new byte[0]);
+		oos.close();
+		byte[] header = bytes.toByteArray();
+		header[23] = (byte) 0x7f;
+		header[24] = (byte) 0xff;
+		header[25] = (byte) 0xff;
+		header[26] = (byte) 0xff;
+
+		Socket socket = new Socket(LOCALHOST, channelA.getPort());
+		try {
+			socket.setSoTimeout(10000);
+			OutputStream out = socket.getOutputStream();
+			out.write(header);
+			out.flush();
+			InputStream in = socket.getInputStream();
+			try {
+				while (in.read() != -1) {
+					// skip anything the channel sent before closing
+				}
+			} catch (SocketTimeoutException e) {
+				fail("connection was not closed after an oversized message"); //$NON-NLS-1$
+			}
+		} finally {
+			socket.close();
+		}
+	}
 }
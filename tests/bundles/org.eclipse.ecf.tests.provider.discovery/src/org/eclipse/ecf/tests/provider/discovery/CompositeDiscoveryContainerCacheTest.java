@@ -0,0 +1,206 @@
+package org.eclipse.ecf.tests.provider.discovery;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.Namespace;
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.discovery.ServiceInfo;
+import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+import org.eclipse.ecf.discovery.identity.ServiceIDFactory;
+import org.eclipse.ecf.provider.discovery.CompositeDiscoveryContainer;
+import org.eclipse.ecf.tests.discovery.DiscoveryTestHelper;
+
+/**
+ * Tests the service cache of the {@link CompositeDiscoveryContainer}: the
+ * initial query of each child container, the updates by its events and the
+ * removal of a child container, also while its initial query is running.
+ */
+public class CompositeDiscoveryContainerCacheTest extends TestCase {
+
+	private static final long WAIT = 10000;
+
+	private static final String[] OTHER_SERVICES = new String[] {"ecf", "junit", "other"};
+
+	private TestDiscoveryContainer first;
+	private TestDiscoveryContainer second;
+	private CompositeDiscoveryContainer composite;
+	private int port = 5000;
+
+	/**
+	 * Queries the composite in the background while a child holds up its
+	 * initial query.
+	 */
+	private class Query extends Thread {
+		private IServiceInfo[] result;
+
+		public void run() {
+			result = composite.getServices();
+		}
+
+		IServiceInfo[] getResult() throws InterruptedException {
+			join(WAIT);
+			assertFalse("query did not return", isAlive());
+			return result;
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		first = new TestDiscoveryContainer(getName() + ".first");
+		second = new TestDiscoveryContainer(getName() + ".second");
+		composite = new CompositeDiscoveryContainer(new ArrayList(Arrays.asList(new Object[] {first, second})));
+		composite.connect(null, null);
+	}
+
+	protected void tearDown() throws Exception {
+		first.release();
+		second.release();
+		// disconnects and disposes the children
+		composite.dispose();
+		super.tearDown();
+	}
+
+	private IServiceInfo createServiceInfo(Namespace namespace, String[] services) {
+		IServiceTypeID serviceTypeID = ServiceIDFactory.getDefault().createServiceTypeID(namespace, services,
+				DiscoveryTestHelper.PROTOCOLS);
+		URI uri = URI.create(DiscoveryTestHelper.PROTOCOL + "://" + DiscoveryTestHelper.HOSTNAME + ":" + port++
+				+ DiscoveryTestHelper.PATH);
+		return new ServiceInfo(uri, DiscoveryTestHelper.SERVICENAME, serviceTypeID, DiscoveryTestHelper.PRIORITY,
+				DiscoveryTestHelper.WEIGHT, null);
+	}
+
+	private IServiceInfo createServiceInfo(TestDiscoveryContainer container) {
+		return createServiceInfo(container.getServicesNamespace(), DiscoveryTestHelper.SERVICES);
+	}
+
+	private void assertServices(IServiceInfo[] expected, IServiceInfo[] actual) {
+		List actualIDs = new ArrayList();
+		for (int i = 0; i < actual.length; i++)
+			actualIDs.add(actual[i].getServiceID());
+		assertEquals(expected.length, actualIDs.size());
+		for (int i = 0; i < expected.length; i++)
+			assertTrue("missing " + expected[i].getServiceID(), actualIDs.contains(expected[i].getServiceID()));
+	}
+
+	public void testInitialQueryIsCached() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		IServiceInfo b = createServiceInfo(second);
+		first.registerService(a);
+		second.registerService(b);
+
+		assertServices(new IServiceInfo[] {a, b}, composite.getServices());
+		assertServices(new IServiceInfo[] {a, b}, composite.getServices());
+		assertEquals(1, first.getQueryCount());
+		assertEquals(1, second.getQueryCount());
+	}
+
+	public void testEventsUpdateCache() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		IServiceInfo b = createServiceInfo(second);
+		first.registerService(a);
+		assertServices(new IServiceInfo[] {a}, composite.getServices());
+
+		second.discover(b);
+		assertServices(new IServiceInfo[] {a, b}, composite.getServices());
+		first.undiscover(a);
+		assertServices(new IServiceInfo[] {b}, composite.getServices());
+		assertEquals(1, first.getQueryCount());
+		assertEquals(1, second.getQueryCount());
+	}
+
+	public void testGetServicesByType() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		IServiceInfo b = createServiceInfo(second);
+		IServiceInfo other = createServiceInfo(first.getServicesNamespace(), OTHER_SERVICES);
+		first.registerService(a);
+		first.registerService(other);
+		second.registerService(b);
+
+		// a type of the composite namespace is translated for each child
+		IServiceTypeID type = ServiceIDFactory.getDefault().createServiceTypeID(composite.getServicesNamespace(),
+				DiscoveryTestHelper.SERVICES, DiscoveryTestHelper.PROTOCOLS);
+		assertServices(new IServiceInfo[] {a, b}, composite.getServices(type));
+		assertEquals(1, first.getQueryCount());
+		assertEquals(1, second.getQueryCount());
+	}
+
+	public void testGetServicesByTypeBeforeCached() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		IServiceInfo b = createServiceInfo(second);
+		first.registerService(a);
+		second.registerService(b);
+		second.block();
+
+		// the second container is asked directly once its initial query times out
+		IServiceTypeID type = ServiceIDFactory.getDefault().createServiceTypeID(composite.getServicesNamespace(),
+				DiscoveryTestHelper.SERVICES, DiscoveryTestHelper.PROTOCOLS);
+		assertServices(new IServiceInfo[] {a, b}, composite.getServices(type));
+	}
+
+	public void testRemoveContainer() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		IServiceInfo b = createServiceInfo(second);
+		first.registerService(a);
+		second.registerService(b);
+		assertServices(new IServiceInfo[] {a, b}, composite.getServices());
+
+		assertTrue(composite.removeContainer(first));
+		assertServices(new IServiceInfo[] {b}, composite.getServices());
+	}
+
+	public void testRemoveContainerDuringInitialQuery() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		IServiceInfo b = createServiceInfo(second);
+		first.registerService(a);
+		second.registerService(b);
+		first.block();
+
+		Query query = new Query();
+		query.start();
+		assertTrue(first.awaitBlockedQuery(WAIT));
+		assertTrue(composite.removeContainer(first));
+		first.release();
+		query.getResult();
+
+		// the late answer of the removed container is dropped
+		assertServices(new IServiceInfo[] {b}, composite.getServices());
+	}
+
+	public void testUndiscoveredDuringInitialQuery() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		IServiceInfo b = createServiceInfo(first);
+		first.registerService(a);
+		first.registerService(b);
+		first.block();
+
+		Query query = new Query();
+		query.start();
+		assertTrue(first.awaitBlockedQuery(WAIT));
+		// the answer of the query still contains a
+		first.undiscover(a);
+		first.release();
+		query.getResult();
+
+		assertServices(new IServiceInfo[] {b}, composite.getServices());
+	}
+
+	public void testDiscoveredDuringInitialQuery() throws Exception {
+		IServiceInfo a = createServiceInfo(first);
+		first.block();
+
+		Query query = new Query();
+		query.start();
+		assertTrue(first.awaitBlockedQuery(WAIT));
+		// the answer of the query does not contain a
+		first.discover(a);
+		first.release();
+		query.getResult();
+
+		assertServices(new IServiceInfo[] {a}, composite.getServices());
+	}
+}
@@ -0,0 +1,162 @@
+package org.eclipse.ecf.tests.provider.discovery;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.ecf.core.ContainerConnectException;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.security.IConnectContext;
+import org.eclipse.ecf.discovery.AbstractDiscoveryContainerAdapter;
+import org.eclipse.ecf.discovery.DiscoveryContainerConfig;
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.discovery.ServiceContainerEvent;
+import org.eclipse.ecf.discovery.identity.IServiceID;
+import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+import org.eclipse.ecf.provider.jmdns.identity.JMDNSNamespace;
+
+/**
+ * A child container whose services are set by the test and whose
+ * {@link #getServices()} can be held up to race events against the initial
+ * query of the composite.
+ */
+public class TestDiscoveryContainer extends AbstractDiscoveryContainerAdapter {
+
+	private final String name;
+	private final List services = new ArrayList();
+	private ID targetID;
+
+	private boolean blocked;
+	private int queries;
+	private int blockedQueries;
+
+	public TestDiscoveryContainer(String name) {
+		super(JMDNSNamespace.NAME, new DiscoveryContainerConfig(IDFactory.getDefault().createStringID(name)));
+		this.name = name;
+	}
+
+	public String getContainerName() {
+		return name;
+	}
+
+	public void connect(ID aTargetID, IConnectContext connectContext) throws ContainerConnectException {
+		targetID = (aTargetID == null) ? getConfig().getID() : aTargetID;
+	}
+
+	public void disconnect() {
+		targetID = null;
+	}
+
+	public ID getConnectedID() {
+		return targetID;
+	}
+
+	public void registerService(IServiceInfo serviceInfo) {
+		synchronized (services) {
+			services.add(serviceInfo);
+		}
+	}
+
+	public void unregisterService(IServiceInfo serviceInfo) {
+		synchronized (services) {
+			services.remove(serviceInfo);
+		}
+	}
+
+	public IServiceInfo getServiceInfo(IServiceID aServiceID) {
+		synchronized (services) {
+			for (Iterator itr = services.iterator(); itr.hasNext();) {
+				IServiceInfo info = (IServiceInfo) itr.next();
+				if (info.getServiceID().equals(aServiceID))
+					return info;
+			}
+		}
+		return null;
+	}
+
+	public IServiceTypeID[] getServiceTypes() {
+		List types = new ArrayList();
+		synchronized (services) {
+			for (Iterator itr = services.iterator(); itr.hasNext();) {
+				IServiceTypeID type = ((IServiceInfo) itr.next()).getServiceID().getServiceTypeID();
+				if (!types.contains(type))
+					types.add(type);
+			}
+		}
+		return (IServiceTypeID[]) types.toArray(new IServiceTypeID[types.size()]);
+	}
+
+	public IServiceInfo[] getServices() {
+		IServiceInfo[] result;
+		synchronized (services) {
+			// the answer is taken before the query blocks, like a response on the wire
+			result = (IServiceInfo[]) services.toArray(new IServiceInfo[services.size()]);
+		}
+		synchronized (this) {
+			queries++;
+			if (blocked) {
+				blockedQueries++;
+				notifyAll();
+				while (blocked) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	public IServiceInfo[] getServices(IServiceTypeID aServiceTypeID) {
+		List result = new ArrayList();
+		synchronized (services) {
+			for (Iterator itr = services.iterator(); itr.hasNext();) {
+				IServiceInfo info = (IServiceInfo) itr.next();
+				if (info.getServiceID().getServiceTypeID().equals(aServiceTypeID))
+					result.add(info);
+			}
+		}
+		return (IServiceInfo[]) result.toArray(new IServiceInfo[result.size()]);
+	}
+
+	public void discover(IServiceInfo serviceInfo) {
+		registerService(serviceInfo);
+		fireServiceDiscovered(new ServiceContainerEvent(serviceInfo, getID()));
+	}
+
+	public void undiscover(IServiceInfo serviceInfo) {
+		unregisterService(serviceInfo);
+		fireServiceUndiscovered(new ServiceContainerEvent(serviceInfo, getID()));
+	}
+
+	public synchronized int getQueryCount() {
+		return queries;
+	}
+
+	public synchronized void block() {
+		blocked = true;
+	}
+
+	public synchronized void release() {
+		blocked = false;
+		notifyAll();
+	}
+
+	/**
+	 * Waits until a query is held up by {@link #block()}.
+	 */
+	public synchronized boolean awaitBlockedQuery(long timeout) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeout;
+		while (blockedQueries == 0) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0)
+				return false;
+			wait(remaining);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,264 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.jslp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ecf.discovery.IServiceEvent;
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.discovery.IServiceListener;
+import org.eclipse.ecf.discovery.ServiceInfo;
+import org.eclipse.ecf.discovery.ServiceProperties;
+import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+import org.eclipse.ecf.discovery.identity.ServiceIDFactory;
+import org.eclipse.ecf.internal.provider.jslp.JSLPDiscoveryJob;
+import org.eclipse.ecf.internal.provider.jslp.LocatorDecorator;
+import org.eclipse.ecf.provider.jslp.container.JSLPDiscoveryContainer;
+import org.eclipse.ecf.tests.discovery.DiscoveryTestHelper;
+
+import ch.ethz.iks.slp.ServiceLocationEnumeration;
+import ch.ethz.iks.slp.ServiceLocationException;
+import ch.ethz.iks.slp.ServiceType;
+import ch.ethz.iks.slp.ServiceURL;
+
+/**
+ * Tests the interval between the rediscoveries of the {@link JSLPDiscoveryJob}
+ * and that services (un)registered by the container are rediscovered right
+ * away.
+ */
+public class JSLPDiscoveryJobTest extends TestCase {
+
+	// well below the rediscovery interval
+	private static final long WAIT = 10000;
+
+	private final long min = JSLPDiscoveryContainer.REDISCOVER;
+
+	private JSLPDiscoveryContainer container;
+	private TestLocator locator;
+	private JSLPDiscoveryJob job;
+
+	/**
+	 * Answers the rediscoveries with the services set by the test.
+	 */
+	private static class TestLocator implements LocatorDecorator {
+		private final List urls = Collections.synchronizedList(new ArrayList());
+
+		public List getServiceURLs(String namingAuthority, List scopes) throws ServiceLocationException {
+			synchronized (urls) {
+				return new ArrayList(urls);
+			}
+		}
+
+		public Map getServiceURLs(ServiceType aServiceType, List scopes) throws ServiceLocationException {
+			return new HashMap();
+		}
+
+		public Map getServiceURLs() throws ServiceLocationException {
+			return new HashMap();
+		}
+
+		public ServiceLocationEnumeration findAttributes(ServiceURL url, List scopes, List attributeIds) throws ServiceLocationException {
+			return new EmptyEnumeration();
+		}
+
+		public ServiceLocationEnumeration findAttributes(ServiceType type, List scopes, List attributeIds) throws ServiceLocationException {
+			return new EmptyEnumeration();
+		}
+
+		public ServiceLocationEnumeration findServiceTypes(String namingAuthority, List scopes) throws ServiceLocationException {
+			return new EmptyEnumeration();
+		}
+
+		public ServiceLocationEnumeration findServices(ServiceType type, List scopes, String searchFilter) throws ServiceLocationException {
+			return new EmptyEnumeration();
+		}
+
+		public Locale getLocale() {
+			return Locale.getDefault();
+		}
+
+		public void setLocale(Locale locale) {
+			// ignored
+		}
+	}
+
+	private static class EmptyEnumeration implements ServiceLocationEnumeration {
+		private final Enumeration enumeration = Collections.enumeration(Collections.EMPTY_LIST);
+
+		public Object next() throws ServiceLocationException {
+			return enumeration.nextElement();
+		}
+
+		public boolean hasMoreElements() {
+			return enumeration.hasMoreElements();
+		}
+
+		public Object nextElement() {
+			return enumeration.nextElement();
+		}
+	}
+
+	/**
+	 * Records the services that the container reports.
+	 */
+	private static class Listener implements IServiceListener {
+		private final List discovered = new ArrayList();
+		private final List undiscovered = new ArrayList();
+
+		public boolean triggerDiscovery() {
+			return false;
+		}
+
+		public synchronized void serviceDiscovered(IServiceEvent anEvent) {
+			discovered.add(anEvent.getServiceInfo().getServiceID().getName());
+			notifyAll();
+		}
+
+		public synchronized void serviceUndiscovered(IServiceEvent anEvent) {
+			undiscovered.add(anEvent.getServiceInfo().getServiceID().getName());
+			notifyAll();
+		}
+
+		synchronized boolean await(List events, IServiceInfo serviceInfo, long timeout) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + timeout;
+			while (!events.contains(serviceInfo.getServiceID().getName())) {
+				final long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				wait(remaining);
+			}
+			return true;
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		// not connected, so the job does not reschedule itself
+		container = new JSLPDiscoveryContainer();
+		locator = new TestLocator();
+		job = new JSLPDiscoveryJob(container, locator);
+	}
+
+	protected void tearDown() throws Exception {
+		job.cancel();
+		container.dispose();
+		super.tearDown();
+	}
+
+	private long getMax() {
+		final Long max = Long.getLong("net.slp.rediscover.max");
+		return max == null ? min * 8 : Math.max(max.longValue(), min);
+	}
+
+	private long getDoubled() {
+		return Math.min(min * 2, getMax());
+	}
+
+	private long rediscover() throws InterruptedException {
+		job.schedule();
+		job.join();
+		return job.getInterval();
+	}
+
+	private ServiceURL createServiceURL(int port) throws ServiceLocationException {
+		return new ServiceURL("service:ecf.junit.tests:tcp://127.0.0.1:" + port + "/path", ServiceURL.LIFETIME_DEFAULT);
+	}
+
+	public void testBackOffWithoutChanges() throws Exception {
+		locator.urls.add(createServiceURL(1234));
+		// the first rediscovery finds a new service
+		assertEquals(min, rediscover());
+
+		long expected = min;
+		while (expected < getMax()) {
+			expected = Math.min(expected * 2, getMax());
+			assertEquals(expected, rediscover());
+		}
+		// the interval stays at the maximum
+		assertEquals(getMax(), rediscover());
+	}
+
+	public void testDiscoveredServiceResetsInterval() throws Exception {
+		assertEquals(getDoubled(), rediscover());
+
+		locator.urls.add(createServiceURL(1234));
+		assertEquals(min, rediscover());
+		assertEquals(getDoubled(), rediscover());
+	}
+
+	public void testUndiscoveredServiceResetsInterval() throws Exception {
+		final ServiceURL url = createServiceURL(1234);
+		locator.urls.add(url);
+		assertEquals(min, rediscover());
+		assertEquals(getDoubled(), rediscover());
+
+		locator.urls.remove(url);
+		assertEquals(min, rediscover());
+	}
+
+	public void testRediscoverResetsInterval() throws Exception {
+		assertEquals(getDoubled(), rediscover());
+
+		job.rediscover();
+		assertEquals(min, job.getInterval());
+	}
+
+	private IServiceInfo createServiceInfo() {
+		final IServiceTypeID serviceTypeID = ServiceIDFactory.getDefault().createServiceTypeID(container.getServicesNamespace(), DiscoveryTestHelper.SERVICES, IServiceTypeID.DEFAULT_SCOPE, DiscoveryTestHelper.PROTOCOLS, DiscoveryTestHelper.NAMINGAUTHORITY);
+		return new ServiceInfo(DiscoveryTestHelper.createDefaultURI("127.0.0.1"), DiscoveryTestHelper.SERVICENAME, serviceTypeID, 1, 1, new ServiceProperties());
+	}
+
+	/**
+	 * Waits until the discovery jobs have done their first rediscovery, so
+	 * that only a requested rediscovery reports services right away.
+	 */
+	private void awaitSleepingDiscoveryJob() throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + WAIT;
+		while (System.currentTimeMillis() < deadline) {
+			final Job[] jobs = Job.getJobManager().find(null);
+			for (int i = 0; i < jobs.length; i++) {
+				if (jobs[i] instanceof JSLPDiscoveryJob && jobs[i].getState() == Job.SLEEPING) {
+					return;
+				}
+			}
+			Thread.sleep(100);
+		}
+		fail("discovery job did not finish its first rediscovery");
+	}
+
+	public void testRegisterAndUnregisterRediscover() throws Exception {
+		container.connect(null, null);
+		final Listener listener = new Listener();
+		container.addServiceListener(listener);
+		awaitSleepingDiscoveryJob();
+
+		final IServiceInfo serviceInfo = createServiceInfo();
+		container.registerService(serviceInfo);
+		try {
+			assertTrue("registered service was not rediscovered", listener.await(listener.discovered, serviceInfo, WAIT));
+		} finally {
+			container.unregisterService(serviceInfo);
+		}
+		assertTrue("unregistered service was not rediscovered", listener.await(listener.undiscovered, serviceInfo, WAIT));
+	}
+}
@@ -0,0 +1,98 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.zookeeper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.discovery.IServiceProperties;
+import org.eclipse.ecf.discovery.ServiceProperties;
+import org.eclipse.ecf.provider.zookeeper.node.internal.NodePayload;
+
+public class NodePayloadTest extends TestCase {
+
+	private Map<String, Object> nodeProperties;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ServiceProperties properties = new ServiceProperties();
+		properties.setProperty("objectClass", new String[] { "a.B", "c.D" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		properties.setProperty("service.id", new Long(42)); //$NON-NLS-1$
+		properties.setPropertyString("name", "\u00e9t\u00e9"); //$NON-NLS-1$ //$NON-NLS-2$
+		properties.setPropertyBytes("bytes", new byte[] { 1, 2, 3 }); //$NON-NLS-1$
+		List<String> list = new ArrayList<String>();
+		list.add("x"); //$NON-NLS-1$
+		properties.setProperty("list", list); //$NON-NLS-1$
+		nodeProperties = new HashMap<String, Object>();
+		nodeProperties.put("properties", properties); //$NON-NLS-1$
+		nodeProperties.put("location", URI.create("ecftcp://localhost:3282/server")); //$NON-NLS-1$ //$NON-NLS-2$
+		nodeProperties.put("weight", new Integer(3)); //$NON-NLS-1$
+		nodeProperties.put("scopes", new String[] { "default", null }); //$NON-NLS-1$ //$NON-NLS-2$
+		nodeProperties.put("na", null); //$NON-NLS-1$
+	}
+
+	public void testRoundTrip() throws Exception {
+		assertDecoded(NodePayload.decode(NodePayload.encode(nodeProperties, false)));
+	}
+
+	public void testLegacyRoundTrip() throws Exception {
+		assertDecoded(NodePayload.decode(NodePayload.encode(nodeProperties, true)));
+	}
+
+	public void testLegacyByDefault() throws Exception {
+		// earlier versions only read the serialized form
+		byte[] data = NodePayload.encode(nodeProperties);
+		assertEquals((byte) 0xAC, data[0]);
+		assertEquals((byte) 0xED, data[1]);
+		assertDecoded(NodePayload.decode(data));
+	}
+
+	public void testSmallerThanSerialized() throws Exception {
+		assertTrue(NodePayload.encode(nodeProperties, false).length < serialize(nodeProperties).length);
+	}
+
+	public void testDecodeSerialized() throws Exception {
+		assertDecoded(NodePayload.decode(serialize(nodeProperties)));
+	}
+
+	private void assertDecoded(Map<String, Object> decoded) {
+		assertEquals(nodeProperties.keySet(), decoded.keySet());
+		assertEquals(nodeProperties.get("location"), decoded.get("location")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(nodeProperties.get("weight"), decoded.get("weight")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(Arrays.equals((String[]) nodeProperties.get("scopes"), (String[]) decoded.get("scopes"))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(decoded.get("na")); //$NON-NLS-1$
+		IServiceProperties properties = (IServiceProperties) decoded.get("properties"); //$NON-NLS-1$
+		assertEquals(5, properties.size());
+		assertTrue(Arrays.equals(new String[] { "a.B", "c.D" }, (String[]) properties.getProperty("objectClass"))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(new Long(42), properties.getProperty("service.id")); //$NON-NLS-1$
+		assertEquals("\u00e9t\u00e9", properties.getPropertyString("name")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, properties.getPropertyBytes("bytes"))); //$NON-NLS-1$
+		assertEquals(Arrays.asList(new String[] { "x" }), properties.getProperty("list")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static byte[] serialize(Object o) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(o);
+		out.close();
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,178 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.zookeeper;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.Namespace;
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.discovery.ServiceInfo;
+import org.eclipse.ecf.discovery.identity.IServiceTypeID;
+import org.eclipse.ecf.discovery.identity.ServiceID;
+import org.eclipse.ecf.discovery.identity.ServiceTypeID;
+import org.eclipse.ecf.provider.zookeeper.core.ZooDiscoveryNamespace;
+import org.eclipse.ecf.provider.zookeeper.node.internal.ServiceCache;
+import org.eclipse.ecf.tests.discovery.DiscoveryTestHelper;
+
+public class ServiceCacheTest extends TestCase {
+
+	private static final String OTHER_SERVICE_TYPE = "_ecf._junit._other._tcp.someScope._someNamingAuthority"; //$NON-NLS-1$
+
+	private Namespace namespace;
+	private IServiceTypeID type;
+	private IServiceTypeID otherType;
+	private ServiceCache cache;
+
+	/**
+	 * A service whose service ID name is given, so that a service can be
+	 * replaced by one of another type under the same name.
+	 */
+	private static class NamedServiceInfo extends ServiceInfo {
+		private static final long serialVersionUID = 1L;
+
+		NamedServiceInfo(Namespace namespace, IServiceTypeID type, URI uri,
+				final String name) {
+			super(uri, DiscoveryTestHelper.SERVICENAME, type);
+			serviceID = new ServiceID(namespace, type, uri) {
+				private static final long serialVersionUID = 1L;
+
+				protected String namespaceGetName() {
+					return name;
+				}
+			};
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		namespace = new ZooDiscoveryNamespace();
+		type = new ServiceTypeID(namespace, DiscoveryTestHelper.SERVICE_TYPE);
+		otherType = new ServiceTypeID(namespace, OTHER_SERVICE_TYPE);
+		cache = new ServiceCache();
+	}
+
+	private IServiceInfo createServiceInfo(IServiceTypeID typeID, int port) {
+		return new ServiceInfo(URI.create("ecftcp://localhost:" + port + "/server"), //$NON-NLS-1$ //$NON-NLS-2$
+				DiscoveryTestHelper.SERVICENAME, typeID);
+	}
+
+	private IServiceInfo createServiceInfo(IServiceTypeID typeID, String name) {
+		return new NamedServiceInfo(namespace, typeID, URI.create("ecftcp://localhost:3282/server"), name); //$NON-NLS-1$
+	}
+
+	private void assertServices(IServiceInfo[] expected, IServiceInfo[] actual) {
+		List<IServiceInfo> actualList = Arrays.asList(actual);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertTrue("missing " + expected[i].getServiceID(), actualList.contains(expected[i])); //$NON-NLS-1$
+		}
+	}
+
+	public void testPut() throws Exception {
+		IServiceInfo a = createServiceInfo(type, 1);
+		IServiceInfo b = createServiceInfo(type, 2);
+		IServiceInfo c = createServiceInfo(otherType, 3);
+		cache.put(a);
+		cache.put(b);
+		cache.put(c);
+
+		assertSame(a, cache.get(a.getServiceID().getName()));
+		assertSame(c, cache.get(c.getServiceID().getName()));
+		assertServices(new IServiceInfo[] { a, b, c }, cache.getServices());
+		assertEquals(3, cache.asMap().size());
+	}
+
+	public void testGetServicesByType() throws Exception {
+		IServiceInfo a = createServiceInfo(type, 1);
+		IServiceInfo b = createServiceInfo(type, 2);
+		IServiceInfo c = createServiceInfo(otherType, 3);
+		cache.put(a);
+		cache.put(b);
+		cache.put(c);
+
+		assertServices(new IServiceInfo[] { a, b }, cache.getServices(type));
+		assertServices(new IServiceInfo[] { c }, cache.getServices(otherType));
+		// an equal type ID of another instance finds the same services
+		assertServices(new IServiceInfo[] { a, b },
+				cache.getServices(new ServiceTypeID(namespace, DiscoveryTestHelper.SERVICE_TYPE)));
+		assertEquals(2, cache.getServiceTypes().length);
+	}
+
+	public void testGetServicesByUnknownType() throws Exception {
+		cache.put(createServiceInfo(type, 1));
+		assertEquals(0, cache.getServices(otherType).length);
+	}
+
+	public void testRemove() throws Exception {
+		IServiceInfo a = createServiceInfo(type, 1);
+		IServiceInfo b = createServiceInfo(type, 2);
+		IServiceInfo c = createServiceInfo(otherType, 3);
+		cache.put(a);
+		cache.put(b);
+		cache.put(c);
+
+		assertSame(a, cache.remove(a.getServiceID().getName()));
+		assertNull(cache.get(a.getServiceID().getName()));
+		assertServices(new IServiceInfo[] { b }, cache.getServices(type));
+		assertServices(new IServiceInfo[] { b, c }, cache.getServices());
+
+		// removing the last service of a type removes the type
+		assertSame(c, cache.remove(c.getServiceID().getName()));
+		assertEquals(0, cache.getServices(otherType).length);
+		assertEquals(1, cache.getServiceTypes().length);
+		assertNull(cache.remove(c.getServiceID().getName()));
+	}
+
+	public void testClear() throws Exception {
+		cache.put(createServiceInfo(type, 1));
+		cache.put(createServiceInfo(otherType, 2));
+		cache.clear();
+
+		assertEquals(0, cache.getServices().length);
+		assertEquals(0, cache.getServices(type).length);
+		assertEquals(0, cache.getServiceTypes().length);
+	}
+
+	public void testReplaceSameName() throws Exception {
+		IServiceInfo a = createServiceInfo(type, "a"); //$NON-NLS-1$
+		IServiceInfo updated = createServiceInfo(type, "a"); //$NON-NLS-1$
+		cache.put(a);
+		cache.put(updated);
+
+		assertSame(updated, cache.get("a")); //$NON-NLS-1$
+		assertServices(new IServiceInfo[] { updated }, cache.getServices());
+		assertServices(new IServiceInfo[] { updated }, cache.getServices(type));
+	}
+
+	public void testReplaceWithOtherType() throws Exception {
+		IServiceInfo a = createServiceInfo(type, "a"); //$NON-NLS-1$
+		IServiceInfo b = createServiceInfo(type, "b"); //$NON-NLS-1$
+		IServiceInfo moved = createServiceInfo(otherType, "a"); //$NON-NLS-1$
+		cache.put(a);
+		cache.put(b);
+		cache.put(moved);
+
+		// the service is re-keyed from its old type to its new one
+		assertSame(moved, cache.get("a")); //$NON-NLS-1$
+		assertServices(new IServiceInfo[] { b }, cache.getServices(type));
+		assertServices(new IServiceInfo[] { moved }, cache.getServices(otherType));
+
+		assertSame(moved, cache.remove("a")); //$NON-NLS-1$
+		assertEquals(0, cache.getServices(otherType).length);
+		assertEquals(1, cache.getServiceTypes().length);
+	}
+}
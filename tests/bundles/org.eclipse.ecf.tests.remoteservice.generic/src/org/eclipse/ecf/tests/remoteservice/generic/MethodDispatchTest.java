@@ -0,0 +1,162 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic;
+
+import org.eclipse.ecf.core.util.ECFException;
+import org.eclipse.ecf.remoteservice.IRemoteService;
+import org.eclipse.ecf.remoteservice.IRemoteServiceContainerAdapter;
+import org.eclipse.ecf.tests.remoteservice.AbstractRemoteServiceTest;
+
+/**
+ * Tests that remote calls are dispatched to the right method of the service
+ * object, both for methods that are bound by name and number of parameters and
+ * for overloaded methods that are resolved by the types of the arguments.
+ */
+public class MethodDispatchTest extends AbstractRemoteServiceTest {
+
+	private static final int CALLS = 3;
+
+	public interface IDispatchService {
+		String echo(String string);
+
+		String echo(Integer integer);
+
+		String box(int i);
+
+		String box(Integer i);
+
+		String format(String string, String value);
+
+		String format(String string, Integer value);
+
+		long sum(long first, long second);
+
+		String describe(Object object);
+	}
+
+	public static class DispatchService implements IDispatchService {
+		public String echo(String string) {
+			return "String " + string;
+		}
+
+		public String echo(Integer integer) {
+			return "Integer " + integer;
+		}
+
+		public String box(int i) {
+			return "int " + i;
+		}
+
+		public String box(Integer i) {
+			return "Integer " + i;
+		}
+
+		public String format(String string, String value) {
+			return string + " String " + value;
+		}
+
+		public String format(String string, Integer value) {
+			return string + " Integer " + value;
+		}
+
+		public long sum(long first, long second) {
+			return first + second;
+		}
+
+		public String describe(Object object) {
+			return String.valueOf(object);
+		}
+	}
+
+	protected String getClientContainerName() {
+		return Generic.CONSUMER_CONTAINER_TYPE;
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		setClientCount(2);
+		createServerAndClients();
+		setupRemoteServiceAdapters();
+		connectClients();
+	}
+
+	protected void tearDown() throws Exception {
+		cleanUpServerAndClients();
+		super.tearDown();
+	}
+
+	private IRemoteService registerAndGetDispatchService() throws Exception {
+		final IRemoteServiceContainerAdapter[] adapters = getRemoteServiceAdapters();
+		registerService(adapters[0], IDispatchService.class.getName(), new DispatchService(), customizeProperties(null), SLEEPTIME);
+		final IRemoteService service = getRemoteService(adapters[1], getClient(0).getConnectedID(), getIDFilter(), IDispatchService.class.getName(), null, SLEEPTIME);
+		assertNotNull(service);
+		return service;
+	}
+
+	private Object call(IRemoteService service, String method, Object[] params) throws ECFException {
+		return service.callSync(createRemoteCall(method, params));
+	}
+
+	public void testOverloadedMethods() throws Exception {
+		final IRemoteService service = registerAndGetDispatchService();
+		// repeated calls are resolved from the cache, and must not mix up the overloads
+		for (int i = 0; i < CALLS; i++) {
+			assertEquals("String a", call(service, "echo", new Object[] {"a"}));
+			assertEquals("Integer 1", call(service, "echo", new Object[] {new Integer(1)}));
+		}
+	}
+
+	public void testPrimitiveAndBoxedParameters() throws Exception {
+		final IRemoteService service = registerAndGetDispatchService();
+		// the boxed argument matches both, and the exact type is preferred
+		for (int i = 0; i < CALLS; i++)
+			assertEquals("Integer 2", call(service, "box", new Object[] {new Integer(2)}));
+		// a single method with primitive parameters is called with boxed arguments
+		assertEquals(new Long(5), call(service, "sum", new Object[] {new Long(2), new Long(3)}));
+	}
+
+	public void testNullArguments() throws Exception {
+		final IRemoteService service = registerAndGetDispatchService();
+		assertEquals("null", call(service, "describe", new Object[] {null}));
+		// the other arguments select the overload
+		assertEquals("null Integer 3", call(service, "format", new Object[] {null, new Integer(3)}));
+		assertEquals("null String b", call(service, "format", new Object[] {null, "b"}));
+	}
+
+	public void testMissingMethod() throws Exception {
+		final IRemoteService service = registerAndGetDispatchService();
+		try {
+			call(service, "missing", new Object[] {"a"});
+			fail("call of missing method succeeded");
+		} catch (final ECFException e) {
+			// expected
+		}
+		// no overload takes a Long
+		try {
+			call(service, "echo", new Object[] {new Long(1)});
+			fail("call with wrong argument type succeeded");
+		} catch (final ECFException e) {
+			// expected
+		}
+		// the single method of that name and number of parameters, with wrong argument types
+		try {
+			call(service, "sum", new Object[] {"a", "b"});
+			fail("call with wrong argument types succeeded");
+		} catch (final ECFException e) {
+			// expected
+		}
+		// the service is still usable
+		assertEquals("String a", call(service, "echo", new Object[] {"a"}));
+	}
+
+}
@@ -0,0 +1,85 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.tests.remoteservice.generic;
+
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteService;
+import org.eclipse.ecf.tests.remoteservice.AbstractRemoteServiceTest;
+import org.eclipse.ecf.tests.remoteservice.IConcatService;
+
+/**
+ * Compares calls through a remote service proxy with the same calls made
+ * directly with {@link IRemoteService#callSync(IRemoteCall)}, so the
+ * difference is the cost of the proxy dispatch. Run it on its own with
+ * <code>-Dorg.eclipse.ecf.provider.remoteservice.executorType=immediate</code>
+ * so the requests are handled on the receiving thread, and with
+ * <code>-Decf.remoteservice.invocationPlans=false</code> to compare with
+ * uncached invocation plans. The number of calls can be set with the system
+ * property <code>org.eclipse.ecf.tests.remoteservice.generic.benchmarkCalls</code>.
+ */
+public class ProxyDispatchBenchmark extends AbstractRemoteServiceTest {
+
+	private static final int CALLS = Integer.parseInt(System.getProperty(
+			"org.eclipse.ecf.tests.remoteservice.generic.benchmarkCalls", "20000"));
+
+	private static final int RUNS = 3;
+
+	protected String getClientContainerName() {
+		return Generic.CONSUMER_CONTAINER_TYPE;
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		setClientCount(2);
+		createServerAndClients();
+		setupRemoteServiceAdapters();
+		connectClients();
+	}
+
+	protected void tearDown() throws Exception {
+		cleanUpServerAndClients();
+		super.tearDown();
+	}
+
+	protected Object createService() {
+		return new IConcatService() {
+			public String concat(String string1, String string2) {
+				return string1.concat(string2);
+			}
+		};
+	}
+
+	public void testProxyDispatch() throws Exception {
+		final IRemoteService service = registerAndGetRemoteService();
+		assertNotNull(service);
+		final IConcatService proxy = (IConcatService) service.getProxy();
+		final IRemoteCall call = createRemoteConcat("a", "b");
+		for (int run = 0; run < RUNS; run++) {
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < CALLS; i++)
+				service.callSync(call);
+			final long callSyncTime = System.currentTimeMillis() - start;
+
+			start = System.currentTimeMillis();
+			for (int i = 0; i < CALLS; i++)
+				proxy.concat("a", "b");
+			final long proxyTime = System.currentTimeMillis() - start;
+
+			System.out.println(CALLS + " calls: callSync " + callSyncTime + "ms, proxy " + proxyTime + "ms, proxy dispatch "
+					+ ((proxyTime - callSyncTime) * 1000000 / CALLS) + "ns/call");
+		}
+		assertEquals("ab", proxy.concat("a", "b"));
+	}
+
+}
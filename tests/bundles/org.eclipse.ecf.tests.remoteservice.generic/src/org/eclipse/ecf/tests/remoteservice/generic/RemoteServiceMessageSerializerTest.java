@@ -0,0 +1,39 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.generic;
+
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.core.sharedobject.ISharedObjectContainer;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceMessageSerializer;
+
+/**
+ * Runs the remote service tests with a {@link RemoteServiceMessageSerializer}
+ * set on the server and all clients.
+ */
+public class RemoteServiceMessageSerializerTest extends RemoteServiceTest {
+
+	protected void setupRemoteServiceAdapters() throws Exception {
+		setSerializer(getServer());
+		final IContainer[] clients = getClients();
+		for (int i = 0; i < clients.length; i++)
+			setSerializer(clients[i]);
+		super.setupRemoteServiceAdapters();
+	}
+
+	protected void setSerializer(IContainer container) {
+		final ISharedObjectContainer soContainer = (ISharedObjectContainer) container.getAdapter(ISharedObjectContainer.class);
+		assertNotNull(soContainer);
+		soContainer.setSharedObjectMessageSerializer(new RemoteServiceMessageSerializer());
+	}
+
+}
@@ -13,10 +13,20 @@
 
 package org.eclipse.ecf.tests.remoteservice.generic;
 
+import java.util.Dictionary;
+import java.util.Hashtable;
+
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceRegistrationImpl;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceRequestExecutor;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceRequestMetrics;
+import org.eclipse.ecf.remoteservice.IRemoteCallListener;
 import org.eclipse.ecf.remoteservice.IRemoteService;
 import org.eclipse.ecf.remoteservice.IRemoteServiceContainerAdapter;
 import org.eclipse.ecf.remoteservice.IRemoteServiceListener;
 import org.eclipse.ecf.remoteservice.IRemoteServiceReference;
+import org.eclipse.ecf.remoteservice.IRemoteServiceRegistration;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallCompleteEvent;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallEvent;
 import org.eclipse.ecf.remoteservice.events.IRemoteServiceEvent;
 import org.eclipse.ecf.remoteservice.events.IRemoteServiceRegisteredEvent;
 import org.eclipse.ecf.tests.remoteservice.AbstractRemoteServiceTest;
@@ -108,5 +118,111 @@ public class RemoteServiceTest extends AbstractRemoteServiceTest {
 		Thread.sleep(SLEEPTIME);
 	}
 
+	public void testConcurrentCallSynch() throws Exception {
+		final IRemoteService service = registerAndGetRemoteService();
+		if (service == null)
+			return;
+		final int threadCount = 20;
+		final int callCount = 50;
+		final Throwable[] failures = new Throwable[threadCount];
+		final Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						for (int j = 0; j < callCount; j++) {
+							final String first = "thread" + index;
+							final String second = "call" + j;
+							assertEquals(first.concat(second), service.callSync(createRemoteConcat(first, second)));
+						}
+					} catch (Throwable t) {
+						failures[index] = t;
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (int i = 0; i < threadCount; i++)
+			threads[i].join();
+		for (int i = 0; i < threadCount; i++)
+			if (failures[i] != null)
+				fail("thread " + i + " failed: " + failures[i]);
+	}
+
+	public void testCallAsynchListenerResult() throws Exception {
+		final IRemoteService service = registerAndGetRemoteService();
+		if (service == null)
+			return;
+		final IRemoteCallCompleteEvent[] result = new IRemoteCallCompleteEvent[1];
+		service.callAsync(createRemoteConcat("ECF ", "is cool"), new IRemoteCallListener() {
+			public void handleEvent(IRemoteCallEvent event) {
+				if (event instanceof IRemoteCallCompleteEvent)
+					synchronized (result) {
+						result[0] = (IRemoteCallCompleteEvent) event;
+						result.notify();
+					}
+			}
+		});
+		synchronized (result) {
+			if (result[0] == null)
+				result.wait(10000);
+		}
+		assertNotNull(result[0]);
+		assertFalse(result[0].hadException());
+		assertEquals("ECF is cool", result[0].getResponse());
+	}
+
+	public void testRequestLimits() throws Exception {
+		final IRemoteServiceContainerAdapter[] adapters = getRemoteServiceAdapters();
+		final Dictionary props = new Hashtable();
+		props.put(RemoteServiceRequestExecutor.MAX_CONCURRENT_REQUESTS, "1");
+		props.put(RemoteServiceRequestExecutor.MAX_QUEUED_REQUESTS, "0");
+		final IRemoteServiceRegistration registration = registerService(adapters[0], IConcatService.class.getName(), new IConcatService() {
+			public String concat(String string1, String string2) {
+				try {
+					Thread.sleep(1000);
+				} catch (InterruptedException e) {
+					// return early
+				}
+				return string1.concat(string2);
+			}
+		}, props, SLEEPTIME);
+		final IRemoteService service = getRemoteService(adapters[1], getClient(0).getConnectedID(), getIDFilter(), IConcatService.class.getName(), getFilterFromServiceProperties(props), SLEEPTIME);
+		assertNotNull(service);
+		final int threadCount = 3;
+		final Object[] results = new Object[threadCount];
+		final Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						results[index] = service.callSync(createRemoteConcat("ECF ", "is cool"));
+					} catch (Throwable t) {
+						results[index] = t;
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (int i = 0; i < threadCount; i++)
+			threads[i].join();
+		int completed = 0;
+		for (int i = 0; i < threadCount; i++)
+			if ("ECF is cool".equals(results[i]))
+				completed++;
+		// One request is executed, the others arrive while it executes and are rejected
+		assertTrue(completed >= 1);
+		assertTrue(completed < threadCount);
+		final RemoteServiceRequestMetrics metrics = ((RemoteServiceRegistrationImpl) registration).getRequestMetrics();
+		// The response is sent before the request is counted as completed
+		for (int i = 0; i < 50 && metrics.getActiveCount() > 0; i++)
+			Thread.sleep(100);
+		assertEquals(completed, metrics.getCompletedCount());
+		assertEquals(threadCount - completed, metrics.getRejectedCount());
+		assertEquals(0, metrics.getQueuedCount());
+		assertEquals(0, metrics.getActiveCount());
+	}
 
 }
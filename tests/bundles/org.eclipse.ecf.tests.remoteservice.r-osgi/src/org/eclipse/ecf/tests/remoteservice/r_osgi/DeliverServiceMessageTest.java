@@ -0,0 +1,158 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import ch.ethz.iks.r_osgi.messages.DeliverServiceMessage;
+import ch.ethz.iks.r_osgi.messages.RemoteOSGiMessage;
+import ch.ethz.iks.r_osgi.messages.RequestServiceMessage;
+
+/**
+ * Tests the proxy bundle digests of the request service and deliver service
+ * messages in protocol version 2, and the replies to peers that speak version
+ * 1.
+ */
+public class DeliverServiceMessageTest extends TestCase {
+
+	private static final String SERVICE_ID = "42";
+
+	private static final String INJECTION = "test/Service.class";
+
+	private static final byte[] BYTES = new byte[] { (byte) 0xca, (byte) 0xfe, (byte) 0xba, (byte) 0xbe };
+
+	private DeliverServiceMessage createTemplate(byte[] bytes) {
+		DeliverServiceMessage template = new DeliverServiceMessage();
+		template.setServiceID(SERVICE_ID);
+		template.setImports("org.osgi.framework;version=\"1.4.0\"");
+		template.setExports("test");
+		template.setInterfaceNames(new String[] { "test.Service" });
+		Map injections = new HashMap();
+		injections.put(INJECTION, bytes);
+		template.setInjections(injections);
+		return template;
+	}
+
+	private RequestServiceMessage createRequest(short version, String digest) {
+		RequestServiceMessage request = new RequestServiceMessage();
+		request.setXID(7);
+		request.setServiceID(SERVICE_ID);
+		request.setVersion(version);
+		request.setDigest(digest);
+		return request;
+	}
+
+	/**
+	 * Sends the message followed by a second one, so that a body that is not
+	 * read completely fails the parsing of the second message.
+	 */
+	private RemoteOSGiMessage roundTrip(RemoteOSGiMessage msg) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		msg.send(out);
+		RequestServiceMessage next = createRequest(RemoteOSGiMessage.VERSION_1, null);
+		next.send(out);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		RemoteOSGiMessage parsed = RemoteOSGiMessage.parse(in);
+		assertEquals(msg.getVersion(), parsed.getVersion());
+		assertEquals(msg.getXID(), parsed.getXID());
+		RemoteOSGiMessage parsedNext = RemoteOSGiMessage.parse(in);
+		assertEquals(RemoteOSGiMessage.REQUEST_SERVICE, parsedNext.getFuncID());
+		assertEquals(SERVICE_ID, ((RequestServiceMessage) parsedNext).getServiceID());
+		return parsed;
+	}
+
+	public void testRequestCarriesDigest() throws Exception {
+		RequestServiceMessage request = (RequestServiceMessage) roundTrip(
+				createRequest(RemoteOSGiMessage.VERSION_2, "digest"));
+		assertEquals(SERVICE_ID, request.getServiceID());
+		assertEquals("digest", request.getDigest());
+	}
+
+	public void testVersion1RequestHasNoDigest() throws Exception {
+		RequestServiceMessage request = (RequestServiceMessage) roundTrip(
+				createRequest(RemoteOSGiMessage.VERSION_1, "digest"));
+		assertEquals(SERVICE_ID, request.getServiceID());
+		assertNull(request.getDigest());
+	}
+
+	public void testDigestSurvivesRoundTrip() throws Exception {
+		DeliverServiceMessage template = createTemplate(BYTES);
+		DeliverServiceMessage parsed = (DeliverServiceMessage) roundTrip(template);
+		assertEquals(template.getDigest(), parsed.getDigest());
+		assertFalse(parsed.isUnchanged());
+	}
+
+	public void testDigestDependsOnInjections() throws Exception {
+		String digest = createTemplate(BYTES).getDigest();
+		assertEquals(digest, createTemplate((byte[]) BYTES.clone()).getDigest());
+		assertFalse(digest.equals(createTemplate(new byte[] { 0 }).getDigest()));
+	}
+
+	public void testReplyUnchanged() throws Exception {
+		DeliverServiceMessage template = createTemplate(BYTES);
+		DeliverServiceMessage reply = template
+				.createReply(createRequest(RemoteOSGiMessage.VERSION_2, template.getDigest()));
+		assertEquals(RemoteOSGiMessage.VERSION_2, reply.getVersion());
+		assertEquals(7, reply.getXID());
+
+		DeliverServiceMessage parsed = (DeliverServiceMessage) roundTrip(reply);
+		assertTrue(parsed.isUnchanged());
+		assertTrue(parsed.getInjections().isEmpty());
+		assertEquals(SERVICE_ID, parsed.getServiceID());
+		// the template is shared and keeps its injections
+		assertEquals(1, template.getInjections().size());
+	}
+
+	public void testReplyChanged() throws Exception {
+		DeliverServiceMessage template = createTemplate(BYTES);
+		DeliverServiceMessage reply = template.createReply(createRequest(RemoteOSGiMessage.VERSION_2,
+				createTemplate(new byte[] { 0 }).getDigest()));
+
+		DeliverServiceMessage parsed = (DeliverServiceMessage) roundTrip(reply);
+		assertFalse(parsed.isUnchanged());
+		assertTrue(Arrays.equals(BYTES, (byte[]) parsed.getInjections().get(INJECTION)));
+		assertEquals(template.getDigest(), parsed.getDigest());
+	}
+
+	public void testReplyWithoutDigest() throws Exception {
+		DeliverServiceMessage reply = createTemplate(BYTES)
+				.createReply(createRequest(RemoteOSGiMessage.VERSION_2, null));
+
+		DeliverServiceMessage parsed = (DeliverServiceMessage) roundTrip(reply);
+		assertFalse(parsed.isUnchanged());
+		assertEquals(1, parsed.getInjections().size());
+	}
+
+	public void testReplyToVersion1Request() throws Exception {
+		DeliverServiceMessage template = createTemplate(BYTES);
+		// a version 1 peer cannot send a digest, and is never told unchanged
+		DeliverServiceMessage reply = template.createReply(
+				(RequestServiceMessage) roundTrip(createRequest(RemoteOSGiMessage.VERSION_1, template.getDigest())));
+		assertEquals(RemoteOSGiMessage.VERSION_1, reply.getVersion());
+
+		DeliverServiceMessage parsed = (DeliverServiceMessage) roundTrip(reply);
+		assertFalse(parsed.isUnchanged());
+		assertTrue(Arrays.equals(BYTES, (byte[]) parsed.getInjections().get(INJECTION)));
+		assertEquals(template.getDigest(), parsed.getDigest());
+	}
+}
@@ -0,0 +1,196 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+import org.eclipse.ecf.core.ContainerFactory;
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.util.ECFException;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteCallListener;
+import org.eclipse.ecf.remoteservice.IRemoteService;
+import org.eclipse.ecf.remoteservice.IRemoteServiceContainerAdapter;
+import org.eclipse.ecf.remoteservice.IRemoteServiceReference;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallCompleteEvent;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallEvent;
+import org.eclipse.ecf.tests.ContainerAbstractTestCase;
+import org.eclipse.ecf.tests.remoteservice.IConcatService;
+import org.eclipse.equinox.concurrent.future.IFuture;
+import org.eclipse.equinox.concurrent.future.TimeoutException;
+
+/**
+ * Tests that the native r-OSGi callAsync methods honor the call timeout and
+ * report failures as ECFExceptions.
+ */
+public class RemoteServiceAsyncTest extends ContainerAbstractTestCase {
+
+	private static final long CALL_TIMEOUT = 1000;
+
+	private static final long SLOW_CALL_TIME = 10000;
+
+	private static final String SLOW = "slow";
+
+	private static final String FAIL = "fail";
+
+	protected IRemoteService remoteService;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		setClientCount(1);
+		createServerAndClients();
+		final IRemoteServiceContainerAdapter serverAdapter = (IRemoteServiceContainerAdapter) getServer()
+				.getAdapter(IRemoteServiceContainerAdapter.class);
+		serverAdapter.registerRemoteService(new String[] { IConcatService.class.getName() }, new IConcatService() {
+			public String concat(String string1, String string2) {
+				if (SLOW.equals(string1)) {
+					try {
+						Thread.sleep(SLOW_CALL_TIME);
+					} catch (InterruptedException e) {
+						// return early
+					}
+				} else if (FAIL.equals(string1)) {
+					throw new IllegalArgumentException(string2);
+				}
+				return string1.concat(string2);
+			}
+		}, null);
+		final IRemoteServiceContainerAdapter clientAdapter = (IRemoteServiceContainerAdapter) getClient(0)
+				.getAdapter(IRemoteServiceContainerAdapter.class);
+		final IRemoteServiceReference[] refs = clientAdapter.getRemoteServiceReferences(serverID,
+				IConcatService.class.getName(), null);
+		assertNotNull(refs);
+		assertTrue(refs.length > 0);
+		remoteService = clientAdapter.getRemoteService(refs[0]);
+		assertNotNull(remoteService);
+	}
+
+	protected void tearDown() throws Exception {
+		remoteService = null;
+		cleanUpServerAndClients();
+		super.tearDown();
+	}
+
+	protected String getServerIdentity() {
+		return R_OSGi.HOST_CONTAINER_ENDPOINT_ID;
+	}
+
+	protected String getClientIdentity(int index) {
+		return "r-osgi://localhost:" + (9279 + index);
+	}
+
+	protected ID createServerID() throws Exception {
+		return IDFactory.getDefault().createID("ecf.namespace.r_osgi", getServerIdentity());
+	}
+
+	protected IContainer createServer() throws Exception {
+		return ContainerFactory.getDefault().createContainer(R_OSGi.HOST_CONTAINER_TYPE, serverID);
+	}
+
+	protected IContainer createClient(int index) throws Exception {
+		return ContainerFactory.getDefault().createContainer(R_OSGi.CONSUMER_CONTAINER_TYPE,
+				new Object[] { IDFactory.getDefault().createStringID(getClientIdentity(index)) });
+	}
+
+	protected String getClientContainerName() {
+		return R_OSGi.CONSUMER_CONTAINER_TYPE;
+	}
+
+	protected String getServerContainerName() {
+		return R_OSGi.HOST_CONTAINER_TYPE;
+	}
+
+	protected IRemoteCall createRemoteConcat(String first, String second) {
+		return createRemoteConcat(first, second, CALL_TIMEOUT);
+	}
+
+	protected IRemoteCall createRemoteConcat(final String first, final String second, final long timeout) {
+		return new IRemoteCall() {
+			public String getMethod() {
+				return "concat";
+			}
+
+			public Object[] getParameters() {
+				return new Object[] { first, second };
+			}
+
+			public long getTimeout() {
+				return timeout;
+			}
+		};
+	}
+
+	protected IRemoteCallCompleteEvent callAsyncAndWait(IRemoteCall call) throws Exception {
+		final IRemoteCallCompleteEvent[] result = new IRemoteCallCompleteEvent[1];
+		remoteService.callAsync(call, new IRemoteCallListener() {
+			public void handleEvent(IRemoteCallEvent event) {
+				if (event instanceof IRemoteCallCompleteEvent)
+					synchronized (result) {
+						result[0] = (IRemoteCallCompleteEvent) event;
+						result.notify();
+					}
+			}
+		});
+		synchronized (result) {
+			if (result[0] == null)
+				result.wait(SLOW_CALL_TIME);
+		}
+		assertNotNull(result[0]);
+		return result[0];
+	}
+
+	public void testCallAsyncListenerResult() throws Exception {
+		final IRemoteCallCompleteEvent event = callAsyncAndWait(createRemoteConcat("ECF ", "is cool"));
+		assertFalse(event.hadException());
+		assertEquals("ECF is cool", event.getResponse());
+	}
+
+	public void testCallAsyncListenerTimeout() throws Exception {
+		final long start = System.currentTimeMillis();
+		final IRemoteCallCompleteEvent event = callAsyncAndWait(createRemoteConcat(SLOW, "call"));
+		assertTrue(System.currentTimeMillis() - start < SLOW_CALL_TIME / 2);
+		assertTrue(event.hadException());
+		assertTrue(event.getException() instanceof ECFException);
+		assertTrue(event.getException().getCause() instanceof TimeoutException);
+	}
+
+	public void testCallAsyncListenerException() throws Exception {
+		final IRemoteCallCompleteEvent event = callAsyncAndWait(createRemoteConcat(FAIL, "call"));
+		assertTrue(event.hadException());
+		assertTrue(event.getException() instanceof ECFException);
+		assertNotNull(event.getException().getCause());
+	}
+
+	public void testCallAsyncFutureResult() throws Exception {
+		final IFuture future = remoteService.callAsync(createRemoteConcat("ECF ", "is cool"));
+		assertEquals("ECF is cool", future.get());
+		assertTrue(future.getStatus().isOK());
+	}
+
+	public void testCallAsyncFutureTimeout() throws Exception {
+		final long start = System.currentTimeMillis();
+		final IFuture future = remoteService.callAsync(createRemoteConcat(SLOW, "call"));
+		assertNull(future.get());
+		assertTrue(System.currentTimeMillis() - start < SLOW_CALL_TIME / 2);
+		final Throwable exception = future.getStatus().getException();
+		assertTrue(exception instanceof ECFException);
+		assertTrue(exception.getCause() instanceof TimeoutException);
+	}
+
+	public void testCallAsyncFutureException() throws Exception {
+		final IFuture future = remoteService.callAsync(createRemoteConcat(FAIL, "call"));
+		future.get();
+		assertFalse(future.getStatus().isOK());
+		assertTrue(future.getStatus().getException() instanceof ECFException);
+	}
+}
@@ -0,0 +1,110 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.r_osgi;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+
+import org.eclipse.equinox.concurrent.future.IFuture;
+
+/**
+ * Runs the remote call tests over the non-blocking <code>r-osgi.nio</code>
+ * transport, which must be enabled with
+ * <code>-Dch.ethz.iks.r_osgi.registerNIOChannel=true</code>, and tests frames
+ * that are larger than the selector buffers, frames that are coalesced into
+ * one write, and senders that outpace the socket.
+ */
+public class RemoteServiceNIOTest extends RemoteServiceAsyncTest {
+
+	private static final int NIO_PORT = Integer.getInteger("ch.ethz.iks.r_osgi.nio.port", 9378).intValue();
+
+	private static final long TRANSFER_TIMEOUT = 60000;
+
+	// larger than the 64k read and write buffers of the selector threads
+	private static final int LARGE_SIZE = 1024 * 1024;
+
+	// more than the 8m that may be pending for a connection
+	private static final int BACKPRESSURE_CALLS = 16;
+
+	private static final int COALESCED_CALLS = 200;
+
+	protected String getServerIdentity() {
+		return "r-osgi.nio://localhost:" + NIO_PORT;
+	}
+
+	protected String getClientIdentity(int index) {
+		return "r-osgi.nio://localhost:" + (9279 + index);
+	}
+
+	private String createString(int length, char c) {
+		final char[] chars = new char[length];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+
+	public void testLargeFrame() throws Exception {
+		final String first = createString(LARGE_SIZE, 'a');
+		final String second = createString(LARGE_SIZE, 'b');
+		final Object result = remoteService.callSync(createRemoteConcat(first, second, TRANSFER_TIMEOUT));
+		assertEquals(first.concat(second), result);
+	}
+
+	public void testCoalescedFrames() throws Exception {
+		// many small concurrent calls, queued faster than they are written
+		final IFuture[] futures = new IFuture[COALESCED_CALLS];
+		for (int i = 0; i < COALESCED_CALLS; i++)
+			futures[i] = remoteService.callAsync(createRemoteConcat("call", String.valueOf(i), TRANSFER_TIMEOUT));
+		for (int i = 0; i < COALESCED_CALLS; i++) {
+			assertEquals("call" + i, futures[i].get(TRANSFER_TIMEOUT));
+			assertTrue(futures[i].getStatus().isOK());
+		}
+	}
+
+	public void testBackpressure() throws Exception {
+		// the senders have to wait for the write queue to drain
+		final IFuture[] futures = new IFuture[BACKPRESSURE_CALLS];
+		final String first = createString(LARGE_SIZE, 'a');
+		for (int i = 0; i < BACKPRESSURE_CALLS; i++)
+			futures[i] = remoteService.callAsync(createRemoteConcat(first, String.valueOf(i), TRANSFER_TIMEOUT));
+		for (int i = 0; i < BACKPRESSURE_CALLS; i++) {
+			assertEquals(first + i, futures[i].get(TRANSFER_TIMEOUT));
+			assertTrue(futures[i].getStatus().isOK());
+		}
+	}
+
+	public void testOversizedFrameClosesChannel() throws Exception {
+		final Socket socket = new Socket("localhost", NIO_PORT);
+		try {
+			socket.setSoTimeout(10000);
+			final OutputStream out = socket.getOutputStream();
+			// announce a frame of Integer.MAX_VALUE bytes
+			out.write(new byte[] { (byte) 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff });
+			out.flush();
+			final InputStream in = socket.getInputStream();
+			try {
+				while (in.read() != -1) {
+					// skip anything the endpoint sent before closing
+				}
+			} catch (SocketTimeoutException e) {
+				fail("channel was not closed after an oversized frame");
+			}
+		} finally {
+			socket.close();
+		}
+		// other connections are not affected
+		assertEquals("ECF is cool", remoteService.callSync(createRemoteConcat("ECF ", "is cool")));
+	}
+}
@@ -0,0 +1,173 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.NotSerializableException;
+import java.util.Map;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteService;
+import org.eclipse.ecf.remoteservice.IRemoteServiceRegistration;
+import org.eclipse.ecf.remoteservice.client.IRemoteCallable;
+import org.eclipse.ecf.remoteservice.client.IRemoteResponseDeserializer;
+import org.eclipse.ecf.remoteservice.rest.RestCallFactory;
+import org.eclipse.ecf.remoteservice.rest.RestCallableFactory;
+import org.eclipse.ecf.remoteservice.rest.client.RestClientContainer;
+import org.eclipse.ecf.remoteservice.rest.client.XMLRemoteResponseDeserializer;
+import org.eclipse.ecf.remoteservice.rest.identity.RestID;
+import org.eclipse.ecf.tests.remoteservice.rest.service.SimpleRestService;
+import org.eclipse.equinox.concurrent.future.IFuture;
+import org.w3c.dom.Document;
+
+/**
+ * Tests the http client that a {@link RestClientContainer} shares with its
+ * services, the release of the responses to its connection pool, and the
+ * deserialization of responses from a stream.
+ */
+public class RestClientServiceTest extends AbstractRestTestCase {
+
+	private static final String XML_PATH = "test.xml";
+
+	private static final String GET_PATH = "getTest";
+
+	private static final int CALLS = 10;
+
+	// fails the call rather than waiting forever for a connection
+	private static final long CALL_TIMEOUT = 5000;
+
+	private SimpleRestService server;
+	private TestRestClientContainer container;
+
+	/**
+	 * Creates a http client with a single connection, so that a response
+	 * that is not released blocks the next call.
+	 */
+	static class TestRestClientContainer extends RestClientContainer {
+		int httpClientsCreated;
+
+		public TestRestClientContainer(RestID id) {
+			super(id);
+		}
+
+		protected HttpClient createHttpClient() {
+			httpClientsCreated++;
+			return HttpClientBuilder.create().setMaxConnTotal(1).setMaxConnPerRoute(1).build();
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		server = new SimpleRestService();
+		container = new TestRestClientContainer((RestID) createRestID(server.getServerUrl()));
+	}
+
+	protected void tearDown() throws Exception {
+		container.dispose();
+		server.shutdown();
+		super.tearDown();
+	}
+
+	private IRemoteService getRemoteService(String path) {
+		IRemoteCallable callable = RestCallableFactory.createCallable(path);
+		IRemoteServiceRegistration registration = registerCallable(container, callable, null);
+		return getRemoteServiceClientContainerAdapter(container).getRemoteService(registration.getReference());
+	}
+
+	private IRemoteCall createCall(String path) {
+		return RestCallFactory.createRestCall(path, null, null, CALL_TIMEOUT);
+	}
+
+	private void assertXMLResponse(Object response) {
+		assertTrue(response instanceof Document);
+		assertEquals("root", ((Document) response).getDocumentElement().getNodeName());
+	}
+
+	public void testSharedHttpClient() throws Exception {
+		IRemoteService xmlService = getRemoteService(XML_PATH);
+		IRemoteService getService = getRemoteService(GET_PATH);
+		container.setResponseDeserializer(new StringDeserializer());
+		assertEquals("success", getService.callSync(createCall(GET_PATH)));
+		xmlService.callSync(createCall(XML_PATH));
+
+		assertEquals(1, container.httpClientsCreated);
+		assertSame(container.getHttpClient(), container.getHttpClient());
+	}
+
+	public void testStreamedResponsesAreReleased() throws Exception {
+		IRemoteService service = getRemoteService(XML_PATH);
+		// with a single connection, each call needs the previous response released
+		for (int i = 0; i < CALLS; i++)
+			assertXMLResponse(service.callSync(createCall(XML_PATH)));
+	}
+
+	public void testResponsesAreReleased() throws Exception {
+		container.setResponseDeserializer(new StringDeserializer());
+		IRemoteService service = getRemoteService(GET_PATH);
+		for (int i = 0; i < CALLS; i++)
+			assertEquals("success", service.callSync(createCall(GET_PATH)));
+	}
+
+	public void testAsyncCallsShareConnections() throws Exception {
+		IRemoteService service = getRemoteService(XML_PATH);
+		// more calls than connections, they wait for each other
+		IFuture[] futures = new IFuture[CALLS];
+		for (int i = 0; i < CALLS; i++)
+			futures[i] = service.callAsync(createCall(XML_PATH));
+		for (int i = 0; i < CALLS; i++) {
+			assertXMLResponse(futures[i].get());
+			assertTrue(futures[i].getStatus().isOK());
+		}
+	}
+
+	public void testDeserializeResponseStream() throws Exception {
+		XMLRemoteResponseDeserializer deserializer = new XMLRemoteResponseDeserializer();
+		Object response = deserializer.deserializeResponseStream(XML_PATH, null, null, null,
+				new ByteArrayInputStream(SimpleRestService.XML_RESPONSE.getBytes("UTF-8")));
+		assertXMLResponse(response);
+		// the same as from a byte[]
+		assertXMLResponse(deserializer.deserializeResponse(XML_PATH, null, null, null,
+				SimpleRestService.XML_RESPONSE.getBytes("UTF-8")));
+	}
+
+	public void testDeserializeResponseStreamWithoutBody() throws Exception {
+		try {
+			new XMLRemoteResponseDeserializer().deserializeResponseStream(XML_PATH, null, null, null, null);
+			fail("response without body was deserialized");
+		} catch (NotSerializableException e) {
+			// expected
+		}
+	}
+
+	public void testDeserializeMalformedResponseStream() throws Exception {
+		try {
+			new XMLRemoteResponseDeserializer().deserializeResponseStream(XML_PATH, null, null, null,
+					new ByteArrayInputStream(SimpleRestService.JSON_RESPONSE.getBytes("UTF-8")));
+			fail("malformed response was deserialized");
+		} catch (NotSerializableException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Reads the response into a byte[] first.
+	 */
+	static class StringDeserializer implements IRemoteResponseDeserializer {
+		public Object deserializeResponse(String endpoint, IRemoteCall call, IRemoteCallable callable,
+				Map responseHeaders, byte[] responseBody) throws NotSerializableException {
+			return new String(responseBody);
+		}
+	}
+}
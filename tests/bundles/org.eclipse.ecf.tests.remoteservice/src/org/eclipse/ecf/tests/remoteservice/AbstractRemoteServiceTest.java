@@ -448,6 +448,16 @@ public abstract class AbstractRemoteServiceTest extends
 		Thread.sleep(SLEEPTIME);
 	}
 
+	public void testAsyncResultCompleted() throws Exception {
+		final IRemoteService service = registerAndGetRemoteService();
+		if (service == null)
+			return;
+		final IFuture result = service.callAsync(createRemoteConcat(
+				"ECF AsynchResults ", "are cool"));
+		assertEquals("ECF AsynchResults are cool", result.get(SLEEPTIME));
+		assertTrue(result.getStatus().isOK());
+	}
+
 	protected Dictionary customizeProperties(Dictionary props) {
 		return props;
 	}
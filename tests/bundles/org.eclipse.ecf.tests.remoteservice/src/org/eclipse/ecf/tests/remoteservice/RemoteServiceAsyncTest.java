@@ -0,0 +1,276 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.util.ECFException;
+import org.eclipse.ecf.remoteservice.AbstractRemoteService;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteCallListener;
+import org.eclipse.ecf.remoteservice.IRemoteServiceID;
+import org.eclipse.ecf.remoteservice.IRemoteServiceReference;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallCompleteEvent;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallEvent;
+import org.eclipse.equinox.concurrent.future.IFuture;
+
+/**
+ * Tests how AbstractRemoteService completes async calls, for providers with a
+ * native callAsync and for providers that only implement callSync.
+ */
+public class RemoteServiceAsyncTest extends TestCase {
+
+	private static final long WAITTIME = 5000;
+
+	private static final String SLOW = "slow";
+
+	private static final String FAIL = "fail";
+
+	private TestRemoteService nativeService;
+
+	private TestRemoteService syncService;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		nativeService = new TestRemoteService(true);
+		syncService = new TestRemoteService(false);
+	}
+
+	protected void tearDown() throws Exception {
+		nativeService.releaseSlowCalls();
+		syncService.releaseSlowCalls();
+		nativeService.dispose();
+		syncService.dispose();
+		super.tearDown();
+	}
+
+	protected IRemoteCall createRemoteConcat(final String first, final String second) {
+		return new IRemoteCall() {
+			public String getMethod() {
+				return "concat";
+			}
+
+			public Object[] getParameters() {
+				return new Object[] { first, second };
+			}
+
+			public long getTimeout() {
+				return WAITTIME;
+			}
+		};
+	}
+
+	protected IRemoteCallCompleteEvent callAsyncAndWait(TestRemoteService service, IRemoteCall call) throws Exception {
+		final IRemoteCallCompleteEvent[] result = new IRemoteCallCompleteEvent[1];
+		service.callAsync(call, new IRemoteCallListener() {
+			public void handleEvent(IRemoteCallEvent event) {
+				if (event instanceof IRemoteCallCompleteEvent)
+					synchronized (result) {
+						result[0] = (IRemoteCallCompleteEvent) event;
+						result.notify();
+					}
+			}
+		});
+		synchronized (result) {
+			if (result[0] == null)
+				result.wait(WAITTIME);
+		}
+		assertNotNull(result[0]);
+		return result[0];
+	}
+
+	public void testNativeIFutureCompletedByListener() throws Exception {
+		final IFuture future = nativeService.callAsync(createRemoteConcat("ECF ", "is cool"));
+		assertEquals("ECF is cool", future.get(WAITTIME));
+		assertTrue(future.getStatus().isOK());
+		assertEquals(0, nativeService.callSyncCount.get());
+	}
+
+	public void testNativeIFutureException() throws Exception {
+		final IFuture future = nativeService.callAsync(createRemoteConcat(FAIL, "call"));
+		future.get(WAITTIME);
+		assertFalse(future.getStatus().isOK());
+		assertTrue(future.getStatus().getException() instanceof ECFException);
+		assertEquals(0, nativeService.callSyncCount.get());
+	}
+
+	public void testNativeFutureCompletedByListener() throws Exception {
+		final Future future = nativeService.futureAsync(createRemoteConcat("ECF ", "is cool"));
+		assertEquals("ECF is cool", future.get(WAITTIME, TimeUnit.MILLISECONDS));
+		assertEquals(0, nativeService.callSyncCount.get());
+	}
+
+	public void testNativeFutureException() throws Exception {
+		final Future future = nativeService.futureAsync(createRemoteConcat(FAIL, "call"));
+		try {
+			future.get(WAITTIME, TimeUnit.MILLISECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ECFException);
+		}
+	}
+
+	public void testSlowNativeCallsDoNotBlockOtherCalls() throws Exception {
+		// more slow calls than the future executor service has threads
+		final int slowCount = 10;
+		final Future[] slowFutures = new Future[slowCount];
+		for (int i = 0; i < slowCount; i++)
+			slowFutures[i] = nativeService.futureAsync(createRemoteConcat(SLOW, String.valueOf(i)));
+		final Future fast = nativeService.futureAsync(createRemoteConcat("ECF ", "is cool"));
+		assertEquals("ECF is cool", fast.get(WAITTIME, TimeUnit.MILLISECONDS));
+		for (int i = 0; i < slowCount; i++)
+			assertFalse(slowFutures[i].isDone());
+
+		nativeService.releaseSlowCalls();
+		for (int i = 0; i < slowCount; i++)
+			assertEquals(SLOW + i, slowFutures[i].get(WAITTIME, TimeUnit.MILLISECONDS));
+		assertEquals(0, nativeService.callSyncCount.get());
+	}
+
+	public void testCallAsyncListenerShimResult() throws Exception {
+		final IRemoteCallCompleteEvent event = callAsyncAndWait(syncService, createRemoteConcat("ECF ", "is cool"));
+		assertFalse(event.hadException());
+		assertEquals("ECF is cool", event.getResponse());
+		assertEquals(1, syncService.callSyncCount.get());
+	}
+
+	public void testCallAsyncListenerShimException() throws Exception {
+		final IRemoteCallCompleteEvent event = callAsyncAndWait(syncService, createRemoteConcat(FAIL, "call"));
+		assertTrue(event.hadException());
+		assertTrue(event.getException() instanceof ECFException);
+		assertNull(event.getResponse());
+	}
+
+	public void testSyncFutureRunsCallSync() throws Exception {
+		final Future future = syncService.futureAsync(createRemoteConcat("ECF ", "is cool"));
+		assertEquals("ECF is cool", future.get(WAITTIME, TimeUnit.MILLISECONDS));
+		assertEquals(1, syncService.callSyncCount.get());
+	}
+
+	/**
+	 * Remote service that concatenates its two parameters.  With a native
+	 * callAsync, calls are completed from another thread, and slow calls are
+	 * completed only by {@link #releaseSlowCalls()}.
+	 */
+	static class TestRemoteService extends AbstractRemoteService {
+
+		final AtomicInteger callSyncCount = new AtomicInteger();
+
+		private final boolean nativeAsync;
+
+		private final List slowCalls = new ArrayList();
+
+		private boolean slowCallsReleased;
+
+		TestRemoteService(boolean nativeAsync) {
+			this.nativeAsync = nativeAsync;
+		}
+
+		protected String[] getInterfaceClassNames() {
+			return new String[] { IConcatService.class.getName() };
+		}
+
+		protected IRemoteServiceID getRemoteServiceID() {
+			return null;
+		}
+
+		protected IRemoteServiceReference getRemoteServiceReference() {
+			return null;
+		}
+
+		protected boolean isCallAsyncNative() {
+			return nativeAsync;
+		}
+
+		Future futureAsync(IRemoteCall call) {
+			return callFutureAsync(call);
+		}
+
+		Object concat(IRemoteCall call) throws ECFException {
+			final Object[] params = call.getParameters();
+			if (FAIL.equals(params[0]))
+				throw new ECFException("concat failed");
+			return ((String) params[0]).concat((String) params[1]);
+		}
+
+		public Object callSync(IRemoteCall call) throws ECFException {
+			callSyncCount.incrementAndGet();
+			if (SLOW.equals(call.getParameters()[0])) {
+				synchronized (slowCalls) {
+					while (!slowCallsReleased) {
+						try {
+							slowCalls.wait();
+						} catch (InterruptedException e) {
+							throw new ECFException("callSync interrupted", e);
+						}
+					}
+				}
+			}
+			return concat(call);
+		}
+
+		public void callAsync(final IRemoteCall call, final IRemoteCallListener listener) {
+			if (!nativeAsync) {
+				super.callAsync(call, listener);
+				return;
+			}
+			if (SLOW.equals(call.getParameters()[0])) {
+				synchronized (slowCalls) {
+					if (!slowCallsReleased) {
+						slowCalls.add(new Object[] { call, listener });
+						return;
+					}
+				}
+			}
+			// complete on another thread, as a response would be
+			new Thread(new Runnable() {
+				public void run() {
+					complete(call, listener);
+				}
+			}).start();
+		}
+
+		void complete(IRemoteCall call, IRemoteCallListener listener) {
+			try {
+				listener.handleEvent(createRCCESuccess(concat(call)));
+			} catch (ECFException e) {
+				listener.handleEvent(createRCCEFailure(e));
+			}
+		}
+
+		void releaseSlowCalls() {
+			final Object[] calls;
+			synchronized (slowCalls) {
+				slowCallsReleased = true;
+				slowCalls.notifyAll();
+				calls = slowCalls.toArray();
+				slowCalls.clear();
+			}
+			for (int i = 0; i < calls.length; i++) {
+				final Object[] call = (Object[]) calls[i];
+				complete((IRemoteCall) call[0], (IRemoteCallListener) call[1]);
+			}
+		}
+
+		public void fireAsync(IRemoteCall call) throws ECFException {
+			callAsync(call);
+		}
+	}
+}
@@ -0,0 +1,223 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.BaseSharedObject;
+import org.eclipse.ecf.core.sharedobject.util.QueueException;
+import org.eclipse.ecf.core.util.Event;
+import org.eclipse.ecf.provider.generic.SOContainerConfig;
+import org.eclipse.ecf.provider.generic.SOWrapper;
+import org.eclipse.ecf.provider.generic.TCPClientSOContainer;
+
+/**
+ * Tests the delivery of events to shared objects by tasks run with a pool of
+ * threads shared by the shared objects, rather than a thread per shared
+ * object.
+ */
+public class PooledDispatchTest extends TestCase {
+
+	private static final int THREADS = 2;
+
+	private static final int SHARED_OBJECTS = 4;
+
+	// more than are delivered by one task
+	private static final int EVENTS = 500;
+
+	private static final long WAIT = 10000;
+
+	private ExecutorService executor;
+	private TestContainer container;
+	private final List sharedObjects = new ArrayList();
+
+	/**
+	 * Delivers the events of its shared objects with the test's executor.
+	 */
+	class TestContainer extends TCPClientSOContainer {
+		TestContainer(ID id) {
+			super(new SOContainerConfig(id));
+		}
+
+		protected Executor getSharedObjectExecutor(ID sharedObjectID) {
+			return executor;
+		}
+
+		SOWrapper getWrapper(ID id) {
+			return getSharedObjectWrapper(id);
+		}
+	}
+
+	static class SequenceEvent implements Event {
+		final int sequence;
+
+		SequenceEvent(int sequence) {
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * Records the sequence events it is delivered, and whether they were
+	 * delivered one at a time.  Blocks in the delivery of the first sequence
+	 * event until released, when a latch is given.
+	 */
+	static class RecordingSharedObject extends BaseSharedObject {
+		private final List sequences = new ArrayList();
+		private final CountDownLatch release;
+		private final CountDownLatch entered = new CountDownLatch(1);
+		private int delivering;
+		private boolean overlapped;
+
+		RecordingSharedObject(CountDownLatch release) {
+			this.release = release;
+		}
+
+		void send(int sequence) throws QueueException {
+			getContext().getQueue().enqueue(new SequenceEvent(sequence));
+		}
+
+		public void handleEvent(Event event) {
+			if (!(event instanceof SequenceEvent)) {
+				super.handleEvent(event);
+				return;
+			}
+			synchronized (this) {
+				if (delivering++ > 0)
+					overlapped = true;
+			}
+			entered.countDown();
+			if (release != null) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			synchronized (this) {
+				delivering--;
+				sequences.add(new Integer(((SequenceEvent) event).sequence));
+				notifyAll();
+			}
+		}
+
+		boolean awaitEntered() throws InterruptedException {
+			return entered.await(WAIT, TimeUnit.MILLISECONDS);
+		}
+
+		synchronized boolean await(int count) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + WAIT;
+			while (sequences.size() < count) {
+				final long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0)
+					return false;
+				wait(remaining);
+			}
+			return true;
+		}
+
+		synchronized List getSequences() {
+			return new ArrayList(sequences);
+		}
+
+		synchronized boolean isOverlapped() {
+			return overlapped;
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		executor = Executors.newFixedThreadPool(THREADS);
+		container = new TestContainer(IDFactory.getDefault().createGUID());
+	}
+
+	protected void tearDown() throws Exception {
+		container.dispose();
+		executor.shutdownNow();
+		sharedObjects.clear();
+		super.tearDown();
+	}
+
+	private RecordingSharedObject addSharedObject(String name, CountDownLatch release) throws Exception {
+		final RecordingSharedObject sharedObject = new RecordingSharedObject(release);
+		container.getSharedObjectManager().addSharedObject(IDFactory.getDefault().createStringID(name), sharedObject, null);
+		sharedObjects.add(sharedObject);
+		return sharedObject;
+	}
+
+	private void assertInOrder(RecordingSharedObject sharedObject, int count) throws Exception {
+		assertTrue("events were not delivered", sharedObject.await(count));
+		final List sequences = sharedObject.getSequences();
+		assertEquals(count, sequences.size());
+		for (int i = 0; i < count; i++)
+			assertEquals(i, ((Integer) sequences.get(i)).intValue());
+		assertFalse("events were delivered concurrently", sharedObject.isOverlapped());
+	}
+
+	public void testEventsDeliveredInOrder() throws Exception {
+		for (int i = 0; i < SHARED_OBJECTS; i++)
+			addSharedObject("so" + i, null);
+		// more shared objects than threads, with their events interleaved
+		for (int i = 0; i < EVENTS; i++)
+			for (int j = 0; j < SHARED_OBJECTS; j++)
+				((RecordingSharedObject) sharedObjects.get(j)).send(i);
+		for (int j = 0; j < SHARED_OBJECTS; j++)
+			assertInOrder((RecordingSharedObject) sharedObjects.get(j), EVENTS);
+	}
+
+	public void testQueueDepth() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final RecordingSharedObject sharedObject = addSharedObject("so", release);
+		final SOWrapper wrapper = container.getWrapper(sharedObject.getID());
+		assertNotNull(wrapper);
+		try {
+			sharedObject.send(0);
+			assertTrue("event was not delivered", sharedObject.awaitEntered());
+			// the event being delivered is no longer queued
+			assertEquals(0, wrapper.getQueueDepth());
+			for (int i = 1; i <= 5; i++)
+				sharedObject.send(i);
+			assertEquals(5, wrapper.getQueueDepth());
+		} finally {
+			release.countDown();
+		}
+		assertInOrder(sharedObject, 6);
+		assertEquals(0, wrapper.getQueueDepth());
+	}
+
+	public void testBlockedSharedObjectDoesNotBlockOthers() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final RecordingSharedObject blocked = addSharedObject("blocked", release);
+		final RecordingSharedObject other = addSharedObject("other", null);
+		try {
+			blocked.send(0);
+			assertTrue("event was not delivered", blocked.awaitEntered());
+			for (int i = 0; i < EVENTS; i++)
+				other.send(i);
+			assertInOrder(other, EVENTS);
+			assertTrue(blocked.getSequences().isEmpty());
+		} finally {
+			release.countDown();
+		}
+		assertInOrder(blocked, 1);
+	}
+}
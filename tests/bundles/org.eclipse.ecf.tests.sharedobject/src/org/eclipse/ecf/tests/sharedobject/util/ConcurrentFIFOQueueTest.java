@@ -0,0 +1,155 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject.util;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.sharedobject.util.ConcurrentFIFOQueue;
+import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
+
+public class ConcurrentFIFOQueueTest extends TestCase {
+
+	static final int PRODUCERS = 4;
+	static final int MESSAGES = 100000;
+
+	public void testEnqueueDequeue() throws Exception {
+		final ConcurrentFIFOQueue queue = new ConcurrentFIFOQueue();
+		assertTrue(queue.isEmpty());
+		assertTrue(queue.enqueue("one"));
+		assertTrue(queue.enqueue("two"));
+		assertFalse(queue.enqueue(null));
+		assertEquals(2, queue.size());
+		assertEquals("one", queue.peekQueue());
+		assertEquals("one", queue.dequeue());
+		assertEquals("two", queue.removeHead());
+		assertNull(queue.removeHead());
+		assertTrue(queue.isEmpty());
+	}
+
+	public void testMultipleProducers() throws Exception {
+		assertReceivedInOrder(new ConcurrentFIFOQueue());
+	}
+
+	public void testMultipleProducersBounded() throws Exception {
+		assertReceivedInOrder(new ConcurrentFIFOQueue(16, ConcurrentFIFOQueue.OVERFLOW_BLOCK));
+	}
+
+	public void testMultipleProducersSimpleFIFOQueue() throws Exception {
+		assertReceivedInOrder(new SimpleFIFOQueue());
+	}
+
+	/**
+	 * Send {@link #MESSAGES} from each of {@link #PRODUCERS} threads, and check that
+	 * all messages are received in the order they were sent by each producer.
+	 */
+	protected void assertReceivedInOrder(final SimpleFIFOQueue queue) throws Exception {
+		final Thread[] producers = new Thread[PRODUCERS];
+		for (int i = 0; i < PRODUCERS; i++) {
+			final int producer = i;
+			producers[i] = new Thread(new Runnable() {
+				public void run() {
+					for (int j = 0; j < MESSAGES; j++)
+						queue.enqueue(new int[] {producer, j});
+				}
+			});
+		}
+		for (int i = 0; i < PRODUCERS; i++)
+			producers[i].start();
+		final int[] next = new int[PRODUCERS];
+		for (int i = 0; i < PRODUCERS * MESSAGES; i++) {
+			final int[] message = (int[]) queue.dequeue();
+			assertNotNull(message);
+			assertEquals(next[message[0]], message[1]);
+			next[message[0]]++;
+		}
+		for (int i = 0; i < PRODUCERS; i++)
+			producers[i].join();
+		assertTrue(queue.isEmpty());
+	}
+
+	public void testCloseWakesConsumer() throws Exception {
+		final ConcurrentFIFOQueue queue = new ConcurrentFIFOQueue();
+		final Object[] result = new Object[] {"not set"};
+		final Thread consumer = new Thread(new Runnable() {
+			public void run() {
+				result[0] = queue.dequeue();
+			}
+		});
+		consumer.start();
+		Thread.sleep(100);
+		queue.close();
+		consumer.join(5000);
+		assertFalse(consumer.isAlive());
+		assertNull(result[0]);
+		assertFalse(queue.enqueue("foo"));
+	}
+
+	public void testElementsReceivedAfterClose() throws Exception {
+		final ConcurrentFIFOQueue queue = new ConcurrentFIFOQueue();
+		queue.enqueue("foo");
+		queue.close();
+		assertTrue(queue.isStopped());
+		assertEquals("foo", queue.dequeue());
+		assertNull(queue.dequeue());
+	}
+
+	public void testPeekQueueTimeout() throws Exception {
+		final ConcurrentFIFOQueue queue = new ConcurrentFIFOQueue();
+		final long start = System.currentTimeMillis();
+		assertNull(queue.peekQueue(200));
+		assertTrue(System.currentTimeMillis() - start >= 150);
+		queue.enqueue("foo");
+		assertEquals("foo", queue.peekQueue(200));
+	}
+
+	public void testBoundedReject() throws Exception {
+		final ConcurrentFIFOQueue queue = new ConcurrentFIFOQueue(2, ConcurrentFIFOQueue.OVERFLOW_REJECT);
+		assertTrue(queue.enqueue("one"));
+		assertTrue(queue.enqueue("two"));
+		assertFalse(queue.enqueue("three"));
+		assertEquals("one", queue.dequeue());
+		assertTrue(queue.enqueue("three"));
+		assertEquals(2, queue.size());
+	}
+
+	public void testBoundedBlock() throws Exception {
+		final ConcurrentFIFOQueue queue = new ConcurrentFIFOQueue(1, ConcurrentFIFOQueue.OVERFLOW_BLOCK);
+		assertTrue(queue.enqueue("one"));
+		final boolean[] result = new boolean[1];
+		final Thread producer = new Thread(new Runnable() {
+			public void run() {
+				result[0] = queue.enqueue("two");
+			}
+		});
+		producer.start();
+		Thread.sleep(100);
+		assertTrue(producer.isAlive());
+		assertEquals("one", queue.dequeue());
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertTrue(result[0]);
+		assertEquals("two", queue.dequeue());
+	}
+
+	public void testFlush() throws Exception {
+		final ConcurrentFIFOQueue queue = new ConcurrentFIFOQueue();
+		queue.enqueue("one");
+		queue.enqueue("two");
+		final Object[] flushed = queue.flush();
+		assertEquals(2, flushed.length);
+		assertEquals("one", flushed[0]);
+		assertEquals("two", flushed[1]);
+		assertTrue(queue.isStopped());
+		assertTrue(queue.isEmpty());
+	}
+}
@@ -0,0 +1,111 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.sharedobject.util.MessageBatcher;
+
+public class MessageBatcherTest extends TestCase {
+
+	static final int MAX_BATCH_SIZE = 8;
+
+	List sent;
+	int batchCount;
+	List failed;
+
+	MessageBatcher batcher = new MessageBatcher(MAX_BATCH_SIZE) {
+		protected void send(List messages) throws IOException {
+			assertTrue(messages.size() <= MAX_BATCH_SIZE);
+			synchronized (MessageBatcherTest.this) {
+				batchCount++;
+			}
+			if (messages.contains("fail"))
+				throw new IOException("fail");
+			try {
+				// Let other threads add messages while sending
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				// continue
+			}
+			synchronized (sent) {
+				sent.addAll(messages);
+			}
+		}
+
+		protected void sendFailed(List messages, IOException exception) {
+			synchronized (failed) {
+				failed.addAll(messages);
+			}
+		}
+	};
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		sent = new ArrayList();
+		failed = new ArrayList();
+	}
+
+	public void testAddSendsRightAway() throws Exception {
+		batcher.add("foo");
+		assertEquals(1, sent.size());
+		assertEquals("foo", sent.get(0));
+		assertEquals(0, batcher.getPendingCount());
+	}
+
+	public void testSendFailed() throws Exception {
+		batcher.add("fail");
+		assertEquals(0, sent.size());
+		assertEquals(1, failed.size());
+		batcher.add("foo");
+		assertEquals(1, sent.size());
+	}
+
+	public void testConcurrentAdd() throws Exception {
+		final int threadCount = 8;
+		final int messageCount = 200;
+		final Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					for (int j = 0; j < messageCount; j++)
+						batcher.add(index + ":" + j);
+				}
+			});
+			threads[i].start();
+		}
+		for (int i = 0; i < threadCount; i++)
+			threads[i].join();
+		assertEquals(0, batcher.getPendingCount());
+		assertEquals(threadCount * messageCount, sent.size());
+		// Messages added by one thread are sent in order
+		for (int i = 0; i < threadCount; i++) {
+			int next = 0;
+			for (int j = 0; j < sent.size(); j++) {
+				final String message = (String) sent.get(j);
+				if (message.startsWith(i + ":")) {
+					assertEquals(i + ":" + next, message);
+					next++;
+				}
+			}
+			assertEquals(messageCount, next);
+		}
+		// Messages added while sending were combined
+		assertTrue(batchCount < threadCount * messageCount);
+	}
+}
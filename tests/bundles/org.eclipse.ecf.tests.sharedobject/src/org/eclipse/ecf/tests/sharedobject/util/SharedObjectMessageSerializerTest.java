@@ -0,0 +1,143 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
+import org.eclipse.ecf.core.sharedobject.util.ByteArraySharedObjectMessageSerializer;
+import org.eclipse.ecf.core.sharedobject.util.CachingSharedObjectMessageSerializer;
+import org.eclipse.ecf.core.sharedobject.util.ISharedObjectMessageSerializer;
+
+public class SharedObjectMessageSerializerTest extends TestCase {
+
+	ID sharedObjectID;
+	ISharedObjectMessageSerializer serializer;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		sharedObjectID = IDFactory.getDefault().createStringID("foo0");
+		serializer = new CachingSharedObjectMessageSerializer(getClass().getClassLoader());
+	}
+
+	protected void tearDown() throws Exception {
+		serializer = null;
+		sharedObjectID = null;
+		super.tearDown();
+	}
+
+	protected byte[] serialize(Object o) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(o);
+		oos.flush();
+		return bos.toByteArray();
+	}
+
+	protected SharedObjectMsg createMessage() throws Exception {
+		Map map = new HashMap();
+		map.put("key", new Integer(1));
+		map.put("types", new Class[] {int.class, Runnable.class, String.class});
+		return SharedObjectMsg.createMsg("handleMessage", new Object[] {"greetings program", IDFactory.getDefault().createGUID(), new Long(2), map});
+	}
+
+	protected void assertMessageEquals(SharedObjectMsg expected, Object actual) {
+		assertTrue(actual instanceof SharedObjectMsg);
+		SharedObjectMsg msg = (SharedObjectMsg) actual;
+		assertEquals(expected.getMethod(), msg.getMethod());
+		assertEquals(expected.getClassName(), msg.getClassName());
+		Object[] expectedParams = expected.getParameters();
+		Object[] params = msg.getParameters();
+		assertEquals(expectedParams.length, params.length);
+		for (int i = 0; i < expectedParams.length; i++) {
+			if (expectedParams[i] instanceof Map)
+				assertEquals(((Map) expectedParams[i]).keySet(), ((Map) params[i]).keySet());
+			else
+				assertEquals(expectedParams[i], params[i]);
+		}
+	}
+
+	public void testCachingRoundTrip() throws Exception {
+		SharedObjectMsg message = createMessage();
+		byte[] data = serializer.serializeMessage(sharedObjectID, message);
+		assertMessageEquals(message, serializer.deserializeMessage(data));
+	}
+
+	public void testCachingSmallerThanSerialized() throws Exception {
+		SharedObjectMsg message = createMessage();
+		byte[] data = serializer.serializeMessage(sharedObjectID, message);
+		assertTrue(data.length < serialize(message).length);
+	}
+
+	public void testCachingReadsSerialized() throws Exception {
+		SharedObjectMsg message = createMessage();
+		assertMessageEquals(message, serializer.deserializeMessage(serialize(message)));
+	}
+
+	public void testCachingNotSerializable() throws Exception {
+		try {
+			serializer.serializeMessage(sharedObjectID, new Object());
+			fail();
+		} catch (NotSerializableException e) {
+			// expected
+		}
+	}
+
+	public void testCachingAdditionalClassNames() throws Exception {
+		ISharedObjectMessageSerializer extended = new CachingSharedObjectMessageSerializer(getClass().getClassLoader(), new String[] {LinkedHashMap.class.getName()});
+		Map map = new LinkedHashMap();
+		map.put("key", "value");
+		SharedObjectMsg message = SharedObjectMsg.createMsg("handleMessage", new Object[] {map});
+		byte[] data = extended.serializeMessage(sharedObjectID, message);
+		assertMessageEquals(message, extended.deserializeMessage(data));
+		// the class name is sent as an index
+		assertTrue(data.length < serializer.serializeMessage(sharedObjectID, message).length);
+	}
+
+	public void testCachingTooManyClassNames() throws Exception {
+		String[] classNames = new String[Byte.MAX_VALUE + 1];
+		Arrays.fill(classNames, String.class.getName());
+		try {
+			new CachingSharedObjectMessageSerializer(getClass().getClassLoader(), classNames);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testByteArrayPassThrough() throws Exception {
+		ISharedObjectMessageSerializer bytesSerializer = new ByteArraySharedObjectMessageSerializer();
+		byte[] message = "greetings program".getBytes();
+		byte[] data = bytesSerializer.serializeMessage(sharedObjectID, message);
+		assertSame(message, data);
+		assertTrue(Arrays.equals(message, (byte[]) bytesSerializer.deserializeMessage(data)));
+		try {
+			bytesSerializer.serializeMessage(sharedObjectID, "greetings program");
+			fail();
+		} catch (NotSerializableException e) {
+			// expected
+		}
+	}
+
+}
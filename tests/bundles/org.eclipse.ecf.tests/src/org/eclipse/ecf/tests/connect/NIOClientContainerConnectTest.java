@@ -0,0 +1,27 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.tests.connect;
+
+/**
+ * Runs the client connect tests over the selector based (ecfnio) transport.
+ */
+public class NIOClientContainerConnectTest extends ClientContainerConnectTest {
+
+	protected void setUp() throws Exception {
+		genericServerPort = 35000;
+		genericServerIdentity = "ecfnio://localhost:{0}/server";
+		super.setUp();
+	}
+
+}